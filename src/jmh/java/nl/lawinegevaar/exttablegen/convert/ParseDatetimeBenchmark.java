@@ -0,0 +1,128 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen.convert;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark of {@link ParseDatetime}, with the default formatters, and with a pattern with and without locale.
+ * <p>
+ * {@link #convert(ValueCursor)} runs in a single thread, {@link #convertConcurrently(ValueCursor)} runs in as many
+ * threads as there are processors, all using the same converter instance.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ParseDatetimeBenchmark {
+
+    private static final int VALUE_COUNT = 1024;
+    private static final long SEED = 4711;
+    private static final LocalDate MIN_DATE = LocalDate.of(1950, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(2030, 12, 31);
+
+    @Param
+    public DatetimeCase format;
+
+    private ParseDatetime converter;
+    private String[] values;
+
+    @Setup
+    public void setup() {
+        converter = format.converter();
+        DateTimeFormatter formatter = format.formatter();
+        var random = new Random(SEED);
+        values = new String[VALUE_COUNT];
+        for (int idx = 0; idx < VALUE_COUNT; idx++) {
+            values[idx] = formatter.format(dateTime(random));
+        }
+    }
+
+    @Benchmark
+    public TemporalAccessor convert(ValueCursor cursor) {
+        return converter.convert(cursor.next(values));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public TemporalAccessor convertConcurrently(ValueCursor cursor) {
+        return converter.convert(cursor.next(values));
+    }
+
+    /**
+     * Date and time between 1950 and 2030, half of the values with fractional seconds.
+     */
+    private static LocalDateTime dateTime(Random random) {
+        LocalDate date = LocalDate.ofEpochDay(random.nextLong(MIN_DATE.toEpochDay(), MAX_DATE.toEpochDay() + 1));
+        LocalTime time = LocalTime.ofSecondOfDay(random.nextInt(24 * 60 * 60));
+        return LocalDateTime.of(date, random.nextBoolean() ? time : time.withNano(random.nextInt(1000) * 1_000_000));
+    }
+
+    /**
+     * Datetime format under test.
+     */
+    public enum DatetimeCase {
+        DEFAULT_DATE(null, null),
+        DEFAULT_TIME(null, null),
+        DEFAULT_TIMESTAMP(null, null),
+        PATTERN("dd-MM-yyyy HH:mm:ss.SSS", null),
+        // month names are parsed with the locale
+        PATTERN_WITH_LOCALE("d MMMM yyyy HH:mm:ss.SSS", Locale.forLanguageTag("nl-NL")),
+        ;
+
+        private final String pattern;
+        private final Locale locale;
+
+        DatetimeCase(String pattern, Locale locale) {
+            this.pattern = pattern;
+            this.locale = locale;
+        }
+
+        ParseDatetime converter() {
+            return switch (this) {
+                case DEFAULT_DATE -> ParseDatetime.getDefaultDateInstance();
+                case DEFAULT_TIME -> ParseDatetime.getDefaultTimeInstance();
+                case DEFAULT_TIMESTAMP -> ParseDatetime.getDefaultTimestampInstance();
+                case PATTERN, PATTERN_WITH_LOCALE -> Converter.parseDatetime(pattern, locale);
+            };
+        }
+
+        /**
+         * @return formatter to produce the values parsed by {@link #converter()}
+         */
+        DateTimeFormatter formatter() {
+            return switch (this) {
+                case DEFAULT_DATE -> DateTimeFormatter.ISO_LOCAL_DATE;
+                case DEFAULT_TIME -> DateTimeFormatter.ISO_LOCAL_TIME;
+                case DEFAULT_TIMESTAMP -> DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+                case PATTERN -> DateTimeFormatter.ofPattern(pattern);
+                case PATTERN_WITH_LOCALE -> DateTimeFormatter.ofPattern(pattern).localizedBy(locale);
+            };
+        }
+
+    }
+
+}
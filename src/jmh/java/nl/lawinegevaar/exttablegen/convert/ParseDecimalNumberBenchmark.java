@@ -0,0 +1,134 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen.convert;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark of the locale-sensitive number converters {@link ParseBigDecimal}, {@link ParseFloat} and
+ * {@link ParseDoublePrecision}, which parse with a {@link DecimalFormat} per thread.
+ * <p>
+ * {@link #convert(ValueCursor, Blackhole)} runs in a single thread,
+ * {@link #convertConcurrently(ValueCursor, Blackhole)} runs in as many threads as there are processors, all using the
+ * same converter instance (and so each their own {@code DecimalFormat}).
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ParseDecimalNumberBenchmark {
+
+    private static final int VALUE_COUNT = 1024;
+    private static final long SEED = 4711;
+
+    @Param
+    public ConverterCase converterType;
+    @Param({ "en-US", "nl-NL" })
+    public String locale;
+
+    private Converter<?> converter;
+    private String[] values;
+
+    @Setup
+    public void setup() {
+        Locale locale = Locale.forLanguageTag(this.locale);
+        converter = converterType.converter(locale);
+        // values as they would be written in a CSV file: decimal separator of the locale, but no grouping
+        var format = (DecimalFormat) NumberFormat.getInstance(locale);
+        format.setGroupingUsed(false);
+        format.setMaximumFractionDigits(6);
+        var random = new Random(SEED);
+        values = new String[VALUE_COUNT];
+        for (int idx = 0; idx < VALUE_COUNT; idx++) {
+            values[idx] = format.format(value(random));
+        }
+    }
+
+    @Benchmark
+    public void convert(ValueCursor cursor, Blackhole blackhole) {
+        converterType.convert(converter, cursor.next(values), blackhole);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void convertConcurrently(ValueCursor cursor, Blackhole blackhole) {
+        converterType.convert(converter, cursor.next(values), blackhole);
+    }
+
+    /**
+     * Value with up to 7 digits before, and up to 6 digits after the decimal separator (log-uniform, so small values
+     * are as common as large values), 10% negative.
+     */
+    private static double value(Random random) {
+        double value = Math.pow(10, random.nextDouble(-6, 7));
+        return random.nextInt(10) == 0 ? -value : value;
+    }
+
+    /**
+     * Converter under test; the floating point converters are invoked with their primitive method, as used by the
+     * datatypes.
+     */
+    public enum ConverterCase {
+        BIG_DECIMAL {
+            @Override
+            Converter<?> converter(Locale locale) {
+                return Converter.parseBigDecimal(locale);
+            }
+
+            @Override
+            void convert(Converter<?> converter, String value, Blackhole blackhole) {
+                blackhole.consume(converter.convert(value));
+            }
+        },
+        FLOAT {
+            @Override
+            Converter<?> converter(Locale locale) {
+                return Converter.parseFloatingPointNumber("float", locale);
+            }
+
+            @Override
+            void convert(Converter<?> converter, String value, Blackhole blackhole) {
+                blackhole.consume(((FloatConverter) converter).convertToFloat(value));
+            }
+        },
+        DOUBLE_PRECISION {
+            @Override
+            Converter<?> converter(Locale locale) {
+                return Converter.parseFloatingPointNumber("doublePrecision", locale);
+            }
+
+            @Override
+            void convert(Converter<?> converter, String value, Blackhole blackhole) {
+                blackhole.consume(((DoubleConverter) converter).convertToDouble(value));
+            }
+        },
+        ;
+
+        abstract Converter<?> converter(Locale locale);
+
+        abstract void convert(Converter<?> converter, String value, Blackhole blackhole);
+
+    }
+
+}
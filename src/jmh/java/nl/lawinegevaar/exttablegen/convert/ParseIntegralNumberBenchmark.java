@@ -0,0 +1,154 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen.convert;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark of the integral number converters ({@link ParseSmallint}, {@link ParseInteger},
+ * {@link ParseBigint} and {@link ParseInt128}) with radix 10 and 16.
+ * <p>
+ * {@link #convert(ValueCursor, Blackhole)} runs in a single thread,
+ * {@link #convertConcurrently(ValueCursor, Blackhole)} runs in as many threads as there are processors, all using the
+ * same converter instance.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ParseIntegralNumberBenchmark {
+
+    private static final int VALUE_COUNT = 1024;
+    private static final long SEED = 4711;
+
+    @Param
+    public ConverterCase converterType;
+    @Param({ "10", "16" })
+    public int radix;
+
+    private Converter<?> converter;
+    private String[] values;
+
+    @Setup
+    public void setup() {
+        converter = converterType.converter(radix);
+        var random = new Random(SEED);
+        values = new String[VALUE_COUNT];
+        for (int idx = 0; idx < VALUE_COUNT; idx++) {
+            values[idx] = converterType.value(random).toString(radix);
+        }
+    }
+
+    @Benchmark
+    public void convert(ValueCursor cursor, Blackhole blackhole) {
+        converterType.convert(converter, cursor.next(values), blackhole);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void convertConcurrently(ValueCursor cursor, Blackhole blackhole) {
+        converterType.convert(converter, cursor.next(values), blackhole);
+    }
+
+    /**
+     * Converter under test, with a generator of values with a realistic distribution; the converters are invoked with
+     * their primitive method (if any), as used by the datatypes.
+     */
+    public enum ConverterCase {
+        SMALLINT {
+            @Override
+            Converter<?> converter(int radix) {
+                return ParseSmallint.ofRadix(radix);
+            }
+
+            @Override
+            BigInteger value(Random random) {
+                return BigInteger.valueOf(
+                        Math.clamp(Math.round(random.nextGaussian() * 1000), Short.MIN_VALUE, Short.MAX_VALUE));
+            }
+
+            @Override
+            void convert(Converter<?> converter, String value, Blackhole blackhole) {
+                blackhole.consume(((ShortConverter) converter).convertToShort(value));
+            }
+        },
+        INTEGER {
+            @Override
+            Converter<?> converter(int radix) {
+                return ParseInteger.ofRadix(radix);
+            }
+
+            @Override
+            BigInteger value(Random random) {
+                return BigInteger.valueOf(random.nextInt(10) == 0 ? random.nextInt() : random.nextInt(100_000));
+            }
+
+            @Override
+            void convert(Converter<?> converter, String value, Blackhole blackhole) {
+                blackhole.consume(((IntConverter) converter).convertToInt(value));
+            }
+        },
+        BIGINT {
+            @Override
+            Converter<?> converter(int radix) {
+                return ParseBigint.ofRadix(radix);
+            }
+
+            @Override
+            BigInteger value(Random random) {
+                return BigInteger.valueOf(
+                        random.nextInt(10) == 0 ? random.nextLong() : random.nextLong(1_000_000_000L));
+            }
+
+            @Override
+            void convert(Converter<?> converter, String value, Blackhole blackhole) {
+                blackhole.consume(((LongConverter) converter).convertToLong(value));
+            }
+        },
+        INT128 {
+            @Override
+            Converter<?> converter(int radix) {
+                return ParseInt128.ofRadix(radix);
+            }
+
+            @Override
+            BigInteger value(Random random) {
+                var value = new BigInteger(1 + random.nextInt(126), random);
+                return random.nextBoolean() ? value : value.negate();
+            }
+
+            @Override
+            void convert(Converter<?> converter, String value, Blackhole blackhole) {
+                blackhole.consume(converter.convert(value));
+            }
+        },
+        ;
+
+        abstract Converter<?> converter(int radix);
+
+        abstract BigInteger value(Random random);
+
+        abstract void convert(Converter<?> converter, String value, Blackhole blackhole);
+
+    }
+
+}
@@ -0,0 +1,28 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen.convert;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-thread position in the values of a converter benchmark, so threads of a multithreaded benchmark can share the
+ * converter and its values, without sharing a (contended) position.
+ */
+@State(Scope.Thread)
+public class ValueCursor {
+
+    private int index;
+
+    /**
+     * Returns the next value, wrapping around to the first value after the last value.
+     *
+     * @param values
+     *         values (the length must be a power of 2)
+     * @return next value
+     */
+    String next(String[] values) {
+        return values[index++ & (values.length - 1)];
+    }
+
+}
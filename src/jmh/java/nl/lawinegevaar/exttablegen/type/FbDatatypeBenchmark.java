@@ -0,0 +1,183 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen.type;
+
+import nl.lawinegevaar.exttablegen.ByteOrderType;
+import nl.lawinegevaar.exttablegen.EncoderOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Micro-benchmark of encoding a value of each {@link FbDatatype} implementation, for both byte orders.
+ * <p>
+ * {@link #writeValue()} converts and writes values from a fixed set of values with a realistic distribution for the
+ * datatype (e.g. mostly small identifiers for {@code INTEGER}, strings of varying length with some non-ASCII
+ * characters for {@code CHAR}); {@link #writeEmpty()} writes the empty value of the datatype. Values are written to a
+ * stream which discards the bytes, so only the conversion and encoding is measured.
+ * </p>
+ * <p>
+ * Run with {@code ./gradlew jmh -Pjmh.includes=FbDatatypeBenchmark}, see {@code devdoc/build-documentation.adoc}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class FbDatatypeBenchmark {
+
+    // power of 2, so the next value can be selected with a mask
+    private static final int VALUE_COUNT = 1024;
+    private static final long SEED = 4711;
+
+    @Param
+    public DatatypeCase datatype;
+    @Param({ "BIG_ENDIAN", "LITTLE_ENDIAN" })
+    public ByteOrderType byteOrder;
+
+    private FbDatatype<?> fbDatatype;
+    private String[] values;
+    private EncoderOutputStream out;
+    private int index;
+
+    @Setup
+    public void setup() {
+        fbDatatype = datatype.datatype();
+        values = datatype.values(new Random(SEED), VALUE_COUNT);
+        out = EncoderOutputStream.of(byteOrder).withColumnCount(1).writeTo(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void writeValue() throws IOException {
+        out.startRow();
+        fbDatatype.writeValue(values[index++ & (VALUE_COUNT - 1)], out);
+    }
+
+    @Benchmark
+    public void writeEmpty() throws IOException {
+        out.startRow();
+        fbDatatype.writeEmpty(out);
+    }
+
+    /**
+     * Datatype under test, with a generator of values with a realistic distribution.
+     */
+    public enum DatatypeCase {
+        CHAR(() -> new FbChar(20, FbEncoding.UTF8), random -> name(random, 20)),
+        VARCHAR(() -> new FbVarchar(100, FbEncoding.UTF8), random -> name(random, 100)),
+        SMALLINT(FbSmallint::new, random -> String.valueOf(
+                (short) Math.clamp(Math.round(random.nextGaussian() * 1000), Short.MIN_VALUE, Short.MAX_VALUE))),
+        INTEGER(FbInteger::new, random -> String.valueOf(
+                random.nextInt(10) == 0 ? random.nextInt() : random.nextInt(100_000))),
+        BIGINT(FbBigint::new, random -> String.valueOf(
+                random.nextInt(10) == 0 ? random.nextLong() : random.nextLong(1_000_000_000L))),
+        INT128(FbInt128::new, random -> new BigInteger(1 + random.nextInt(126), random)
+                .multiply(random.nextBoolean() ? BigInteger.ONE : BigInteger.ONE.negate()).toString()),
+        DATE(FbDate::new, random -> date(random).toString()),
+        TIME(FbTime::new, random -> time(random).toString()),
+        TIMESTAMP(FbTimestamp::new, random -> LocalDateTime.of(date(random), time(random)).toString()),
+        NUMERIC(() -> new FbNumeric(18, 2, null), random -> amount(random, 2, 7)),
+        // values with more decimals than the scale are rounded
+        DECIMAL(() -> new FbDecimal(9, 4, null), random -> amount(random, random.nextInt(3, 7), 5)),
+        FLOAT(FbFloat::new, random -> String.valueOf((float) (random.nextGaussian() * 1000))),
+        DOUBLE_PRECISION(FbDoublePrecision::new, random -> String.valueOf(random.nextGaussian() * 1_000_000)),
+        DECFLOAT16(() -> new FbDecfloat16(null), random -> decimal(random, 16)),
+        DECFLOAT34(() -> new FbDecfloat34(null), random -> decimal(random, 34)),
+        ;
+
+        private static final String ASCII_CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ";
+        private static final String NON_ASCII_CHARS = "éüßøçñ€漢字";
+        private static final LocalDate MIN_DATE = LocalDate.of(1950, 1, 1);
+        private static final LocalDate MAX_DATE = LocalDate.of(2030, 12, 31);
+
+        private final Supplier<FbDatatype<?>> datatypeFactory;
+        private final Function<Random, String> valueGenerator;
+
+        DatatypeCase(Supplier<FbDatatype<?>> datatypeFactory, Function<Random, String> valueGenerator) {
+            this.datatypeFactory = datatypeFactory;
+            this.valueGenerator = valueGenerator;
+        }
+
+        FbDatatype<?> datatype() {
+            return datatypeFactory.get();
+        }
+
+        String[] values(Random random, int count) {
+            var values = new String[count];
+            for (int idx = 0; idx < count; idx++) {
+                values[idx] = valueGenerator.apply(random);
+            }
+            return values;
+        }
+
+        /**
+         * Name-like string, mostly shorter than {@code maxLength}, and for 10% of values longer (which is truncated);
+         * 20% of the values contain non-ASCII characters.
+         */
+        private static String name(Random random, int maxLength) {
+            int length = random.nextInt(10) == 0
+                    ? random.nextInt(maxLength, maxLength * 2)
+                    : random.nextInt(1, Math.max(2, maxLength / 2));
+            boolean withNonAscii = random.nextInt(5) == 0;
+            var sb = new StringBuilder(length);
+            for (int idx = 0; idx < length; idx++) {
+                String chars = withNonAscii && random.nextInt(4) == 0 ? NON_ASCII_CHARS : ASCII_CHARS;
+                sb.append(chars.charAt(random.nextInt(chars.length())));
+            }
+            return sb.toString();
+        }
+
+        private static LocalDate date(Random random) {
+            return LocalDate.ofEpochDay(random.nextLong(MIN_DATE.toEpochDay(), MAX_DATE.toEpochDay() + 1));
+        }
+
+        /**
+         * Time of day, half of the values with fractional seconds.
+         */
+        private static LocalTime time(Random random) {
+            LocalTime time = LocalTime.ofSecondOfDay(random.nextInt(24 * 60 * 60));
+            return random.nextBoolean() ? time : time.withNano(random.nextInt(1_000_000) * 1000);
+        }
+
+        /**
+         * Amount with {@code scale} decimals, and up to {@code integerDigits} digits before the decimal point
+         * (log-uniform, so small amounts are as common as large amounts).
+         */
+        private static String amount(Random random, int scale, int integerDigits) {
+            long unscaled = (long) Math.pow(10, random.nextDouble(scale + integerDigits));
+            return BigDecimal.valueOf(random.nextInt(10) == 0 ? -unscaled : unscaled, scale).toPlainString();
+        }
+
+        /**
+         * Decimal value with up to {@code maxDigits} significant digits, and an exponent of the same magnitude.
+         */
+        private static String decimal(Random random, int maxDigits) {
+            var unscaled = new BigInteger(1 + random.nextInt(maxDigits * 3), random);
+            return new BigDecimal(unscaled, random.nextInt(-maxDigits, maxDigits)).toString();
+        }
+
+    }
+
+}
@@ -6,6 +6,8 @@ module nl.lawinegevaar.exttablegen {
     requires org.apache.commons.lang3;
     requires jakarta.xml.bind;
     requires java.logging;
+    // SO_PEERCRED, to only accept jobs of the user running the job server
+    requires jdk.net;
     requires org.jspecify;
     requires org.firebirdsql.decimal;
     opens nl.lawinegevaar.exttablegen to info.picocli;
@@ -0,0 +1,120 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Properties;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Source offset of the last append to an external table file.
+ * <p>
+ * The offset is stored next to the external table file, in a file with the name of the table file suffixed with
+ * {@code .offset}. It records the last CSV file (part) read and the number of lines read from it, and the number of
+ * rows of the table file after the append. The latter is used to detect if the table file was modified after the last
+ * append.
+ * </p>
+ * <p>
+ * The lines read are physical lines, as reported by {@code CSVReader.getLinesRead()} at the end of the CSV file
+ * (including the header row, and rows which were rejected), so the next append can skip them without parsing them
+ * (see {@link CsvFileSet#resumeAt(int, long)}), same as {@link Checkpoint}.
+ * </p>
+ *
+ * @param part
+ *         index of the last CSV file (part) read in the CSV file set
+ * @param partName
+ *         name of the last CSV file (part) read, to detect changes in the CSV file set
+ * @param linesRead
+ *         number of lines read from the last CSV file (part)
+ * @param tableRows
+ *         number of rows in the external table file
+ * @since 4
+ */
+record AppendOffset(int part, String partName, long linesRead, long tableRows) {
+
+    private static final String OFFSET_FILE_SUFFIX = ".offset";
+    private static final String PART = "part";
+    private static final String PART_NAME = "partName";
+    private static final String LINES_READ = "linesRead";
+    private static final String TABLE_ROWS = "tableRows";
+
+    AppendOffset {
+        requireNonNull(partName, "partName");
+        if (part < 0 || linesRead < 0 || tableRows < 0) {
+            throw new IllegalArgumentException("Invalid append offset: part=%d, linesRead=%d, tableRows=%d"
+                    .formatted(part, linesRead, tableRows));
+        }
+    }
+
+    /**
+     * Derives the path of the offset file from the path of the external table file.
+     *
+     * @param tableFilePath
+     *         path of the external table file
+     * @return path of the offset file
+     */
+    static Path offsetFilePath(Path tableFilePath) {
+        return tableFilePath.resolveSibling(tableFilePath.getFileName() + OFFSET_FILE_SUFFIX);
+    }
+
+    /**
+     * Reads the offset from {@code offsetFile}.
+     *
+     * @param offsetFile
+     *         path of the offset file
+     * @return offset, or empty if {@code offsetFile} does not exist
+     * @throws IOException
+     *         if the file cannot be read, or does not contain a valid offset
+     */
+    static Optional<AppendOffset> read(Path offsetFile) throws IOException {
+        if (Files.notExists(offsetFile)) return Optional.empty();
+        var properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(offsetFile, UTF_8)) {
+            properties.load(reader);
+        }
+        try {
+            return Optional.of(new AppendOffset(
+                    Integer.parseInt(properties.getProperty(PART, "")),
+                    requireNonNull(properties.getProperty(PART_NAME), PART_NAME),
+                    Long.parseLong(properties.getProperty(LINES_READ, "")),
+                    Long.parseLong(properties.getProperty(TABLE_ROWS, ""))));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IOException("Invalid offset file '%s'".formatted(offsetFile), e);
+        }
+    }
+
+    /**
+     * Writes this offset to {@code offsetFile}, replacing an existing file.
+     * <p>
+     * The offset is first written to a temporary file, which is then moved to {@code offsetFile}, so an interrupted
+     * write does not leave a partially written offset file.
+     * </p>
+     *
+     * @param offsetFile
+     *         path of the offset file
+     * @throws IOException
+     *         if the file cannot be written
+     */
+    void write(Path offsetFile) throws IOException {
+        var properties = new Properties();
+        properties.setProperty(PART, String.valueOf(part));
+        properties.setProperty(PART_NAME, partName);
+        properties.setProperty(LINES_READ, String.valueOf(linesRead));
+        properties.setProperty(TABLE_ROWS, String.valueOf(tableRows));
+        Path tempFile = offsetFile.resolveSibling(offsetFile.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tempFile, UTF_8)) {
+            properties.store(writer, "ext-table-gen append offset");
+        }
+        Files.move(tempFile, offsetFile, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+}
@@ -0,0 +1,86 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.util.List;
+
+/**
+ * Row processor which tracks the lines read from the CSV file set of an append, to record the source offset of the
+ * next append (see {@link AppendOffset}).
+ *
+ * @since 4
+ */
+final class AppendOffsetTracker extends AbstractRowProcessor {
+
+    private final List<CsvFileSet.Part> parts;
+    private final int partOffset;
+    private int currentPart;
+    private long linesRead = -1;
+    private long firstPartLinesRead = -1;
+
+    /**
+     * Creates an append offset tracker.
+     *
+     * @param csvFileSet
+     *         CSV file set being processed
+     * @param partOffset
+     *         index of the first part of {@code csvFileSet} in the original CSV file set (i.e. the part of the previous
+     *         source offset)
+     */
+    AppendOffsetTracker(CsvFileSet csvFileSet, int partOffset) {
+        parts = csvFileSet.parts();
+        if (partOffset < 0) {
+            throw new IllegalArgumentException("partOffset cannot be negative, was: " + partOffset);
+        }
+        this.partOffset = partOffset;
+    }
+
+    /**
+     * Signals the start of a part of the CSV file set.
+     *
+     * @param partIndex
+     *         index of the part in the CSV file set being processed
+     * @see CsvFileSet#readFile(RowProcessor, java.util.function.IntConsumer)
+     */
+    void onPartStart(int partIndex) {
+        currentPart = partIndex;
+        linesRead = -1;
+    }
+
+    @Override
+    public ProcessingResult onRow(Row row) {
+        return ProcessingResult.continueProcessing();
+    }
+
+    @Override
+    public void onEndOfFile(long linesRead) {
+        this.linesRead = linesRead;
+        if (currentPart == 0) {
+            firstPartLinesRead = linesRead;
+        }
+    }
+
+    /**
+     * @return number of lines read from the first part, or {@code -1} if the first part was not read completely
+     */
+    long firstPartLinesRead() {
+        return firstPartLinesRead;
+    }
+
+    /**
+     * Creates the source offset after reading all parts.
+     *
+     * @param tableRows
+     *         number of rows of the table file after the append
+     * @return source offset at the end of the last part
+     * @throws IllegalStateException
+     *         if the last part was not read completely
+     */
+    AppendOffset toAppendOffset(long tableRows) {
+        if (currentPart != parts.size() - 1 || linesRead == -1) {
+            throw new IllegalStateException("The last CSV file was not read completely");
+        }
+        return new AppendOffset(partOffset + currentPart, parts.get(currentPart).name(), linesRead, tableRows);
+    }
+
+}
@@ -0,0 +1,346 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import com.opencsv.CSVParser;
+import com.opencsv.ICSVParser;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reader of a CSV file which enforces the {@link CsvLimits} on the fields and records, while streaming the characters
+ * to the CSV parser.
+ * <p>
+ * The reader tracks the quote state, separators and line breaks of the CSV file to find field and record boundaries,
+ * so the limits are enforced before the CSV parser accumulates a field or record in memory. Characters of a value
+ * which exceed the length of its {@code CHAR} or {@code VARCHAR} column are dropped (if truncation is enabled), other
+ * violations throw a {@link CsvLimitExceededException}.
+ * </p>
+ * <p>
+ * The scanning is a simplified version of the CSV parser: lengths include quotes, escapes and leading white space, and
+ * values are truncated to twice the column length in {@code char} (so values of supplementary characters are not
+ * truncated too short); the column data type truncates the value to its exact length.
+ * </p>
+ * <p>
+ * The quote state follows the CSV parser: for the RFC 4180 parser, a quote only starts a quoted field if it is the
+ * first character of the field, and a quote in an unquoted field (e.g. {@code 12"x}) is a literal character; inside a
+ * quoted field, each quote toggles the quote state (so a doubled quote is an escaped quote), until the field ends at a
+ * separator or line break outside quotes. The opencsv {@link CSVParser} toggles the quote state for a quote anywhere in
+ * a field (e.g. {@code a,bc"d"ef,g}), so that is tracked the same way.
+ * </p>
+ * <p>
+ * Runs of characters between structural characters (quotes, separators, escapes and line breaks) are processed as a
+ * whole.
+ * </p>
+ *
+ * @since 4
+ */
+final class BoundedCsvReader extends FilterReader {
+
+    private static final int NO_CHAR = -1;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final int maxFieldLength;
+    private final int maxRecordLength;
+    private final int[] truncateLengths;
+    private final long truncateFromLine;
+    private final int quoteChar;
+    private final int separator;
+    private final int escapeChar;
+    private final boolean ignoreLeadingWhiteSpace;
+    private final boolean strictQuotes;
+    private final boolean quotesOnlyAtFieldStart;
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private long line = 1;
+    private long recordStartLine = 1;
+    private int fieldIndex;
+    private int fieldLength;
+    private int recordLength;
+    private int fieldContentLength;
+    private boolean fieldStarted;
+    private boolean fieldQuoted;
+    private boolean inQuotes;
+    private boolean pendingEscape;
+    private boolean dropEscaped;
+    private boolean lastWasCarriageReturn;
+
+    /**
+     * Creates a bounded CSV reader.
+     *
+     * @param in
+     *         reader of the CSV file
+     * @param limits
+     *         limits to enforce
+     * @param parser
+     *         CSV parser which will parse the characters
+     * @param truncateFromLine
+     *         first line (1-based) for which values are truncated
+     */
+    BoundedCsvReader(Reader in, CsvLimits limits, ICSVParser parser, long truncateFromLine) {
+        super(in);
+        maxFieldLength = limits.maxFieldLength();
+        maxRecordLength = limits.maxRecordLength();
+        truncateLengths = limits.truncateStrings() ? toTruncateLengths(limits.stringColumnLengths()) : new int[0];
+        this.truncateFromLine = truncateFromLine;
+        separator = parser.getSeparator();
+        if (parser instanceof CSVParser csvParser) {
+            quoteChar = csvParser.isIgnoreQuotations() ? NO_CHAR : csvParser.getQuotechar();
+            escapeChar = csvParser.getEscape() == ICSVParser.NULL_CHARACTER ? NO_CHAR : csvParser.getEscape();
+            ignoreLeadingWhiteSpace = csvParser.isIgnoreLeadingWhiteSpace();
+            strictQuotes = csvParser.isStrictQuotes();
+            quotesOnlyAtFieldStart = false;
+        } else {
+            quoteChar = parser.getQuotechar();
+            escapeChar = NO_CHAR;
+            ignoreLeadingWhiteSpace = false;
+            strictQuotes = false;
+            quotesOnlyAtFieldStart = true;
+        }
+    }
+
+    /**
+     * Finds the next structural character (quote, separator, escape or line break).
+     *
+     * @return index of the first structural character in {@code chars} between {@code from} (inclusive) and
+     * {@code to} (exclusive), or {@code to} if there is none
+     */
+    private int nextStructural(char[] chars, int from, int to) {
+        for (int idx = from; idx < to; idx++) {
+            char c = chars[idx];
+            if (c == separator || c == quoteChar || c == escapeChar || c == '\r' || c == '\n') return idx;
+        }
+        return to;
+    }
+
+    private static int[] toTruncateLengths(List<Integer> stringColumnLengths) {
+        // Twice the length in codepoints, as a codepoint is at most two Java char
+        return stringColumnLengths.stream().mapToInt(length -> length > 0 ? 2 * length : 0).toArray();
+    }
+
+    @Override
+    public int read() throws IOException {
+        var chars = new char[1];
+        return read(chars, 0, 1) == -1 ? -1 : chars[0];
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, cbuf.length);
+        if (len == 0) return 0;
+        while (true) {
+            int read = in.read(buffer, 0, Math.min(len, buffer.length));
+            if (read == -1) return -1;
+            int kept = 0;
+            int idx = 0;
+            while (idx < read) {
+                if (fieldStarted) {
+                    int runEnd = nextStructural(buffer, idx, read);
+                    if (runEnd > idx) {
+                        kept += acceptRun(buffer, idx, runEnd, cbuf, off + kept);
+                        idx = runEnd;
+                        continue;
+                    }
+                }
+                char c = buffer[idx++];
+                if (accept(c)) {
+                    cbuf[off + kept++] = c;
+                }
+            }
+            if (kept > 0) return kept;
+        }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n < 0) {
+            throw new IllegalArgumentException("skip value is negative");
+        }
+        var chars = new char[(int) Math.min(n, BUFFER_SIZE)];
+        long remaining = n;
+        while (remaining > 0) {
+            int read = read(chars, 0, (int) Math.min(remaining, chars.length));
+            if (read == -1) break;
+            remaining -= read;
+        }
+        return n - remaining;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int readAheadLimit) throws IOException {
+        throw new IOException("mark() not supported");
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("reset() not supported");
+    }
+
+    /**
+     * Accepts the next character of the CSV file.
+     *
+     * @param c
+     *         character
+     * @return {@code true} to pass the character to the CSV parser, {@code false} to drop it (truncation)
+     * @throws CsvLimitExceededException
+     *         if the character makes the field or record exceed its limit
+     */
+    private boolean accept(char c) {
+        if (c == '\n' && lastWasCarriageReturn) {
+            // Second character of CRLF, the line break was handled on CR
+            lastWasCarriageReturn = false;
+            return true;
+        }
+        lastWasCarriageReturn = c == '\r';
+        if (pendingEscape) {
+            pendingEscape = false;
+            if (c == quoteChar || c == escapeChar) {
+                return !dropEscaped && keepContent();
+            }
+            // Not an escape sequence: process as a normal character
+        }
+        if (c == '\n' || c == '\r') {
+            line++;
+            if (!inQuotes) {
+                startRecord();
+                return true;
+            }
+            return keep();
+        }
+        if (c == escapeChar) {
+            pendingEscape = true;
+            dropEscaped = isTruncating();
+            return !dropEscaped && keepContent();
+        }
+        if (c == quoteChar && (fieldQuoted || !fieldStarted || !quotesOnlyAtFieldStart)) {
+            inQuotes = !inQuotes;
+            fieldQuoted = true;
+            fieldStarted = true;
+            return keep();
+        }
+        // Otherwise, a quote in an unquoted field is a literal character (RFC 4180 parser)
+        if (c == separator && !inQuotes) {
+            keepInRecord(1);
+            startField();
+            fieldIndex++;
+            return true;
+        }
+        if (!fieldStarted) {
+            if (ignoreLeadingWhiteSpace && Character.isWhitespace(c)) {
+                return keep();
+            }
+            fieldStarted = true;
+        }
+        if (strictQuotes && !inQuotes) {
+            // Ignored by the parser, so not part of the value
+            return keep();
+        }
+        return !isTruncating() && keepContent();
+    }
+
+    /**
+     * Accepts a run of characters of a started field, without structural characters.
+     *
+     * @param chars
+     *         characters
+     * @param from
+     *         start of the run (inclusive)
+     * @param to
+     *         end of the run (exclusive)
+     * @param cbuf
+     *         destination of the characters to pass to the CSV parser
+     * @param off
+     *         offset in {@code cbuf}
+     * @return number of characters copied to {@code cbuf} (less than the length of the run if it is truncated)
+     * @throws CsvLimitExceededException
+     *         if the run makes the field or record exceed its limit
+     */
+    private int acceptRun(char[] chars, int from, int to, char[] cbuf, int off) {
+        // The first character of the run ends a CRLF or escape sequence (if any), same as in accept(char)
+        lastWasCarriageReturn = false;
+        pendingEscape = false;
+        int count = to - from;
+        if (strictQuotes && !inQuotes) {
+            // Ignored by the parser, so not part of the value
+            keep(count);
+        } else {
+            count = Math.min(count, remainingBeforeTruncation());
+            keepContent(count);
+        }
+        System.arraycopy(chars, from, cbuf, off, count);
+        return count;
+    }
+
+    /**
+     * @return number of content characters the current field can receive before it is truncated
+     */
+    private int remainingBeforeTruncation() {
+        if (recordStartLine < truncateFromLine || fieldIndex >= truncateLengths.length) return Integer.MAX_VALUE;
+        int truncateLength = truncateLengths[fieldIndex];
+        return truncateLength > 0 ? Math.max(0, truncateLength - fieldContentLength) : Integer.MAX_VALUE;
+    }
+
+    private boolean isTruncating() {
+        return remainingBeforeTruncation() == 0;
+    }
+
+    private boolean keepContent() {
+        keepContent(1);
+        return true;
+    }
+
+    private void keepContent(int count) {
+        fieldContentLength += count;
+        keep(count);
+    }
+
+    private boolean keep() {
+        keep(1);
+        return true;
+    }
+
+    private void keep(int count) {
+        // Report the limit which the run exceeds first, the field limit if the same character exceeds both
+        int fieldExcess = maxFieldLength != 0 ? fieldLength + count - maxFieldLength : Integer.MIN_VALUE;
+        int recordExcess = maxRecordLength != 0 ? recordLength + count - maxRecordLength : Integer.MIN_VALUE;
+        if (fieldExcess > 0 && fieldExcess >= recordExcess) {
+            throw new CsvLimitExceededException(("Field %d of the record starting at line %d exceeds the maximum field "
+                    + "length of %d characters; check for a missing closing quote, or increase the limit")
+                    .formatted(fieldIndex + 1, recordStartLine, maxFieldLength));
+        }
+        fieldLength += count;
+        keepInRecord(count);
+    }
+
+    private void keepInRecord(int count) {
+        if (maxRecordLength != 0 && (recordLength += count) > maxRecordLength) {
+            throw new CsvLimitExceededException(("The record starting at line %d exceeds the maximum record length "
+                    + "of %d characters; check for a missing closing quote, or increase the limit")
+                    .formatted(recordStartLine, maxRecordLength));
+        }
+    }
+
+    private void startField() {
+        fieldLength = 0;
+        fieldContentLength = 0;
+        fieldStarted = false;
+        fieldQuoted = false;
+    }
+
+    private void startRecord() {
+        startField();
+        fieldIndex = 0;
+        recordLength = 0;
+        recordStartLine = line;
+    }
+
+}
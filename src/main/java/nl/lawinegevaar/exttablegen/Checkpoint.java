@@ -0,0 +1,161 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Properties;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Checkpoint of a conversion, to resume an interrupted conversion.
+ * <p>
+ * A checkpoint is taken after flushing the external table file at a row boundary, so the first {@code tableLength}
+ * bytes of the table file contain the rows of the CSV file(s) up to the checkpoint. The checkpoint is stored next
+ * to the external table file, in a file with the name of the table file suffixed with {@code .checkpoint}.
+ * </p>
+ *
+ * @param part
+ *         index of the CSV file (part) in the CSV file set
+ * @param partName
+ *         name of the CSV file (part), to detect changes in the CSV file set
+ * @param linesRead
+ *         number of lines read from the CSV file (part), as reported by {@code CSVReader.getLinesRead()} for the last
+ *         row written
+ * @param rowsWritten
+ *         number of rows written to the table file
+ * @param rowLength
+ *         length of a row of the external table in bytes, to detect changes in the table definition
+ * @param tableLength
+ *         length of the table file in bytes
+ * @since 4
+ */
+record Checkpoint(int part, String partName, long linesRead, long rowsWritten, int rowLength, long tableLength) {
+
+    private static final String CHECKPOINT_FILE_SUFFIX = ".checkpoint";
+    private static final String PART = "part";
+    private static final String PART_NAME = "partName";
+    private static final String LINES_READ = "linesRead";
+    private static final String ROWS_WRITTEN = "rowsWritten";
+    private static final String ROW_LENGTH = "rowLength";
+    private static final String TABLE_LENGTH = "tableLength";
+
+    Checkpoint {
+        requireNonNull(partName, "partName");
+        if (part < 0 || linesRead < 0 || rowsWritten < 0 || rowLength < 1 || tableLength < 0) {
+            throw new IllegalArgumentException(
+                    "Invalid checkpoint: part=%d, linesRead=%d, rowsWritten=%d, rowLength=%d, tableLength=%d"
+                            .formatted(part, linesRead, rowsWritten, rowLength, tableLength));
+        }
+    }
+
+    /**
+     * Derives the path of the checkpoint file from the path of the external table file.
+     *
+     * @param tableFilePath
+     *         path of the external table file
+     * @return path of the checkpoint file
+     */
+    static Path checkpointFilePath(Path tableFilePath) {
+        return tableFilePath.resolveSibling(tableFilePath.getFileName() + CHECKPOINT_FILE_SUFFIX);
+    }
+
+    /**
+     * Reads the checkpoint from {@code checkpointFile}.
+     *
+     * @param checkpointFile
+     *         path of the checkpoint file
+     * @return checkpoint, or empty if {@code checkpointFile} does not exist
+     * @throws IOException
+     *         if the file cannot be read, or does not contain a valid checkpoint
+     */
+    static Optional<Checkpoint> read(Path checkpointFile) throws IOException {
+        if (Files.notExists(checkpointFile)) return Optional.empty();
+        var properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(checkpointFile, UTF_8)) {
+            properties.load(reader);
+        }
+        try {
+            return Optional.of(new Checkpoint(
+                    Integer.parseInt(properties.getProperty(PART, "")),
+                    requireNonNull(properties.getProperty(PART_NAME), PART_NAME),
+                    Long.parseLong(properties.getProperty(LINES_READ, "")),
+                    Long.parseLong(properties.getProperty(ROWS_WRITTEN, "")),
+                    Integer.parseInt(properties.getProperty(ROW_LENGTH, "")),
+                    Long.parseLong(properties.getProperty(TABLE_LENGTH, ""))));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IOException("Invalid checkpoint file '%s'".formatted(checkpointFile), e);
+        }
+    }
+
+    /**
+     * Writes this checkpoint to {@code checkpointFile}, replacing an existing file.
+     * <p>
+     * The checkpoint is first written to a temporary file, which is then moved to {@code checkpointFile}, so an
+     * interrupted write does not leave a partially written checkpoint file.
+     * </p>
+     *
+     * @param checkpointFile
+     *         path of the checkpoint file
+     * @throws IOException
+     *         if the file cannot be written
+     */
+    void write(Path checkpointFile) throws IOException {
+        var properties = new Properties();
+        properties.setProperty(PART, String.valueOf(part));
+        properties.setProperty(PART_NAME, partName);
+        properties.setProperty(LINES_READ, String.valueOf(linesRead));
+        properties.setProperty(ROWS_WRITTEN, String.valueOf(rowsWritten));
+        properties.setProperty(ROW_LENGTH, String.valueOf(rowLength));
+        properties.setProperty(TABLE_LENGTH, String.valueOf(tableLength));
+        Path tempFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tempFile, UTF_8)) {
+            properties.store(writer, "ext-table-gen checkpoint");
+        }
+        Files.move(tempFile, checkpointFile, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+}
+
+/**
+ * Checkpoint configuration of a conversion.
+ *
+ * @param interval
+ *         number of rows between checkpoints, {@code 0} to disable checkpoints
+ * @param resume
+ *         {@code true} resume from the checkpoint of a previous conversion, {@code false} start from the beginning
+ * @since 4
+ */
+record CheckpointConfig(long interval, boolean resume) {
+
+    private static final CheckpointConfig DISABLED = new CheckpointConfig(0, false);
+
+    CheckpointConfig {
+        if (interval < 0) {
+            throw new IllegalArgumentException("interval cannot be negative, was: " + interval);
+        }
+    }
+
+    /**
+     * @return checkpoint configuration without checkpoints and without resume
+     */
+    static CheckpointConfig disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * @return {@code true} if checkpoints are taken (i.e. {@code interval} is not {@code 0})
+     */
+    boolean enabled() {
+        return interval != 0;
+    }
+
+}
@@ -0,0 +1,116 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.io.IOException;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Row processor which forwards to an {@link ExternalTableWriter}, and periodically takes a checkpoint.
+ * <p>
+ * Every {@code interval} rows written, the table writer is flushed, so the table file ends on a row boundary, and a
+ * checkpoint is submitted to the {@link CheckpointWriter}.
+ * </p>
+ *
+ * @since 4
+ */
+final class CheckpointProcessor implements RowProcessor {
+
+    private final ExternalTableWriter tableWriter;
+    private final List<CsvFileSet.Part> parts;
+    private final int partOffset;
+    private final long interval;
+    private final int rowLength;
+    private final CheckpointWriter checkpointWriter;
+    private final long initialRowsWritten;
+    private final long initialTableLength;
+    private int currentPart;
+    private long rowsWritten;
+
+    /**
+     * Creates a checkpoint processor.
+     *
+     * @param tableWriter
+     *         external table writer
+     * @param csvFileSet
+     *         CSV file set being processed
+     * @param resumeFrom
+     *         checkpoint the conversion resumes from; its part index is the index of the first part of
+     *         {@code csvFileSet} in the original CSV file set, and its rows written and table length are the initial
+     *         values
+     * @param interval
+     *         number of rows between checkpoints
+     * @param checkpointWriter
+     *         checkpoint writer
+     */
+    CheckpointProcessor(ExternalTableWriter tableWriter, CsvFileSet csvFileSet, Checkpoint resumeFrom, long interval,
+            CheckpointWriter checkpointWriter) {
+        this.tableWriter = requireNonNull(tableWriter, "tableWriter");
+        parts = csvFileSet.parts();
+        partOffset = resumeFrom.part();
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be at least 1, was: " + interval);
+        }
+        this.interval = interval;
+        rowLength = resumeFrom.rowLength();
+        this.checkpointWriter = requireNonNull(checkpointWriter, "checkpointWriter");
+        initialRowsWritten = resumeFrom.rowsWritten();
+        initialTableLength = resumeFrom.tableLength();
+    }
+
+    /**
+     * Signals the start of a part of the CSV file set.
+     *
+     * @param partIndex
+     *         index of the part in the CSV file set being processed
+     * @see CsvFileSet#readFile(RowProcessor, java.util.function.IntConsumer)
+     */
+    void onPartStart(int partIndex) {
+        currentPart = partIndex;
+    }
+
+    @Override
+    public ProcessingResult onHeader(Row header) {
+        return tableWriter.onHeader(header);
+    }
+
+    @Override
+    public ProcessingResult onRow(Row row) {
+        long tableWriterRowsBefore = tableWriter.rowsWritten();
+        ProcessingResult result = tableWriter.onRow(row);
+        // A rejected row is not written to the table file
+        if (tableWriter.rowsWritten() == tableWriterRowsBefore) return result;
+        if (result instanceof ProcessingResult.Continue && ++rowsWritten % interval == 0) {
+            try {
+                // Make sure all rows up to the checkpoint are in the table file
+                tableWriter.flush();
+            } catch (IOException e) {
+                return ProcessingResult.stopWith(e);
+            }
+            checkpointWriter.submit(new Checkpoint(partOffset + currentPart, parts.get(currentPart).name(),
+                    row.line(), initialRowsWritten + rowsWritten, rowLength,
+                    initialTableLength + rowsWritten * rowLength));
+        }
+        return result;
+    }
+
+    @Override
+    public ProcessingResult onException(Exception exception) {
+        return tableWriter.onException(exception);
+    }
+
+    @Override
+    public ProcessingResult.Stop onComplete() {
+        return tableWriter.onComplete();
+    }
+
+    /**
+     * @return number of rows written, including the rows written before resuming
+     */
+    long rowsWritten() {
+        return initialRowsWritten + rowsWritten;
+    }
+
+}
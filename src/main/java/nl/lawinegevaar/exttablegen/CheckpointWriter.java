@@ -0,0 +1,97 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes checkpoints asynchronously, so writing a checkpoint does not block the conversion.
+ * <p>
+ * Checkpoints are written in order of submission on a single background thread. If checkpoints are submitted faster
+ * than they can be written, only the latest submitted checkpoint is written.
+ * </p>
+ *
+ * @since 4
+ */
+final class CheckpointWriter implements AutoCloseable {
+
+    private static final System.Logger log = System.getLogger(CheckpointWriter.class.getName());
+
+    private final Path checkpointFile;
+    private final AtomicReference<Checkpoint> pending = new AtomicReference<>();
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("ext-table-gen-checkpoint").factory());
+
+    /**
+     * Creates a checkpoint writer.
+     *
+     * @param checkpointFile
+     *         path of the checkpoint file
+     */
+    CheckpointWriter(Path checkpointFile) {
+        this.checkpointFile = requireNonNull(checkpointFile, "checkpointFile");
+    }
+
+    /**
+     * @return path of the checkpoint file
+     */
+    Path checkpointFile() {
+        return checkpointFile;
+    }
+
+    /**
+     * Submits {@code checkpoint} to be written asynchronously.
+     *
+     * @param checkpoint
+     *         checkpoint
+     */
+    void submit(Checkpoint checkpoint) {
+        if (pending.getAndSet(requireNonNull(checkpoint, "checkpoint")) == null) {
+            executor.execute(this::writePending);
+        }
+    }
+
+    private void writePending() {
+        Checkpoint checkpoint = pending.getAndSet(null);
+        if (checkpoint == null) return;
+        try {
+            checkpoint.write(checkpointFile);
+            log.log(DEBUG, "Wrote checkpoint {0}", checkpoint);
+        } catch (IOException e) {
+            log.log(WARNING, "Could not write checkpoint file " + checkpointFile, e);
+        }
+    }
+
+    /**
+     * Deletes the checkpoint file, after waiting for pending checkpoints to be written.
+     * <p>
+     * To be called after the conversion completed successfully.
+     * </p>
+     */
+    void deleteCheckpoint() {
+        close();
+        try {
+            Files.deleteIfExists(checkpointFile);
+        } catch (IOException e) {
+            log.log(WARNING, "Could not delete checkpoint file " + checkpointFile, e);
+        }
+    }
+
+    /**
+     * Waits for pending checkpoints to be written, and stops the background thread.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+}
@@ -0,0 +1,412 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes the external table file from a CSV file set, parsing and encoding the parts of the set concurrently.
+ * <p>
+ * The headers of all parts are checked before the parts are encoded. Each part is parsed and encoded on a virtual
+ * thread. The first part is encoded directly into the external table file, the other parts into a temporary file in
+ * the directory of the external table file (so the directory needs free space for the encoded size of all parts except
+ * the first, in the worst case). As soon as a part and all parts before it were encoded successfully, its temporary
+ * file is appended to the external table file and deleted, while the remaining parts are still being encoded. The
+ * resulting file is identical to the file produced by processing the parts sequentially.
+ * </p>
+ *
+ * @since 4
+ */
+final class ConcurrentExternalTableWriter {
+
+    private static final System.Logger log = System.getLogger(ConcurrentExternalTableWriter.class.getName());
+
+    private final ExternalTable externalTable;
+    private final int maxConcurrency;
+    private final WriteConfig writeConfig;
+
+    /**
+     * Creates a concurrent external table writer, processing at most {@link Runtime#availableProcessors()} parts
+     * concurrently.
+     *
+     * @param externalTable
+     *         external table definition
+     */
+    ConcurrentExternalTableWriter(ExternalTable externalTable) {
+        this(externalTable, WriteConfig.defaults());
+    }
+
+    /**
+     * Creates a concurrent external table writer, processing at most {@link WriteConfig#effectiveMaxConcurrency()}
+     * parts concurrently.
+     *
+     * @param externalTable
+     *         external table definition
+     * @param writeConfig
+     *         write configuration
+     */
+    ConcurrentExternalTableWriter(ExternalTable externalTable, WriteConfig writeConfig) {
+        this(externalTable, writeConfig.effectiveMaxConcurrency(), writeConfig);
+    }
+
+    /**
+     * Creates a concurrent external table writer.
+     *
+     * @param externalTable
+     *         external table definition
+     * @param maxConcurrency
+     *         maximum number of parts processed concurrently
+     */
+    ConcurrentExternalTableWriter(ExternalTable externalTable, int maxConcurrency) {
+        this(externalTable, maxConcurrency, WriteConfig.defaults());
+    }
+
+    /**
+     * Creates a concurrent external table writer.
+     *
+     * @param externalTable
+     *         external table definition
+     * @param maxConcurrency
+     *         maximum number of parts processed (encoded or written) concurrently
+     * @param writeConfig
+     *         write configuration
+     */
+    ConcurrentExternalTableWriter(ExternalTable externalTable, int maxConcurrency, WriteConfig writeConfig) {
+        this.externalTable = requireNonNull(externalTable, "externalTable");
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1, was: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.writeConfig = requireNonNull(writeConfig, "writeConfig");
+    }
+
+    /**
+     * Reads all parts of {@code csvFileSet}, and writes their data to the output resource of the external table.
+     * <p>
+     * The external table file is created before the parts are read, so a table file which cannot be created is
+     * reported without processing the parts. A part with a header which does not match the header of the first part is
+     * reported before any part is encoded. If processing of a part fails, the other parts are stopped, and the external
+     * table file contains the rows of the parts before the failed part, and possibly some rows of the failed part (as
+     * when processing the parts sequentially).
+     * </p>
+     *
+     * @param csvFileSet
+     *         CSV file set
+     * @param processorFactory
+     *         factory for an additional row processor for each part (e.g. to stop on exceptions); if the row processor
+     *         is also a {@link RowRejector}, it receives the rows of the part which cannot be written
+     * @return processing result, {@code Done} if all parts were written, otherwise the result of the first part (in
+     * order of the parts) which stopped with an exception, or a {@code Stop}
+     */
+    ProcessingResult write(CsvFileSet csvFileSet,
+            Function<? super CsvFileSet.Part, ? extends RowProcessor> processorFactory) {
+        OutputResource outputResource = externalTable.outputResource();
+        OutputStream out;
+        try {
+            out = new BufferedOutputStream(outputResource.newOutputStream(), writeConfig.bufferSize());
+        } catch (IOException e) {
+            return ProcessingResult.stopWith(ExternalTableWriter.createTableFileException(outputResource, e));
+        }
+        try (out) {
+            try {
+                csvFileSet.requireMatchingHeaders();
+            } catch (CsvHeaderMismatchException | FatalRowProcessingException e) {
+                return ProcessingResult.stopWith(e);
+            }
+            var appender = new InOrderAppender(out, csvFileSet.size());
+            List<PartResult> partResults = encodeParts(csvFileSet, processorFactory, appender, tempFileDirectory());
+            try {
+                @Nullable IOException appendException = appender.appendException();
+                return appendException != null
+                        ? ProcessingResult.stopWith(appendException)
+                        : combineResults(partResults);
+            } finally {
+                partResults.forEach(PartResult::deleteTempFile);
+            }
+        } catch (IOException e) {
+            return ProcessingResult.stopWith(e);
+        }
+    }
+
+    private @Nullable Path tempFileDirectory() {
+        return externalTable.outputResource().path()
+                .map(Path::toAbsolutePath)
+                .map(Path::getParent)
+                .orElse(null);
+    }
+
+    private List<PartResult> encodeParts(CsvFileSet csvFileSet,
+            Function<? super CsvFileSet.Part, ? extends RowProcessor> processorFactory, InOrderAppender appender,
+            @Nullable Path tempFileDirectory) {
+        var permits = new Semaphore(maxConcurrency);
+        var cancellation = appender.cancellation;
+        var futures = new ArrayList<Future<PartResult>>(csvFileSet.size());
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CsvFileSet.Part> parts = csvFileSet.parts();
+            for (int idx = 0; idx < parts.size(); idx++) {
+                int partIndex = idx;
+                CsvFileSet.Part part = parts.get(idx);
+                // The first part is written directly to the external table file
+                @Nullable OutputResource directOutput = idx == 0 ? appender.firstPartOutput() : null;
+                futures.add(executor.submit(() -> {
+                    PartResult partResult;
+                    permits.acquire();
+                    try {
+                        partResult = encodePart(part, processorFactory.apply(part), directOutput, tempFileDirectory,
+                                cancellation);
+                    } finally {
+                        permits.release();
+                    }
+                    appender.partEncoded(partIndex, partResult);
+                    return partResult;
+                }));
+            }
+        }
+        var partResults = new ArrayList<PartResult>(futures.size());
+        for (int idx = 0; idx < futures.size(); idx++) {
+            partResults.add(getPartResult(csvFileSet.parts().get(idx), futures.get(idx)));
+        }
+        return partResults;
+    }
+
+    /**
+     * Encodes {@code part} to {@code directOutput}, or to a temporary file if {@code directOutput} is {@code null}.
+     */
+    private PartResult encodePart(CsvFileSet.Part part, RowProcessor processor, @Nullable OutputResource directOutput,
+            @Nullable Path tempFileDirectory, Cancellation cancellation) {
+        if (cancellation.cancelled) {
+            return new PartResult(part, null, ProcessingResult.stopProcessing());
+        }
+        @Nullable Path tempFile = null;
+        try {
+            OutputResource partOutput;
+            if (directOutput != null) {
+                log.log(DEBUG, "Encoding CSV file ''{0}'' to the external table file", part.name());
+                partOutput = directOutput;
+            } else {
+                tempFile = tempFileDirectory != null
+                        ? Files.createTempFile(tempFileDirectory, "ext-table-gen-", ".part")
+                        : Files.createTempFile("ext-table-gen-", ".part");
+                log.log(DEBUG, "Encoding CSV file ''{0}'' to ''{1}''", part.name(), tempFile);
+                partOutput = OutputResource.of(tempFile, true);
+            }
+            try (var tableWriter = new ExternalTableWriter(externalTable, partOutput, writeConfig,
+                    processor instanceof RowRejector rowRejector ? rowRejector : null)) {
+                ProcessingResult result = part.csvFile().readFile(
+                        new MultiplexRowProcessor(tableWriter, processor, new CancellationCheck(cancellation)));
+                if (result instanceof ProcessingResult.StopWithException) {
+                    cancellation.cancelled = true;
+                }
+                return new PartResult(part, tempFile, result);
+            }
+        } catch (IOException | RuntimeException e) {
+            cancellation.cancelled = true;
+            return new PartResult(part, tempFile, ProcessingResult.stopWith(e));
+        }
+    }
+
+    private static PartResult getPartResult(CsvFileSet.Part part, Future<PartResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new PartResult(part, null, ProcessingResult.stopWith(e));
+        } catch (ExecutionException e) {
+            return new PartResult(part, null,
+                    ProcessingResult.stopWith(e.getCause() instanceof Exception cause ? cause : e));
+        }
+    }
+
+    /**
+     * Combines the results of all parts.
+     * <p>
+     * A {@code StopWithException} has precedence over other results, as parts stopped because another part failed
+     * report a plain {@code Stop}.
+     * </p>
+     */
+    private static ProcessingResult combineResults(List<PartResult> partResults) {
+        @Nullable ProcessingResult stopResult = null;
+        for (PartResult partResult : partResults) {
+            ProcessingResult result = partResult.result();
+            if (result instanceof ProcessingResult.StopWithException) {
+                return result;
+            } else if (!(result instanceof ProcessingResult.Done) && stopResult == null) {
+                stopResult = result;
+            }
+        }
+        return stopResult != null ? stopResult : ProcessingResult.done();
+    }
+
+    /**
+     * Result of encoding a part.
+     *
+     * @param part
+     *         part
+     * @param tempFile
+     *         temporary file with the encoded data of the part ({@code null} if not created, or if the part was
+     *         encoded directly to the external table file)
+     * @param result
+     *         processing result of the part
+     */
+    private record PartResult(CsvFileSet.Part part, @Nullable Path tempFile, ProcessingResult result) {
+
+        void deleteTempFile() {
+            if (tempFile == null) return;
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                log.log(WARNING, "Could not delete temporary file " + tempFile, e);
+            }
+        }
+
+    }
+
+    /**
+     * Appends the encoded parts to the output stream of the external table file, in order of the parts, as soon as a
+     * part and all parts before it were encoded successfully.
+     * <p>
+     * The first part is encoded directly to the output stream, so the temporary file of the next part can only be
+     * appended after the first part was encoded completely. A part which is not encoded successfully stops the
+     * appending, the parts after it are not appended.
+     * </p>
+     */
+    private static final class InOrderAppender {
+
+        // A lock instead of synchronized, so a virtual thread appending a temporary file does not pin its carrier
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Cancellation cancellation = new Cancellation();
+        private final OutputStream out;
+        private final @Nullable PartResult[] encodedParts;
+        private int nextPart;
+        private @Nullable IOException appendException;
+
+        InOrderAppender(OutputStream out, int partCount) {
+            this.out = out;
+            encodedParts = new PartResult[partCount];
+        }
+
+        /**
+         * @return single-use output resource to encode the first part directly to the external table file; closing
+         * its output stream does not close the external table file
+         */
+        OutputResource firstPartOutput() {
+            return OutputResource.of(new NonClosingOutputStream(out));
+        }
+
+        /**
+         * Records the result of encoding a part, and appends the temporary files of all parts which can now be
+         * appended in order.
+         *
+         * @param partIndex
+         *         index of the part
+         * @param partResult
+         *         result of encoding the part
+         */
+        void partEncoded(int partIndex, PartResult partResult) {
+            lock.lock();
+            try {
+                encodedParts[partIndex] = partResult;
+                while (appendException == null && nextPart < encodedParts.length) {
+                    PartResult nextPartResult = encodedParts[nextPart];
+                    if (nextPartResult == null || !(nextPartResult.result() instanceof ProcessingResult.Done)) return;
+                    // The first part has no temporary file, it was encoded directly
+                    Path tempFile = nextPartResult.tempFile();
+                    if (tempFile != null) {
+                        log.log(DEBUG, "Appending CSV file ''{0}'' to the external table file",
+                                nextPartResult.part().name());
+                        Files.copy(tempFile, out);
+                        nextPartResult.deleteTempFile();
+                    }
+                    nextPart++;
+                }
+            } catch (IOException e) {
+                appendException = e;
+                cancellation.cancelled = true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return exception appending a temporary file, or {@code null} if all appends succeeded
+         */
+        @Nullable IOException appendException() {
+            lock.lock();
+            try {
+                return appendException;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+    }
+
+    /**
+     * Shared flag to stop processing of other parts after a part failed.
+     */
+    private static final class Cancellation {
+
+        volatile boolean cancelled;
+
+    }
+
+    /**
+     * Stops processing of a part when processing was cancelled.
+     */
+    private static final class CancellationCheck extends AbstractRowProcessor {
+
+        private final Cancellation cancellation;
+
+        CancellationCheck(Cancellation cancellation) {
+            this.cancellation = cancellation;
+        }
+
+        @Override
+        public ProcessingResult onRow(Row row) {
+            return cancellation.cancelled ? ProcessingResult.stopProcessing() : ProcessingResult.continueProcessing();
+        }
+
+    }
+
+    /**
+     * Output stream which flushes instead of closing the underlying stream, so the first part can be encoded directly
+     * to the stream of the external table file.
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+    }
+
+}
@@ -16,14 +16,22 @@ import nl.lawinegevaar.exttablegen.type.*;
 import nl.lawinegevaar.exttablegen.xmlconfig.*;
 import org.jspecify.annotations.Nullable;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
 
+import static java.util.Objects.requireNonNullElse;
 import static nl.lawinegevaar.exttablegen.TableDerivationConfig.DEFAULT_COLUMN_ENCODING;
 import static nl.lawinegevaar.exttablegen.TableDerivationConfig.DEFAULT_END_COLUMN_TYPE;
 
@@ -37,22 +45,32 @@ final class ConfigMapper {
     static final String SCHEMA_VERSION_1_0 = "1.0";
     static final String SCHEMA_VERSION_2_0 = "2.0";
     static final String SCHEMA_VERSION_3_0 = "3.0";
+    static final String SCHEMA_VERSION_3_1 = "3.1";
     private static final Set<String> SUPPORTED_SCHEMA_VERSIONS = Set.of(
-            SCHEMA_VERSION_1_0, SCHEMA_VERSION_2_0, SCHEMA_VERSION_3_0);
+            SCHEMA_VERSION_1_0, SCHEMA_VERSION_2_0, SCHEMA_VERSION_3_0, SCHEMA_VERSION_3_1);
 
     // Must match /xs:schema[@version]
-    static final String CURRENT_SCHEMA_VERSION = SCHEMA_VERSION_3_0;
+    static final String CURRENT_SCHEMA_VERSION = SCHEMA_VERSION_3_1;
     static final String UNKNOWN_SCHEMA_VERSION = SCHEMA_VERSION_1_0;
 
+    // Identifies a compiled configuration file, followed by the schema version (modified UTF-8) and the serialized
+    // ExtTableGenConfig
+    private static final byte[] COMPILED_CONFIG_MAGIC = { 'E', 'T', 'G', 'C' };
+    // Maximum number of columns of a compiled configuration, which bounds the references of COMPILED_CONFIG_FILTER
+    static final int MAX_COMPILED_COLUMNS = 4096;
+    // Upper bound of the references per column (column, name, JAXBElement, datatype, converter, etc.), plus a margin
+    private static final int MAX_COMPILED_REFS_PER_COLUMN = 16;
+    // Only allow deserialization of the exact classes of the XML model and its property types (see ADR 2026-04)
+    private static final ObjectInputFilter COMPILED_CONFIG_FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=16;maxrefs=%d;maxarray=%d;".formatted(
+                    1024 + MAX_COMPILED_REFS_PER_COLUMN * MAX_COMPILED_COLUMNS, MAX_COMPILED_COLUMNS)
+            + "nl.lawinegevaar.exttablegen.xmlconfig.*;jakarta.xml.bind.JAXBElement;"
+            + "jakarta.xml.bind.JAXBElement$GlobalScope;javax.xml.namespace.QName;java.lang.String;"
+            + "java.lang.Boolean;java.lang.Integer;java.lang.Long;java.lang.Number;java.lang.Enum;"
+            // element type of the array of ArrayList
+            + "java.lang.Object;java.util.ArrayList;!*");
+
     private final ObjectFactory factory = new ObjectFactory();
-    private final JAXBContext jaxbContext;
-    {
-        try {
-            jaxbContext = JAXBContext.newInstance(ExtTableGenConfig.class);
-        } catch (JAXBException e) {
-            throw new ExceptionInInitializerError(e);
-        }
-    }
 
     /**
      * Writes {@code etgConfig} as XML to {@code out}.
@@ -72,7 +90,7 @@ final class ConfigMapper {
     }
 
     private Marshaller getMarshaller() throws JAXBException {
-        Marshaller marshaller = jaxbContext.createMarshaller();
+        Marshaller marshaller = JaxbContextHolder.JAXB_CONTEXT.createMarshaller();
         marshaller.setListener(new ApplyDefaultsOnMarshallListener());
         return marshaller;
     }
@@ -107,11 +125,104 @@ final class ConfigMapper {
     }
 
     private Unmarshaller getUnmarshaller() throws JAXBException {
-        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+        Unmarshaller unmarshaller = JaxbContextHolder.JAXB_CONTEXT.createUnmarshaller();
         unmarshaller.setListener(new ApplyDefaultsOnUnmarshallListener());
         return unmarshaller;
     }
 
+    /**
+     * Writes {@code etgConfig} in compiled form to {@code out}.
+     * <p>
+     * The compiled form can be read with {@link #readCompiled(InputStream)} without initializing JAXB, which makes it
+     * faster to load than XML. It is not intended for editing or exchange: it can only be read by a version of
+     * ext-table-gen with the same schema version.
+     * </p>
+     *
+     * @param etgConfig
+     *         external-table-gen configuration
+     * @param out
+     *         output stream
+     * @throws IOException
+     *         for errors writing the compiled configuration
+     * @throws InvalidConfigurationException
+     *         if the configuration has more than {@link #MAX_COMPILED_COLUMNS} columns
+     * @since 4
+     */
+    void writeCompiled(EtgConfig etgConfig, OutputStream out) throws IOException {
+        int columnCount = etgConfig.tableConfig().columns().size();
+        if (columnCount > MAX_COMPILED_COLUMNS) {
+            throw new InvalidConfigurationException(
+                    ("A compiled configuration supports at most %d columns, the configuration has %d columns; use the "
+                     + "configuration XML file instead").formatted(MAX_COMPILED_COLUMNS, columnCount));
+        }
+        ExtTableGenConfig xmlConfigType = toXmlExtTableGenConfig(etgConfig);
+        xmlConfigType.setSchemaVersion(CURRENT_SCHEMA_VERSION);
+        var dataOut = new DataOutputStream(out);
+        dataOut.write(COMPILED_CONFIG_MAGIC);
+        dataOut.writeUTF(CURRENT_SCHEMA_VERSION);
+        var objectOut = new ObjectOutputStream(dataOut);
+        objectOut.writeObject(xmlConfigType);
+        objectOut.flush();
+    }
+
+    /**
+     * Reads the external-table-gen configuration in compiled form (see {@link #writeCompiled(EtgConfig, OutputStream)})
+     * from {@code in}.
+     *
+     * @param in
+     *         input stream
+     * @return external-table-gen configuration
+     * @throws IOException
+     *         for errors reading the compiled configuration
+     * @throws InvalidConfigurationException
+     *         if {@code in} is not a compiled configuration, or was compiled for a different schema version
+     * @since 4
+     */
+    EtgConfig readCompiled(InputStream in) throws IOException {
+        var dataIn = new DataInputStream(in);
+        if (!Arrays.equals(COMPILED_CONFIG_MAGIC, dataIn.readNBytes(COMPILED_CONFIG_MAGIC.length))) {
+            throw new InvalidConfigurationException("Not a compiled configuration file");
+        }
+        String schemaVersion = dataIn.readUTF();
+        if (!CURRENT_SCHEMA_VERSION.equals(schemaVersion)) {
+            throw new InvalidConfigurationException(
+                    "Compiled configuration has schema version %s, expected %s; recompile it with --compile-config"
+                            .formatted(schemaVersion, CURRENT_SCHEMA_VERSION));
+        }
+        var objectIn = new ObjectInputStream(dataIn);
+        objectIn.setObjectInputFilter(COMPILED_CONFIG_FILTER);
+        try {
+            if (objectIn.readObject() instanceof ExtTableGenConfig extTableGenConfig) {
+                return fromXmlExtTableGenConfig(extTableGenConfig);
+            }
+            throw new InvalidConfigurationException("Compiled configuration file does not contain a configuration");
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Could not read compiled configuration", e);
+        }
+    }
+
+    /**
+     * Checks if {@code in} starts with a compiled configuration, without consuming bytes.
+     *
+     * @param in
+     *         input stream, must support {@link InputStream#mark(int)}
+     * @return {@code true} if {@code in} is a compiled configuration, {@code false} otherwise (e.g. XML)
+     * @throws IOException
+     *         for errors reading from {@code in}
+     * @since 4
+     */
+    static boolean isCompiled(InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            throw new IllegalArgumentException("Input stream must support mark");
+        }
+        in.mark(COMPILED_CONFIG_MAGIC.length);
+        try {
+            return Arrays.equals(COMPILED_CONFIG_MAGIC, in.readNBytes(COMPILED_CONFIG_MAGIC.length));
+        } finally {
+            in.reset();
+        }
+    }
+
     private ExtTableGenConfig toXmlExtTableGenConfig(EtgConfig etgConfig) {
         ExtTableGenConfig configType = factory.createExtTableGenConfig();
         TableConfig tableConfig = etgConfig.tableConfig();
@@ -267,6 +378,15 @@ final class ConfigMapper {
         TableFileType tableFileType = factory.createTableFileType();
         tableFileType.setPath(tableFile.path().toString());
         tableFileType.setOverwrite(tableFile.overwrite());
+        if (tableFile.maxRows() != TableFile.NO_LIMIT) {
+            tableFileType.setMaxRows(tableFile.maxRows());
+        }
+        if (tableFile.maxBytes() != TableFile.NO_LIMIT) {
+            tableFileType.setMaxBytes(tableFile.maxBytes());
+        }
+        if (tableFile.isAppend()) {
+            tableFileType.setAppend(tableFile.appendMode().name());
+        }
         return tableFileType;
     }
 
@@ -464,12 +584,26 @@ final class ConfigMapper {
             return Optional.of(
                     new TableFile(
                             tableFileType.getPath(),
-                            tableFileType.isOverwrite()));
+                            tableFileType.isOverwrite(),
+                            requireNonNullElse(tableFileType.getMaxRows(), TableFile.NO_LIMIT),
+                            requireNonNullElse(tableFileType.getMaxBytes(), TableFile.NO_LIMIT),
+                            fromXmlAppendModeEnum(tableFileType.getAppend())));
         } catch (RuntimeException e) {
             throw new InvalidConfigurationException("Could not convert from XML TableFileType", e);
         }
     }
 
+    private static AppendMode fromXmlAppendModeEnum(@Nullable String appendModeEnumValue) {
+        if (appendModeEnumValue == null) {
+            return AppendMode.NONE;
+        }
+        try {
+            return AppendMode.valueOf(appendModeEnumValue);
+        } catch (RuntimeException e) {
+            throw new InvalidConfigurationException("Unsupported append mode: " + appendModeEnumValue);
+        }
+    }
+
     private static ByteOrderType fromXmlByteOrderEnum(@Nullable String byteOrderEnumValue) {
         if (byteOrderEnumValue == null) {
             return ByteOrderType.AUTO;
@@ -569,6 +703,22 @@ final class ConfigMapper {
         }
     }
 
+    /**
+     * Holds the JAXB context, so it is only created when XML is actually read or written (creating it is expensive).
+     */
+    private static final class JaxbContextHolder {
+
+        private static final JAXBContext JAXB_CONTEXT;
+        static {
+            try {
+                JAXB_CONTEXT = JAXBContext.newInstance(ExtTableGenConfig.class);
+            } catch (JAXBException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+    }
+
     private static final class ApplyDefaultsOnMarshallListener extends Marshaller.Listener {
 
         @Override
@@ -1,11 +1,14 @@
-// SPDX-FileCopyrightText: 2023 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen;
 
 import com.opencsv.CSVReader;
 import com.opencsv.CSVReaderBuilder;
+import com.opencsv.ICSVParser;
 import com.opencsv.exceptions.CsvException;
+import com.opencsv.exceptions.CsvValidationException;
 
+import java.io.IOException;
 import java.io.Reader;
 import java.lang.System.Logger;
 import java.nio.charset.Charset;
@@ -82,15 +85,21 @@ final class CsvFile {
      *         for fatal {@code Exception}s or when a &mdash; possible &mdash; infinite loop in processing is detected
      */
     ProcessingResult readFile(RowProcessor rowProcessor) throws FatalRowProcessingException {
-        try (var reader = inputResource.newReader(config.charset());
-             CSVReader csvReader = createCSVReader(reader)) {
+        ICSVParser parser = config.parserConfig.createParser();
+        // Values of the header row are not truncated
+        long truncateFromLine = config.skipLines + (config.headerRow ? 2 : 1);
+        try (var reader = config.limits.bound(inputResource.newReader(config.charset()), parser, truncateFromLine);
+             CSVReader csvReader = createCSVReader(reader, parser)) {
             long lastExceptionLine = -1;
 
             Row header;
             if (config.headerRow) {
                 try {
                     String[] data = csvReader.readNext();
-                    if (data == null) return ProcessingResult.done();
+                    if (data == null) {
+                        rowProcessor.onEndOfFile(csvReader.getLinesRead());
+                        return ProcessingResult.done();
+                    }
                     header = new Row(csvReader.getLinesRead(), List.of(data));
                 } catch (CsvException e) {
                     lastExceptionLine = csvReader.getLinesRead();
@@ -111,7 +120,10 @@ final class CsvFile {
             while (true) {
                 try {
                     String[] data = csvReader.readNext();
-                    if (data == null) return ProcessingResult.done();
+                    if (data == null) {
+                        rowProcessor.onEndOfFile(csvReader.getLinesRead());
+                        return ProcessingResult.done();
+                    }
 
                     ProcessingResult rowResult = rowProcessor.onRow(new Row(csvReader.getLinesRead(), List.of(data)));
                     if (haltOnProcessingResult(rowResult)) {
@@ -133,6 +145,9 @@ final class CsvFile {
                         throw secondErrorOnLine;
                     }
 
+                    if (e instanceof CsvValidationException) {
+                        addRecordInformation(e, csvReader);
+                    }
                     ProcessingResult onExceptionResult = fireOnException(rowProcessor, e);
                     if (haltOnProcessingResult(onExceptionResult)) {
                         return onExceptionResult;
@@ -158,6 +173,30 @@ final class CsvFile {
         }
     }
 
+    /**
+     * Adds the record which failed validation and its line number to {@code exception}, if not already set.
+     * <p>
+     * A record which fails validation is not consumed by the reader, so it can be peeked (it is skipped after the row
+     * processor received the exception).
+     * </p>
+     *
+     * @param exception
+     *         exception of a record which failed validation
+     * @param csvReader
+     *         CSV reader
+     * @throws IOException
+     *         for errors peeking the record
+     * @since 4
+     */
+    private static void addRecordInformation(CsvException exception, CSVReader csvReader) throws IOException {
+        if (exception.getLine() == null) {
+            exception.setLine(csvReader.peek());
+        }
+        if (exception.getLineNumber() <= 0) {
+            exception.setLineNumber(csvReader.getLinesRead());
+        }
+    }
+
     /**
      * Checks the processing result and logs basic information if it needs to stop.
      *
@@ -223,11 +262,11 @@ final class CsvFile {
         }
     }
 
-    private CSVReader createCSVReader(Reader reader) {
+    private CSVReader createCSVReader(Reader reader, ICSVParser parser) {
         var builder = new CSVReaderBuilder(reader);
         config.builderCustomizer.accept(builder);
         return builder
-                .withCSVParser(config.parserConfig.createParser())
+                .withCSVParser(parser)
                 .withSkipLines(config.skipLines)
                 .build();
     }
@@ -246,17 +285,20 @@ final class CsvFile {
      * @param charset
      *         character set for reading the file
      * @param skipLines
-     *         number of lines to skip before reading header or first row (primarily for testing purposes)
+     *         number of lines to skip before reading header or first row (e.g. to resume reading, see
+     *         {@link CsvFileSet#resumeAt(int, long)})
      * @param headerRow
      *         {@code true} read the first line after {@code skipLines} as header, {@code false} read the first line
      *         after {@code skipLines} as row data
      * @param parserConfig
      *         CSV parser config
+     * @param limits
+     *         limits on the fields and records of the CSV file (since 4)
      * @param builderCustomizer
      *         additional customization of the CSV reader builder
      * @see #Config(Charset, int, boolean, CsvParserConfig)
      */
-    record Config(Charset charset, int skipLines, boolean headerRow, CsvParserConfig parserConfig,
+    record Config(Charset charset, int skipLines, boolean headerRow, CsvParserConfig parserConfig, CsvLimits limits,
             Consumer<CSVReaderBuilder> builderCustomizer) {
 
         private static final Consumer<CSVReaderBuilder> VOID_CUSTOMIZER = i -> {
@@ -265,9 +307,30 @@ final class CsvFile {
         Config {
             requireNonNull(charset, "charset");
             requireNonNull(parserConfig, "parserConfig");
+            requireNonNull(limits, "limits");
             requireNonNull(builderCustomizer, "builderCustomizer");
         }
 
+        /**
+         * Creates a config with the default limits (see {@link CsvLimits#getDefault()}).
+         *
+         * @param charset
+         *         character set for reading the file
+         * @param skipLines
+         *         number of lines to skip before reading first header or row
+         * @param headerRow
+         *         {@code true} read the first line after {@code skipLines} as header, {@code false} read the first line
+         *         after {@code skipLines} as row data
+         * @param parserConfig
+         *         CSV parser config
+         * @param builderCustomizer
+         *         additional customization of the CSV reader builder
+         */
+        Config(Charset charset, int skipLines, boolean headerRow, CsvParserConfig parserConfig,
+                Consumer<CSVReaderBuilder> builderCustomizer) {
+            this(charset, skipLines, headerRow, parserConfig, CsvLimits.getDefault(), builderCustomizer);
+        }
+
         /**
          * @param charset
          *         character set for reading the file
@@ -295,7 +358,19 @@ final class CsvFile {
          * @return new {@code Config} derived from this instance with {@code builderCustomizer} replaced
          */
         Config withBuilderCustomizer(Consumer<CSVReaderBuilder> builderCustomizer) {
-            return new Config(charset, skipLines, headerRow, parserConfig, builderCustomizer);
+            return new Config(charset, skipLines, headerRow, parserConfig, limits, builderCustomizer);
+        }
+
+        /**
+         * Returns a copy of this {@code Config} with the new {@code limits}.
+         *
+         * @param limits
+         *         new limits on the fields and records of the CSV file
+         * @return new {@code Config} derived from this instance with {@code limits} replaced
+         * @since 4
+         */
+        Config withLimits(CsvLimits limits) {
+            return new Config(charset, skipLines, headerRow, parserConfig, limits, builderCustomizer);
         }
 
     }
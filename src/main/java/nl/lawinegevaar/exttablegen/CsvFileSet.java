@@ -0,0 +1,330 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import java.util.function.UnaryOperator;
+
+import static java.lang.System.Logger.Level.TRACE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * One or more CSV files (<em>parts</em>) which together form the input of one external table.
+ * <p>
+ * All parts are expected to have the same structure. If the parts have a header row, the header of each part must
+ * match the header of the first part.
+ * </p>
+ *
+ * @param parts
+ *         parts in the order they need to be processed (cannot be empty)
+ * @since 4
+ */
+record CsvFileSet(List<Part> parts) {
+
+    private static final System.Logger log = System.getLogger(CsvFileSet.class.getName());
+
+    CsvFileSet {
+        if (requireNonNull(parts, "parts").isEmpty()) {
+            throw new IllegalArgumentException("A CSV file set requires at least one part");
+        }
+        parts = List.copyOf(parts);
+    }
+
+    /**
+     * Creates a CSV file set with a single part.
+     *
+     * @param csvFile
+     *         CSV file
+     * @return CSV file set with {@code csvFile} as its only part
+     */
+    static CsvFileSet of(CsvFile csvFile) {
+        return new CsvFileSet(List.of(new Part(String.valueOf(csvFile), csvFile)));
+    }
+
+    /**
+     * @return number of parts
+     */
+    int size() {
+        return parts.size();
+    }
+
+    /**
+     * @return the configuration of the first part
+     */
+    CsvFile.Config config() {
+        return parts.get(0).csvFile().config();
+    }
+
+    /**
+     * Returns a copy of this set with the configuration of each part modified by {@code configModifier}.
+     *
+     * @param configModifier
+     *         function to derive the new configuration from the existing configuration of a part
+     * @return new CSV file set
+     */
+    CsvFileSet withConfig(UnaryOperator<CsvFile.Config> configModifier) {
+        return new CsvFileSet(parts.stream()
+                .map(part -> part.withCsvFile(part.csvFile().withConfig(configModifier.apply(part.csvFile().config()))))
+                .toList());
+    }
+
+    /**
+     * Reads all parts in order, pushing the header, rows, exceptions and completion to {@code rowProcessor} as if the
+     * parts were one CSV file.
+     * <p>
+     * The header of the first part is pushed to {@code rowProcessor}, the headers of subsequent parts are only
+     * compared to the first header. A mismatch stops processing with a {@link CsvHeaderMismatchException}. The end of
+     * each part is signalled to {@link RowProcessor#onEndOfFile(long)} with the lines read from that part. The
+     * completion is signalled once, after the last part was read, or when processing stopped.
+     * </p>
+     *
+     * @param rowProcessor
+     *         row processor to accept the rows and other information
+     * @return processing result, which is either the {@code Stop} or {@code Unsubscribe} from the processor which ended
+     * processing prematurely, or a {@code Done} at the end of all processing
+     * @throws FatalRowProcessingException
+     *         for fatal {@code Exception}s or when a &mdash; possible &mdash; infinite loop in processing is detected
+     * @see CsvFile#readFile(RowProcessor)
+     */
+    ProcessingResult readFile(RowProcessor rowProcessor) throws FatalRowProcessingException {
+        return readFile(rowProcessor, partIndex -> {});
+    }
+
+    /**
+     * Reads all parts in order, pushing the header, rows, exceptions and completion to {@code rowProcessor} as if the
+     * parts were one CSV file, and signalling the start of each part to {@code partStartListener}.
+     *
+     * @param rowProcessor
+     *         row processor to accept the rows and other information
+     * @param partStartListener
+     *         listener receiving the index of a part before the part is read
+     * @return processing result, which is either the {@code Stop} or {@code Unsubscribe} from the processor which ended
+     * processing prematurely, or a {@code Done} at the end of all processing
+     * @throws FatalRowProcessingException
+     *         for fatal {@code Exception}s or when a &mdash; possible &mdash; infinite loop in processing is detected
+     * @see #readFile(RowProcessor)
+     * @since 4
+     */
+    ProcessingResult readFile(RowProcessor rowProcessor, IntConsumer partStartListener)
+            throws FatalRowProcessingException {
+        var partProcessor = new PartRowProcessor(rowProcessor);
+        try {
+            for (int partIndex = 0; partIndex < parts.size(); partIndex++) {
+                Part part = parts.get(partIndex);
+                partStartListener.accept(partIndex);
+                partProcessor.currentPart = part;
+                ProcessingResult result = part.csvFile().readFile(partProcessor);
+                if (!(result instanceof ProcessingResult.Done)) {
+                    return result;
+                }
+            }
+            return ProcessingResult.done();
+        } finally {
+            try {
+                if (rowProcessor.onComplete() instanceof ProcessingResult.StopWithException swe) {
+                    log.log(TRACE, "Received an exception from onComplete", swe.exception());
+                }
+            } catch (RuntimeException e) {
+                log.log(TRACE, "Received an exception from onComplete", e);
+            }
+        }
+    }
+
+    /**
+     * Returns a CSV file set to resume reading at line {@code linesRead} of part {@code partIndex}.
+     * <p>
+     * The returned set starts with part {@code partIndex}, which skips its first {@code linesRead} lines (including its
+     * header row, if any), and is read without header row. The subsequent parts are unchanged.
+     * </p>
+     *
+     * @param partIndex
+     *         index of the part to resume
+     * @param linesRead
+     *         number of lines of the part to skip
+     * @return new CSV file set
+     * @throws IllegalArgumentException
+     *         if {@code partIndex} is out of range, or {@code linesRead} is negative or too large to skip
+     */
+    CsvFileSet resumeAt(int partIndex, long linesRead) {
+        Objects.checkIndex(partIndex, parts.size());
+        if (linesRead < 0 || linesRead > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cannot skip %d lines".formatted(linesRead));
+        }
+        var resumedParts = new ArrayList<>(parts.subList(partIndex, parts.size()));
+        Part resumedPart = resumedParts.get(0);
+        CsvFile.Config config = resumedPart.csvFile().config();
+        resumedParts.set(0, resumedPart.withCsvFile(resumedPart.csvFile().withConfig(new CsvFile.Config(
+                config.charset(), (int) linesRead, false, config.parserConfig(), config.limits(),
+                config.builderCustomizer()))));
+        return new CsvFileSet(resumedParts);
+    }
+
+    /**
+     * Checks if {@code header} of {@code part} matches the header of the first part.
+     *
+     * @param firstHeader
+     *         header of the first part
+     * @param part
+     *         part
+     * @param header
+     *         header of {@code part}
+     * @throws CsvHeaderMismatchException
+     *         if {@code header} does not match {@code firstHeader}
+     */
+    static void requireMatchingHeader(Row firstHeader, Part part, Row header) {
+        if (!firstHeader.data().equals(header.data())) {
+            throw new CsvHeaderMismatchException(
+                    "Header of CSV file '%s' does not match the header of the first CSV file; expected: %s, was: %s"
+                            .formatted(part.name(), firstHeader.data(), header.data()));
+        }
+    }
+
+    /**
+     * Reads only the header of each part, and checks that the headers of all parts match the header of the first part.
+     * <p>
+     * Parts without a header row, or with a header row which cannot be read, are skipped; an unreadable header row is
+     * reported when the part itself is read.
+     * </p>
+     *
+     * @throws CsvHeaderMismatchException
+     *         if the header of a part does not match the header of the first part
+     * @throws FatalRowProcessingException
+     *         for fatal exceptions reading a part
+     * @since 4
+     */
+    void requireMatchingHeaders() {
+        if (!config().headerRow()) return;
+        @Nullable Row firstHeader = null;
+        for (Part part : parts) {
+            var headerReader = new HeaderReader();
+            part.csvFile().readFile(headerReader);
+            Row header = headerReader.header;
+            // an empty part has no header
+            if (header == null) continue;
+            if (firstHeader == null) {
+                firstHeader = header;
+            } else {
+                requireMatchingHeader(firstHeader, part, header);
+            }
+        }
+    }
+
+    /**
+     * A part of a CSV file set.
+     *
+     * @param name
+     *         name of the part (e.g. its file path) for logging and error messages
+     * @param csvFile
+     *         CSV file of the part
+     */
+    record Part(String name, CsvFile csvFile) {
+
+        Part {
+            requireNonNull(name, "name");
+            requireNonNull(csvFile, "csvFile");
+        }
+
+        Part withCsvFile(CsvFile csvFile) {
+            return new Part(name, csvFile);
+        }
+
+    }
+
+    /**
+     * Row processor to forward the information of all parts to a single row processor.
+     */
+    private static final class PartRowProcessor implements RowProcessor {
+
+        private final RowProcessor delegate;
+        private @Nullable Part currentPart;
+        private @Nullable Row firstHeader;
+
+        PartRowProcessor(RowProcessor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ProcessingResult onHeader(Row header) {
+            Row firstHeader = this.firstHeader;
+            if (firstHeader == null) {
+                this.firstHeader = header;
+                return delegate.onHeader(header);
+            } else if (firstHeader.equals(Row.noHeader()) && !header.equals(Row.noHeader())) {
+                // first part was resumed without header row (see resumeAt); compare to the first header read instead
+                this.firstHeader = header;
+                return ProcessingResult.continueProcessing();
+            }
+            try {
+                requireMatchingHeader(firstHeader, requireNonNull(currentPart, "currentPart"), header);
+                return ProcessingResult.continueProcessing();
+            } catch (CsvHeaderMismatchException e) {
+                return ProcessingResult.stopWith(e);
+            }
+        }
+
+        @Override
+        public ProcessingResult onRow(Row row) {
+            return delegate.onRow(row);
+        }
+
+        @Override
+        public ProcessingResult onException(Exception exception) {
+            return delegate.onException(exception);
+        }
+
+        @Override
+        public void onEndOfFile(long linesRead) {
+            delegate.onEndOfFile(linesRead);
+        }
+
+        @Override
+        public ProcessingResult.Stop onComplete() {
+            // completion of a part; completion of the delegate is signalled by readFile after the last part
+            return ProcessingResult.stopProcessing();
+        }
+
+    }
+
+    /**
+     * Row processor which reads the header of a CSV file, and stops processing after the header.
+     */
+    private static final class HeaderReader extends AbstractRowProcessor {
+
+        private @Nullable Row header;
+        private boolean headerFailed;
+
+        @Override
+        public ProcessingResult onHeader(Row header) {
+            // after an exception reading the header row, the header is a placeholder
+            if (!headerFailed) {
+                this.header = header;
+            }
+            return ProcessingResult.stopProcessing();
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * Continues processing, so an exception reading the header row results in a placeholder header (which is
+         * ignored), and fatal exceptions are thrown by {@link CsvFile#readFile(RowProcessor)}.
+         * </p>
+         */
+        @Override
+        ProcessingResult onExceptionHandler(Exception exception) {
+            headerFailed = true;
+            return ProcessingResult.continueProcessing();
+        }
+
+        @Override
+        public ProcessingResult onRow(Row row) {
+            return ProcessingResult.stopProcessing();
+        }
+
+    }
+
+}
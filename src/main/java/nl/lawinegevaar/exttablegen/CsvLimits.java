@@ -0,0 +1,100 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import com.opencsv.ICSVParser;
+import nl.lawinegevaar.exttablegen.type.FbCharacterDataType;
+
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Limits on the fields and records read from a CSV file, to bound the memory used for malformed CSV files (e.g. a
+ * missing closing quote, which would make the rest of the file a single field).
+ * <p>
+ * The limits are enforced on the characters of the CSV file (including quotes and separators) before the CSV parser
+ * builds the record, see {@link BoundedCsvReader}. By default, there are no limits, and the CSV file is read without
+ * a {@code BoundedCsvReader}, so the extra scan of the characters is only done when a limit or truncation is
+ * requested.
+ * </p>
+ *
+ * @param maxFieldLength
+ *         maximum length of a field in characters, {@code 0} for no limit
+ * @param maxRecordLength
+ *         maximum length of a record in characters, {@code 0} for no limit
+ * @param truncateStrings
+ *         {@code true} truncate values of {@code CHAR} and {@code VARCHAR} columns which are too long for the column
+ *         while reading, instead of rejecting them; values exceeding the column length do not count toward
+ *         {@code maxFieldLength} and {@code maxRecordLength}
+ * @param stringColumnLengths
+ *         length (in Unicode codepoints) of the {@code CHAR} and {@code VARCHAR} columns by index of the field, and
+ *         {@code 0} for other columns (only used if {@code truncateStrings} is {@code true})
+ * @since 4
+ */
+record CsvLimits(int maxFieldLength, int maxRecordLength, boolean truncateStrings, List<Integer> stringColumnLengths) {
+
+    private static final CsvLimits DEFAULT = new CsvLimits(0, 0, false);
+
+    CsvLimits {
+        if (maxFieldLength < 0) {
+            throw new IllegalArgumentException("maxFieldLength must be 0 or greater, was: " + maxFieldLength);
+        }
+        if (maxRecordLength < 0) {
+            throw new IllegalArgumentException("maxRecordLength must be 0 or greater, was: " + maxRecordLength);
+        }
+        stringColumnLengths = List.copyOf(stringColumnLengths);
+    }
+
+    CsvLimits(int maxFieldLength, int maxRecordLength, boolean truncateStrings) {
+        this(maxFieldLength, maxRecordLength, truncateStrings, List.of());
+    }
+
+    /**
+     * @return default limits (no maximum field and record length, no truncation)
+     */
+    static CsvLimits getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns a copy of these limits with the lengths of the {@code CHAR} and {@code VARCHAR} columns of
+     * {@code externalTable}.
+     *
+     * @param externalTable
+     *         external table
+     * @return new limits for truncating the string values of {@code externalTable}
+     */
+    CsvLimits withStringColumnLengths(ExternalTable externalTable) {
+        List<Integer> lengths = externalTable.columns().stream()
+                .limit(externalTable.normalColumnCount())
+                .map(column -> column.datatype() instanceof FbCharacterDataType<?> characterDataType
+                        ? characterDataType.length()
+                        : 0)
+                .toList();
+        return new CsvLimits(maxFieldLength, maxRecordLength, truncateStrings, lengths);
+    }
+
+    /**
+     * @return {@code true} if values are truncated while reading
+     */
+    boolean truncates() {
+        return truncateStrings && stringColumnLengths.stream().anyMatch(length -> length > 0);
+    }
+
+    /**
+     * Wraps {@code reader} to enforce these limits.
+     *
+     * @param reader
+     *         reader of the CSV file
+     * @param parser
+     *         CSV parser which will parse the characters of {@code reader} (to detect quotes, separators and escapes)
+     * @param truncateFromLine
+     *         first line (1-based) of the CSV file for which values are truncated (e.g. to exclude the header row)
+     * @return reader enforcing the limits, or {@code reader} if there are no limits
+     */
+    Reader bound(Reader reader, ICSVParser parser, long truncateFromLine) {
+        if (maxFieldLength == 0 && maxRecordLength == 0 && !truncates()) return reader;
+        return new BoundedCsvReader(reader, this, parser, truncateFromLine);
+    }
+
+}
@@ -0,0 +1,305 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Splits a CSV file into byte ranges which each start at the start of a record, so the ranges can be parsed
+ * concurrently.
+ * <p>
+ * A byte position alone does not tell if it is inside a quoted field (which can contain line breaks), so splitting uses
+ * two phases:
+ * </p>
+ * <ol>
+ * <li>The file is divided in chunks of (almost) equal size, and each chunk is scanned concurrently. As the quote state
+ * at the start of a chunk is not yet known, the scan determines the first record boundary (the position after a line
+ * feed outside quotes) for both starting states: <em>not in quotes</em> and <em>in quotes</em>. As quotes toggle the
+ * state (a doubled quote inside a quoted field toggles it twice), the scan also determines the parity of the number of
+ * quotes of the chunk.</li>
+ * <li>A sequential pass over the chunk summaries resolves the actual quote state at the start of each chunk from the
+ * parity of the preceding chunks (the file starts not in quotes), which selects the record boundary of the chunk. A
+ * chunk without a record boundary is merged with the preceding range.</li>
+ * </ol>
+ * <p>
+ * This requires RFC 4180 quoting (see {@link CsvType#RFC_4180}), and a character set in which the quote and line feed
+ * bytes cannot occur as part of another character (UTF-8, or a single-byte character set which encodes both as
+ * ASCII). Line breaks are expected to be LF or CRLF. For input which is not valid RFC 4180 (e.g. a quote inside an
+ * unquoted field, or an unterminated quoted field), the quote state of the splitter may differ from the parser; the
+ * parser will then report an error for one of the affected ranges, possibly for a different record than when the file
+ * is read sequentially.
+ * </p>
+ *
+ * @since 4
+ */
+final class CsvRecordSplitter {
+
+    private static final byte LF = '\n';
+
+    private final byte quote;
+
+    /**
+     * Creates a CSV record splitter.
+     *
+     * @param quoteChar
+     *         quote character (must be ASCII)
+     * @throws IllegalArgumentException
+     *         if {@code quoteChar} is not ASCII, or is a line break
+     */
+    CsvRecordSplitter(char quoteChar) {
+        if (quoteChar >= 0x80 || quoteChar == '\n' || quoteChar == '\r') {
+            throw new IllegalArgumentException("quoteChar must be ASCII, and not a line break, was: U+%04X"
+                    .formatted((int) quoteChar));
+        }
+        quote = (byte) quoteChar;
+    }
+
+    /**
+     * Creates a CSV record splitter for the configuration of a CSV file, if supported.
+     *
+     * @param config
+     *         configuration of the CSV file
+     * @return CSV record splitter, or empty if the CSV type is not RFC 4180, or the quote character or character set
+     * is not supported
+     */
+    static Optional<CsvRecordSplitter> of(CsvFile.Config config) {
+        CsvParserConfig parserConfig = config.parserConfig();
+        if (parserConfig.type() != CsvType.RFC_4180 || !isAsciiCompatible(config.charset())) return Optional.empty();
+        char quote = parserConfig.createParser().getQuotechar();
+        if (quote >= 0x80 || quote == '\n' || quote == '\r') return Optional.empty();
+        return Optional.of(new CsvRecordSplitter(quote));
+    }
+
+    /**
+     * Checks if ASCII bytes in {@code charset} always encode the same ASCII character.
+     * <p>
+     * This is the case for UTF-8 (bytes of multibyte characters are {@code 0x80} or higher), and for single-byte
+     * character sets which encode ASCII as ASCII.
+     * </p>
+     */
+    private static boolean isAsciiCompatible(Charset charset) {
+        if (charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+            || charset.equals(StandardCharsets.ISO_8859_1)) {
+            return true;
+        }
+        if (!charset.canEncode() || charset.newEncoder().maxBytesPerChar() != 1) return false;
+        String ascii = IntStream.range(0, 0x80).collect(StringBuilder::new, StringBuilder::appendCodePoint,
+                StringBuilder::append).toString();
+        return ascii.equals(new String(ascii.getBytes(charset), StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Splits {@code data} (from index {@code 0} to its limit) into ranges starting at a record.
+     *
+     * @param data
+     *         CSV data
+     * @param chunkCount
+     *         number of chunks to scan concurrently, which is the maximum number of ranges
+     * @return ranges in order, covering all of {@code data}; a single range if the data has no record boundaries
+     * (other than at the end), or if {@code data} is empty
+     */
+    List<Range> split(ByteBuffer data, int chunkCount) {
+        ByteBuffer buffer = data.duplicate();
+        try {
+            return split(buffer.limit(), chunkCount, (start, length) -> buffer.slice((int) start, length));
+        } catch (IOException e) {
+            // not thrown for a byte buffer
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Splits the file {@code path} into ranges starting at a record.
+     * <p>
+     * The chunks of the file are mapped into memory for scanning.
+     * </p>
+     *
+     * @param path
+     *         CSV file
+     * @param chunkCount
+     *         number of chunks to scan concurrently, which is the maximum number of ranges; the actual number of
+     *         chunks is increased if needed to keep chunks smaller than 2 GiB
+     * @return ranges in order, covering the entire file; a single range if the file has no record boundaries (other
+     * than at the end), or if the file is empty
+     * @throws IOException
+     *         for errors reading the file
+     */
+    List<Range> split(Path path, int chunkCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            long size = channel.size();
+            int minimumChunkCount = (int) Math.min(Integer.MAX_VALUE, (size - 1) / Integer.MAX_VALUE + 1);
+            return split(size, Math.max(chunkCount, minimumChunkCount),
+                    (start, length) -> channel.map(FileChannel.MapMode.READ_ONLY, start, length));
+        }
+    }
+
+    private List<Range> split(long size, int chunkCount, ChunkSource chunkSource) throws IOException {
+        if (chunkCount < 1) {
+            throw new IllegalArgumentException("chunkCount must be at least 1, was: " + chunkCount);
+        }
+        if (size == 0) return List.of(new Range(0, 0, 1));
+        long chunkSize = (size - 1) / Math.min(chunkCount, size) + 1;
+        int actualChunkCount = (int) ((size - 1) / chunkSize + 1);
+        List<ChunkSummary> summaries;
+        try {
+            // Phase 1: scan chunks concurrently
+            summaries = IntStream.range(0, actualChunkCount)
+                    .parallel()
+                    .mapToObj(chunkIndex -> {
+                        long start = chunkIndex * chunkSize;
+                        int length = (int) Math.min(chunkSize, size - start);
+                        try {
+                            return scan(chunkSource.chunk(start, length), start);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return resolve(summaries, size);
+    }
+
+    /**
+     * Phase 2: resolves the quote state at the start of each chunk, and derives the ranges.
+     */
+    private static List<Range> resolve(List<ChunkSummary> summaries, long size) {
+        var ranges = new ArrayList<Range>(summaries.size());
+        long rangeStart = 0;
+        long rangeFirstLine = 1;
+        boolean inQuotes = false;
+        // line feeds before the current chunk
+        long lineFeeds = 0;
+        for (ChunkSummary summary : summaries) {
+            // The first chunk starts at the start of the file, so it is never split
+            if (summary.start() != 0) {
+                long boundary = summary.boundary(inQuotes);
+                if (boundary != ChunkSummary.NO_BOUNDARY && boundary < size) {
+                    ranges.add(new Range(rangeStart, boundary, rangeFirstLine));
+                    rangeStart = boundary;
+                    rangeFirstLine = 1 + lineFeeds + summary.lineFeedsUpToBoundary(inQuotes);
+                }
+            }
+            inQuotes ^= summary.oddQuoteCount();
+            lineFeeds += summary.lineFeeds();
+        }
+        ranges.add(new Range(rangeStart, size, rangeFirstLine));
+        return List.copyOf(ranges);
+    }
+
+    /**
+     * Phase 1: scans a chunk for both possible quote states at its start.
+     *
+     * @param chunk
+     *         chunk data (from index {@code 0} to its limit)
+     * @param start
+     *         position of the chunk in the file
+     * @return summary of the chunk
+     */
+    private ChunkSummary scan(ByteBuffer chunk, long start) {
+        final byte quote = this.quote;
+        int limit = chunk.limit();
+        // parity of the quotes seen so far: 0 (even), 1 (odd)
+        int quoteParity = 0;
+        int lineFeeds = 0;
+        // index 0: line feed after an even number of quotes; index 1: after an odd number of quotes
+        int[] firstLineFeed = { -1, -1 };
+        int[] lineFeedsUpToFirst = new int[2];
+        for (int idx = 0; idx < limit; idx++) {
+            byte b = chunk.get(idx);
+            if (b == quote) {
+                quoteParity ^= 1;
+            } else if (b == LF) {
+                lineFeeds++;
+                if (firstLineFeed[quoteParity] == -1) {
+                    firstLineFeed[quoteParity] = idx;
+                    lineFeedsUpToFirst[quoteParity] = lineFeeds;
+                }
+            }
+        }
+        return new ChunkSummary(start, quoteParity == 1, lineFeeds,
+                // starting not in quotes, a line feed after an even number of quotes is outside quotes
+                firstLineFeed[0] != -1 ? start + firstLineFeed[0] + 1 : ChunkSummary.NO_BOUNDARY,
+                lineFeedsUpToFirst[0],
+                // starting in quotes, a line feed after an odd number of quotes is outside quotes
+                firstLineFeed[1] != -1 ? start + firstLineFeed[1] + 1 : ChunkSummary.NO_BOUNDARY,
+                lineFeedsUpToFirst[1]);
+    }
+
+    /**
+     * A range of a CSV file, starting at the start of a record.
+     *
+     * @param start
+     *         position of the first byte (inclusive)
+     * @param end
+     *         position of the end (exclusive)
+     * @param firstLine
+     *         1-based line number (in the file) of the first line of the range
+     */
+    record Range(long start, long end, long firstLine) {
+
+        /**
+         * @return length of the range in bytes
+         */
+        long length() {
+            return end - start;
+        }
+
+    }
+
+    /**
+     * Summary of a scanned chunk.
+     *
+     * @param start
+     *         position of the chunk in the file
+     * @param oddQuoteCount
+     *         {@code true} if the chunk contains an odd number of quotes (i.e. the quote state at the end is the
+     *         opposite of the state at the start)
+     * @param lineFeeds
+     *         number of line feeds in the chunk
+     * @param boundaryNotInQuotes
+     *         position after the first line feed outside quotes if the chunk starts not in quotes, or
+     *         {@link #NO_BOUNDARY}
+     * @param lineFeedsNotInQuotes
+     *         number of line feeds of the chunk up to and including the line feed of {@code boundaryNotInQuotes}
+     * @param boundaryInQuotes
+     *         position after the first line feed outside quotes if the chunk starts in quotes, or {@link #NO_BOUNDARY}
+     * @param lineFeedsInQuotes
+     *         number of line feeds of the chunk up to and including the line feed of {@code boundaryInQuotes}
+     */
+    private record ChunkSummary(long start, boolean oddQuoteCount, long lineFeeds, long boundaryNotInQuotes,
+            long lineFeedsNotInQuotes, long boundaryInQuotes, long lineFeedsInQuotes) {
+
+        static final long NO_BOUNDARY = -1;
+
+        long boundary(boolean startsInQuotes) {
+            return startsInQuotes ? boundaryInQuotes : boundaryNotInQuotes;
+        }
+
+        long lineFeedsUpToBoundary(boolean startsInQuotes) {
+            return startsInQuotes ? lineFeedsInQuotes : lineFeedsNotInQuotes;
+        }
+
+    }
+
+    @FunctionalInterface
+    private interface ChunkSource {
+
+        ByteBuffer chunk(long start, int length) throws IOException;
+
+    }
+
+}
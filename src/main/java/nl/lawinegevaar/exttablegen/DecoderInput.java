@@ -0,0 +1,179 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Input for endian-sensitive decoding of external table rows; counterpart of {@link EncoderOutputStream}.
+ * <p>
+ * Alignment is calculated the same way as in {@link EncoderOutputStream}, so a row written by an encoder output stream
+ * configured with the same byte order and column count can be read back column by column.
+ * </p>
+ *
+ * @since 4
+ */
+public final class DecoderInput {
+
+    private static final int NULL_MASK_BLOCK_SIZE = 4;
+    private static final int COLUMNS_PER_NULL_MASK_BLOCK = 32;
+
+    private final ByteBuffer buffer;
+    // Size of the null mask of a row; this is used as a virtual offset for alignment purposes
+    private final int nullMaskSize;
+    // NOTE: This is a virtual position, see EncoderOutputStream.positionInRow
+    private int positionInRow;
+
+    private DecoderInput(ByteBuffer buffer, ByteOrder byteOrder, int columnCount) {
+        this.buffer = buffer.duplicate().order(byteOrder);
+        // size of unwritten NULL mask (4 bytes per 32 columns)
+        nullMaskSize = NULL_MASK_BLOCK_SIZE * (1 + (columnCount - 1) / COLUMNS_PER_NULL_MASK_BLOCK);
+    }
+
+    /**
+     * Signals the start of a new row.
+     * <p>
+     * Calling this for each row is necessary for correct calculation of alignment.
+     * </p>
+     */
+    public void startRow() {
+        // offset position with unwritten NULL mask
+        positionInRow = nullMaskSize;
+    }
+
+    /**
+     * Skips the padding needed to align the next value to multiples of {@code alignment}.
+     *
+     * @param alignment
+     *         alignment range: [1, 8], 1 means no alignment
+     */
+    public void align(int alignment) {
+        assert 1 <= alignment && alignment <= 8 : "alignment must be [1, 8], was: " + alignment;
+        int requiredBytes = alignment - positionInRow % alignment;
+        if (requiredBytes > 0 && requiredBytes < alignment) {
+            if (positionInRow != nullMaskSize) {
+                skip(requiredBytes);
+            } else {
+                // this is alignment before the first column, it wasn't written, only increase the virtual position
+                positionInRow += requiredBytes;
+            }
+        }
+    }
+
+    /**
+     * Skips {@code length} bytes.
+     *
+     * @param length
+     *         number of bytes to skip
+     */
+    public void skip(int length) {
+        buffer.position(buffer.position() + length);
+        positionInRow += length;
+    }
+
+    /**
+     * Reads {@code length} bytes as-is.
+     *
+     * @param length
+     *         number of bytes to read
+     * @return bytes
+     */
+    public byte[] readBytes(int length) {
+        var bytes = new byte[length];
+        buffer.get(bytes);
+        positionInRow += length;
+        return bytes;
+    }
+
+    public short readShort() {
+        positionInRow += Short.BYTES;
+        return buffer.getShort();
+    }
+
+    public int readInt() {
+        positionInRow += Integer.BYTES;
+        return buffer.getInt();
+    }
+
+    public long readLong() {
+        positionInRow += Long.BYTES;
+        return buffer.getLong();
+    }
+
+    public BigInteger readInt128() {
+        return new BigInteger(readToNetworkOrder(16));
+    }
+
+    /**
+     * Reads {@code length} bytes, converting them to network order (big endian).
+     *
+     * @param length
+     *         number of bytes to read
+     * @return bytes in network order
+     */
+    public byte[] readToNetworkOrder(int length) {
+        byte[] bytes = readBytes(length);
+        if (buffer.order() == ByteOrder.LITTLE_ENDIAN) {
+            ArrayUtils.reverse(bytes);
+        }
+        return bytes;
+    }
+
+    public float readFloat() {
+        positionInRow += Float.BYTES;
+        return buffer.getFloat();
+    }
+
+    public double readDouble() {
+        positionInRow += Double.BYTES;
+        return buffer.getDouble();
+    }
+
+    public static Builder of(ByteOrderType byteOrderType) {
+        return new Builder(byteOrderType.byteOrder());
+    }
+
+    public static final class Builder {
+
+        private final ByteOrder byteOrder;
+        private int columnCount;
+
+        private Builder(ByteOrder byteOrder) {
+            this.byteOrder = requireNonNull(byteOrder, "byteOrder");
+        }
+
+        public Builder withColumnCount(int columnCount) {
+            if (columnCount <= 0) {
+                throw new IllegalArgumentException("columnCount must be greater than 0, was: " + columnCount);
+            }
+            this.columnCount = columnCount;
+            return this;
+        }
+
+        /**
+         * Creates a decoder input reading from {@code buffer}, starting at its current position.
+         * <p>
+         * The decoder input reads from a duplicate of {@code buffer}, so the position, limit and byte order of
+         * {@code buffer} are not changed.
+         * </p>
+         *
+         * @param buffer
+         *         byte buffer
+         * @return decoder input
+         */
+        public DecoderInput readFrom(ByteBuffer buffer) {
+            if (columnCount == 0) {
+                throw new IllegalStateException("withColumnCount must be called first");
+            }
+            return new DecoderInput(buffer, byteOrder, columnCount);
+        }
+
+    }
+
+}
@@ -0,0 +1,42 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Output stream which collects its data in direct (off-heap) buffers, and gives access to those buffers to encode
+ * values directly into them.
+ * <p>
+ * {@link EncoderOutputStream} uses this to encode values in the byte order of the external table directly into the
+ * buffers which are written to the file channel, instead of encoding into a heap buffer and copying that into the
+ * output stream.
+ * </p>
+ *
+ * @since 4
+ */
+interface DirectBufferSink {
+
+    /**
+     * @return maximum number of bytes which can be reserved with {@link #reserve(int)}
+     */
+    int maxReserveSize();
+
+    /**
+     * Reserves {@code bytes} bytes in a direct buffer.
+     * <p>
+     * The caller must put exactly {@code bytes} bytes at the position of the returned buffer with relative put
+     * operations (e.g. {@link ByteBuffer#putInt(int)}), before any other write to this sink. The caller is responsible
+     * for setting the byte order of the returned buffer.
+     * </p>
+     *
+     * @param bytes
+     *         number of bytes to reserve, at most {@link #maxReserveSize()}
+     * @return direct buffer with at least {@code bytes} remaining
+     * @throws IOException
+     *         if full buffers could not be written, or if the sink is closed
+     */
+    ByteBuffer reserve(int bytes) throws IOException;
+
+}
@@ -0,0 +1,343 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.lang.System.Logger.Level.ERROR;
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Watches a directory for CSV files, and converts each file once it is complete.
+ * <p>
+ * A file matching the pattern is considered complete when its size and last modified time did not change for the settle
+ * time. Complete files are converted concurrently by a bounded pool of workers. After conversion, the file is moved to
+ * the processed directory, or to the failed directory if the conversion failed.
+ * </p>
+ * <p>
+ * Files which already exist in the directory when watching starts are also converted.
+ * </p>
+ *
+ * @since 4
+ */
+final class DirectoryWatcher implements Closeable {
+
+    private static final System.Logger log = System.getLogger(DirectoryWatcher.class.getName());
+
+    private final WatchConfig watchConfig;
+    private final PathMatcher matcher;
+    private final Consumer<Path> converter;
+    private final WatchService watchService;
+    private final ExecutorService executor;
+    // Only accessed by the thread calling watch()
+    private final Map<Path, FileState> pending = new HashMap<>();
+    private final Set<Path> inProgress = ConcurrentHashMap.newKeySet();
+
+    private DirectoryWatcher(WatchConfig watchConfig, Consumer<Path> converter, WatchService watchService) {
+        this.watchConfig = requireNonNull(watchConfig, "watchConfig");
+        matcher = FileSystems.getDefault().getPathMatcher("glob:" + watchConfig.pattern());
+        this.converter = requireNonNull(converter, "converter");
+        this.watchService = requireNonNull(watchService, "watchService");
+        executor = Executors.newFixedThreadPool(watchConfig.workers(),
+                Thread.ofVirtual().name("ext-table-gen-watch-", 1).factory());
+    }
+
+    /**
+     * Opens a directory watcher.
+     *
+     * @param watchConfig
+     *         watch configuration
+     * @param converter
+     *         converts a CSV file, signalling failure with a runtime exception
+     * @return directory watcher
+     * @throws IOException
+     *         if the directory cannot be watched, or the processed or failed directory cannot be created
+     */
+    static DirectoryWatcher open(WatchConfig watchConfig, Consumer<Path> converter) throws IOException {
+        Files.createDirectories(watchConfig.processedDirectory());
+        Files.createDirectories(watchConfig.failedDirectory());
+        WatchService watchService = watchConfig.directory().getFileSystem().newWatchService();
+        try {
+            watchConfig.directory().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        } catch (IOException | RuntimeException e) {
+            try (watchService) {
+                throw e;
+            }
+        }
+        return new DirectoryWatcher(watchConfig, converter, watchService);
+    }
+
+    /**
+     * Watches the directory until this watcher is closed, or the directory can no longer be watched.
+     *
+     * @throws IOException
+     *         if the files in the directory cannot be listed
+     */
+    void watch() throws IOException {
+        log.log(INFO, "Watching ''{0}'' for files matching ''{1}''", watchConfig.directory(), watchConfig.pattern());
+        scanDirectory();
+        long pollMillis = Math.max(watchConfig.settleTime().toMillis() / 2, 10);
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.poll(pollMillis, TimeUnit.MILLISECONDS);
+            } catch (ClosedWatchServiceException e) {
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (key != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        log.log(DEBUG, "Events lost, rescanning ''{0}''", watchConfig.directory());
+                        scanDirectory();
+                    } else if (event.context() instanceof Path fileName) {
+                        track(watchConfig.directory().resolve(fileName));
+                    }
+                }
+                if (!key.reset()) {
+                    log.log(WARNING, "Directory ''{0}'' can no longer be watched", watchConfig.directory());
+                    break;
+                }
+            }
+            submitCompleteFiles();
+        }
+    }
+
+    private void scanDirectory() throws IOException {
+        try (Stream<Path> files = Files.list(watchConfig.directory())) {
+            files.forEach(this::track);
+        }
+    }
+
+    private void track(Path file) {
+        if (matcher.matches(file.getFileName()) && Files.isRegularFile(file) && !inProgress.contains(file)) {
+            pending.putIfAbsent(file, FileState.UNKNOWN);
+        }
+    }
+
+    /**
+     * Submits the files which did not change for the settle time for conversion.
+     */
+    private void submitCompleteFiles() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Path, FileState>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, FileState> entry = iterator.next();
+            Path file = entry.getKey();
+            FileState current;
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                current = new FileState(attributes.size(), attributes.lastModifiedTime(), now);
+            } catch (NoSuchFileException e) {
+                iterator.remove();
+                continue;
+            } catch (IOException e) {
+                log.log(DEBUG, "Could not read attributes of ''{0}'': {1}", file, e.toString());
+                continue;
+            }
+            FileState previous = entry.getValue();
+            if (!current.isSameAs(previous)) {
+                entry.setValue(current);
+            } else if (now - previous.sinceNanos() >= watchConfig.settleTime().toNanos()) {
+                iterator.remove();
+                inProgress.add(file);
+                try {
+                    executor.execute(() -> process(file));
+                } catch (RejectedExecutionException e) {
+                    // Watcher was closed
+                    inProgress.remove(file);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void process(Path file) {
+        try {
+            log.log(INFO, "Converting ''{0}''", file);
+            converter.accept(file);
+            moveTo(file, watchConfig.processedDirectory());
+        } catch (RuntimeException e) {
+            log.log(ERROR, "Conversion of ''{0}'' failed: {1}", file, e.toString());
+            log.log(DEBUG, "Exception converting " + file, e);
+            moveTo(file, watchConfig.failedDirectory());
+        } finally {
+            inProgress.remove(file);
+        }
+    }
+
+    private static void moveTo(Path file, Path directory) {
+        try {
+            Files.move(file, directory.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.log(WARNING, "Could not move ''{0}'' to ''{1}'': {2}", file, directory, e.toString());
+        }
+    }
+
+    /**
+     * Derives the path of an output file for a CSV file from a template path.
+     * <p>
+     * The derived path is in the directory of {@code templatePath}, with the name of {@code csvFile} without its
+     * extension(s), and the extension of {@code templatePath}. For example, for template {@code out/table.dat} and CSV
+     * file {@code in/drop-1.csv.gz}, the derived path is {@code out/drop-1.dat}.
+     * </p>
+     *
+     * @param templatePath
+     *         template path
+     * @param csvFile
+     *         CSV file
+     * @return derived path
+     */
+    static Path derivePath(Path templatePath, Path csvFile) {
+        String templateName = templatePath.getFileName().toString();
+        int extensionStart = templateName.lastIndexOf('.');
+        String extension = extensionStart > 0 ? templateName.substring(extensionStart) : "";
+        return templatePath.resolveSibling(baseName(csvFile) + extension);
+    }
+
+    private static String baseName(Path csvFile) {
+        String name = csvFile.getFileName().toString();
+        if (InputCompression.fromFileName(csvFile) != InputCompression.NONE) {
+            name = stripExtension(name);
+        }
+        if (name.toLowerCase(Locale.ROOT).endsWith(".csv")) {
+            name = stripExtension(name);
+        }
+        return name;
+    }
+
+    private static String stripExtension(String name) {
+        int extensionStart = name.lastIndexOf('.');
+        return extensionStart > 0 ? name.substring(0, extensionStart) : name;
+    }
+
+    /**
+     * Stops watching, and waits for the running conversions to complete.
+     */
+    @Override
+    public void close() throws IOException {
+        try (executor) {
+            watchService.close();
+        }
+    }
+
+    private record FileState(long size, FileTime lastModified, long sinceNanos) {
+
+        static final FileState UNKNOWN = new FileState(-1, FileTime.fromMillis(0), 0);
+
+        boolean isSameAs(FileState other) {
+            return size == other.size && lastModified.equals(other.lastModified);
+        }
+
+    }
+
+}
+
+/**
+ * Configuration of watching a directory for CSV files.
+ *
+ * @param directory
+ *         directory to watch
+ * @param pattern
+ *         glob pattern of the names of the CSV files to convert
+ * @param settleTime
+ *         time the size and last modified time of a file must not change before it is considered complete
+ * @param workers
+ *         maximum number of files converted concurrently
+ * @param processedDirectory
+ *         directory to move converted files to
+ * @param failedDirectory
+ *         directory to move files to which could not be converted
+ * @since 4
+ */
+record WatchConfig(Path directory, String pattern, Duration settleTime, int workers, Path processedDirectory,
+        Path failedDirectory) {
+
+    static final String DEFAULT_PATTERN = "*.csv";
+    static final Duration DEFAULT_SETTLE_TIME = Duration.ofSeconds(2);
+    static final String DEFAULT_PROCESSED_DIRECTORY = "processed";
+    static final String DEFAULT_FAILED_DIRECTORY = "failed";
+
+    WatchConfig {
+        requireNonNull(directory, "directory");
+        requireNonNull(pattern, "pattern");
+        requireNonNull(settleTime, "settleTime");
+        if (settleTime.isNegative()) {
+            throw new IllegalArgumentException("settleTime cannot be negative, was: " + settleTime);
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be at least 1, was: " + workers);
+        }
+        requireNonNull(processedDirectory, "processedDirectory");
+        requireNonNull(failedDirectory, "failedDirectory");
+    }
+
+    /**
+     * Creates a watch configuration with the default pattern, settle time, number of workers (the number of available
+     * processors), and processed and failed directories (subdirectories of {@code directory}).
+     *
+     * @param directory
+     *         directory to watch
+     * @return watch configuration
+     */
+    static WatchConfig of(Path directory) {
+        return new WatchConfig(directory, DEFAULT_PATTERN, DEFAULT_SETTLE_TIME,
+                Runtime.getRuntime().availableProcessors(), directory.resolve(DEFAULT_PROCESSED_DIRECTORY),
+                directory.resolve(DEFAULT_FAILED_DIRECTORY));
+    }
+
+    WatchConfig withPattern(String pattern) {
+        return new WatchConfig(directory, pattern, settleTime, workers, processedDirectory, failedDirectory);
+    }
+
+    WatchConfig withSettleTime(Duration settleTime) {
+        return new WatchConfig(directory, pattern, settleTime, workers, processedDirectory, failedDirectory);
+    }
+
+    WatchConfig withWorkers(int workers) {
+        return new WatchConfig(directory, pattern, settleTime, workers, processedDirectory, failedDirectory);
+    }
+
+    WatchConfig withProcessedDirectory(Path processedDirectory) {
+        return new WatchConfig(directory, pattern, settleTime, workers, processedDirectory, failedDirectory);
+    }
+
+    WatchConfig withFailedDirectory(Path failedDirectory) {
+        return new WatchConfig(directory, pattern, settleTime, workers, processedDirectory, failedDirectory);
+    }
+
+}
@@ -4,6 +4,7 @@ package nl.lawinegevaar.exttablegen;
 
 import nl.lawinegevaar.exttablegen.util.RangeChecks;
 import org.apache.commons.lang3.ArrayUtils;
+import org.jspecify.annotations.Nullable;
 
 import java.io.FilterOutputStream;
 import java.io.IOException;
@@ -11,14 +12,17 @@ import java.io.OutputStream;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.nio.channels.Channels;
-import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * Output stream for endian-sensitive operations.
+ * <p>
+ * If the wrapped output stream collects its data in direct buffers (e.g. with gathering writes), values are encoded
+ * directly into those buffers, otherwise they are encoded in a small heap buffer, and written to the wrapped output
+ * stream.
+ * </p>
  *
  * @since 2
  */
@@ -29,7 +33,8 @@ public final class EncoderOutputStream extends FilterOutputStream {
     private static final int COLUMNS_PER_NULL_MASK_BLOCK = 32;
 
     private final ByteBuffer byteBuffer = ByteBuffer.allocate(REQUIRED_CAPACITY);
-    private final WritableByteChannel channel;
+    private final ByteOrder byteOrder;
+    private final @Nullable DirectBufferSink directSink;
     // Size of the null mask of a row; this is used as a virtual offset for alignment purposes
     private final int nullMaskSize;
     // NOTE: This is a virtual position, it includes an offset for the NULL mask which is not included in the row data,
@@ -43,8 +48,9 @@ public final class EncoderOutputStream extends FilterOutputStream {
             throw new IllegalArgumentException(
                     "An EncoderOutputStream should not wrap an instance of EncoderOutputStream");
         }
+        this.byteOrder = byteOrder;
         byteBuffer.order(byteOrder);
-        channel = Channels.newChannel(out);
+        directSink = out instanceof DirectBufferSink sink && sink.maxReserveSize() >= REQUIRED_CAPACITY ? sink : null;
         // size of unwritten NULL mask (4 bytes per 32 columns)
         nullMaskSize = NULL_MASK_BLOCK_SIZE * (1 + (columnCount - 1) / COLUMNS_PER_NULL_MASK_BLOCK);
     }
@@ -101,21 +107,18 @@ public final class EncoderOutputStream extends FilterOutputStream {
     }
 
     public void writeShort(short v) throws IOException {
-        byteBuffer.clear();
-        byteBuffer.putShort(v);
-        writeBuffer();
+        encodeBuffer(Short.BYTES).putShort(v);
+        encoded(Short.BYTES);
     }
 
     public void writeInt(int v) throws IOException {
-        byteBuffer.clear();
-        byteBuffer.putInt(v);
-        writeBuffer();
+        encodeBuffer(Integer.BYTES).putInt(v);
+        encoded(Integer.BYTES);
     }
 
     public void writeLong(long v) throws IOException {
-        byteBuffer.clear();
-        byteBuffer.putLong(v);
-        writeBuffer();
+        encodeBuffer(Long.BYTES).putLong(v);
+        encoded(Long.BYTES);
     }
 
     public void writeInt128(BigInteger v) throws IOException {
@@ -151,38 +154,43 @@ public final class EncoderOutputStream extends FilterOutputStream {
     }
 
     public void writeFloat(float v) throws IOException {
-        byteBuffer.clear();
-        byteBuffer.putFloat(v);
-        writeBuffer();
+        encodeBuffer(Float.BYTES).putFloat(v);
+        encoded(Float.BYTES);
     }
 
     public void writeDouble(double v) throws IOException {
-        byteBuffer.clear();
-        byteBuffer.putDouble(v);
-        writeBuffer();
+        encodeBuffer(Double.BYTES).putDouble(v);
+        encoded(Double.BYTES);
     }
 
     private byte[] fromNetworkOrder(byte[] bytes) {
-        if (byteBuffer.order() == ByteOrder.LITTLE_ENDIAN) {
+        if (byteOrder == ByteOrder.LITTLE_ENDIAN) {
             ArrayUtils.reverse(bytes);
         }
         return bytes;
     }
 
-    private void writeBuffer() throws IOException {
-        byteBuffer.flip();
-        do {
-            positionInRow += channel.write(byteBuffer);
-        } while (byteBuffer.hasRemaining());
+    /**
+     * Returns the buffer to encode a value of {@code size} bytes into, with the byte order of this stream.
+     * <p>
+     * The value must be put into the buffer with a relative put, followed by a call to {@link #encoded(int)}.
+     * </p>
+     */
+    private ByteBuffer encodeBuffer(int size) throws IOException {
+        if (directSink != null) {
+            return directSink.reserve(size).order(byteOrder);
+        }
+        return byteBuffer.clear();
     }
 
-    @Override
-    public void close() throws IOException {
-        try {
-            super.close();
-        } finally {
-            channel.close();
+    /**
+     * Completes the encoding of a value of {@code size} bytes into the buffer of {@link #encodeBuffer(int)}.
+     */
+    private void encoded(int size) throws IOException {
+        if (directSink == null) {
+            out.write(byteBuffer.array(), 0, size);
         }
+        positionInRow += size;
     }
 
     public static Builder of(ByteOrderType byteOrderType) {
@@ -0,0 +1,155 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+/**
+ * Maximum number of rejected rows of a conversion, either as an absolute count or as a percentage of the rows read.
+ *
+ * @since 4
+ */
+sealed interface ErrorBudget {
+
+    /**
+     * @return error budget which allows no rejected rows
+     */
+    static ErrorBudget none() {
+        return Count.NONE;
+    }
+
+    /**
+     * Parses an error budget.
+     *
+     * @param value
+     *         a number of rows (e.g. {@code 100}), or a percentage of the rows read suffixed with {@code %} (e.g.
+     *         {@code 0.5%})
+     * @return error budget
+     * @throws IllegalArgumentException
+     *         if {@code value} is not a valid error budget
+     */
+    static ErrorBudget parse(String value) {
+        String trimmed = value.trim();
+        try {
+            if (trimmed.endsWith("%")) {
+                return new Percentage(Double.parseDouble(trimmed.substring(0, trimmed.length() - 1).trim()));
+            }
+            return new Count(Long.parseLong(trimmed));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                    "Invalid error budget '%s', expected a number of rows, or a percentage (e.g. 0.5%%)"
+                            .formatted(value), e);
+        }
+    }
+
+    /**
+     * @return {@code true} if this budget allows rejected rows
+     */
+    boolean allowsErrors();
+
+    /**
+     * Checks if {@code errors} rejected rows exceed this budget while rows are still being read.
+     *
+     * @param errors
+     *         number of rejected rows so far
+     * @param rowsRead
+     *         number of rows read so far (including rejected rows)
+     * @return {@code true} if the budget is exceeded, and processing should stop
+     */
+    boolean isExceededWhileReading(long errors, long rowsRead);
+
+    /**
+     * Checks if {@code errors} rejected rows out of {@code rowsRead} rows exceed this budget after all rows were read.
+     *
+     * @param errors
+     *         number of rejected rows
+     * @param rowsRead
+     *         number of rows read (including rejected rows)
+     * @return {@code true} if the budget is exceeded
+     */
+    boolean isExceeded(long errors, long rowsRead);
+
+    /**
+     * Error budget of an absolute number of rejected rows.
+     *
+     * @param maxErrors
+     *         maximum number of rejected rows
+     */
+    record Count(long maxErrors) implements ErrorBudget {
+
+        private static final Count NONE = new Count(0);
+
+        public Count {
+            if (maxErrors < 0) {
+                throw new IllegalArgumentException("maxErrors cannot be negative, was: " + maxErrors);
+            }
+        }
+
+        @Override
+        public boolean allowsErrors() {
+            return maxErrors > 0;
+        }
+
+        @Override
+        public boolean isExceededWhileReading(long errors, long rowsRead) {
+            return errors > maxErrors;
+        }
+
+        @Override
+        public boolean isExceeded(long errors, long rowsRead) {
+            return errors > maxErrors;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(maxErrors);
+        }
+
+    }
+
+    /**
+     * Error budget of a percentage of the rows read.
+     * <p>
+     * While reading, the percentage is checked against the rows read so far, but only once at least
+     * {@link #MIN_ROWS_WHILE_READING} rows were read, so a few rejected rows at the start do not stop the conversion.
+     * After all rows were read, the percentage is checked against all rows read.
+     * </p>
+     *
+     * @param maxPercentage
+     *         maximum percentage of rejected rows [0, 100]
+     */
+    record Percentage(double maxPercentage) implements ErrorBudget {
+
+        /**
+         * Minimum number of rows read before the percentage is checked while reading.
+         */
+        static final long MIN_ROWS_WHILE_READING = 1000;
+
+        public Percentage {
+            if (!(0 <= maxPercentage && maxPercentage <= 100)) {
+                throw new IllegalArgumentException("maxPercentage must be between 0 and 100, was: " + maxPercentage);
+            }
+        }
+
+        @Override
+        public boolean allowsErrors() {
+            return maxPercentage > 0;
+        }
+
+        @Override
+        public boolean isExceededWhileReading(long errors, long rowsRead) {
+            if (errors == 0) return false;
+            return !allowsErrors() || rowsRead >= MIN_ROWS_WHILE_READING && isExceeded(errors, rowsRead);
+        }
+
+        @Override
+        public boolean isExceeded(long errors, long rowsRead) {
+            return errors > 0 && errors * 100.0 > maxPercentage * rowsRead;
+        }
+
+        @Override
+        public String toString() {
+            return maxPercentage + "%";
+        }
+
+    }
+
+}
@@ -1,17 +1,22 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen;
 
 import nl.lawinegevaar.exttablegen.type.FbEncoding;
 import org.jspecify.annotations.Nullable;
 
+import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 import static java.util.Objects.requireNonNull;
 import static java.util.Objects.requireNonNullElse;
@@ -86,7 +91,7 @@ record EtgConfig(TableConfig tableConfig, TableDerivationConfig tableDerivationC
  * CSV file configuration.
  *
  * @param path
- *         path of the CSV file
+ *         path of the CSV file, or a glob pattern to match multiple CSV files (see {@link #resolvePaths()})
  * @param charset
  *         character set of the CSV file
  * @param headerRow
@@ -96,6 +101,8 @@ record EtgConfig(TableConfig tableConfig, TableDerivationConfig tableDerivationC
  */
 record CsvFileConfig(Path path, Charset charset, boolean headerRow, CsvParserConfig parserConfig) {
 
+    private static final String GLOB_CHARACTERS = "*?[{";
+
     CsvFileConfig {
         requireNonNull(path, "path");
         requireNonNull(charset, "charset");
@@ -108,20 +115,90 @@ record CsvFileConfig(Path path, Charset charset, boolean headerRow, CsvParserCon
 
     /**
      * Converts this CSV file config to an {@link InputResource}.
+     * <p>
+     * If the file is gzip or zip compressed, the returned input resource decompresses the file while reading (see
+     * {@link InputCompression#detect(Path)}).
+     * </p>
      *
      * @return input resource
      */
     InputResource toInputResource() {
-        return InputResource.of(path);
+        return toInputResource(path);
+    }
+
+    private static InputResource toInputResource(Path path) {
+        return InputCompression.detect(path).decompress(InputResource.of(path));
     }
 
     /**
      * Converts this CSV file config to a {@link CsvFile}.
+     * <p>
+     * This uses {@code path} as-is, even if it is a glob pattern, use {@link #toCsvFileSet()} to read all files
+     * matching a glob pattern.
+     * </p>
      *
      * @return csv file instance
      */
     CsvFile toCsvFile() {
-        return new CsvFile(toInputResource(), new CsvFile.Config(charset, 0, headerRow, parserConfig));
+        return toCsvFile(path);
+    }
+
+    private CsvFile toCsvFile(Path path) {
+        return new CsvFile(toInputResource(path), new CsvFile.Config(charset, 0, headerRow, parserConfig));
+    }
+
+    /**
+     * Converts this CSV file config to a {@link CsvFileSet} with a part for each file of {@link #resolvePaths()}.
+     *
+     * @return CSV file set
+     * @throws MissingInputResourceException
+     *         if {@code path} is a glob pattern which does not match any file
+     * @since 4
+     */
+    CsvFileSet toCsvFileSet() {
+        return new CsvFileSet(resolvePaths().stream()
+                .map(path -> new CsvFileSet.Part(path.toString(), toCsvFile(path)))
+                .toList());
+    }
+
+    /**
+     * Resolves {@code path} to the CSV file(s) to read.
+     * <p>
+     * If the file name of {@code path} contains a glob pattern (i.e. one of the characters {@code *?[{}), the regular
+     * files in the parent directory of {@code path} with a file name matching the pattern are returned, sorted by file
+     * name. Only the file name can be a pattern. See {@link java.nio.file.FileSystem#getPathMatcher(String)} for the
+     * syntax.
+     * </p>
+     * <p>
+     * Otherwise, a list with only {@code path} is returned, without checking if the file exists.
+     * </p>
+     *
+     * @return list of CSV files (never empty)
+     * @throws MissingInputResourceException
+     *         if {@code path} is a glob pattern which does not match any file, or the directory could not be read
+     * @since 4
+     */
+    List<Path> resolvePaths() {
+        Path fileName = path.getFileName();
+        if (fileName == null || !isGlobPattern(fileName.toString())) return List.of(path);
+        Path directory = requireNonNullElse(path.getParent(), Path.of(""));
+        PathMatcher matcher = directory.getFileSystem().getPathMatcher("glob:" + fileName);
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> matchingFiles = files
+                    .filter(file -> matcher.matches(file.getFileName()) && Files.isRegularFile(file))
+                    .sorted(Comparator.comparing(file -> file.getFileName().toString()))
+                    .toList();
+            if (matchingFiles.isEmpty()) {
+                throw new MissingInputResourceException("No CSV files found matching '%s'".formatted(path));
+            }
+            return matchingFiles;
+        } catch (IOException e) {
+            throw new MissingInputResourceException("Could not list CSV files matching '%s'".formatted(path), e);
+        }
+    }
+
+    private static boolean isGlobPattern(String fileName) {
+        return fileName.chars().anyMatch(c -> GLOB_CHARACTERS.indexOf(c) != -1);
     }
 
     CsvFileConfig withPath(Path path) {
@@ -157,15 +234,64 @@ record CsvFileConfig(Path path, Charset charset, boolean headerRow, CsvParserCon
  *         path of the external table file
  * @param overwrite
  *         {@code true} ext-table-gen can overwrite file if it already exists
+ * @param maxRows
+ *         maximum number of rows per external table file, {@code 0} for no maximum (see {@link #splitBytes(int)})
+ * @param maxBytes
+ *         maximum size in bytes per external table file, {@code 0} for no maximum (see {@link #splitBytes(int)})
+ * @param appendMode
+ *         append mode ({@code null} will be replaced with {@link AppendMode#NONE}); appending cannot be combined with
+ *         {@code maxRows} or {@code maxBytes}
  */
-record TableFile(Path path, boolean overwrite) {
+record TableFile(Path path, boolean overwrite, long maxRows, long maxBytes, AppendMode appendMode) {
+
+    /**
+     * Value of {@code maxRows} and {@code maxBytes} for no maximum.
+     *
+     * @since 4
+     */
+    static final long NO_LIMIT = 0;
+
+    TableFile {
+        requireNonNull(path, "path");
+        if (maxRows < 0) {
+            throw new IllegalArgumentException("maxRows cannot be negative, was: " + maxRows);
+        }
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes cannot be negative, was: " + maxBytes);
+        }
+        if (appendMode == null) {
+            appendMode = AppendMode.NONE;
+        } else if (appendMode != AppendMode.NONE && (maxRows != NO_LIMIT || maxBytes != NO_LIMIT)) {
+            throw new IllegalArgumentException("Appending to a table file cannot be combined with maxRows or maxBytes");
+        }
+    }
+
+    TableFile(Path path, boolean overwrite) {
+        this(path, overwrite, NO_LIMIT, NO_LIMIT);
+    }
+
+    TableFile(Path path, boolean overwrite, long maxRows, long maxBytes) {
+        this(path, overwrite, maxRows, maxBytes, AppendMode.NONE);
+    }
 
     TableFile(String path, boolean overwrite) {
         this(Path.of(path), overwrite);
     }
 
+    TableFile(String path, boolean overwrite, long maxRows, long maxBytes) {
+        this(Path.of(path), overwrite, maxRows, maxBytes);
+    }
+
+    TableFile(String path, boolean overwrite, long maxRows, long maxBytes, AppendMode appendMode) {
+        this(Path.of(path), overwrite, maxRows, maxBytes, appendMode);
+    }
+
     /**
      * Converts this table file to an {@link OutputResource}.
+     * <p>
+     * The returned output resource writes a single file, even if this table file has a maximum number of rows or
+     * bytes; use {@link #toOutputResource(int)} to split the external table over multiple files.
+     * </p>
      *
      * @return output resource
      */
@@ -173,6 +299,125 @@ record TableFile(Path path, boolean overwrite) {
         return OutputResource.of(path, overwrite);
     }
 
+    /**
+     * Converts this table file to an {@link OutputResource}, which splits the external table data into multiple files
+     * if this table file has a maximum number of rows or bytes.
+     *
+     * @param rowLength
+     *         length of a row in bytes (see {@link ExternalTable#rowLength()})
+     * @return output resource, if this table file is split this returns a {@link SplitOutputResource}
+     * @since 4
+     */
+    OutputResource toOutputResource(int rowLength) {
+        if (isAppend()) return OutputResource.append(path, rowLength);
+        if (!isSplit()) return toOutputResource();
+        return new SplitOutputResource(path, overwrite, splitBytes(rowLength));
+    }
+
+    /**
+     * @return {@code true} if rows are appended to an existing table file (i.e. {@code appendMode} is not
+     * {@code NONE})
+     * @since 4
+     */
+    boolean isAppend() {
+        return appendMode != AppendMode.NONE;
+    }
+
+    /**
+     * @return path of the file storing the source offset of the last append to this table file
+     * @see AppendOffset
+     * @since 4
+     */
+    Path appendOffsetPath() {
+        return AppendOffset.offsetFilePath(path);
+    }
+
+    /**
+     * @return {@code true} if the external table should be split over multiple files (i.e. {@code maxRows} or
+     * {@code maxBytes} is not {@code NO_LIMIT})
+     * @since 4
+     */
+    boolean isSplit() {
+        return maxRows != NO_LIMIT || maxBytes != NO_LIMIT;
+    }
+
+    /**
+     * Calculates the number of bytes per file when splitting the external table over multiple files.
+     * <p>
+     * The number of bytes per file is the largest multiple of {@code rowLength} which satisfies both {@code maxRows}
+     * and {@code maxBytes}, with a minimum of one row per file.
+     * </p>
+     *
+     * @param rowLength
+     *         length of a row in bytes
+     * @return number of bytes per file, or {@link Long#MAX_VALUE} if this table file is not split
+     * @since 4
+     */
+    long splitBytes(int rowLength) {
+        if (rowLength < 1) {
+            throw new IllegalArgumentException("rowLength must be at least 1, was: " + rowLength);
+        }
+        if (!isSplit()) return Long.MAX_VALUE;
+        long rowsPerFile = Long.MAX_VALUE / rowLength;
+        if (maxRows != NO_LIMIT) {
+            rowsPerFile = Math.min(rowsPerFile, maxRows);
+        }
+        if (maxBytes != NO_LIMIT) {
+            rowsPerFile = Math.min(rowsPerFile, maxBytes / rowLength);
+        }
+        return Math.max(1, rowsPerFile) * rowLength;
+    }
+
+    /**
+     * @param path
+     *         new path of the table file
+     * @return table file with {@code path}, and the other properties of this table file
+     * @since 4
+     */
+    TableFile withPath(Path path) {
+        if (this.path.equals(path)) return this;
+        return new TableFile(path, overwrite, maxRows, maxBytes, appendMode);
+    }
+
+    TableFile withMaxRows(long maxRows) {
+        if (this.maxRows == maxRows) return this;
+        return new TableFile(path, overwrite, maxRows, maxBytes, appendMode);
+    }
+
+    TableFile withMaxBytes(long maxBytes) {
+        if (this.maxBytes == maxBytes) return this;
+        return new TableFile(path, overwrite, maxRows, maxBytes, appendMode);
+    }
+
+    TableFile withAppendMode(AppendMode appendMode) {
+        if (this.appendMode == appendMode) return this;
+        return new TableFile(path, overwrite, maxRows, maxBytes, appendMode);
+    }
+
+}
+
+/**
+ * Append behaviour for the external table file.
+ *
+ * @since 4
+ */
+enum AppendMode {
+    /**
+     * Do not append; the table file is created, or overwritten if allowed.
+     */
+    NONE,
+    /**
+     * Append all rows of the CSV file(s) to the table file.
+     */
+    ALL,
+    /**
+     * Append only the rows of the CSV file(s) after the source offset stored by the previous append, skipping the rows
+     * which were already appended.
+     * <p>
+     * This is intended for CSV files which only grow by appending rows.
+     * </p>
+     */
+    NEW
 }
 
 /**
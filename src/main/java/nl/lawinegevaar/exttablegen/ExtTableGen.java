@@ -1,13 +1,32 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen;
 
+import com.opencsv.CSVWriterBuilder;
+import com.opencsv.ICSVWriter;
+import com.opencsv.RFC4180Parser;
 import com.opencsv.exceptions.CsvValidationException;
 import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Checksum;
 
+import static java.lang.System.Logger.Level.DEBUG;
 import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -18,10 +37,12 @@ final class ExtTableGen {
     private static final System.Logger log = System.getLogger(ExtTableGen.class.getName());
 
     private EtgConfig config;
+    private final CsvLimits csvLimits;
     private @Nullable ExternalTable externalTable;
 
-    private ExtTableGen(EtgConfig config) {
+    private ExtTableGen(EtgConfig config, CsvLimits csvLimits) {
         this.config = requireNonNull(config, "config");
+        this.csvLimits = requireNonNull(csvLimits, "csvLimits");
     }
 
     EtgConfig config() {
@@ -29,15 +50,26 @@ final class ExtTableGen {
     }
 
     /**
-     * Creates a {@link CsvFile} instance.
+     * Creates a {@link CsvFileSet} instance.
+     * <p>
+     * If the CSV file path is a glob pattern, the set has a part for each matching file, otherwise the set has a single
+     * part.
+     * </p>
      *
-     * @return CsvFile instance
+     * @return CsvFileSet instance
      */
-    CsvFile getCsvFile() {
+    CsvFileSet getCsvFileSet() {
         return config.csvFileConfig()
                 .map(csvFileConfig -> {
-                    log.log(INFO, "Reading CSV input from ''{0}''", csvFileConfig.path());
-                    return csvFileConfig.toCsvFile();
+                    CsvFileSet csvFileSet = csvFileConfig.toCsvFileSet()
+                            .withConfig(csvConfig -> csvConfig.withLimits(csvLimits));
+                    if (csvFileSet.size() == 1) {
+                        log.log(INFO, "Reading CSV input from ''{0}''", csvFileSet.parts().get(0).name());
+                    } else {
+                        log.log(INFO, "Reading CSV input from {0} files matching ''{1}''", csvFileSet.size(),
+                                csvFileConfig.path());
+                    }
+                    return csvFileSet;
                 })
                 .orElseThrow(() ->
                         new MissingInputResourceException("ExtTableGen config has no CSV file configuration"));
@@ -85,13 +117,13 @@ final class ExtTableGen {
      * @see #getOrDeriveExternalTable()
      */
     ExternalTable deriveExternalTable() {
-        CsvFile csvFile = getCsvFile();
+        CsvFileSet csvFileSet = getCsvFileSet();
         TableDerivationConfig tableDerivationConfig = config.tableDerivationConfig();
         TableConfig tableConfig = config.tableConfig();
         ExternalTable externalTable = ExternalTable.deriveFrom(
-                csvFile.withConfig(
+                csvFileSet.withConfig(
                         // Require all rows to have same number of columns
-                        csvFile.config().withBuilderCustomizer(
+                        csvFileConfig -> csvFileConfig.withBuilderCustomizer(
                                 b -> b.withRowValidator(ColumnCountValidator.fromFirstRow()))),
                 new ExternalTable.Config(tableConfig.name(), createExternalTableOutputResource(),
                         tableDerivationConfig.columnEncoding(), tableDerivationConfig.endColumnType(),
@@ -115,26 +147,105 @@ final class ExtTableGen {
     }
 
     /**
-     * Reads the CSV file and writes the data to the output resource of the external table.
+     * Reads the CSV file(s) and writes the data to the output resource of the external table.
+     * <p>
+     * If the CSV file path is a glob pattern matching multiple files, the files are processed concurrently, and
+     * written to the external table in order of their file names. When checkpoints are enabled, or when resuming,
+     * multiple CSV files are processed sequentially.
+     * </p>
+     * <p>
+     * When rejecting rows is enabled, rows which fail validation or cannot be converted are written to the reject file
+     * (if configured), and processing continues until the error budget is exceeded.
+     * </p>
+     *
+     * @param options
+     *         options for checkpoints, writing the external table file, and rejecting rows
+     * @throws ErrorBudgetExceededException
+     *         if the rejected rows exceed the error budget
+     * @since 4
      */
-    void writeExternalTable() {
-        ExternalTable externalTable = getOrDeriveExternalTable();
+    void writeExternalTable(WriteTableOptions options) {
+        CheckpointConfig checkpointConfig = options.checkpointConfig();
+        WriteConfig writeConfig = options.writeConfig();
+        RejectConfig rejectConfig = options.rejectConfig();
+        ExternalTable tableDefinition = applyTableFileMode(getOrDeriveExternalTable());
         log.log(INFO, "Writing external table to ''{0}''",
-                externalTable.outputResource().path().map(String::valueOf).orElse("{no name)"));
-        CsvFile csvFile = getCsvFile();
-        CsvFile.Config originalConfig = csvFile.config();
-        csvFile = csvFile.withConfig(originalConfig.withBuilderCustomizer(
-                b -> {
+                tableDefinition.outputResource().path().map(String::valueOf).orElse("{no name)"));
+        CsvFileSet csvFileSet = getCsvFileSet();
+        @Nullable TableFile checkpointTableFile = null;
+        @Nullable Checkpoint resumeFrom = null;
+        boolean resumed = false;
+        if (checkpointConfig.enabled() || checkpointConfig.resume()) {
+            checkpointTableFile = requireCheckpointTableFile();
+            int rowLength = tableDefinition.rowLength();
+            resumeFrom = checkpointConfig.resume()
+                    ? resumeCheckpoint(checkpointTableFile, csvFileSet, rowLength)
+                    : null;
+            if (resumeFrom != null) {
+                resumed = true;
+                csvFileSet = csvFileSet.resumeAt(resumeFrom.part(), resumeFrom.linesRead());
+                tableDefinition = tableDefinition.withOutputResource(
+                        OutputResource.append(checkpointTableFile.path(), rowLength));
+            } else {
+                resumeFrom = new Checkpoint(0, csvFileSet.parts().get(0).name(), 0, 0, rowLength, 0);
+            }
+        }
+        Optional<TableFile> appendTableFile = config.tableConfig().tableFile().filter(TableFile::isAppend);
+        @Nullable AppendOffset appendFrom = null;
+        if (appendTableFile.isPresent()) {
+            appendFrom = resumeAppend(appendTableFile.get(), csvFileSet, tableDefinition.rowLength());
+            if (appendFrom != null) {
+                // Skip the lines read by the previous append before the CSV file set is configured below, so the
+                // validators of the first part do not expect a header row
+                csvFileSet = appendFrom.linesRead() > 0
+                        ? csvFileSet.resumeAt(appendFrom.part(), appendFrom.linesRead())
+                        : new CsvFileSet(csvFileSet.parts().subList(appendFrom.part(), csvFileSet.size()));
+            }
+        }
+        boolean concurrent = checkpointTableFile == null && appendTableFile.isEmpty() && csvFileSet.size() > 1;
+        // The checksum for the manifest is calculated while writing if the table file is written from the start as a
+        // single stream, otherwise it is calculated afterwards by reading the table file(s)
+        @Nullable Checksum streamingChecksum = checkpointTableFile == null && appendTableFile.isEmpty()
+                && !writeConfig.gatheringWrites() && !writeConfig.mappedWrites()
+                && !(tableDefinition.outputResource() instanceof SplitOutputResource)
+                && tableDefinition.outputResource().path().isPresent()
+                ? TableManifest.newChecksum()
+                : null;
+        if (streamingChecksum != null) {
+            tableDefinition = tableDefinition.withOutputResource(OutputResource.decorate(
+                    tableDefinition.outputResource(), out -> new CheckedOutputStream(out, streamingChecksum)));
+        }
+        ExternalTable externalTable = tableDefinition;
+        // Values exceeding the length of their column are either truncated while reading, or rejected
+        CsvLimits tableCsvLimits = csvLimits.withStringColumnLengths(externalTable);
+        csvFileSet = csvFileSet.withConfig(originalConfig -> originalConfig.withLimits(tableCsvLimits)
+                .withBuilderCustomizer(b -> {
                     b.withRowValidator(ColumnCountValidator.of(externalTable));
-                    // Not really needed when using ExternalTable directly derived from CsvFile
-                    b.withRowValidator(DelayedRowValidator
-                            .delay(ColumnSizeValidator.of(externalTable))
-                            .untilAfterRow(originalConfig.headerRow() ? 1 : 0));
+                    if (!tableCsvLimits.truncates()) {
+                        // Not really needed when using ExternalTable directly derived from CsvFile
+                        b.withRowValidator(DelayedRowValidator
+                                .delay(ColumnSizeValidator.of(externalTable))
+                                .untilAfterRow(originalConfig.headerRow() ? 1 : 0));
+                    }
                 }));
-        try (var tableWriter = new ExternalTableWriter(externalTable)) {
-            var multiplexer = new MultiplexRowProcessor(tableWriter,
-                    new StopOnExceptionProcessor(CsvValidationException.class));
-            ProcessingResult result = csvFile.readFile(multiplexer);
+        ProcessingResult result;
+        try (@Nullable RejectSink rejectSink = openRejectSink(rejectConfig, resumed)) {
+            if (checkpointTableFile != null) {
+                result = writeExternalTable(externalTable, csvFileSet, requireNonNull(resumeFrom, "resumeFrom"),
+                        checkpointConfig.enabled() ? checkpointConfig.interval() : Long.MAX_VALUE,
+                        new CheckpointWriter(Checkpoint.checkpointFilePath(checkpointTableFile.path())), writeConfig,
+                        rejectSink);
+            } else if (appendTableFile.isPresent()) {
+                result = appendExternalTable(externalTable, csvFileSet, appendTableFile.get(), appendFrom,
+                        writeConfig, rejectSink);
+            } else if (!concurrent) {
+                CsvFileSet.Part part = csvFileSet.parts().get(0);
+                result = writeExternalTable(externalTable, part.csvFile(), writeConfig,
+                        errorHandler(rejectSink, part.name()));
+            } else {
+                result = new ConcurrentExternalTableWriter(externalTable, writeConfig)
+                        .write(csvFileSet, part -> errorHandler(rejectSink, part.name()));
+            }
 
             if (result instanceof ProcessingResult.StopWithException we) {
                 Exception exception = we.exception();
@@ -143,14 +254,564 @@ final class ExtTableGen {
                 }
                 throw new InvalidTableException("An exception occurred while writing the external table", exception);
             }
-            log.log(INFO, "Finished writing external table");
+            if (rejectSink != null) {
+                rejectSink.complete();
+            }
+        } catch (IOException e) {
+            throw new InvalidTableException("Could not write reject file " + rejectConfig.rejectFile(), e);
+        }
+        forceTableFiles(externalTable.outputResource(), writeConfig.forcePolicy());
+        if (externalTable.outputResource() instanceof SplitOutputResource splitOutputResource) {
+            writeSplitDdl(externalTable, splitOutputResource);
+            splitOutputResource.files().forEach(file -> writeManifest(externalTable, file, null));
+        } else {
+            externalTable.outputResource().path()
+                    .ifPresent(file -> writeManifest(externalTable, file, streamingChecksum));
+        }
+        log.log(INFO, "Finished writing external table");
+    }
+
+    private static @Nullable RejectSink openRejectSink(RejectConfig rejectConfig, boolean append) {
+        if (!rejectConfig.enabled()) return null;
+        try {
+            return RejectSink.open(rejectConfig, append);
+        } catch (IOException e) {
+            throw new InvalidTableException("Could not create reject file " + rejectConfig.rejectFile(), e);
+        }
+    }
+
+    /**
+     * Creates the row processor handling validation errors of the CSV file {@code sourceName}.
+     *
+     * @param rejectSink
+     *         reject sink, or {@code null} to stop on the first validation error
+     * @param sourceName
+     *         name of the CSV file
+     * @return the source processor of {@code rejectSink}, or a processor stopping on validation errors if
+     * {@code rejectSink} is {@code null}
+     */
+    private static RowProcessor errorHandler(@Nullable RejectSink rejectSink, String sourceName) {
+        return rejectSink != null
+                ? rejectSink.source(sourceName)
+                : new StopOnExceptionProcessor(CsvValidationException.class);
+    }
+
+    private static @Nullable RowRejector rowRejector(RowProcessor errorHandler) {
+        return errorHandler instanceof RowRejector rowRejector ? rowRejector : null;
+    }
+
+    /**
+     * Creates a listener setting the source name of {@code errorHandler} to the name of each part of
+     * {@code csvFileSet} when it is started.
+     */
+    private static IntConsumer sourceNameUpdater(RowProcessor errorHandler, CsvFileSet csvFileSet) {
+        return errorHandler instanceof RejectSink.Source source
+                ? partIndex -> source.setSourceName(csvFileSet.parts().get(partIndex).name())
+                : partIndex -> {};
+    }
+
+    /**
+     * Forces the external table file(s) of {@code outputResource} to the storage device according to
+     * {@code forcePolicy}.
+     *
+     * @param outputResource
+     *         output resource of the external table
+     * @param forcePolicy
+     *         force policy
+     * @throws InvalidTableException
+     *         if a table file could not be forced
+     */
+    private static void forceTableFiles(OutputResource outputResource, WriteConfig.ForcePolicy forcePolicy) {
+        if (forcePolicy == WriteConfig.ForcePolicy.NONE) return;
+        List<Path> tableFiles = outputResource instanceof SplitOutputResource splitOutputResource
+                ? splitOutputResource.files()
+                : outputResource.path().stream().toList();
+        for (Path tableFile : tableFiles) {
+            try {
+                forcePolicy.force(tableFile);
+            } catch (IOException e) {
+                throw new InvalidTableException("Could not force external table file '%s' to the storage device"
+                        .formatted(tableFile), e);
+            }
+        }
+        log.log(DEBUG, "Forced {0} external table file(s) ({1})", tableFiles.size(), forcePolicy);
+    }
+
+    /**
+     * Writes the manifest of {@code tableFile}.
+     * <p>
+     * Failure to write the manifest is logged, not thrown, as the external table file itself was written successfully.
+     * </p>
+     *
+     * @param externalTable
+     *         external table
+     * @param tableFile
+     *         external table file
+     * @param streamingChecksum
+     *         checksum calculated while writing {@code tableFile}, or {@code null} to calculate the checksum by reading
+     *         {@code tableFile}
+     */
+    private static void writeManifest(ExternalTable externalTable, Path tableFile,
+            @Nullable Checksum streamingChecksum) {
+        Path manifestFile = TableManifest.manifestFilePath(tableFile);
+        try {
+            TableManifest manifest = streamingChecksum != null
+                    ? TableManifest.of(externalTable, Files.size(tableFile), streamingChecksum.getValue())
+                    : TableManifest.of(externalTable, tableFile);
+            manifest.write(manifestFile);
+            log.log(INFO, "Wrote manifest ''{0}'' ({1} rows, CRC32C {2})", manifestFile, manifest.rowCount(),
+                    manifest.checksumHex());
+        } catch (IOException | RuntimeException e) {
+            log.log(WARNING, "Could not write manifest ''{0}''", manifestFile, e);
+        }
+    }
+
+    /**
+     * Verifies the external table file(s) of {@code config} against their manifest.
+     * <p>
+     * The file is checksummed with large sequential reads, and compared with the length and checksum recorded in the
+     * manifest. If {@code config} has a complete table definition, its layout is also compared with the manifest. If
+     * the table file is configured with a maximum number of rows or bytes, each split file is verified.
+     * </p>
+     *
+     * @param config
+     *         configuration with the table file, and optionally the table definition
+     * @throws TableVerificationException
+     *         if a file does not match its manifest, or has no manifest
+     * @since 4
+     */
+    static void verifyExternalTable(EtgConfig config) {
+        TableFile tableFile = config.tableConfig().tableFile()
+                .orElseThrow(() -> new MissingInputResourceException("ExtTableGen config has no table file"));
+        @Nullable ExternalTable tableDefinition;
+        try {
+            tableDefinition = config.tableConfig().toExternalTable();
+        } catch (IllegalArgumentException e) {
+            tableDefinition = null;
+        }
+        for (Path file : existingTableFiles(tableFile)) {
+            Path manifestFile = TableManifest.manifestFilePath(file);
+            List<String> differences;
+            TableManifest manifest;
+            try {
+                manifest = TableManifest.read(manifestFile).orElseThrow(() -> new TableVerificationException(
+                        "Cannot verify external table file '%s': manifest '%s' not found"
+                                .formatted(file, manifestFile)));
+                differences = new ArrayList<>(manifest.verify(file));
+            } catch (IOException e) {
+                throw new TableVerificationException("Could not verify external table file " + file, e);
+            }
+            if (tableDefinition != null) {
+                differences.addAll(manifest.compareLayout(tableDefinition));
+            }
+            if (!differences.isEmpty()) {
+                throw new TableVerificationException("Verification of external table file '%s' failed: %s"
+                        .formatted(file, String.join("; ", differences)));
+            }
+            log.log(INFO, "Verified external table file ''{0}'': {1} rows, CRC32C {2}", file, manifest.rowCount(),
+                    manifest.checksumHex());
+        }
+    }
+
+    /**
+     * Reads the external table file(s) and writes the rows to {@code csvOutput} as CSV, with a header row of the column
+     * names.
+     * <p>
+     * The external table is not derived, the current config must have a complete table definition and a table file.
+     * If the table file is configured with a maximum number of rows or bytes, the split files are read in order of
+     * their sequence number. The CSV file is written in UTF-8.
+     * </p>
+     *
+     * @param csvOutput
+     *         output resource for the CSV file
+     * @since 4
+     */
+    void dumpExternalTable(OutputResource csvOutput) {
+        ExternalTable externalTable = requireExternalTable();
+        TableFile tableFile = config.tableConfig().tableFile()
+                .orElseThrow(() -> new MissingInputResourceException("ExtTableGen config has no table file"));
+        List<Path> tableFiles = existingTableFiles(tableFile);
+        log.log(INFO, "Exporting external table file ''{0}'' to ''{1}''", tableFile.path(),
+                csvOutput.path().map(String::valueOf).orElse("{no name)"));
+        String[] header = externalTable.columns().subList(0, externalTable.normalColumnCount()).stream()
+                .map(Column::name)
+                .toArray(String[]::new);
+        long rowCount = 0;
+        try (var out = new OutputStreamWriter(csvOutput.newOutputStream(), StandardCharsets.UTF_8);
+             ICSVWriter csvWriter = new CSVWriterBuilder(out).withParser(new RFC4180Parser()).build()) {
+            csvWriter.writeNext(header, false);
+            for (Path file : tableFiles) {
+                try (var reader = new ExternalTableReader(externalTable, file);
+                     Stream<Row> rows = reader.rows()) {
+                    rows.forEach(row -> csvWriter.writeNext(row.data().toArray(String[]::new), false));
+                    rowCount += reader.rowCount();
+                }
+            }
+            if (csvWriter.checkError()) {
+                throw new IOException("Could not write CSV file");
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new InvalidTableException("Could not export external table file " + tableFile.path(), e);
+        }
+        log.log(INFO, "Exported {0} rows from external table file", rowCount);
+    }
+
+    /**
+     * Existing files of {@code tableFile}.
+     *
+     * @param tableFile
+     *         table file
+     * @return the split files of {@code tableFile} if it is split, otherwise the path of {@code tableFile}
+     */
+    private static List<Path> existingTableFiles(TableFile tableFile) {
+        if (!tableFile.isSplit()) return List.of(tableFile.path());
+        var files = new ArrayList<Path>();
+        Path file;
+        while (Files.exists(file = SplitOutputResource.splitFilePath(tableFile.path(), files.size() + 1))) {
+            files.add(file);
+        }
+        if (files.isEmpty()) {
+            throw new MissingInputResourceException(
+                    "No split files found for external table file '%s'".formatted(tableFile.path()));
+        }
+        return files;
+    }
+
+    /**
+     * Replaces the output resource of {@code externalTable} with a {@link SplitOutputResource} if the table file is
+     * configured with a maximum number of rows or bytes, or with an {@link AppendOutputResource} if the table file is
+     * configured to append.
+     *
+     * @param externalTable
+     *         external table
+     * @return external table with split or append output resource, or {@code externalTable} if the table file is
+     * neither split nor appended to
+     */
+    private ExternalTable applyTableFileMode(ExternalTable externalTable) {
+        return config.tableConfig().tableFile()
+                .filter(tableFile -> tableFile.isSplit() || tableFile.isAppend())
+                .map(tableFile -> {
+                    int rowLength = externalTable.rowLength();
+                    var outputResource = tableFile.toOutputResource(rowLength);
+                    if (tableFile.isSplit()) {
+                        log.log(INFO, "Splitting external table into files of at most {0} rows",
+                                tableFile.splitBytes(rowLength) / rowLength);
+                    }
+                    return externalTable.withOutputResource(outputResource);
+                })
+                .orElse(externalTable);
+    }
+
+    /**
+     * Reads the source offset of the previous append to resume from.
+     *
+     * @param tableFile
+     *         table file to append to
+     * @param csvFileSet
+     *         CSV file set to append
+     * @param rowLength
+     *         length of a row of the external table in bytes
+     * @return source offset to resume from, or {@code null} to append all rows of the CSV file set (for
+     * {@link AppendMode#ALL}, or if nothing was appended before)
+     * @throws InvalidTableException
+     *         if the table file cannot be read, if the table file has rows but there is no source offset, or if the
+     *         source offset does not match the table file or the CSV file set
+     */
+    private static @Nullable AppendOffset resumeAppend(TableFile tableFile, CsvFileSet csvFileSet, int rowLength) {
+        Path offsetFile = tableFile.appendOffsetPath();
+        long existingRows;
+        Optional<AppendOffset> previousOffset;
+        try {
+            existingRows = AppendOutputResource.existingRows(tableFile.path(), rowLength);
+            previousOffset = AppendOffset.read(offsetFile);
+        } catch (IOException e) {
+            throw new InvalidTableException("Cannot append to external table file " + tableFile.path(), e);
+        }
+        if (tableFile.appendMode() != AppendMode.NEW) {
+            log.log(INFO, "Appending to external table file with {0} rows", existingRows);
+            return null;
+        }
+        if (previousOffset.isEmpty()) {
+            if (existingRows != 0) {
+                throw new InvalidTableException(
+                        "Cannot append new rows to external table file '%s': no source offset found in '%s'"
+                                .formatted(tableFile.path(), offsetFile));
+            }
+            log.log(INFO, "Appending to empty external table file, no source offset found in ''{0}''", offsetFile);
+            return null;
+        }
+        AppendOffset offset = previousOffset.get();
+        if (offset.tableRows() != existingRows) {
+            throw new InvalidTableException(
+                    ("Cannot append new rows to external table file '%s': it has %d rows, but %d rows were recorded in "
+                     + "'%s'; the table file was modified after the last append")
+                            .formatted(tableFile.path(), existingRows, offset.tableRows(), offsetFile));
+        }
+        if (offset.part() >= csvFileSet.size()
+            || !csvFileSet.parts().get(offset.part()).name().equals(offset.partName())) {
+            throw new InvalidTableException(
+                    ("Cannot append new rows to external table file '%s': CSV file '%s' of the source offset in '%s' is "
+                     + "not CSV file %d of the current CSV input")
+                            .formatted(tableFile.path(), offset.partName(), offsetFile, offset.part() + 1));
+        }
+        log.log(INFO, "Appending to external table file with {0} rows, skipping the first {1} lines of ''{2}''",
+                existingRows, offset.linesRead(), offset.partName());
+        return offset;
+    }
+
+    /**
+     * Reads the CSV file(s) and appends the data to the table file.
+     * <p>
+     * With {@link AppendMode#NEW}, {@code csvFileSet} starts at the CSV file of the source offset of the previous
+     * append, and skips the lines read by the previous append without parsing them (see {@link #resumeAppend}). After
+     * a successful append, the new source offset is stored. The parts of a CSV file set are always processed
+     * sequentially, so the source offset is the number of lines read from the last part.
+     * </p>
+     *
+     * @param externalTable
+     *         external table, with an output resource appending to {@code tableFile}
+     * @param csvFileSet
+     *         CSV file set, starting at the source offset of {@code appendFrom} (if not {@code null})
+     * @param tableFile
+     *         table file to append to
+     * @param appendFrom
+     *         source offset of the previous append, or {@code null} if all rows of {@code csvFileSet} are appended
+     * @return processing result
+     */
+    private static ProcessingResult appendExternalTable(ExternalTable externalTable, CsvFileSet csvFileSet,
+            TableFile tableFile, @Nullable AppendOffset appendFrom, WriteConfig writeConfig,
+            @Nullable RejectSink rejectSink) {
+        int rowLength = externalTable.rowLength();
+        Path offsetFile = tableFile.appendOffsetPath();
+        long existingRows;
+        try {
+            existingRows = AppendOutputResource.existingRows(tableFile.path(), rowLength);
+        } catch (IOException e) {
+            throw new InvalidTableException("Cannot append to external table file " + tableFile.path(), e);
+        }
+        var offsetTracker = new AppendOffsetTracker(csvFileSet, appendFrom != null ? appendFrom.part() : 0);
+        ProcessingResult result;
+        RowProcessor errorHandler = errorHandler(rejectSink, csvFileSet.parts().get(0).name());
+        try (var tableWriter = new ExternalTableWriter(externalTable, writeConfig, rowRejector(errorHandler))) {
+            result = csvFileSet.readFile(new MultiplexRowProcessor(tableWriter, errorHandler, offsetTracker),
+                    sourceNameUpdater(errorHandler, csvFileSet).andThen(offsetTracker::onPartStart));
+        } catch (IOException e) {
+            throw new InvalidTableException("An exception occurred while appending to an external table", e);
+        }
+        if (!(result instanceof ProcessingResult.Done)) return result;
+        if (appendFrom != null && offsetTracker.firstPartLinesRead() < appendFrom.linesRead()) {
+            // Remove the rows appended from the other CSV files, so the table file still matches the source offset
+            try (var channel = FileChannel.open(tableFile.path(), StandardOpenOption.WRITE)) {
+                channel.truncate(existingRows * rowLength);
+            } catch (IOException e) {
+                log.log(WARNING, "Could not remove the appended rows from external table file " + tableFile.path(), e);
+            }
+            throw new InvalidTableException(
+                    ("CSV file '%s' has %d lines, which is less than the source offset of %d lines recorded in '%s'; "
+                     + "the CSV file was replaced or truncated after the last append")
+                            .formatted(appendFrom.partName(), offsetTracker.firstPartLinesRead(),
+                                    appendFrom.linesRead(), offsetFile));
+        }
+        long tableRows;
+        try {
+            tableRows = AppendOutputResource.existingRows(tableFile.path(), rowLength);
+            offsetTracker.toAppendOffset(tableRows).write(offsetFile);
+        } catch (IOException e) {
+            throw new InvalidTableException("Could not write source offset file " + offsetFile, e);
+        }
+        log.log(INFO, "Appended {0} rows to external table file", tableRows - existingRows);
+        return result;
+    }
+
+    /**
+     * Writes a DDL script with a {@code CREATE TABLE} statement for each file of a split external table.
+     * <p>
+     * The script is written next to the split files, with the file name of the base path and extension {@code .sql}.
+     * The table of each file is named after the external table, suffixed with the sequence number of the file, so the
+     * files can be loaded in parallel from the same database.
+     * </p>
+     *
+     * @param externalTable
+     *         external table
+     * @param splitOutputResource
+     *         split output resource used to write the external table
+     */
+    private static void writeSplitDdl(ExternalTable externalTable, SplitOutputResource splitOutputResource) {
+        List<Path> files = splitOutputResource.files();
+        var ddl = new StringBuilder();
+        for (int idx = 0; idx < files.size(); idx++) {
+            if (idx > 0) ddl.append('\n');
+            ddl.append(new ExternalTable(splitTableName(externalTable.name(), idx + 1), externalTable.columns(),
+                    OutputResource.of(files.get(idx)), externalTable.byteOrder()).toCreateTableStatement());
+        }
+        Path ddlFile = splitDdlPath(splitOutputResource.path().orElseThrow());
+        try (var out = OutputResource.of(ddlFile, splitOutputResource.allowOverwrite()).newOutputStream()) {
+            out.write(ddl.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new InvalidTableException("Could not write DDL file " + ddlFile, e);
+        }
+        log.log(INFO, "Wrote {0} external table files, DDL written to ''{1}''", files.size(), ddlFile);
+    }
+
+    /**
+     * Derives the name of the external table of a split file.
+     *
+     * @param name
+     *         name of the external table (can be quoted)
+     * @param sequence
+     *         sequence number of the split file (1-based)
+     * @return table name suffixed with the sequence number
+     */
+    static String splitTableName(String name, int sequence) {
+        String suffix = "_%04d".formatted(sequence);
+        return name.length() > 1 && name.startsWith("\"") && name.endsWith("\"")
+                ? name.substring(0, name.length() - 1) + suffix + '"'
+                : name + suffix;
+    }
+
+    /**
+     * Derives the path of the DDL script of a split external table from the base path.
+     *
+     * @param basePath
+     *         base path of the split files
+     * @return path with the extension of {@code basePath} replaced by {@code .sql}
+     */
+    static Path splitDdlPath(Path basePath) {
+        String fileName = String.valueOf(basePath.getFileName());
+        int extensionStart = fileName.lastIndexOf('.');
+        return basePath.resolveSibling((extensionStart > 0 ? fileName.substring(0, extensionStart) : fileName) + ".sql");
+    }
+
+    /**
+     * @return table file to checkpoint
+     * @throws InvalidConfigurationException
+     *         if there is no table file, or if the table file is split or appended to
+     */
+    private TableFile requireCheckpointTableFile() {
+        TableFile tableFile = config.tableConfig().tableFile().orElseThrow(
+                () -> new InvalidConfigurationException("Checkpoints require a table file"));
+        if (tableFile.isSplit() || tableFile.isAppend()) {
+            throw new InvalidConfigurationException(
+                    "Checkpoints cannot be combined with splitting or appending to the table file");
+        }
+        return tableFile;
+    }
+
+    /**
+     * Reads the checkpoint to resume from, and truncates the table file to the length of the checkpoint.
+     *
+     * @param tableFile
+     *         table file
+     * @param csvFileSet
+     *         CSV file set to resume
+     * @param rowLength
+     *         length of a row of the external table in bytes
+     * @return checkpoint to resume from, or {@code null} if there is no checkpoint and no table file (i.e. the previous
+     * conversion was interrupted before creating the table file)
+     * @throws InvalidTableException
+     *         if there is no checkpoint, but the table file exists, or if the checkpoint does not match the table file,
+     *         the external table or the CSV file set
+     */
+    private static @Nullable Checkpoint resumeCheckpoint(TableFile tableFile, CsvFileSet csvFileSet, int rowLength) {
+        Path tableFilePath = tableFile.path();
+        Path checkpointFile = Checkpoint.checkpointFilePath(tableFilePath);
+        try {
+            Optional<Checkpoint> optionalCheckpoint = Checkpoint.read(checkpointFile);
+            if (optionalCheckpoint.isEmpty()) {
+                if (Files.notExists(tableFilePath)) {
+                    log.log(INFO, "No checkpoint found in ''{0}'', starting from the beginning", checkpointFile);
+                    return null;
+                }
+                throw new InvalidTableException("Cannot resume: no checkpoint found in '%s', but table file '%s' exists"
+                        .formatted(checkpointFile, tableFilePath));
+            }
+            Checkpoint checkpoint = optionalCheckpoint.get();
+            if (checkpoint.rowLength() != rowLength) {
+                throw new InvalidTableException(
+                        "Cannot resume: row length of the external table (%d) does not match the checkpoint (%d)"
+                                .formatted(rowLength, checkpoint.rowLength()));
+            }
+            if (checkpoint.part() >= csvFileSet.size()
+                || !csvFileSet.parts().get(checkpoint.part()).name().equals(checkpoint.partName())) {
+                throw new InvalidTableException(
+                        "Cannot resume: CSV file '%s' of the checkpoint is not CSV file %d of the current CSV input"
+                                .formatted(checkpoint.partName(), checkpoint.part() + 1));
+            }
+            long tableFileLength = Files.size(tableFilePath);
+            if (tableFileLength < checkpoint.tableLength()) {
+                throw new InvalidTableException(
+                        "Cannot resume: table file '%s' (%d bytes) is shorter than the checkpoint (%d bytes)"
+                                .formatted(tableFilePath, tableFileLength, checkpoint.tableLength()));
+            }
+            try (var channel = FileChannel.open(tableFilePath, StandardOpenOption.WRITE)) {
+                channel.truncate(checkpoint.tableLength());
+            }
+            log.log(INFO, "Resuming from checkpoint after line {0} of ''{1}'' with {2} rows written",
+                    checkpoint.linesRead(), checkpoint.partName(), checkpoint.rowsWritten());
+            return checkpoint;
+        } catch (IOException e) {
+            throw new InvalidTableException("Cannot resume from checkpoint " + checkpointFile, e);
+        }
+    }
+
+    /**
+     * Reads the CSV file set sequentially and writes the data to the output resource of the external table, taking
+     * a checkpoint every {@code interval} rows.
+     * <p>
+     * The checkpoint file is deleted when all rows were written successfully, otherwise it is retained, so the
+     * conversion can be resumed.
+     * </p>
+     */
+    private static ProcessingResult writeExternalTable(ExternalTable externalTable, CsvFileSet csvFileSet,
+            Checkpoint resumeFrom, long interval, CheckpointWriter checkpointWriter, WriteConfig writeConfig,
+            @Nullable RejectSink rejectSink) {
+        @Nullable ProcessingResult result = null;
+        RowProcessor errorHandler = errorHandler(rejectSink, csvFileSet.parts().get(0).name());
+        try (checkpointWriter;
+             var tableWriter = new ExternalTableWriter(externalTable, writeConfig, rowRejector(errorHandler))) {
+            var checkpointProcessor = new CheckpointProcessor(tableWriter, csvFileSet, resumeFrom, interval,
+                    checkpointWriter);
+            result = csvFileSet.readFile(new MultiplexRowProcessor(checkpointProcessor, errorHandler),
+                    sourceNameUpdater(errorHandler, csvFileSet).andThen(checkpointProcessor::onPartStart));
+            return result;
+        } catch (IOException e) {
+            throw new InvalidTableException("An exception occurred while writing an external table", e);
+        } finally {
+            if (result instanceof ProcessingResult.Done) {
+                checkpointWriter.deleteCheckpoint();
+            } else {
+                log.log(INFO, "Conversion did not complete, use --resume to resume from checkpoint ''{0}''",
+                        checkpointWriter.checkpointFile());
+            }
+        }
+    }
+
+    private static ProcessingResult writeExternalTable(ExternalTable externalTable, CsvFile csvFile,
+            WriteConfig writeConfig, RowProcessor errorHandler) {
+        try (var tableWriter = new ExternalTableWriter(externalTable, writeConfig, rowRejector(errorHandler))) {
+            var multiplexer = new MultiplexRowProcessor(tableWriter, errorHandler);
+            return csvFile.readFile(multiplexer);
         } catch (IOException e) {
             throw new InvalidTableException("An exception occurred while writing an external table", e);
         }
     }
 
     static ExtTableGen of(EtgConfig etgConfig) {
-        var etg = new ExtTableGen(etgConfig);
+        return of(etgConfig, CsvLimits.getDefault());
+    }
+
+    /**
+     * Creates an instance for {@code etgConfig}, deriving the external table if required by its table derivation mode.
+     *
+     * @param etgConfig
+     *         external-table-gen configuration
+     * @param csvLimits
+     *         limits on the fields and records of the CSV file(s)
+     * @return ext-table-gen instance
+     * @since 4
+     */
+    static ExtTableGen of(EtgConfig etgConfig, CsvLimits csvLimits) {
+        var etg = new ExtTableGen(etgConfig, csvLimits);
         switch (etgConfig.tableDerivationConfig().mode()) {
         case NEVER -> etg.requireExternalTable();
         case ALWAYS -> etg.deriveExternalTable();
@@ -161,3 +822,45 @@ final class ExtTableGen {
 
 }
 
+/**
+ * Options of {@link ExtTableGen#writeExternalTable(WriteTableOptions)}.
+ *
+ * @param checkpointConfig
+ *         checkpoint configuration
+ * @param writeConfig
+ *         write configuration
+ * @param rejectConfig
+ *         reject configuration
+ * @since 4
+ */
+record WriteTableOptions(CheckpointConfig checkpointConfig, WriteConfig writeConfig, RejectConfig rejectConfig) {
+
+    private static final WriteTableOptions DEFAULTS =
+            new WriteTableOptions(CheckpointConfig.disabled(), WriteConfig.defaults(), RejectConfig.disabled());
+
+    WriteTableOptions {
+        requireNonNull(checkpointConfig, "checkpointConfig");
+        requireNonNull(writeConfig, "writeConfig");
+        requireNonNull(rejectConfig, "rejectConfig");
+    }
+
+    /**
+     * @return options without checkpoints, with the default write configuration, and without rejecting rows
+     */
+    static WriteTableOptions defaults() {
+        return DEFAULTS;
+    }
+
+    WriteTableOptions withCheckpointConfig(CheckpointConfig checkpointConfig) {
+        return new WriteTableOptions(checkpointConfig, writeConfig, rejectConfig);
+    }
+
+    WriteTableOptions withWriteConfig(WriteConfig writeConfig) {
+        return new WriteTableOptions(checkpointConfig, writeConfig, rejectConfig);
+    }
+
+    WriteTableOptions withRejectConfig(RejectConfig rejectConfig) {
+        return new WriteTableOptions(checkpointConfig, writeConfig, rejectConfig);
+    }
+
+}
@@ -1,4 +1,4 @@
-// SPDX-FileCopyrightText: 2023 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen;
 
@@ -43,7 +43,12 @@ final class InvalidConfigurationException extends ExtTableGenException {
 /**
  * Thrown if an external table definition cannot be read, or for problems writing the external table data.
  */
-sealed class InvalidTableException extends ExtTableGenException permits TableFileAlreadyExistsException {
+sealed class InvalidTableException extends ExtTableGenException
+        permits TableFileAlreadyExistsException, TableVerificationException {
+
+    InvalidTableException(String message) {
+        super(message);
+    }
 
     InvalidTableException(String message, Throwable cause) {
         super(message, cause);
@@ -59,6 +64,23 @@ final class TableFileAlreadyExistsException extends InvalidTableException {
     
 }
 
+/**
+ * Thrown to signal that an external table file does not match its manifest.
+ *
+ * @since 4
+ */
+final class TableVerificationException extends InvalidTableException {
+
+    TableVerificationException(String message) {
+        super(message);
+    }
+
+    TableVerificationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
+
 /**
  * Thrown to signal that there is no input resource when one is required.
  */
@@ -68,6 +90,10 @@ final class MissingInputResourceException extends ExtTableGenException {
         super(message);
     }
 
+    MissingInputResourceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
 }
 
 /**
@@ -83,4 +109,94 @@ final class NoColumnNamesException extends ExtTableGenException {
         super(message, cause);
     }
 
-}
\ No newline at end of file
+}
+
+/**
+ * Thrown if the header of a CSV file part does not match the header of the first CSV file part.
+ *
+ * @since 4
+ */
+final class CsvHeaderMismatchException extends ExtTableGenException {
+
+    CsvHeaderMismatchException(String message) {
+        super(message);
+    }
+
+}
+
+/**
+ * Thrown if the number of rejected rows of a conversion exceeds the error budget.
+ *
+ * @since 4
+ */
+final class ErrorBudgetExceededException extends ExtTableGenException {
+
+    ErrorBudgetExceededException(String message) {
+        super(message);
+    }
+
+    ErrorBudgetExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
+
+/**
+ * Thrown if the job server cannot be started or fails.
+ *
+ * @since 4
+ */
+final class JobServerException extends ExtTableGenException {
+
+    JobServerException(String message) {
+        super(message);
+    }
+
+    JobServerException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
+
+/**
+ * Thrown if a directory cannot be watched for CSV files.
+ *
+ * @since 4
+ */
+final class DirectoryWatchException extends ExtTableGenException {
+
+    DirectoryWatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
+
+/**
+ * Thrown if the job manifest of a batch cannot be read, or if jobs of the batch failed.
+ *
+ * @since 4
+ */
+final class JobBatchException extends ExtTableGenException {
+
+    JobBatchException(String message) {
+        super(message);
+    }
+
+    JobBatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
+
+/**
+ * Thrown if a field or record of a CSV file exceeds the configured maximum length.
+ *
+ * @since 4
+ */
+final class CsvLimitExceededException extends ExtTableGenException {
+
+    CsvLimitExceededException(String message) {
+        super(message);
+    }
+
+}
@@ -1,4 +1,4 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen;
 
@@ -7,14 +7,18 @@ import nl.lawinegevaar.exttablegen.type.FbEncoding;
 import org.jspecify.annotations.NullUnmarked;
 import picocli.CommandLine;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PrintWriter;
 import java.lang.System.Logger;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -58,7 +62,10 @@ final class ExtTableGenMain implements Runnable {
     CsvOptions csvOptions;
 
     static class CsvOptions {
-        @CommandLine.Option(names = "--csv-file", paramLabel = "CSV", description = "CSV file",
+        @CommandLine.Option(names = "--csv-file", paramLabel = "CSV",
+                description = "CSV file, or glob pattern in the file name to read multiple CSV files (e.g. part-*.csv); "
+                              + "multiple CSV files are converted concurrently, which needs free space for temporary "
+                              + "files of the converted files (except the first) in the directory of the table file",
                 order = 100)
         Path file;
 
@@ -99,6 +106,21 @@ final class ExtTableGenMain implements Runnable {
         Boolean strictQuotes;
     }
 
+    @CommandLine.Option(names = "--csv-max-field-length", paramLabel = "CHARS",
+            description = "Maximum length of a CSV field in characters, 0 for no maximum. Default: no maximum",
+            order = 140)
+    Integer csvMaxFieldLength;
+
+    @CommandLine.Option(names = "--csv-max-record-length", paramLabel = "CHARS",
+            description = "Maximum length of a CSV record in characters, 0 for no maximum. Default: no maximum",
+            order = 141)
+    Integer csvMaxRecordLength;
+
+    @CommandLine.Option(names = "--truncate-strings",
+            description = "Truncate values which are too long for their CHAR or VARCHAR column while reading, instead "
+                          + "of rejecting the row. Default: false", order = 142)
+    boolean truncateStrings;
+
     @CommandLine.ArgGroup(exclusive = false, order = 200)
     TableFileOptions tableFileOptions;
 
@@ -110,8 +132,53 @@ final class ExtTableGenMain implements Runnable {
         @CommandLine.Option(names = "--overwrite-table-file", negatable = true, fallbackValue = "true",
                 description = "Overwrite the table file if it already exists. Default: false", order = 210)
         Boolean overwriteTableFile;
+
+        @CommandLine.Option(names = "--table-file-max-rows", paramLabel = "ROWS",
+                description = "Split the external table into multiple files of at most ROWS rows. Default: 0 (no "
+                              + "maximum)", order = 220)
+        Long maxRows;
+
+        @CommandLine.Option(names = "--table-file-max-bytes", paramLabel = "BYTES",
+                description = "Split the external table into multiple files of at most BYTES bytes (rounded down to a "
+                              + "multiple of the row length). Default: 0 (no maximum)", order = 230)
+        Long maxBytes;
+
+        @CommandLine.Option(names = "--append-table-file", paramLabel = "MODE", arity = "0..1", fallbackValue = "ALL",
+                description = "Append to the table file ({NONE | ALL | NEW}); NEW only appends rows after the source "
+                              + "offset of the previous append. Default: NONE, or ALL if specified without MODE",
+                order = 240)
+        AppendMode appendMode;
     }
 
+    @CommandLine.Option(names = "--gathering-writes",
+            description = "Write the table file through a file channel with gathering writes of direct buffers. "
+                          + "Default: false", order = 260)
+    boolean gatheringWrites;
+
+    @CommandLine.Option(names = "--mapped-writes",
+            description = "Write the table file by mapping it into memory region by region, and encoding the rows "
+                          + "directly into the mapped regions. Default: false", order = 265)
+    boolean mappedWrites;
+
+    @CommandLine.Option(names = "--write-buffer-size", paramLabel = "BYTES",
+            description = "Size of a write buffer of the table file. Default: 262144", order = 270)
+    Integer writeBufferSize;
+
+    @CommandLine.Option(names = "--write-buffer-count", paramLabel = "COUNT",
+            description = "Number of write buffers for --gathering-writes. Default: 4", order = 280)
+    Integer writeBufferCount;
+
+    @CommandLine.Option(names = "--memory-budget", paramLabel = "SIZE",
+            description = "Memory budget of the conversion (e.g. 512m); derives the write buffers, the maximum length "
+                          + "of CSV fields and records, and the number of files converted concurrently, unless "
+                          + "specified explicitly. Default: no budget", order = 285)
+    String memoryBudget;
+
+    @CommandLine.Option(names = "--force-table-file", paramLabel = "POLICY",
+            description = "Force the table file to the storage device after writing ({NONE | DATA | ALL}). "
+                          + "Default: NONE", order = 290)
+    WriteConfig.ForcePolicy forcePolicy;
+
     @CommandLine.Option(names = "--table-name", paramLabel = "TABLE", description = "Name of the external table",
             order = 300)
     String tableName;
@@ -154,10 +221,127 @@ final class ExtTableGenMain implements Runnable {
         Boolean configOverwrite;
     }
 
+    @CommandLine.Option(names = "--checkpoint-interval", paramLabel = "ROWS",
+            description = "Write a checkpoint every ROWS rows, to resume an interrupted conversion with --resume. "
+                          + "Default: 0 (no checkpoints)", order = 500)
+    Long checkpointInterval;
+
+    @CommandLine.Option(names = "--resume",
+            description = "Resume an interrupted conversion from its checkpoint. Default: false", order = 510)
+    boolean resume;
+
+    @CommandLine.Option(names = "--reject-file", paramLabel = "FILE",
+            description = "Write rows which fail validation or conversion to CSV file FILE, and continue processing "
+                          + "within the error budget of --max-errors", order = 550)
+    Path rejectFile;
+
+    @CommandLine.Option(names = "--max-errors", paramLabel = "BUDGET",
+            description = "Maximum number of rejected rows (e.g. 100), or percentage of rows read (e.g. 0.5%%) "
+                          + "before the conversion fails. Default: 0", order = 560)
+    String maxErrors;
+
+    // The options selecting a mode other than a single conversion are mutually exclusive; required applies within the
+    // group (i.e. exactly one of them), the group itself is optional
+    @CommandLine.ArgGroup(exclusive = true, order = 430)
+    ModeOptions modeOptions;
+
+    static class ModeOptions {
+        @CommandLine.Option(names = "--compile-config", required = true, paramLabel = "FILE",
+                description = "Write the configuration in compiled form to FILE, which loads faster with --config-in, "
+                              + "instead of generating the external table", order = 430)
+        Path compileConfig;
+
+        @CommandLine.Option(names = "--dump-table", required = true, paramLabel = "FILE",
+                description = "Export the rows of the external table file to CSV file FILE instead of generating the "
+                              + "external table (requires a complete table definition in --config-in)", order = 600)
+        Path dumpTable;
+
+        @CommandLine.Option(names = "--verify", required = true,
+                description = "Verify the external table file against its manifest instead of generating the "
+                              + "external table. Default: false", order = 610)
+        boolean verify;
+
+        @CommandLine.Option(names = "--serve", required = true, paramLabel = "SOCKET",
+                description = "Run as a server accepting jobs (the command-line arguments of a conversion) on Unix "
+                              + "domain socket SOCKET, instead of running a single conversion", order = 700)
+        Path serve;
+
+        @CommandLine.ArgGroup(exclusive = false, multiplicity = "1", order = 800)
+        WatchOptions watchOptions;
+
+        @CommandLine.ArgGroup(exclusive = false, multiplicity = "1", order = 900)
+        JobsOptions jobsOptions;
+    }
+
+    static class WatchOptions {
+        @CommandLine.Option(names = "--watch", required = true, paramLabel = "DIR",
+                description = "Watch directory DIR, and convert each complete CSV file using the configuration as "
+                              + "template, instead of running a single conversion", order = 800)
+        Path directory;
+
+        @CommandLine.Option(names = "--watch-pattern", paramLabel = "GLOB",
+                description = "Glob pattern of the CSV files to convert. Default: *.csv", order = 810)
+        String pattern;
+
+        @CommandLine.Option(names = "--watch-settle-time", paramLabel = "MILLIS",
+                description = "Time in milliseconds a file must not change before it is converted. Default: 2000",
+                order = 820)
+        Long settleTimeMillis;
+
+        @CommandLine.Option(names = "--watch-workers", paramLabel = "COUNT",
+                description = "Maximum number of files converted concurrently. Default: number of processors",
+                order = 830)
+        Integer workers;
+
+        @CommandLine.Option(names = "--watch-processed-dir", paramLabel = "DIR",
+                description = "Directory to move converted files to. Default: processed in the watched directory",
+                order = 840)
+        Path processedDirectory;
+
+        @CommandLine.Option(names = "--watch-failed-dir", paramLabel = "DIR",
+                description = "Directory to move files to which could not be converted. Default: failed in the "
+                              + "watched directory", order = 850)
+        Path failedDirectory;
+    }
+
+    static class JobsOptions {
+        @CommandLine.Option(names = "--jobs", required = true, paramLabel = "MANIFEST",
+                description = "Run the jobs listed in job manifest MANIFEST (one configuration file or set of "
+                              + "command-line arguments per line) concurrently, instead of running a single "
+                              + "conversion", order = 900)
+        Path manifestFile;
+
+        @CommandLine.Option(names = "--jobs-parallelism", paramLabel = "COUNT",
+                description = "Maximum number of jobs run concurrently. Default: number of processors", order = 910)
+        Integer parallelism;
+    }
+
     @CommandLine.Spec
     CommandLine.Model.CommandSpec spec;
 
-    private final ConfigMapper configMapper = new ConfigMapper();
+    private final ConfigMapper configMapper;
+    private final boolean job;
+    private final boolean absolutePathsOnly;
+
+    ExtTableGenMain() {
+        this(new ConfigMapper(), false, false);
+    }
+
+    /**
+     * Creates an instance for the command line, or for a job of the job server.
+     *
+     * @param configMapper
+     *         configuration mapper
+     * @param job
+     *         {@code true} if this instance runs a job of the job server
+     * @param absolutePathsOnly
+     *         {@code true} if all paths of the job must be absolute
+     */
+    private ExtTableGenMain(ConfigMapper configMapper, boolean job, boolean absolutePathsOnly) {
+        this.configMapper = configMapper;
+        this.job = job;
+        this.absolutePathsOnly = absolutePathsOnly;
+    }
 
     public static void main(String[] args) {
         System.exit(
@@ -165,21 +349,368 @@ final class ExtTableGenMain implements Runnable {
     }
 
     static int parseAndExecute(String... args) {
-        return new CommandLine(new ExtTableGenMain())
-                .setCaseInsensitiveEnumValuesAllowed(true)
+        return createCommandLine(new ExtTableGenMain())
                 .setExecutionExceptionHandler(new LogExceptionMessageHandler())
                 .execute(args);
     }
 
+    /**
+     * Runs a job with relative paths resolved against the working directory (i.e. a job of a job batch).
+     *
+     * @param configMapper
+     *         configuration mapper shared by the jobs
+     * @param out
+     *         writer for the output and error messages of the job
+     * @param args
+     *         command-line arguments of the job
+     * @return exit code
+     * @see JobBatch
+     * @since 4
+     */
+    static int executeJob(ConfigMapper configMapper, PrintWriter out, String... args) {
+        return executeJob(configMapper, out, false, args);
+    }
+
+    /**
+     * Runs a job of the job server, or of a job batch.
+     *
+     * @param configMapper
+     *         configuration mapper shared by the jobs
+     * @param out
+     *         writer for the output and error messages of the job
+     * @param absolutePathsOnly
+     *         {@code true} to reject the job if a path in its arguments or configuration file is relative (i.e. when
+     *         the job was submitted by a client with a different working directory)
+     * @param args
+     *         command-line arguments of the job
+     * @return exit code
+     * @see JobServer
+     * @since 4
+     */
+    static int executeJob(ConfigMapper configMapper, PrintWriter out, boolean absolutePathsOnly, String... args) {
+        return createCommandLine(new ExtTableGenMain(configMapper, true, absolutePathsOnly))
+                .setOut(out)
+                .setErr(out)
+                .setExecutionExceptionHandler(new LogExceptionMessageHandler(true))
+                .execute(args);
+    }
+
+    private static CommandLine createCommandLine(ExtTableGenMain extTableGenMain) {
+        return new CommandLine(extTableGenMain)
+                .setCaseInsensitiveEnumValuesAllowed(true);
+    }
+
     @Override
     public void run() {
+        ModeOptions mode = requireNonNullElseGet(modeOptions, ModeOptions::new);
+        if (mode.serve != null) {
+            if (job) {
+                throw new CommandLine.ParameterException(spec.commandLine(), "--serve cannot be used by a job");
+            }
+            serveJobs(mode.serve);
+            return;
+        }
+        if (mode.jobsOptions != null) {
+            if (job) {
+                throw new CommandLine.ParameterException(spec.commandLine(), "--jobs cannot be used by a job");
+            }
+            runJobs(mode.jobsOptions);
+            return;
+        }
+        if (absolutePathsOnly) {
+            requireAbsolutePathOptions();
+        }
         EtgConfig etgConfig = readConfigFile()
                 .map(this::mergeConfig)
                 .orElseGet(this::createConfig);
+        if (absolutePathsOnly) {
+            requireAbsolutePaths(etgConfig);
+        }
+        if (mode.compileConfig != null) {
+            writeCompiledConfigFile(ExtTableGen.of(etgConfig, createCsvLimits(createMemoryBudget())).config(),
+                    mode.compileConfig);
+            return;
+        }
+        if (mode.watchOptions != null) {
+            if (job) {
+                throw new CommandLine.ParameterException(spec.commandLine(), "--watch cannot be used by a job");
+            }
+            if (checkpointInterval != null || resume) {
+                throw new CommandLine.ParameterException(spec.commandLine(),
+                        "--checkpoint-interval and --resume cannot be combined with --watch");
+            }
+            requireTableFile(etgConfig);
+            watchDirectory(etgConfig, mode.watchOptions);
+            return;
+        }
+        if (mode.verify) {
+            requireTableFile(etgConfig);
+            ExtTableGen.verifyExternalTable(etgConfig);
+            return;
+        }
+        if (mode.dumpTable != null) {
+            requireTableFile(etgConfig);
+            dumpExternalTable(etgConfig, mode.dumpTable);
+            return;
+        }
         validate(etgConfig);
-        ExtTableGen etg = ExtTableGen.of(etgConfig);
+        CheckpointConfig checkpointConfig = createCheckpointConfig();
+        MemoryBudget budget = createMemoryBudget();
+        WriteConfig writeConfig = createWriteConfig(budget);
+        RejectConfig rejectConfig = createRejectConfig();
+        ExtTableGen etg = ExtTableGen.of(etgConfig, createCsvLimits(budget));
         writeConfigFile(etg.config());
-        etg.writeExternalTable();
+        etg.writeExternalTable(new WriteTableOptions(checkpointConfig, writeConfig, rejectConfig));
+    }
+
+    /**
+     * Runs the job server on the socket of {@code --serve} until the process is terminated.
+     *
+     * @param serve
+     *         path of the socket
+     */
+    private void serveJobs(Path serve) {
+        try (JobServer jobServer = JobServer.open(serve, configMapper)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    jobServer.close();
+                } catch (IOException e) {
+                    log.log(WARNING, "Could not stop job server: {0}", e.toString());
+                }
+            }, "ext-table-gen-serve-shutdown"));
+            jobServer.serve();
+        } catch (IOException e) {
+            throw new JobServerException("Could not serve jobs on socket " + serve, e);
+        }
+    }
+
+    /**
+     * Runs the jobs of the job manifest of {@code --jobs}, and prints a report of the jobs.
+     *
+     * @param jobsOptions
+     *         options of {@code --jobs}
+     * @throws JobBatchException
+     *         if the job manifest cannot be read, or if one or more jobs failed
+     */
+    private void runJobs(JobsOptions jobsOptions) {
+        MemoryBudget budget = createMemoryBudget();
+        int parallelism = requireNonNullElseGet(jobsOptions.parallelism,
+                budget != null ? budget::maxConcurrency : Runtime.getRuntime()::availableProcessors);
+        if (parallelism < 1) {
+            throw new CommandLine.ParameterException(spec.commandLine(),
+                    "--jobs-parallelism must be at least 1, was: " + parallelism);
+        }
+        JobBatch jobBatch;
+        try {
+            jobBatch = JobBatch.readManifest(jobsOptions.manifestFile);
+        } catch (IOException e) {
+            throw new JobBatchException("Could not read job manifest " + jobsOptions.manifestFile, e);
+        }
+        if (budget != null) {
+            // Each job run concurrently gets an equal share of the budget
+            jobBatch = jobBatch.withMemoryBudget(budget.divide(parallelism));
+        }
+        JobBatch.BatchResult batchResult = jobBatch.run(configMapper, parallelism);
+        batchResult.printReport(spec.commandLine().getOut());
+        long failedCount = batchResult.failedCount();
+        if (failedCount != 0) {
+            throw new JobBatchException("%d of %d job(s) failed".formatted(failedCount, jobBatch.jobs().size()));
+        }
+    }
+
+    /**
+     * Watches the directory of {@code --watch}, and converts each complete CSV file, until the process is terminated.
+     *
+     * @param template
+     *         external-table-gen configuration used as template for the conversion of each CSV file
+     * @param watchOptions
+     *         options of {@code --watch}
+     */
+    private void watchDirectory(EtgConfig template, WatchOptions watchOptions) {
+        MemoryBudget budget = createMemoryBudget();
+        WatchConfig watchConfig = createWatchConfig(budget, watchOptions);
+        if (budget != null) {
+            // Each file converted concurrently gets an equal share of the budget
+            budget = budget.divide(watchConfig.workers());
+        }
+        WriteConfig writeConfig = createWriteConfig(budget);
+        RejectConfig rejectConfig = createRejectConfig();
+        CsvLimits csvLimits = createCsvLimits(budget);
+        try (DirectoryWatcher watcher = DirectoryWatcher.open(watchConfig,
+                csvFile -> convertWatchedFile(template, csvFile, writeConfig, rejectConfig, csvLimits))) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    watcher.close();
+                } catch (IOException e) {
+                    log.log(WARNING, "Could not stop watching: {0}", e.toString());
+                }
+            }, "ext-table-gen-watch-shutdown"));
+            watcher.watch();
+        } catch (IOException e) {
+            throw new DirectoryWatchException("Could not watch directory " + watchConfig.directory(), e);
+        }
+    }
+
+    /**
+     * Converts {@code csvFile} found by watching a directory.
+     * <p>
+     * The table file (and reject file, if any) of the conversion are derived from the paths in the template and the
+     * name of {@code csvFile} (see {@link DirectoryWatcher#derivePath(Path, Path)}).
+     * </p>
+     */
+    private void convertWatchedFile(EtgConfig template, Path csvFile, WriteConfig writeConfig,
+            RejectConfig rejectConfig, CsvLimits csvLimits) {
+        EtgConfig etgConfig = template
+                .withCsvFileConfig(cfg -> cfg.withPath(csvFile),
+                        () -> new CsvFileConfig(csvFile, csvCharsetOrDefault(), csvHeaderOrDefault(),
+                                csvParserConfigOrDefault()))
+                .withTableConfig(cfg -> cfg.withTableFile(
+                        cfg.tableFile().map(tableFile ->
+                                tableFile.withPath(DirectoryWatcher.derivePath(tableFile.path(), csvFile)))));
+        Path rejectFile = rejectConfig.rejectFile();
+        if (rejectFile != null) {
+            rejectConfig = new RejectConfig(DirectoryWatcher.derivePath(rejectFile, csvFile),
+                    rejectConfig.errorBudget());
+        }
+        ExtTableGen.of(etgConfig, csvLimits).writeExternalTable(WriteTableOptions.defaults()
+                .withWriteConfig(writeConfig)
+                .withRejectConfig(rejectConfig));
+    }
+
+    private WatchConfig createWatchConfig(MemoryBudget budget, WatchOptions watchOptions) {
+        try {
+            WatchConfig watchConfig = WatchConfig.of(watchOptions.directory);
+            if (budget != null) {
+                watchConfig = watchConfig.withWorkers(budget.maxConcurrency());
+            }
+            if (watchOptions.pattern != null) {
+                watchConfig = watchConfig.withPattern(watchOptions.pattern);
+            }
+            if (watchOptions.settleTimeMillis != null) {
+                watchConfig = watchConfig.withSettleTime(Duration.ofMillis(watchOptions.settleTimeMillis));
+            }
+            if (watchOptions.workers != null) {
+                watchConfig = watchConfig.withWorkers(watchOptions.workers);
+            }
+            if (watchOptions.processedDirectory != null) {
+                watchConfig = watchConfig.withProcessedDirectory(watchOptions.processedDirectory);
+            }
+            if (watchOptions.failedDirectory != null) {
+                watchConfig = watchConfig.withFailedDirectory(watchOptions.failedDirectory);
+            }
+            return watchConfig;
+        } catch (IllegalArgumentException e) {
+            throw new CommandLine.ParameterException(spec.commandLine(), e.getMessage());
+        }
+    }
+
+    /**
+     * Validates if {@code etgConfig} has a table file, as required by {@code --verify} and {@code --dump-table}.
+     *
+     * @param etgConfig
+     *         external-table-gen configuration
+     */
+    /**
+     * Rejects relative paths of the options, as a job of the job server would resolve them against the working
+     * directory of the server, not of the client.
+     */
+    private void requireAbsolutePathOptions() {
+        for (CommandLine.Model.OptionSpec option : spec.commandLine().getParseResult().matchedOptions()) {
+            if (option.getValue() instanceof Path path && !path.isAbsolute()) {
+                throw new CommandLine.ParameterException(spec.commandLine(),
+                        "%s must be an absolute path in a job of the job server, was: %s"
+                                .formatted(option.longestName(), path));
+            }
+        }
+    }
+
+    /**
+     * Rejects relative paths of the CSV file and table file of {@code etgConfig} (e.g. from the configuration file),
+     * as a job of the job server would resolve them against the working directory of the server, not of the client.
+     */
+    private void requireAbsolutePaths(EtgConfig etgConfig) {
+        etgConfig.csvFileConfig().map(CsvFileConfig::path)
+                .ifPresent(path -> requireAbsolutePath("CSV file", path));
+        etgConfig.tableConfig().tableFile().map(TableFile::path)
+                .ifPresent(path -> requireAbsolutePath("Table file", path));
+    }
+
+    private void requireAbsolutePath(String description, Path path) {
+        if (!path.isAbsolute()) {
+            throw new CommandLine.ParameterException(spec.commandLine(),
+                    "%s must be an absolute path in a job of the job server, was: %s".formatted(description, path));
+        }
+    }
+
+    private void requireTableFile(EtgConfig etgConfig) {
+        if (etgConfig.tableConfig().tableFile().isEmpty()) {
+            throw new CommandLine.ParameterException(spec.commandLine(),
+                    "Missing option(s): --table-file=FILE, or --config-in=FILE");
+        }
+    }
+
+    /**
+     * Exports the external table file of {@code etgConfig} to the CSV file of {@code --dump-table}.
+     * <p>
+     * The table definition is never derived, as the CSV file is not read.
+     * </p>
+     *
+     * @param etgConfig
+     *         external-table-gen configuration
+     * @param dumpTable
+     *         CSV file to write
+     */
+    private void dumpExternalTable(EtgConfig etgConfig, Path dumpTable) {
+        ExtTableGen.of(etgConfig.withTableDerivationConfig(cfg -> cfg.withMode(TableDerivationMode.NEVER)))
+                .dumpExternalTable(OutputResource.of(dumpTable));
+    }
+
+    private CheckpointConfig createCheckpointConfig() {
+        try {
+            return new CheckpointConfig(requireNonNullElse(checkpointInterval, 0L), resume);
+        } catch (IllegalArgumentException e) {
+            throw new CommandLine.ParameterException(spec.commandLine(), e.getMessage());
+        }
+    }
+
+    private MemoryBudget createMemoryBudget() {
+        try {
+            return memoryBudget != null ? MemoryBudget.parse(memoryBudget) : null;
+        } catch (IllegalArgumentException e) {
+            throw new CommandLine.ParameterException(spec.commandLine(), e.getMessage());
+        }
+    }
+
+    private WriteConfig createWriteConfig(MemoryBudget budget) {
+        try {
+            WriteConfig writeConfig = budget != null ? budget.applyTo(WriteConfig.defaults()) : WriteConfig.defaults();
+            return writeConfig
+                    .withGatheringWrites(gatheringWrites)
+                    .withMappedWrites(mappedWrites)
+                    .withBuffers(requireNonNullElse(writeBufferSize, writeConfig.bufferSize()),
+                            requireNonNullElse(writeBufferCount, writeConfig.bufferCount()))
+                    .withForcePolicy(requireNonNullElse(forcePolicy, WriteConfig.ForcePolicy.NONE));
+        } catch (IllegalArgumentException e) {
+            throw new CommandLine.ParameterException(spec.commandLine(), e.getMessage());
+        }
+    }
+
+    private CsvLimits createCsvLimits(MemoryBudget budget) {
+        try {
+            CsvLimits csvLimits = budget != null ? budget.applyTo(CsvLimits.getDefault()) : CsvLimits.getDefault();
+            return new CsvLimits(requireNonNullElse(csvMaxFieldLength, csvLimits.maxFieldLength()),
+                    requireNonNullElse(csvMaxRecordLength, csvLimits.maxRecordLength()), truncateStrings);
+        } catch (IllegalArgumentException e) {
+            throw new CommandLine.ParameterException(spec.commandLine(), e.getMessage());
+        }
+    }
+
+    private RejectConfig createRejectConfig() {
+        try {
+            return new RejectConfig(rejectFile, maxErrors != null ? ErrorBudget.parse(maxErrors) : ErrorBudget.none());
+        } catch (IllegalArgumentException e) {
+            throw new CommandLine.ParameterException(spec.commandLine(), e.getMessage());
+        }
     }
 
     /**
@@ -231,8 +762,7 @@ final class ExtTableGenMain implements Runnable {
     private EtgConfig mergeConfig(EtgConfig config) {
         if (tableFileOptions != null && tableFileOptions.tableFilePath != null) {
             config = config.withTableConfig(
-                    cfg -> cfg.withTableFile(new TableFile(
-                            tableFileOptions.tableFilePath, overwriteTableFileOrDefault())));
+                    cfg -> cfg.withTableFile(createTableFile(tableFileOptions)));
         }
 
         if (tableName != null) {
@@ -335,8 +865,8 @@ final class ExtTableGenMain implements Runnable {
         return new EtgConfig(
                 new TableConfig(tableName, List.of(),
                         Optional.ofNullable(tableFileOptions)
-                                .map(opt -> tableFileOptions.tableFilePath)
-                                .map(file -> new TableFile(file, overwriteTableFileOrDefault())),
+                                .filter(opt -> opt.tableFilePath != null)
+                                .map(this::createTableFile),
                         byteOrderOrDefault()),
                 new TableDerivationConfig(
                         columnEncodingOrDefault(), endColumnTypeOrDefault(), tableDerivationModeOrDefault()),
@@ -397,6 +927,17 @@ final class ExtTableGenMain implements Runnable {
         return Optional.ofNullable(tableFileOptions);
     }
 
+    private TableFile createTableFile(TableFileOptions options) {
+        try {
+            return new TableFile(options.tableFilePath, overwriteTableFileOrDefault(),
+                    requireNonNullElse(options.maxRows, TableFile.NO_LIMIT),
+                    requireNonNullElse(options.maxBytes, TableFile.NO_LIMIT),
+                    requireNonNullElse(options.appendMode, AppendMode.NONE));
+        } catch (IllegalArgumentException e) {
+            throw new CommandLine.ParameterException(spec.commandLine(), e.getMessage());
+        }
+    }
+
     private boolean overwriteTableFileOrDefault() {
         return tableFileOptions()
                 .map(opt -> opt.overwriteTableFile)
@@ -460,8 +1001,30 @@ final class ExtTableGenMain implements Runnable {
         }
     }
 
+    /**
+     * Writes {@code etgConfig} in compiled form to the file of {@code --compile-config}, replacing an existing file.
+     *
+     * @param etgConfig
+     *         external-table-gen configuration
+     * @param compileConfig
+     *         compiled configuration file to write
+     * @throws InvalidConfigurationException
+     *         if the file could not be written
+     */
+    private void writeCompiledConfigFile(EtgConfig etgConfig, Path compileConfig) {
+        log.log(INFO, "Writing compiled configuration file ''{0}''", compileConfig);
+        try (var out = new BufferedOutputStream(OutputResource.of(compileConfig, true).newOutputStream())) {
+            configMapper.writeCompiled(etgConfig, out);
+        } catch (IOException e) {
+            throw new InvalidConfigurationException("Could not write compiled configuration file", e);
+        }
+    }
+
     /**
      * Reads the configuration from the location specified in <i>config</i> options to a {@link EtgConfig} object.
+     * <p>
+     * The configuration file is either XML, or a compiled configuration written by {@code --compile-config}.
+     * </p>
      *
      * @return the configuration object, or empty if no config input file was specified
      * @throws InvalidConfigurationException
@@ -470,8 +1033,8 @@ final class ExtTableGenMain implements Runnable {
     private Optional<EtgConfig> readConfigFile() {
         if (configIn != null) {
             log.log(INFO, "Reading configuration file ''{0}''", configIn);
-            try (var in = Files.newInputStream(configIn)) {
-                return Optional.of(configMapper.read(in));
+            try (var in = new BufferedInputStream(Files.newInputStream(configIn))) {
+                return Optional.of(ConfigMapper.isCompiled(in) ? configMapper.readCompiled(in) : configMapper.read(in));
             } catch (IOException | JAXBException e) {
                 log.log(WARNING, "Could not read file ''{0}'': {1}", configIn, e.toString());
                 throw new InvalidConfigurationException("Could not read configuration file", e);
@@ -534,6 +1097,23 @@ final class ExtTableGenMain implements Runnable {
 
     static final class LogExceptionMessageHandler implements CommandLine.IExecutionExceptionHandler {
 
+        private final boolean printMessage;
+
+        LogExceptionMessageHandler() {
+            this(false);
+        }
+
+        /**
+         * Creates an exception handler.
+         *
+         * @param printMessage
+         *         {@code true} also print the exception message to the error writer of the command line (e.g. to
+         *         report it to the client of a job), {@code false} only log the exception message
+         */
+        LogExceptionMessageHandler(boolean printMessage) {
+            this.printMessage = printMessage;
+        }
+
         @Override
         public int handleExecutionException(Exception ex, CommandLine cmd, CommandLine.ParseResult parseResult) {
             var sb = new StringBuilder();
@@ -547,6 +1127,10 @@ final class ExtTableGenMain implements Runnable {
             }
             log.log(ERROR, sb.toString());
             log.log(DEBUG, "Exception terminating ext-table-gen", ex);
+            if (printMessage) {
+                cmd.getErr().println(sb);
+                cmd.getErr().flush();
+            }
             return cmd.getExitCodeExceptionMapper() != null
                     ? cmd.getExitCodeExceptionMapper().getExitCode(ex)
                     : cmd.getCommandSpec().exitCodeOnExecutionException();
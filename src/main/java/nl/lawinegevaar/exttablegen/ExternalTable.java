@@ -1,4 +1,4 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen;
 
@@ -6,6 +6,8 @@ import nl.lawinegevaar.exttablegen.type.FbEncoding;
 import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
@@ -78,6 +80,42 @@ record ExternalTable(String name, List<Column> columns, OutputResource outputRes
         return size > 0 && columns.get(size - 1) instanceof EndColumn ? size - 1 : size;
     }
 
+    /**
+     * Length of a row in bytes.
+     * <p>
+     * All rows of an external table have the same length, so this is determined by encoding a row with only empty
+     * values.
+     * </p>
+     *
+     * @return length of a row in bytes
+     * @since 4
+     */
+    int rowLength() {
+        final class ByteCountingOutputStream extends OutputStream {
+
+            private int count;
+
+            @Override
+            public void write(int b) {
+                count++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                count += len;
+            }
+
+        }
+        var counter = new ByteCountingOutputStream();
+        try (var out = EncoderOutputStream.of(byteOrder).withColumnCount(columnCount()).writeTo(counter)) {
+            writeRow(Row.noHeader(), out);
+        } catch (IOException e) {
+            // should not happen, as ByteCountingOutputStream doesn't throw IOException
+            throw new UncheckedIOException(e);
+        }
+        return counter.count;
+    }
+
     /**
      * @return quoted column name (if {@link #name()} is already quoted, it is returned as-is)
      * @see SqlSyntaxUtils#enquoteIdentifier(String)
@@ -159,11 +197,30 @@ record ExternalTable(String name, List<Column> columns, OutputResource outputRes
      * @return external table
      */
     static ExternalTable deriveFrom(CsvFile csvFile, Config tableConfig, RowProcessor... rowProcessors) {
+        return deriveFrom(CsvFileSet.of(csvFile), tableConfig, rowProcessors);
+    }
+
+    /**
+     * Derives an external table from the content of all parts of a {@link CsvFileSet}.
+     * <p>
+     * The column sizes are derived from the rows of all parts.
+     * </p>
+     *
+     * @param csvFileSet
+     *         CSV file set
+     * @param tableConfig
+     *         external table configuration
+     * @param rowProcessors
+     *         additional row processors
+     * @return external table
+     * @since 4
+     */
+    static ExternalTable deriveFrom(CsvFileSet csvFileSet, Config tableConfig, RowProcessor... rowProcessors) {
         var externalTableProcessor = new ExternalTableProcessor(tableConfig);
         for (RowProcessor rowProcessor : rowProcessors) {
             externalTableProcessor.subscribe(rowProcessor);
         }
-        if (csvFile.readFile(externalTableProcessor) instanceof ProcessingResult.StopWithException swe) {
+        if (csvFileSet.readFile(externalTableProcessor) instanceof ProcessingResult.StopWithException swe) {
             throw new InvalidTableException("Could not derive external table", swe.exception());
         }
         return externalTableProcessor.getExternalTable();
@@ -0,0 +1,188 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads an external table file, decoding its rows with the column definitions and byte order of an
+ * {@link ExternalTable}.
+ * <p>
+ * The file is memory-mapped in chunks of whole rows (a chunk is at most {@link Integer#MAX_VALUE} bytes), so files
+ * larger than 2 GiB can be read as well. The rows are exposed as a lazily populated, sequential stream.
+ * </p>
+ * <p>
+ * The values of an {@link EndColumn} are decoded (to advance to the next row), but not included in the rows returned.
+ * </p>
+ *
+ * @since 4
+ */
+final class ExternalTableReader implements AutoCloseable {
+
+    private static final long MAX_CHUNK_SIZE = Integer.MAX_VALUE;
+
+    private final ExternalTable externalTable;
+    private final FileChannel channel;
+    private final int rowLength;
+    private final long rowCount;
+
+    /**
+     * Opens {@code tableFile} for reading.
+     *
+     * @param externalTable
+     *         external table definition of {@code tableFile}
+     * @param tableFile
+     *         external table file to read
+     * @throws IOException
+     *         if the file cannot be opened, or its length is not a multiple of the row length of
+     *         {@code externalTable}
+     */
+    ExternalTableReader(ExternalTable externalTable, Path tableFile) throws IOException {
+        this.externalTable = requireNonNull(externalTable, "externalTable");
+        rowLength = externalTable.rowLength();
+        channel = FileChannel.open(tableFile, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size % rowLength != 0) {
+                throw new IOException(
+                        "Cannot read external table file '%s': its length (%d) is not a multiple of the row length (%d)"
+                                .formatted(tableFile, size, rowLength));
+            }
+            rowCount = size / rowLength;
+        } catch (IOException | RuntimeException e) {
+            try {
+                channel.close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return length of a row in bytes
+     */
+    int rowLength() {
+        return rowLength;
+    }
+
+    /**
+     * @return number of rows in the external table file
+     */
+    long rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Streams the decoded values of the rows.
+     * <p>
+     * Each element contains the values of the normal columns (see {@link ExternalTable#normalColumnCount()}) as
+     * returned by {@link nl.lawinegevaar.exttablegen.type.FbDatatype#readValue(DecoderInput)}.
+     * </p>
+     *
+     * @return stream of row values, the stream is only valid while this reader is open
+     */
+    Stream<List<Object>> values() {
+        return StreamSupport.stream(new RowSpliterator(), false);
+    }
+
+    /**
+     * Streams the rows as text, with the line number set to the (1-based) row number in the file.
+     * <p>
+     * The text of the values can be parsed by the default converters of the column datatypes, so the rows can be used
+     * to regenerate the external table.
+     * </p>
+     *
+     * @return stream of rows, the stream is only valid while this reader is open
+     * @see #toText(Object)
+     */
+    Stream<Row> rows() {
+        var rowNumber = new long[1];
+        return values().map(rowValues ->
+                new Row(++rowNumber[0], rowValues.stream().map(ExternalTableReader::toText).toList()));
+    }
+
+    /**
+     * Converts a decoded value to text.
+     *
+     * @param value
+     *         decoded value
+     * @return text of the value ({@link BigDecimal} is rendered without exponent)
+     */
+    static String toText(Object value) {
+        return value instanceof BigDecimal bigDecimal ? bigDecimal.toPlainString() : String.valueOf(value);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Spliterator decoding rows from successive memory-mapped chunks of the file.
+     */
+    private final class RowSpliterator extends Spliterators.AbstractSpliterator<List<Object>> {
+
+        private final long rowsPerChunk = Math.max(1, MAX_CHUNK_SIZE / rowLength);
+        private final List<Column> columns = externalTable.columns();
+        private final int normalColumnCount = externalTable.normalColumnCount();
+        private long nextRow;
+        private long chunkEndRow;
+        private @Nullable DecoderInput in;
+
+        RowSpliterator() {
+            super(rowCount, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<Object>> action) {
+            if (nextRow >= rowCount) return false;
+            DecoderInput in = this.in;
+            if (in == null || nextRow == chunkEndRow) {
+                in = mapNextChunk();
+            }
+            in.startRow();
+            var values = new ArrayList<>(normalColumnCount);
+            for (int columnIdx = 0; columnIdx < columns.size(); columnIdx++) {
+                Object value = columns.get(columnIdx).datatype().readValue(in);
+                if (columnIdx < normalColumnCount) {
+                    values.add(value);
+                }
+            }
+            nextRow++;
+            action.accept(values);
+            return true;
+        }
+
+        private DecoderInput mapNextChunk() {
+            chunkEndRow = Math.min(nextRow + rowsPerChunk, rowCount);
+            try {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, nextRow * rowLength,
+                        (chunkEndRow - nextRow) * rowLength);
+                return in = DecoderInput.of(externalTable.byteOrder()).withColumnCount(externalTable.columnCount())
+                        .readFrom(buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+}
@@ -1,4 +1,4 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen;
 
@@ -6,24 +6,31 @@ import org.jspecify.annotations.Nullable;
 
 import java.io.BufferedOutputStream;
 import java.io.Closeable;
+import java.io.Flushable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.FileAlreadyExistsException;
-import java.util.function.UnaryOperator;
+import java.time.Duration;
+import java.time.Instant;
 
+import static java.lang.System.Logger.Level.DEBUG;
 import static java.util.Objects.requireNonNull;
 
 /**
  * Row processor to write the external table file.
  */
-final class ExternalTableWriter extends AbstractRowProcessor implements Closeable {
+final class ExternalTableWriter extends AbstractRowProcessor implements Closeable, Flushable {
 
-    private static final int BUFFER_SIZE = 256 * 1024;
-    private static final UnaryOperator<OutputStream> ADD_BUFFERED = out -> new BufferedOutputStream(out, BUFFER_SIZE);
+    private static final System.Logger log = System.getLogger(ExternalTableWriter.class.getName());
 
     private final ExternalTable externalTable;
     private final OutputResource outputResource;
+    private final WriteConfig writeConfig;
+    private final @Nullable RowRejector rowRejector;
     private @Nullable EncoderOutputStream out;
+    // Only used with a row rejector, to write a row completely or not at all
+    private @Nullable RowBufferedOutputStream rowBufferedOut;
+    private long rowsWritten;
 
     /**
      * Creates a new external table writer, using the current output resource of the external table.
@@ -44,9 +51,86 @@ final class ExternalTableWriter extends AbstractRowProcessor implements Closeabl
      *         output resource to write external table
      */
     ExternalTableWriter(ExternalTable externalTable, OutputResource outputResource) {
+        this(externalTable, outputResource, WriteConfig.defaults());
+    }
+
+    /**
+     * Creates a new external table writer, using the current output resource of the external table.
+     *
+     * @param externalTable
+     *         external table definition
+     * @param writeConfig
+     *         write configuration
+     * @since 4
+     */
+    ExternalTableWriter(ExternalTable externalTable, WriteConfig writeConfig) {
+        this(externalTable, writeConfig, null);
+    }
+
+    /**
+     * Creates a new external table writer, using the current output resource of the external table.
+     *
+     * @param externalTable
+     *         external table definition
+     * @param writeConfig
+     *         write configuration
+     * @param rowRejector
+     *         row rejector to receive rows which cannot be written, or {@code null} to stop on the first row which
+     *         cannot be written
+     * @since 4
+     */
+    ExternalTableWriter(ExternalTable externalTable, WriteConfig writeConfig, @Nullable RowRejector rowRejector) {
+        this(externalTable, requireNonNull(externalTable, "externalTable").outputResource(), writeConfig,
+                rowRejector);
+    }
+
+    /**
+     * Creates a new external table writer.
+     * <p>
+     * With {@link WriteConfig#gatheringWrites()}, an output resource which supports file channels (see
+     * {@link ChannelOutputResource}) is written with gathering writes. With {@link WriteConfig#mappedWrites()}, a
+     * file (see {@link PathOutputResource}) is written by mapping it into memory. Other output resources are written
+     * through a buffered output stream.
+     * </p>
+     *
+     * @param externalTable
+     *         external table definition
+     * @param outputResource
+     *         output resource to write external table
+     * @param writeConfig
+     *         write configuration
+     * @since 4
+     */
+    ExternalTableWriter(ExternalTable externalTable, OutputResource outputResource, WriteConfig writeConfig) {
+        this(externalTable, outputResource, writeConfig, null);
+    }
+
+    /**
+     * Creates a new external table writer.
+     * <p>
+     * With a row rejector, rows are written through a {@link RowBufferedOutputStream}, so a row which cannot be
+     * written (e.g. because a value cannot be converted) is discarded instead of partially written. The row is passed
+     * to the row rejector instead, and the result of the row rejector is returned from {@link #onRow(Row)}.
+     * </p>
+     *
+     * @param externalTable
+     *         external table definition
+     * @param outputResource
+     *         output resource to write external table
+     * @param writeConfig
+     *         write configuration
+     * @param rowRejector
+     *         row rejector to receive rows which cannot be written, or {@code null} to stop on the first row which
+     *         cannot be written
+     * @since 4
+     */
+    ExternalTableWriter(ExternalTable externalTable, OutputResource outputResource, WriteConfig writeConfig,
+            @Nullable RowRejector rowRejector) {
         this.externalTable = requireNonNull(externalTable, "externalTable")
                 .withOutputResource(outputResource);
-        this.outputResource = OutputResource.decorate(requireNonNull(outputResource, "outputResource"), ADD_BUFFERED);
+        this.outputResource = requireNonNull(outputResource, "outputResource");
+        this.writeConfig = requireNonNull(writeConfig, "writeConfig");
+        this.rowRejector = rowRejector;
     }
 
     @Override
@@ -57,18 +141,50 @@ final class ExternalTableWriter extends AbstractRowProcessor implements Closeabl
         try {
             out = EncoderOutputStream.of(externalTable.byteOrder())
                     .withColumnCount(externalTable.columnCount())
-                    .writeTo(outputResource.newOutputStream());
+                    .writeTo(newOutputStream());
             return ProcessingResult.continueProcessing();
         } catch (IOException e) {
-            var resultException = e instanceof FileAlreadyExistsException && !outputResource.allowOverwrite()
-                    ? new TableFileAlreadyExistsException(
-                    ("Could not create external table file '%s' as it already exists, specify --overwrite-table-file "
-                     + "or configure overwrite=true on <tableFile> in XML")
-                            .formatted(outputResource.path().map(String::valueOf).orElse("(no path specified)")), e)
-                    : new InvalidTableException("Could not create external table file %s"
-                            .formatted(outputResource.path().map(String::valueOf).orElse("(no path specified)")), e);
-            return ProcessingResult.stopWith(resultException);
+            return ProcessingResult.stopWith(createTableFileException(outputResource, e));
+        }
+    }
+
+    private OutputStream newOutputStream() throws IOException {
+        OutputStream stream;
+        if (writeConfig.mappedWrites() && outputResource instanceof PathOutputResource pathOutputResource) {
+            stream = new MappedChannelOutputStream(pathOutputResource.newMappableFileChannel(),
+                    MappedChannelOutputStream.DEFAULT_REGION_SIZE,
+                    writeConfig.forcePolicy() != WriteConfig.ForcePolicy.NONE);
+        } else if (writeConfig.gatheringWrites()
+                   && outputResource instanceof ChannelOutputResource channelOutputResource) {
+            stream = new GatheringChannelOutputStream(channelOutputResource.newFileChannel(),
+                    writeConfig.bufferSize(), writeConfig.bufferCount());
+        } else if (rowRejector == null) {
+            return new BufferedOutputStream(outputResource.newOutputStream(), writeConfig.bufferSize());
+        } else {
+            stream = outputResource.newOutputStream();
         }
+        if (rowRejector == null) return stream;
+        // Mapped and gathering writes lose their direct encoding, as rows must be buffered to be discarded
+        return rowBufferedOut = new RowBufferedOutputStream(stream, writeConfig.bufferSize(), externalTable.rowLength());
+    }
+
+    /**
+     * Creates the exception to report that the external table file of {@code outputResource} could not be created.
+     *
+     * @param outputResource
+     *         output resource of the external table file
+     * @param e
+     *         exception creating the output stream of {@code outputResource}
+     * @return exception to report
+     */
+    static InvalidTableException createTableFileException(OutputResource outputResource, IOException e) {
+        return e instanceof FileAlreadyExistsException && !outputResource.allowOverwrite()
+                ? new TableFileAlreadyExistsException(
+                ("Could not create external table file '%s' as it already exists, specify --overwrite-table-file "
+                 + "or configure overwrite=true on <tableFile> in XML")
+                        .formatted(outputResource.path().map(String::valueOf).orElse("(no path specified)")), e)
+                : new InvalidTableException("Could not create external table file %s"
+                        .formatted(outputResource.path().map(String::valueOf).orElse("(no path specified)")), e);
     }
 
     @Override
@@ -77,8 +193,15 @@ final class ExternalTableWriter extends AbstractRowProcessor implements Closeabl
             throw new IllegalStateException("onHeader must be called before calling onRow to initialise output stream");
         }
         try {
-            externalTable.writeRow(row, out);
-            return ProcessingResult.continueProcessing();
+            ProcessingResult result;
+            if (rowRejector != null) {
+                result = writeRowOrReject(row, out, rowRejector);
+            } else {
+                externalTable.writeRow(row, out);
+                rowsWritten++;
+                result = ProcessingResult.continueProcessing();
+            }
+            return result;
         } catch (IOException e) {
             try {
                 close();
@@ -89,16 +212,62 @@ final class ExternalTableWriter extends AbstractRowProcessor implements Closeabl
         }
     }
 
+    private ProcessingResult writeRowOrReject(Row row, EncoderOutputStream out, RowRejector rowRejector)
+            throws IOException {
+        RowBufferedOutputStream rowBufferedOut = requireNonNull(this.rowBufferedOut, "rowBufferedOut");
+        rowBufferedOut.startRow();
+        try {
+            externalTable.writeRow(row, out);
+        } catch (RuntimeException e) {
+            rowBufferedOut.discardRow();
+            return rowRejector.reject(row, e);
+        }
+        rowsWritten++;
+        return ProcessingResult.continueProcessing();
+    }
+
+    /**
+     * Logs the time from the start of the process to completing the table file (used by the startup benchmark).
+     */
+    private void logTimeToCompletion() {
+        if (!log.isLoggable(DEBUG)) return;
+        ProcessHandle.current().info().startInstant().ifPresent(start -> log.log(DEBUG,
+                "Time to completion: {0} ms ({1} rows)",
+                String.valueOf(Duration.between(start, Instant.now()).toMillis()), String.valueOf(rowsWritten)));
+    }
+
+    /**
+     * @return number of rows written (excluding rejected rows)
+     * @since 4
+     */
+    long rowsWritten() {
+        return rowsWritten;
+    }
+
     @Override
     public ProcessingResult.Stop onComplete() {
         try {
             close();
+            logTimeToCompletion();
             return ProcessingResult.stopProcessing();
         } catch (IOException e) {
             return ProcessingResult.stopWith(e);
         }
     }
 
+    /**
+     * Flushes the rows written so far to the output resource.
+     *
+     * @throws IOException
+     *         for errors flushing the output stream
+     * @since 4
+     */
+    @Override
+    public void flush() throws IOException {
+        OutputStream out = this.out;
+        if (out != null) out.flush();
+    }
+
     @Override
     public void close() throws IOException {
         try {
@@ -0,0 +1,151 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Output stream collecting data in direct buffers, which are written to a channel with a gathering write.
+ * <p>
+ * Data is copied into the current buffer; when it is full, the next buffer is used. When all buffers are full, they are
+ * written to the channel with a single {@link GatheringByteChannel#write(ByteBuffer[], int, int)}. As the buffers are
+ * direct, the channel does not need to copy them to native memory before writing.
+ * </p>
+ * <p>
+ * Values can also be encoded directly into the buffers (see {@link DirectBufferSink}), so encoded rows are never
+ * copied on the heap.
+ * </p>
+ * <p>
+ * Closing this stream writes the remaining data, and closes the channel.
+ * </p>
+ *
+ * @since 4
+ */
+final class GatheringChannelOutputStream extends OutputStream implements DirectBufferSink {
+
+    private final GatheringByteChannel channel;
+    private final int bufferSize;
+    private final ByteBuffer[] buffers;
+    private int current;
+    private boolean closed;
+
+    /**
+     * Creates a gathering channel output stream.
+     *
+     * @param channel
+     *         channel to write
+     * @param bufferSize
+     *         size of each buffer in bytes
+     * @param bufferCount
+     *         number of buffers
+     */
+    GatheringChannelOutputStream(GatheringByteChannel channel, int bufferSize, int bufferCount) {
+        this.channel = requireNonNull(channel, "channel");
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be at least 1, was: " + bufferSize);
+        }
+        if (bufferCount < 1) {
+            throw new IllegalArgumentException("bufferCount must be at least 1, was: " + bufferCount);
+        }
+        this.bufferSize = bufferSize;
+        buffers = new ByteBuffer[bufferCount];
+        for (int idx = 0; idx < bufferCount; idx++) {
+            buffers[idx] = ByteBuffer.allocateDirect(bufferSize);
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        currentBuffer().put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        while (len > 0) {
+            ByteBuffer buffer = currentBuffer();
+            int count = Math.min(len, buffer.remaining());
+            buffer.put(b, off, count);
+            off += count;
+            len -= count;
+        }
+    }
+
+    @Override
+    public int maxReserveSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public ByteBuffer reserve(int bytes) throws IOException {
+        if (bytes > bufferSize) {
+            throw new IllegalArgumentException(
+                    "bytes must be at most %d, was: %d".formatted(bufferSize, bytes));
+        }
+        if (closed) throw new IOException("Stream closed");
+        ByteBuffer buffer = buffers[current];
+        if (buffer.remaining() >= bytes) return buffer;
+        // The remainder of the current buffer is left unused; the buffers are only written up to their position
+        if (++current == buffers.length) {
+            writeBuffers();
+        }
+        return buffers[current];
+    }
+
+    /**
+     * @return buffer with space remaining, writing all buffers to the channel if they are full
+     */
+    private ByteBuffer currentBuffer() throws IOException {
+        if (closed) throw new IOException("Stream closed");
+        ByteBuffer buffer = buffers[current];
+        if (buffer.hasRemaining()) return buffer;
+        if (++current == buffers.length) {
+            writeBuffers();
+        }
+        return buffers[current];
+    }
+
+    private void writeBuffers() throws IOException {
+        int count = Math.min(current + 1, buffers.length);
+        long remaining = 0;
+        for (int idx = 0; idx < count; idx++) {
+            remaining += buffers[idx].flip().remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers, 0, count);
+        }
+        for (int idx = 0; idx < count; idx++) {
+            buffers[idx].clear();
+        }
+        current = 0;
+    }
+
+    /**
+     * Writes the buffered data to the channel.
+     * <p>
+     * This does not force the data to the storage device.
+     * </p>
+     */
+    @Override
+    public void flush() throws IOException {
+        if (closed) return;
+        writeBuffers();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        try (channel) {
+            writeBuffers();
+        } finally {
+            closed = true;
+        }
+    }
+
+}
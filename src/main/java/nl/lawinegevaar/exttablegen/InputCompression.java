@@ -0,0 +1,118 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Compression of an input file.
+ *
+ * @since 4
+ */
+enum InputCompression {
+
+    /**
+     * Not compressed.
+     */
+    NONE {
+        @Override
+        InputResource decompress(InputResource inputResource) {
+            return inputResource;
+        }
+    },
+    /**
+     * Gzip compressed (single or multi-member).
+     */
+    GZIP {
+        @Override
+        InputResource decompress(InputResource inputResource) {
+            return InputResource.gzip(inputResource);
+        }
+    },
+    /**
+     * Zip archive (only the first file entry is read).
+     */
+    ZIP {
+        @Override
+        InputResource decompress(InputResource inputResource) {
+            return InputResource.zip(inputResource);
+        }
+    };
+
+    private static final int MAGIC_LENGTH = 4;
+
+    /**
+     * Wraps {@code inputResource} to decompress its data according to this compression.
+     *
+     * @param inputResource
+     *         input resource with data compressed according to this compression
+     * @return input resource producing the decompressed data, or {@code inputResource} itself for {@code NONE}
+     */
+    abstract InputResource decompress(InputResource inputResource);
+
+    /**
+     * Detects the compression of the file at {@code path}.
+     * <p>
+     * If the file can be read, its compression is detected from the first bytes of the file (the <em>magic
+     * bytes</em>). Otherwise, the compression is derived from the file extension ({@code .gz} or {@code .gzip} for
+     * {@code GZIP}, {@code .zip} for {@code ZIP}).
+     * </p>
+     *
+     * @param path
+     *         file path
+     * @return detected compression, {@code NONE} if the file is not compressed, or the compression is not recognized
+     */
+    static InputCompression detect(Path path) {
+        if (Files.isReadable(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                return fromMagic(in.readNBytes(MAGIC_LENGTH));
+            } catch (IOException ignored) {
+                // fallback to file extension
+            }
+        }
+        return fromFileName(path);
+    }
+
+    /**
+     * Detects the compression from the first bytes of a file.
+     *
+     * @param magic
+     *         first bytes of the file (at most four bytes are used)
+     * @return compression detected from {@code magic}, or {@code NONE} if the bytes are not recognized
+     */
+    static InputCompression fromMagic(byte[] magic) {
+        if (magic.length >= 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B) {
+            return GZIP;
+        }
+        if (magic.length >= 4 && magic[0] == 'P' && magic[1] == 'K'
+            // local file header, or end of central directory for an empty archive
+            && (magic[2] == 3 && magic[3] == 4 || magic[2] == 5 && magic[3] == 6)) {
+            return ZIP;
+        }
+        return NONE;
+    }
+
+    /**
+     * Derives the compression from the file name of {@code path}.
+     *
+     * @param path
+     *         file path
+     * @return compression derived from the file extension, or {@code NONE} if the extension is not recognized
+     */
+    static InputCompression fromFileName(Path path) {
+        Path fileName = path.getFileName();
+        if (fileName == null) return NONE;
+        String name = fileName.toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz") || name.endsWith(".gzip")) {
+            return GZIP;
+        } else if (name.endsWith(".zip")) {
+            return ZIP;
+        }
+        return NONE;
+    }
+
+}
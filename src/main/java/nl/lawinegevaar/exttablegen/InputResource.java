@@ -1,9 +1,10 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen;
 
 import org.jspecify.annotations.Nullable;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
@@ -16,6 +17,10 @@ import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
 
 import static java.util.Objects.requireNonNull;
 
@@ -129,6 +134,34 @@ interface InputResource {
         return new ClasspathInputResource(locatorClass, resource);
     }
 
+    /**
+     * Creates an input resource which decompresses the gzip data of {@code compressed}.
+     * <p>
+     * Multi-member gzip data (i.e. multiple gzip members concatenated into one file) is read as one continuous
+     * stream.
+     * </p>
+     *
+     * @param compressed
+     *         input resource with gzip compressed data
+     * @return input resource producing the decompressed data of {@code compressed}
+     * @since 4
+     */
+    static InputResource gzip(InputResource compressed) {
+        return new GzipInputResource(compressed);
+    }
+
+    /**
+     * Creates an input resource which decompresses the first file entry of the zip archive of {@code compressed}.
+     *
+     * @param compressed
+     *         input resource with a zip archive
+     * @return input resource producing the decompressed data of the first file entry of {@code compressed}
+     * @since 4
+     */
+    static InputResource zip(InputResource compressed) {
+        return new ZipEntryInputResource(compressed);
+    }
+
 }
 
 /**
@@ -227,3 +260,113 @@ final class ClasspathInputResource implements InputResource {
     }
 
 }
+
+/**
+ * Input resource decompressing gzip data from another input resource.
+ *
+ * @param compressed
+ *         input resource with the gzip compressed data
+ */
+record GzipInputResource(InputResource compressed) implements InputResource {
+
+    GzipInputResource {
+        requireNonNull(compressed, "compressed");
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The input of {@code compressed} is buffered, as {@link GZIPInputStream} uses {@link InputStream#available()} to
+     * detect if another gzip member follows the current member.
+     * </p>
+     */
+    @Override
+    public InputStream newInputStream() throws IOException {
+        InputStream in = new BufferedInputStream(compressed.newInputStream(), DecompressionBuffers.BUFFER_SIZE);
+        try {
+            return new GZIPInputStream(in, DecompressionBuffers.BUFFER_SIZE);
+        } catch (IOException | RuntimeException e) {
+            try {
+                in.close();
+            } catch (IOException e2) {
+                e.addSuppressed(e2);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Reader newReader(Charset charset) throws IOException {
+        return DecompressionBuffers.newReader(newInputStream(), charset);
+    }
+
+}
+
+/**
+ * Input resource decompressing the first file entry of a zip archive from another input resource.
+ * <p>
+ * The archive is read as a stream, so it does not need to be a file. Directory entries are skipped. Other file
+ * entries after the first file entry are ignored.
+ * </p>
+ *
+ * @param compressed
+ *         input resource with the zip archive
+ */
+record ZipEntryInputResource(InputResource compressed) implements InputResource {
+
+    ZipEntryInputResource {
+        requireNonNull(compressed, "compressed");
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ZipException
+     *         if the zip archive has no file entry
+     */
+    @Override
+    public InputStream newInputStream() throws IOException {
+        var in = new ZipInputStream(
+                new BufferedInputStream(compressed.newInputStream(), DecompressionBuffers.BUFFER_SIZE));
+        try {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                if (!entry.isDirectory()) return in;
+            }
+            throw new ZipException("Zip archive has no file entry: " + compressed);
+        } catch (IOException | RuntimeException e) {
+            try {
+                in.close();
+            } catch (IOException e2) {
+                e.addSuppressed(e2);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Reader newReader(Charset charset) throws IOException {
+        return DecompressionBuffers.newReader(newInputStream(), charset);
+    }
+
+}
+
+/**
+ * Buffer sizes for reading compressed input.
+ * <p>
+ * Decompression works best with large reads, so we use larger buffers than the Java defaults of 8 KiB.
+ * </p>
+ */
+final class DecompressionBuffers {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private DecompressionBuffers() {
+        // no instances
+    }
+
+    static Reader newReader(InputStream in, Charset charset) {
+        return new BufferedReader(new InputStreamReader(in, charset), BUFFER_SIZE);
+    }
+
+}
@@ -0,0 +1,273 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Batch of conversion jobs listed in a job manifest, run concurrently in a single JVM.
+ * <p>
+ * The job manifest is a text file (UTF-8) with one job per line. A job is the path of a configuration file (relative
+ * paths are resolved against the directory of the manifest), optionally followed by command-line arguments, or only
+ * command-line arguments (the first argument starts with {@code -}). Arguments are separated by whitespace, an argument
+ * containing whitespace can be enclosed in double quotes. Empty lines and lines starting with {@code #} are ignored.
+ * </p>
+ * <p>
+ * The jobs run on a bounded pool of virtual threads, and share the configuration mapper (and its JAXB context), and the
+ * cached encodings and formatters.
+ * </p>
+ *
+ * @since 4
+ */
+final class JobBatch {
+
+    private static final System.Logger log = System.getLogger(JobBatch.class.getName());
+
+    private final List<Job> jobs;
+
+    private JobBatch(List<Job> jobs) {
+        this.jobs = List.copyOf(jobs);
+    }
+
+    /**
+     * Reads a job manifest.
+     *
+     * @param manifestFile
+     *         job manifest
+     * @return batch with the jobs of the manifest
+     * @throws IOException
+     *         if the manifest cannot be read
+     * @throws JobBatchException
+     *         if a line of the manifest is invalid (e.g. an unterminated quote)
+     */
+    static JobBatch readManifest(Path manifestFile) throws IOException {
+        Path baseDirectory = requireNonNull(manifestFile.toAbsolutePath().getParent(), "baseDirectory");
+        List<String> lines = Files.readAllLines(manifestFile, UTF_8);
+        var jobs = new ArrayList<Job>();
+        for (int idx = 0; idx < lines.size(); idx++) {
+            String line = lines.get(idx).strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            try {
+                jobs.add(new Job(idx + 1, parseLine(line, baseDirectory)));
+            } catch (IllegalArgumentException e) {
+                throw new JobBatchException(
+                        "Invalid line %d of job manifest %s: %s".formatted(idx + 1, manifestFile, e.getMessage()));
+            }
+        }
+        return new JobBatch(jobs);
+    }
+
+    /**
+     * Parses a line of the job manifest to the command-line arguments of the job.
+     *
+     * @param line
+     *         line (not empty)
+     * @param baseDirectory
+     *         directory to resolve a relative path of a configuration file
+     * @return command-line arguments
+     * @throws IllegalArgumentException
+     *         if the line has an unterminated quote
+     */
+    // package-private for tests
+    static List<String> parseLine(String line, Path baseDirectory) {
+        var args = new ArrayList<String>();
+        var current = new StringBuilder();
+        boolean inQuotes = false;
+        boolean inArgument = false;
+        for (int idx = 0; idx < line.length(); idx++) {
+            char c = line.charAt(idx);
+            if (c == '"') {
+                inQuotes = !inQuotes;
+                inArgument = true;
+            } else if (Character.isWhitespace(c) && !inQuotes) {
+                if (inArgument) {
+                    args.add(current.toString());
+                    current.setLength(0);
+                    inArgument = false;
+                }
+            } else {
+                current.append(c);
+                inArgument = true;
+            }
+        }
+        if (inQuotes) {
+            throw new IllegalArgumentException("unterminated quote");
+        }
+        if (inArgument) {
+            args.add(current.toString());
+        }
+        if (!args.isEmpty() && !args.getFirst().startsWith("-")) {
+            args.set(0, "--config-in=" + baseDirectory.resolve(args.getFirst()));
+        }
+        return args;
+    }
+
+    /**
+     * @return jobs of this batch
+     */
+    List<Job> jobs() {
+        return jobs;
+    }
+
+    /**
+     * Returns a copy of this batch where jobs without a {@code --memory-budget} argument use {@code memoryBudget}.
+     *
+     * @param memoryBudget
+     *         memory budget of a single job
+     * @return batch with the memory budget applied to its jobs
+     */
+    JobBatch withMemoryBudget(MemoryBudget memoryBudget) {
+        String budgetArg = "--memory-budget=" + memoryBudget.bytes();
+        return new JobBatch(jobs.stream()
+                .map(job -> job.args().stream().anyMatch(arg -> arg.startsWith("--memory-budget"))
+                        ? job
+                        : new Job(job.lineNumber(), Stream.concat(job.args().stream(), Stream.of(budgetArg)).toList()))
+                .toList());
+    }
+
+    /**
+     * Runs the jobs of this batch, and waits for all jobs to complete.
+     *
+     * @param configMapper
+     *         configuration mapper shared by all jobs
+     * @param parallelism
+     *         maximum number of jobs run concurrently
+     * @return result of the batch
+     */
+    BatchResult run(ConfigMapper configMapper, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1, was: " + parallelism);
+        }
+        log.log(INFO, "Running {0} job(s) with parallelism {1}", jobs.size(), parallelism);
+        long start = System.nanoTime();
+        List<Future<JobResult>> futures;
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                Thread.ofVirtual().name("ext-table-gen-batch-", 1).factory())) {
+            futures = jobs.stream()
+                    .map(job -> executor.submit(() -> runJob(configMapper, job)))
+                    .toList();
+        }
+        return new BatchResult(futures.stream().map(Future::resultNow).toList(),
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private static JobResult runJob(ConfigMapper configMapper, Job job) {
+        log.log(INFO, "Starting job {0}", job.lineNumber());
+        log.log(DEBUG, "Arguments of job {0}: {1}", job.lineNumber(), job.args());
+        var output = new StringWriter();
+        long start = System.nanoTime();
+        int exitCode;
+        try (var out = new PrintWriter(output)) {
+            exitCode = ExtTableGenMain.executeJob(configMapper, out, job.args().toArray(String[]::new));
+        } catch (RuntimeException e) {
+            log.log(DEBUG, "Exception running job " + job.lineNumber(), e);
+            output.append(e.toString());
+            exitCode = 1;
+        }
+        var result = new JobResult(job, exitCode, Duration.ofNanos(System.nanoTime() - start), output.toString());
+        if (result.succeeded()) {
+            log.log(INFO, "Completed job {0} in {1} ms", job.lineNumber(), String.valueOf(result.elapsed().toMillis()));
+        } else {
+            log.log(WARNING, "Job {0} failed with exit code {1}: {2}", job.lineNumber(), exitCode,
+                    result.output().strip());
+        }
+        return result;
+    }
+
+    /**
+     * Job of a batch.
+     *
+     * @param lineNumber
+     *         line number of the job in the manifest (identifies the job)
+     * @param args
+     *         command-line arguments of the job
+     */
+    record Job(int lineNumber, List<String> args) {
+
+        Job {
+            args = List.copyOf(args);
+        }
+
+    }
+
+    /**
+     * Result of a job.
+     *
+     * @param job
+     *         job
+     * @param exitCode
+     *         exit code of the job
+     * @param elapsed
+     *         wall-clock time of the job
+     * @param output
+     *         output and error messages of the job
+     */
+    record JobResult(Job job, int exitCode, Duration elapsed, String output) {
+
+        boolean succeeded() {
+            return exitCode == 0;
+        }
+
+    }
+
+    /**
+     * Result of a batch.
+     *
+     * @param jobResults
+     *         results of the jobs, in order of the manifest
+     * @param elapsed
+     *         wall-clock time of the batch
+     */
+    record BatchResult(List<JobResult> jobResults, Duration elapsed) {
+
+        BatchResult {
+            jobResults = List.copyOf(jobResults);
+        }
+
+        /**
+         * @return number of failed jobs
+         */
+        long failedCount() {
+            return jobResults.stream().filter(result -> !result.succeeded()).count();
+        }
+
+        /**
+         * Prints a report with the exit code and wall-clock time of each job, and the totals of the batch.
+         *
+         * @param out
+         *         writer for the report
+         */
+        void printReport(PrintWriter out) {
+            out.println(" Line  Exit  Time (ms)  Arguments");
+            for (JobResult result : jobResults) {
+                out.printf("%5d  %4d  %9d  %s%n", result.job().lineNumber(), result.exitCode(),
+                        result.elapsed().toMillis(), String.join(" ", result.job().args()));
+            }
+            Duration jobsTime = jobResults.stream().map(JobResult::elapsed).reduce(Duration.ZERO, Duration::plus);
+            long failedCount = failedCount();
+            out.printf("Completed %d job(s) in %d ms (sum of job times: %d ms): %d succeeded, %d failed%n",
+                    jobResults.size(), elapsed.toMillis(), jobsTime.toMillis(), jobResults.size() - failedCount,
+                    failedCount);
+            out.flush();
+        }
+
+    }
+
+}
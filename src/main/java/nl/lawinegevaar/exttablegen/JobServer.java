@@ -0,0 +1,264 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jdk.net.ExtendedSocketOptions;
+import jdk.net.UnixDomainPrincipal;
+
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Server accepting conversion jobs on a Unix domain socket, so multiple conversions share a single (warmed-up) JVM.
+ * <p>
+ * A client connects to the socket, and sends the command-line arguments of the job, one argument per line (UTF-8),
+ * terminated by an empty line or by closing its output. The job is run on its own virtual thread, so jobs run
+ * concurrently. The server replies with the output of the job (e.g. usage help or error messages), followed by a final
+ * line {@code exit: <code>} with the exit code of the job, and closes the connection.
+ * </p>
+ * <p>
+ * The server has its own working directory, which is not the working directory of the client, so a job with a relative
+ * path (in its arguments, or for the CSV file or table file in its configuration file) is rejected.
+ * </p>
+ * <p>
+ * Jobs run with the permissions of the server, so the server only accepts jobs of the user running the server: the
+ * socket file is only accessible to its owner, and the user of each client is checked with the peer credentials of
+ * the connection. The size of a job request is limited to {@link #MAX_ARGUMENT_COUNT} arguments of at most
+ * {@link #MAX_ARGUMENT_LENGTH} characters.
+ * </p>
+ * <p>
+ * The jobs share the configuration mapper (and its JAXB context), and the cached encodings and formatters.
+ * </p>
+ *
+ * @since 4
+ */
+final class JobServer implements Closeable {
+
+    private static final System.Logger log = System.getLogger(JobServer.class.getName());
+
+    /**
+     * Prefix of the last line of the reply to a job, followed by the exit code.
+     */
+    static final String EXIT_CODE_PREFIX = "exit: ";
+    /**
+     * Maximum number of arguments of a job.
+     */
+    static final int MAX_ARGUMENT_COUNT = 256;
+    /**
+     * Maximum length of an argument of a job in characters.
+     */
+    static final int MAX_ARGUMENT_LENGTH = 32 * 1024;
+    /**
+     * Exit code for rejected jobs (same as for invalid command-line arguments).
+     */
+    static final int REJECTED_EXIT_CODE = 2;
+
+    private final Path socketPath;
+    private final ServerSocketChannel serverChannel;
+    private final UserPrincipal owner;
+    private final ConfigMapper configMapper;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("ext-table-gen-job-", 1).factory());
+    private final AtomicLong jobCounter = new AtomicLong();
+
+    private JobServer(Path socketPath, ServerSocketChannel serverChannel, UserPrincipal owner,
+            ConfigMapper configMapper) {
+        this.socketPath = requireNonNull(socketPath, "socketPath");
+        this.serverChannel = requireNonNull(serverChannel, "serverChannel");
+        this.owner = requireNonNull(owner, "owner");
+        this.configMapper = requireNonNull(configMapper, "configMapper");
+    }
+
+    /**
+     * Opens a job server listening on {@code socketPath}.
+     * <p>
+     * The permissions of the socket file are restricted to its owner (the user running the server).
+     * </p>
+     *
+     * @param socketPath
+     *         path of the Unix domain socket (must not exist)
+     * @param configMapper
+     *         configuration mapper shared by all jobs
+     * @return job server
+     * @throws IOException
+     *         if the socket cannot be created (e.g. if {@code socketPath} already exists), or if its permissions
+     *         cannot be restricted to its owner (e.g. if the file system does not support POSIX permissions)
+     */
+    static JobServer open(Path socketPath, ConfigMapper configMapper) throws IOException {
+        ServerSocketChannel serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        boolean bound = false;
+        try {
+            serverChannel.bind(UnixDomainSocketAddress.of(socketPath));
+            bound = true;
+            UserPrincipal owner = restrictToOwner(socketPath);
+            return new JobServer(socketPath, serverChannel, owner, configMapper);
+        } catch (IOException | RuntimeException e) {
+            try (serverChannel) {
+                if (bound) {
+                    Files.deleteIfExists(socketPath);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Restricts the permissions of {@code socketPath} to read and write by its owner.
+     *
+     * @return owner of the socket file
+     */
+    private static UserPrincipal restrictToOwner(Path socketPath) throws IOException {
+        try {
+            Files.setPosixFilePermissions(socketPath, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            throw new IOException("Cannot restrict access to socket %s to its owner: POSIX file permissions not supported"
+                    .formatted(socketPath), e);
+        }
+        return Files.getOwner(socketPath);
+    }
+
+    /**
+     * @return path of the Unix domain socket
+     */
+    Path socketPath() {
+        return socketPath;
+    }
+
+    /**
+     * Accepts jobs until this server is closed.
+     *
+     * @throws IOException
+     *         if accepting a connection fails
+     */
+    void serve() throws IOException {
+        log.log(INFO, "Accepting jobs on ''{0}''", socketPath);
+        while (serverChannel.isOpen()) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (AsynchronousCloseException e) {
+                break;
+            }
+            executor.execute(() -> runJob(channel));
+        }
+    }
+
+    private void runJob(SocketChannel channel) {
+        long jobId = jobCounter.incrementAndGet();
+        try (channel;
+             var reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), UTF_8));
+             var writer = new PrintWriter(new OutputStreamWriter(Channels.newOutputStream(channel), UTF_8))) {
+            // Connections made before the permissions of the socket file were restricted are also rejected
+            UnixDomainPrincipal peer = channel.getOption(ExtendedSocketOptions.SO_PEERCRED);
+            if (!owner.equals(peer.user())) {
+                log.log(WARNING, "Rejected job {0} of user {1}, only jobs of user {2} are accepted", jobId,
+                        peer.user().getName(), owner.getName());
+                return;
+            }
+            List<String> args;
+            try {
+                args = readArguments(reader);
+            } catch (JobServerException e) {
+                log.log(WARNING, "Job {0}: {1}", jobId, e.getMessage());
+                writer.println(e.getMessage());
+                writer.println(EXIT_CODE_PREFIX + REJECTED_EXIT_CODE);
+                writer.flush();
+                return;
+            }
+            log.log(INFO, "Starting job {0}", jobId);
+            log.log(DEBUG, "Arguments of job {0}: {1}", jobId, args);
+            long start = System.nanoTime();
+            int exitCode = ExtTableGenMain.executeJob(configMapper, writer, true, args.toArray(String[]::new));
+            log.log(INFO, "Completed job {0} with exit code {1} in {2} ms", jobId, exitCode,
+                    (System.nanoTime() - start) / 1_000_000);
+            writer.println(EXIT_CODE_PREFIX + exitCode);
+            writer.flush();
+        } catch (IOException | RuntimeException e) {
+            log.log(WARNING, "Job {0} failed: {1}", jobId, e.toString());
+            log.log(DEBUG, "Exception running job " + jobId, e);
+        }
+    }
+
+    /**
+     * Reads the arguments of a job, one per line, until an empty line or the end of input.
+     *
+     * @throws JobServerException
+     *         if the job has more than {@link #MAX_ARGUMENT_COUNT} arguments, or an argument is longer than
+     *         {@link #MAX_ARGUMENT_LENGTH}
+     */
+    private static List<String> readArguments(BufferedReader reader) throws IOException {
+        var args = new ArrayList<String>();
+        var arg = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '\n') {
+                if (!arg.isEmpty() && arg.charAt(arg.length() - 1) == '\r') {
+                    arg.setLength(arg.length() - 1);
+                }
+                if (arg.isEmpty()) return args;
+                addArgument(args, arg);
+            } else if (arg.length() > MAX_ARGUMENT_LENGTH) {
+                // one more than the maximum, for the CR of CRLF
+                throw new JobServerException(
+                        "Job rejected: argument %d is longer than %d characters".formatted(args.size() + 1,
+                                MAX_ARGUMENT_LENGTH));
+            } else {
+                arg.append((char) c);
+            }
+        }
+        if (!arg.isEmpty()) {
+            addArgument(args, arg);
+        }
+        return args;
+    }
+
+    private static void addArgument(List<String> args, StringBuilder arg) {
+        if (arg.length() > MAX_ARGUMENT_LENGTH) {
+            throw new JobServerException("Job rejected: argument %d is longer than %d characters"
+                    .formatted(args.size() + 1, MAX_ARGUMENT_LENGTH));
+        }
+        if (args.size() == MAX_ARGUMENT_COUNT) {
+            throw new JobServerException("Job rejected: more than %d arguments".formatted(MAX_ARGUMENT_COUNT));
+        }
+        args.add(arg.toString());
+        arg.setLength(0);
+    }
+
+    /**
+     * Stops accepting jobs, waits for running jobs to complete, and removes the socket.
+     */
+    @Override
+    public void close() throws IOException {
+        try (executor) {
+            serverChannel.close();
+        } finally {
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+}
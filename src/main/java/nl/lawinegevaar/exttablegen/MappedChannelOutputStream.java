@@ -0,0 +1,159 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Output stream writing a file by mapping it into memory region by region.
+ * <p>
+ * Data is copied (or encoded, see {@link DirectBufferSink}) directly into the mapped region, so writing needs no
+ * {@code write} system calls and no intermediate buffers; the operating system writes the dirty pages to the file. When
+ * a region is full, the next region is mapped after it (a value which does not fit in the remainder of a region is
+ * written to the next region, and the remainder is removed). Mapping a region extends the file, so on close, the file
+ * is truncated to the length of the data actually written (e.g. when a conversion stopped early).
+ * </p>
+ * <p>
+ * Forcing is done per region (see {@link MappedByteBuffer#force()}), as {@link FileChannel#force(boolean)} is not
+ * guaranteed to write changes to mapped regions.
+ * </p>
+ * <p>
+ * Closing this stream truncates the file, and closes the channel. Some platforms (e.g. Windows) do not allow truncating
+ * a file which is still mapped; as a mapped region is only released when it is garbage collected, closing fails on
+ * those platforms if the file needs to be truncated.
+ * </p>
+ *
+ * @since 4
+ */
+final class MappedChannelOutputStream extends OutputStream implements DirectBufferSink {
+
+    static final int DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final int regionSize;
+    private final boolean force;
+    // Position in the file of the current region
+    private long regionStart;
+    private @Nullable MappedByteBuffer region;
+    private boolean closed;
+
+    /**
+     * Creates a mapped channel output stream, writing from the start of the file.
+     *
+     * @param channel
+     *         channel to write, opened for reading and writing
+     * @param regionSize
+     *         size of a mapped region in bytes
+     * @param force
+     *         {@code true} force each region to the storage device when it is complete, {@code false} leave writing
+     *         to the operating system
+     */
+    MappedChannelOutputStream(FileChannel channel, int regionSize, boolean force) {
+        this.channel = requireNonNull(channel, "channel");
+        if (regionSize < 1) {
+            throw new IllegalArgumentException("regionSize must be at least 1, was: " + regionSize);
+        }
+        this.regionSize = regionSize;
+        this.force = force;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        regionWithRemaining(1).put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        while (len > 0) {
+            ByteBuffer buffer = regionWithRemaining(1);
+            int count = Math.min(len, buffer.remaining());
+            buffer.put(b, off, count);
+            off += count;
+            len -= count;
+        }
+    }
+
+    @Override
+    public int maxReserveSize() {
+        return regionSize;
+    }
+
+    @Override
+    public ByteBuffer reserve(int bytes) throws IOException {
+        if (bytes > regionSize) {
+            throw new IllegalArgumentException("bytes must be at most %d, was: %d".formatted(regionSize, bytes));
+        }
+        return regionWithRemaining(bytes);
+    }
+
+    /**
+     * @return the current region if it has at least {@code bytes} remaining, otherwise the next region
+     */
+    private MappedByteBuffer regionWithRemaining(int bytes) throws IOException {
+        if (closed) throw new IOException("Stream closed");
+        MappedByteBuffer region = this.region;
+        if (region != null && region.remaining() >= bytes) return region;
+        return mapNextRegion();
+    }
+
+    private MappedByteBuffer mapNextRegion() throws IOException {
+        MappedByteBuffer region = this.region;
+        if (region != null) {
+            completeRegion(region);
+            regionStart += region.position();
+        }
+        // Remove the previous reference first, so it can be released if mapping fails
+        this.region = null;
+        return this.region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, regionSize);
+    }
+
+    private void completeRegion(MappedByteBuffer region) {
+        if (force) {
+            region.force(0, region.position());
+        }
+    }
+
+    /**
+     * @return number of bytes written
+     */
+    long size() {
+        MappedByteBuffer region = this.region;
+        return regionStart + (region != null ? region.position() : 0);
+    }
+
+    /**
+     * Does nothing: the data is in the mapped region, which is forced to the storage device on close (if enabled).
+     */
+    @Override
+    public void flush() {
+        // nothing to flush
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try (channel) {
+            MappedByteBuffer region = this.region;
+            if (region != null) {
+                completeRegion(region);
+            }
+            long size = size();
+            this.region = null;
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Memory budget of a conversion, from which the sizes of the internal buffers and the number of CSV files converted
+ * concurrently are derived.
+ * <p>
+ * Conversions stream the CSV file(s) row by row, so the memory use does not depend on the size of the files, but on
+ * the number of CSV files processed concurrently (each with its own read and write buffers), the size of the write
+ * buffers, and the length of the largest record the CSV parser must hold in memory. The budget is divided evenly over
+ * the concurrently processed CSV files, and each share is divided as follows:
+ * </p>
+ * <ul>
+ * <li>{@link #READ_BUFFER_RESERVE} for the read and decompression buffers (fixed size)</li>
+ * <li>one eighth for the write buffers (at most {@link WriteConfig#DEFAULT_BUFFER_COUNT} buffers of at most
+ * {@link WriteConfig#DEFAULT_BUFFER_SIZE} bytes)</li>
+ * <li>one quarter for the record being parsed, which needs about {@link #BYTES_PER_RECORD_CHAR} bytes per character
+ * (the characters of the record, a partially grown buffer, and the values)</li>
+ * </ul>
+ * <p>
+ * The remainder is headroom for the row encoding and the garbage collector. The budget does not include the JVM
+ * itself (code, metaspace, thread stacks), so the maximum heap size should be somewhat larger than the budget.
+ * </p>
+ *
+ * @param bytes
+ *         memory budget in bytes (at least {@link #MIN_BYTES})
+ * @since 4
+ */
+record MemoryBudget(long bytes) {
+
+    static final long MIN_BYTES = 4 * 1024 * 1024;
+    static final long READ_BUFFER_RESERVE = 256 * 1024;
+    static final int BYTES_PER_RECORD_CHAR = 8;
+    /**
+     * Upper bound of the maximum field length derived from a budget.
+     */
+    static final int MAX_FIELD_LENGTH = 1024 * 1024;
+    /**
+     * Upper bound of the maximum record length derived from a budget.
+     */
+    static final int MAX_RECORD_LENGTH = 4 * 1024 * 1024;
+
+    /**
+     * Minimum share of the budget per concurrently processed CSV file.
+     */
+    private static final long MIN_WORKER_BYTES = 16 * 1024 * 1024;
+    private static final int MIN_WRITE_BUFFER_SIZE = 8 * 1024;
+    private static final Pattern BUDGET_PATTERN =
+            Pattern.compile("(?<amount>\\d{1,18})\\s*(?:(?<unit>[kmg])(?:i?b)?|b)?", Pattern.CASE_INSENSITIVE);
+
+    MemoryBudget {
+        if (bytes < MIN_BYTES) {
+            throw new IllegalArgumentException(
+                    "memory budget must be at least %d bytes (4m), was: %d".formatted(MIN_BYTES, bytes));
+        }
+    }
+
+    /**
+     * Parses a memory budget.
+     * <p>
+     * The budget is a number of bytes, optionally followed by a unit {@code k}, {@code m} or {@code g} (powers of
+     * 1024), e.g. {@code 512m}, {@code 512MiB}, {@code 1g} or {@code 67108864}.
+     * </p>
+     *
+     * @param value
+     *         value to parse
+     * @return memory budget
+     * @throws IllegalArgumentException
+     *         if {@code value} is not a valid memory budget
+     */
+    static MemoryBudget parse(String value) {
+        var matcher = BUDGET_PATTERN.matcher(value.strip());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException(
+                    "invalid memory budget '%s', expected a number of bytes with optional unit k, m or g"
+                            .formatted(value));
+        }
+        long amount = Long.parseLong(matcher.group("amount"));
+        String unit = matcher.group("unit");
+        int shift = unit == null ? 0 : switch (unit.toLowerCase(Locale.ROOT)) {
+            case "k" -> 10;
+            case "m" -> 20;
+            default -> 30;
+        };
+        if (amount > Long.MAX_VALUE >> shift) {
+            throw new IllegalArgumentException("memory budget '%s' is too large".formatted(value));
+        }
+        return new MemoryBudget(amount << shift);
+    }
+
+    /**
+     * @return maximum number of CSV files converted concurrently within this budget (at most the number of
+     * processors)
+     */
+    int maxConcurrency() {
+        return (int) Math.clamp(bytes / MIN_WORKER_BYTES, 1, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Divides this budget over {@code count} concurrent conversions.
+     *
+     * @param count
+     *         number of concurrent conversions
+     * @return budget of one conversion (not less than {@link #MIN_BYTES})
+     */
+    MemoryBudget divide(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be at least 1, was: " + count);
+        }
+        return new MemoryBudget(Math.max(bytes / count, MIN_BYTES));
+    }
+
+    /**
+     * @return size of a write buffer
+     */
+    int writeBufferSize() {
+        return (int) Math.clamp(workerBytes() / 8 / WriteConfig.DEFAULT_BUFFER_COUNT, MIN_WRITE_BUFFER_SIZE,
+                WriteConfig.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @return number of write buffers (for gathering writes)
+     */
+    int writeBufferCount() {
+        return WriteConfig.DEFAULT_BUFFER_COUNT;
+    }
+
+    /**
+     * @return maximum length of a CSV record in characters
+     */
+    int maxRecordLength() {
+        return (int) Math.min((workerBytes() - READ_BUFFER_RESERVE) / 4 / BYTES_PER_RECORD_CHAR,
+                MAX_RECORD_LENGTH);
+    }
+
+    /**
+     * @return maximum length of a CSV field in characters
+     */
+    int maxFieldLength() {
+        return Math.min(maxRecordLength(), MAX_FIELD_LENGTH);
+    }
+
+    /**
+     * Applies this budget to the write buffers and maximum concurrency of {@code writeConfig}.
+     *
+     * @param writeConfig
+     *         write configuration
+     * @return write configuration with buffers and maximum concurrency derived from this budget
+     */
+    WriteConfig applyTo(WriteConfig writeConfig) {
+        return writeConfig
+                .withBuffers(writeBufferSize(), writeBufferCount())
+                .withMaxConcurrency(maxConcurrency());
+    }
+
+    /**
+     * Applies this budget to the field and record limits of {@code csvLimits}.
+     *
+     * @param csvLimits
+     *         CSV limits
+     * @return CSV limits with maximum field and record length derived from this budget
+     */
+    CsvLimits applyTo(CsvLimits csvLimits) {
+        return new CsvLimits(maxFieldLength(), maxRecordLength(), csvLimits.truncateStrings(),
+                csvLimits.stringColumnLengths());
+    }
+
+    private long workerBytes() {
+        return bytes / maxConcurrency();
+    }
+
+}
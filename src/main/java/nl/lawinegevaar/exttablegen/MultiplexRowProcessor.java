@@ -83,6 +83,11 @@ class MultiplexRowProcessor implements RowProcessor {
      * @return combined result of {@link RowProcessor#onComplete} of all subscribers, or {@code Continue} if there are
      * no subscribers
      */
+    @Override
+    public final void onEndOfFile(long linesRead) {
+        subscribers.forEach(rowProcessor -> rowProcessor.onEndOfFile(linesRead));
+    }
+
     @Override
     public final ProcessingResult.Stop onComplete() {
         completionCount++;
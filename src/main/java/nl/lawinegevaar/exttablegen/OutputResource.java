@@ -6,14 +6,20 @@ import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.UnaryOperator;
 
+import static java.nio.file.StandardOpenOption.APPEND;
 import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
 import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 import static java.nio.file.StandardOpenOption.WRITE;
 import static java.util.Objects.requireNonNull;
@@ -105,6 +111,21 @@ interface OutputResource {
         return new PathOutputResource(filePath, allowOverwrite);
     }
 
+    /**
+     * Creates an output resource which appends to {@code filePath}.
+     *
+     * @param filePath
+     *         path of the file (created if it does not exist)
+     * @param rowLength
+     *         length of a row of the external table in bytes, the length of an existing file must be a multiple of
+     *         this value
+     * @return output resource appending to {@code filePath}
+     * @since 4
+     */
+    static OutputResource append(Path filePath, int rowLength) {
+        return new AppendOutputResource(filePath, rowLength);
+    }
+
     /**
      * Creates a single-use output resource wrapping {@code out}.
      * <p>
@@ -184,6 +205,27 @@ interface OutputResource {
 
 }
 
+/**
+ * Output resource which can also be written through a file channel.
+ *
+ * @since 4
+ */
+interface ChannelOutputResource extends OutputResource {
+
+    /**
+     * Creates a new file channel to write data.
+     * <p>
+     * The file is created, truncated or appended to the same way as by {@link #newOutputStream()}.
+     * </p>
+     *
+     * @return new file channel
+     * @throws IOException
+     *         if the file cannot be created or opened
+     */
+    FileChannel newFileChannel() throws IOException;
+
+}
+
 /**
  * Output resource to a file.
  * <p>
@@ -196,7 +238,7 @@ interface OutputResource {
  * @param allowOverwrite
  *         {@code true} allow overwrite, {@code false} disallow overwrite
  */
-record PathOutputResource(Path filePath, boolean allowOverwrite) implements OutputResource {
+record PathOutputResource(Path filePath, boolean allowOverwrite) implements ChannelOutputResource {
 
     PathOutputResource {
         requireNonNull(filePath, "filePath");
@@ -220,6 +262,37 @@ record PathOutputResource(Path filePath, boolean allowOverwrite) implements Outp
         return Optional.of(filePath);
     }
 
+    /**
+     * Creates a new file channel to write {@link #filePath()} from the beginning, or at arbitrary positions.
+     *
+     * @return new file channel
+     * @throws IOException
+     *         if the file cannot be created (e.g. invalid path, insufficient filesystem permissions), or
+     *         if {@link #allowOverwrite()} is {@code false} and the file already exists
+     * @since 4
+     */
+    @Override
+    public FileChannel newFileChannel() throws IOException {
+        return FileChannel.open(filePath, createOpenOptions());
+    }
+
+    /**
+     * Creates a new file channel to write {@link #filePath()} from the beginning, which is also open for reading, as
+     * required to map the file into memory.
+     *
+     * @return new file channel
+     * @throws IOException
+     *         if the file cannot be created (e.g. invalid path, insufficient filesystem permissions), or
+     *         if {@link #allowOverwrite()} is {@code false} and the file already exists
+     * @since 4
+     * @see MappedChannelOutputStream
+     */
+    FileChannel newMappableFileChannel() throws IOException {
+        return allowOverwrite
+                ? FileChannel.open(filePath, CREATE, TRUNCATE_EXISTING, READ, WRITE)
+                : FileChannel.open(filePath, CREATE_NEW, READ, WRITE);
+    }
+
     private OpenOption[] createOpenOptions() {
         return allowOverwrite
                 ? new OpenOption[] { CREATE, TRUNCATE_EXISTING, WRITE }
@@ -228,6 +301,86 @@ record PathOutputResource(Path filePath, boolean allowOverwrite) implements Outp
 
 }
 
+/**
+ * Output resource appending to a file.
+ * <p>
+ * Before appending, the length of an existing file is verified to be a multiple of the row length, to prevent appending
+ * to a file of a different external table or a file with a partially written row.
+ * </p>
+ *
+ * @param filePath
+ *         path of the file
+ * @param rowLength
+ *         length of a row of the external table in bytes
+ * @since 4
+ */
+record AppendOutputResource(Path filePath, int rowLength) implements ChannelOutputResource {
+
+    AppendOutputResource {
+        requireNonNull(filePath, "filePath");
+        if (rowLength < 1) {
+            throw new IllegalArgumentException("rowLength must be at least 1, was: " + rowLength);
+        }
+    }
+
+    /**
+     * Creates a new output stream to append to {@link #filePath()}, creating the file if it does not exist.
+     *
+     * @return new output stream
+     * @throws IOException
+     *         if the file cannot be created or opened, or if the length of the existing file is not a multiple of
+     *         {@link #rowLength()}
+     */
+    @Override
+    public OutputStream newOutputStream() throws IOException {
+        existingRows(filePath, rowLength);
+        return Files.newOutputStream(filePath, CREATE, WRITE, APPEND);
+    }
+
+    /**
+     * Creates a new file channel to append to {@link #filePath()}, creating the file if it does not exist.
+     *
+     * @return new file channel
+     * @throws IOException
+     *         if the file cannot be created or opened, or if the length of the existing file is not a multiple of
+     *         {@link #rowLength()}
+     */
+    @Override
+    public FileChannel newFileChannel() throws IOException {
+        existingRows(filePath, rowLength);
+        return FileChannel.open(filePath, CREATE, WRITE, APPEND);
+    }
+
+    @Override
+    public Optional<Path> path() {
+        return Optional.of(filePath);
+    }
+
+    /**
+     * Determines the number of rows in an existing external table file.
+     *
+     * @param filePath
+     *         path of the file
+     * @param rowLength
+     *         length of a row of the external table in bytes
+     * @return number of rows, {@code 0} if the file does not exist
+     * @throws IOException
+     *         if the length of the file cannot be determined, or if the length is not a multiple of
+     *         {@code rowLength}
+     */
+    static long existingRows(Path filePath, int rowLength) throws IOException {
+        if (Files.notExists(filePath)) return 0;
+        long size = Files.size(filePath);
+        if (size % rowLength != 0) {
+            throw new IOException(
+                    "Cannot append to external table file '%s': its length (%d) is not a multiple of the row length (%d)"
+                            .formatted(filePath, size, rowLength));
+        }
+        return size / rowLength;
+    }
+
+}
+
 /**
  * A single-use output resource wrapping an output stream.
  */
@@ -279,3 +432,184 @@ final class NullOutputResource implements OutputResource {
     }
 
 }
+
+/**
+ * Output resource which splits the data over multiple files with a maximum size.
+ * <p>
+ * The files are named after the file name of {@code basePath}, with a 1-based sequence number inserted before the
+ * extension (e.g. {@code table.dat} becomes {@code table-0001.dat}, {@code table-0002.dat}, etc.). The first file is
+ * created by {@link #newOutputStream()}, subsequent files are created when data is written beyond the maximum size of
+ * the current file, so no empty files are created except for the first file.
+ * </p>
+ * <p>
+ * The split points are always at multiples of the maximum size, so if the maximum size is a multiple of the row length,
+ * each file contains only complete rows.
+ * </p>
+ *
+ * @since 4
+ */
+final class SplitOutputResource implements OutputResource {
+
+    private static final String SEQUENCE_FORMAT = "%04d";
+
+    private final Path basePath;
+    private final boolean allowOverwrite;
+    private final long maxBytesPerFile;
+    private volatile List<Path> files = List.of();
+
+    /**
+     * Creates a split output resource.
+     *
+     * @param basePath
+     *         path to derive the file paths from (this file itself is not written)
+     * @param allowOverwrite
+     *         {@code true} allow overwrite, {@code false} disallow overwrite
+     * @param maxBytesPerFile
+     *         maximum size of each file in bytes
+     */
+    SplitOutputResource(Path basePath, boolean allowOverwrite, long maxBytesPerFile) {
+        this.basePath = requireNonNull(basePath, "basePath");
+        if (maxBytesPerFile < 1) {
+            throw new IllegalArgumentException("maxBytesPerFile must be at least 1, was: " + maxBytesPerFile);
+        }
+        this.allowOverwrite = allowOverwrite;
+        this.maxBytesPerFile = maxBytesPerFile;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each invocation starts writing from the first file again. If overwrite is allowed, closing the stream deletes
+     * the split files (and their manifests) following the last file written, so a previous run which produced more
+     * files does not leave stale files behind.
+     * </p>
+     */
+    @Override
+    public OutputStream newOutputStream() throws IOException {
+        var splitFiles = new CopyOnWriteArrayList<Path>();
+        files = splitFiles;
+        return new SplitOutputStream(splitFiles);
+    }
+
+    /**
+     * @return the base path of the split files
+     */
+    @Override
+    public Optional<Path> path() {
+        return Optional.of(basePath);
+    }
+
+    @Override
+    public boolean allowOverwrite() {
+        return allowOverwrite;
+    }
+
+    /**
+     * @return maximum size of each file in bytes
+     */
+    long maxBytesPerFile() {
+        return maxBytesPerFile;
+    }
+
+    /**
+     * @return paths of the files created by the last output stream, in order of creation
+     */
+    List<Path> files() {
+        return List.copyOf(files);
+    }
+
+    /**
+     * Derives the path of a split file from {@code basePath}.
+     *
+     * @param basePath
+     *         base path
+     * @param sequence
+     *         sequence number of the file (1-based)
+     * @return path of the split file
+     */
+    static Path splitFilePath(Path basePath, int sequence) {
+        String fileName = String.valueOf(basePath.getFileName());
+        int extensionStart = fileName.lastIndexOf('.');
+        String sequenceSuffix = "-" + SEQUENCE_FORMAT.formatted(sequence);
+        String splitFileName = extensionStart > 0
+                ? fileName.substring(0, extensionStart) + sequenceSuffix + fileName.substring(extensionStart)
+                : fileName + sequenceSuffix;
+        return basePath.resolveSibling(splitFileName);
+    }
+
+    private final class SplitOutputStream extends OutputStream {
+
+        private final List<Path> splitFiles;
+        private OutputStream out;
+        private long remainingInFile;
+
+        SplitOutputStream(List<Path> splitFiles) throws IOException {
+            this.splitFiles = splitFiles;
+            out = openNextFile();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (remainingInFile == 0) {
+                nextFile();
+            }
+            out.write(b);
+            remainingInFile--;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            while (len > 0) {
+                if (remainingInFile == 0) {
+                    nextFile();
+                }
+                int chunk = (int) Math.min(len, remainingInFile);
+                out.write(b, off, chunk);
+                off += chunk;
+                len -= chunk;
+                remainingInFile -= chunk;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+            if (allowOverwrite) {
+                deleteStaleFiles();
+            }
+        }
+
+        /**
+         * Deletes the split files (and their manifests) with a sequence number after the last file written.
+         */
+        private void deleteStaleFiles() throws IOException {
+            for (int sequence = splitFiles.size() + 1; ; sequence++) {
+                Path file = splitFilePath(basePath, sequence);
+                boolean fileDeleted = Files.deleteIfExists(file);
+                boolean manifestDeleted = Files.deleteIfExists(TableManifest.manifestFilePath(file));
+                if (!(fileDeleted || manifestDeleted)) return;
+            }
+        }
+
+        private void nextFile() throws IOException {
+            out.close();
+            out = openNextFile();
+        }
+
+        private OutputStream openNextFile() throws IOException {
+            Path file = splitFilePath(basePath, splitFiles.size() + 1);
+            OutputStream newOut = OutputResource.of(file, allowOverwrite).newOutputStream();
+            splitFiles.add(file);
+            remainingInFile = maxBytesPerFile;
+            return newOut;
+        }
+
+    }
+
+}
@@ -0,0 +1,272 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import com.opencsv.CSVWriterBuilder;
+import com.opencsv.ICSVWriter;
+import com.opencsv.RFC4180Parser;
+import com.opencsv.exceptions.CsvException;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Collects rejected rows of a conversion, writing them to a reject file, and enforces the error budget.
+ * <p>
+ * The reject file is a CSV file (RFC 4180, UTF-8) with for each rejected row the name of the source CSV file, the line
+ * number, and the reason, followed by the values of the row (if known). Without a reject file, rejected rows are only
+ * logged.
+ * </p>
+ * <p>
+ * This class is thread-safe, so a single instance can be shared by CSV files processed concurrently.
+ * </p>
+ *
+ * @since 4
+ */
+final class RejectSink implements Closeable {
+
+    private static final System.Logger log = System.getLogger(RejectSink.class.getName());
+    private static final String[] HEADER = { "source", "line", "reason" };
+    private static final int MAX_LOGGED_REJECTS = 10;
+
+    private final ErrorBudget errorBudget;
+    private final @Nullable Path rejectFile;
+    private final @Nullable ICSVWriter rejectWriter;
+    private final AtomicLong rowsRead = new AtomicLong();
+    private long errors;
+
+    private RejectSink(ErrorBudget errorBudget, @Nullable Path rejectFile, @Nullable ICSVWriter rejectWriter) {
+        this.errorBudget = requireNonNull(errorBudget, "errorBudget");
+        this.rejectFile = rejectFile;
+        this.rejectWriter = rejectWriter;
+    }
+
+    /**
+     * Opens a reject sink.
+     *
+     * @param rejectConfig
+     *         reject configuration
+     * @param append
+     *         {@code true} append to an existing reject file (e.g. when resuming a conversion), {@code false} replace
+     *         an existing reject file
+     * @return reject sink
+     * @throws IOException
+     *         if the reject file cannot be created
+     */
+    static RejectSink open(RejectConfig rejectConfig, boolean append) throws IOException {
+        Path rejectFile = rejectConfig.rejectFile();
+        if (rejectFile == null) return new RejectSink(rejectConfig.errorBudget(), null, null);
+        boolean writeHeader = !append || Files.notExists(rejectFile) || Files.size(rejectFile) == 0;
+        var out = new OutputStreamWriter(append
+                ? Files.newOutputStream(rejectFile, CREATE, WRITE, APPEND)
+                : Files.newOutputStream(rejectFile, CREATE, WRITE, TRUNCATE_EXISTING), UTF_8);
+        ICSVWriter rejectWriter = new CSVWriterBuilder(out).withParser(new RFC4180Parser()).build();
+        if (writeHeader) {
+            rejectWriter.writeNext(HEADER, false);
+        }
+        return new RejectSink(rejectConfig.errorBudget(), rejectFile, rejectWriter);
+    }
+
+    /**
+     * Creates the processor to handle the rejected rows of a CSV file.
+     *
+     * @param sourceName
+     *         name of the CSV file
+     * @return processor handling the rejected rows of the CSV file
+     */
+    Source source(String sourceName) {
+        return new Source(sourceName);
+    }
+
+    /**
+     * Rejects a row.
+     *
+     * @param sourceName
+     *         name of the source CSV file
+     * @param line
+     *         line number of the row, or {@code -1} if unknown
+     * @param data
+     *         values of the row (empty if unknown)
+     * @param reason
+     *         exception which caused the row to be rejected
+     * @return {@code Continue} if the error budget is not exceeded, otherwise a {@code StopWithException} with an
+     * {@link ErrorBudgetExceededException}
+     */
+    synchronized ProcessingResult reject(String sourceName, long line, List<String> data, Exception reason) {
+        errors++;
+        String reasonText = reasonText(reason);
+        if (errors <= MAX_LOGGED_REJECTS) {
+            log.log(WARNING, "Rejected line {0} of ''{1}'': {2}", line, sourceName, reasonText);
+        } else {
+            log.log(DEBUG, "Rejected line {0} of ''{1}'': {2}", line, sourceName, reasonText);
+        }
+        if (rejectWriter != null) {
+            var record = new ArrayList<String>(HEADER.length + data.size());
+            record.add(sourceName);
+            record.add(String.valueOf(line));
+            record.add(reasonText);
+            record.addAll(data);
+            rejectWriter.writeNext(record.toArray(String[]::new), false);
+        }
+        long rowsRead = this.rowsRead.get() + errors;
+        if (errorBudget.isExceededWhileReading(errors, rowsRead)) {
+            return ProcessingResult.stopWith(new ErrorBudgetExceededException(
+                    "Stopped after %d rejected row(s) of %d row(s) read, the error budget is %s"
+                            .formatted(errors, rowsRead, errorBudget),
+                    reason));
+        }
+        return ProcessingResult.continueProcessing();
+    }
+
+    private static String reasonText(Exception reason) {
+        String message = reason.getMessage();
+        if (reason instanceof CsvException && message != null) return message;
+        return message != null ? reason.getClass().getSimpleName() + ": " + message : reason.getClass().getSimpleName();
+    }
+
+    /**
+     * @return number of rejected rows
+     */
+    synchronized long errors() {
+        return errors;
+    }
+
+    /**
+     * @return number of rows read, including rejected rows
+     */
+    long rowsRead() {
+        return rowsRead.get() + errors();
+    }
+
+    /**
+     * Completes the conversion, checking the error budget against all rows read.
+     *
+     * @throws ErrorBudgetExceededException
+     *         if the rejected rows exceed the error budget
+     */
+    void complete() {
+        long errors = errors();
+        long rowsRead = rowsRead();
+        if (errors != 0) {
+            log.log(INFO, "Rejected {0} of {1} row(s){2}", errors, rowsRead,
+                    rejectFile != null ? ", see '" + rejectFile + "'" : "");
+        }
+        if (errorBudget.isExceeded(errors, rowsRead)) {
+            throw new ErrorBudgetExceededException("Rejected %d of %d row(s), the error budget is %s"
+                    .formatted(errors, rowsRead, errorBudget));
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (rejectWriter == null) return;
+        try (rejectWriter) {
+            if (rejectWriter.checkError()) {
+                throw new IOException("Could not write reject file " + rejectFile);
+            }
+        }
+    }
+
+    /**
+     * Processor handling the rejected rows of a CSV file.
+     * <p>
+     * As a row processor, it rejects rows which fail validation when reading the CSV file (signalled with a
+     * {@link CsvException}), and counts the rows read. As a row rejector, it rejects rows which could not be written to
+     * the external table file.
+     * </p>
+     * <p>
+     * When the processor is used for multiple CSV files read in sequence, the name of the current file must be set with
+     * {@link #setSourceName(String)}.
+     * </p>
+     */
+    final class Source extends AbstractRowProcessor implements RowRejector {
+
+        private volatile String sourceName;
+
+        private Source(String sourceName) {
+            this.sourceName = requireNonNull(sourceName, "sourceName");
+        }
+
+        void setSourceName(String sourceName) {
+            this.sourceName = requireNonNull(sourceName, "sourceName");
+        }
+
+        @Override
+        public ProcessingResult onRow(Row row) {
+            rowsRead.incrementAndGet();
+            return ProcessingResult.continueProcessing();
+        }
+
+        @Override
+        ProcessingResult onExceptionHandler(Exception exception) {
+            if (!(exception instanceof CsvException csvException)) {
+                // Other exceptions are fatal
+                return ProcessingResult.continueProcessing();
+            }
+            String[] line = csvException.getLine();
+            long lineNumber = csvException.getLineNumber();
+            return RejectSink.this.reject(sourceName, lineNumber > 0 ? lineNumber : -1,
+                    line != null ? List.of(line) : List.of(), exception);
+        }
+
+        @Override
+        public ProcessingResult reject(Row row, Exception reason) {
+            // The row was counted by onRow, so compensate for being counted as an error
+            rowsRead.decrementAndGet();
+            return RejectSink.this.reject(sourceName, row.line(), row.data(), reason);
+        }
+
+    }
+
+}
+
+/**
+ * Configuration of rejecting rows of a conversion.
+ *
+ * @param rejectFile
+ *         file to write the rejected rows, or {@code null} to only log rejected rows
+ * @param errorBudget
+ *         maximum number of rejected rows
+ * @since 4
+ */
+record RejectConfig(@Nullable Path rejectFile, ErrorBudget errorBudget) {
+
+    private static final RejectConfig DISABLED = new RejectConfig(null, ErrorBudget.none());
+
+    RejectConfig {
+        requireNonNull(errorBudget, "errorBudget");
+    }
+
+    /**
+     * @return reject configuration without reject file and without error budget
+     */
+    static RejectConfig disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * @return {@code true} if rows are rejected (i.e. there is a reject file or the error budget allows errors),
+     * {@code false} if processing stops on the first error
+     */
+    boolean enabled() {
+        return rejectFile != null || errorBudget.allowsErrors();
+    }
+
+}
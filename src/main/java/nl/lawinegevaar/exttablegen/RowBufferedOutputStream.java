@@ -0,0 +1,64 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Buffered output stream of fixed-length rows, which can discard the row currently being written.
+ * <p>
+ * Before a row is written, {@link #startRow()} makes sure the buffer has room for the complete row, so the row is
+ * never partially written to the underlying stream, and {@link #discardRow()} can remove it from the buffer (e.g. when
+ * a value of the row cannot be converted). Rows are encoded into the buffer directly, without an intermediate copy.
+ * </p>
+ *
+ * @since 4
+ */
+final class RowBufferedOutputStream extends BufferedOutputStream {
+
+    private final int rowLength;
+    private int rowStart;
+
+    /**
+     * Creates a row buffered output stream.
+     *
+     * @param out
+     *         underlying output stream
+     * @param size
+     *         buffer size in bytes (increased to more than {@code rowLength} if smaller)
+     * @param rowLength
+     *         length of a row in bytes
+     */
+    RowBufferedOutputStream(OutputStream out, int size, int rowLength) {
+        // BufferedOutputStream writes directly to out, bypassing the buffer, for writes of at least the buffer size
+        super(out, Math.max(size, rowLength + 1));
+        if (rowLength < 1) {
+            throw new IllegalArgumentException("rowLength must be at least 1, was: " + rowLength);
+        }
+        this.rowLength = rowLength;
+    }
+
+    /**
+     * Starts a row, writing the buffered rows to the underlying stream if the buffer has no room for another row.
+     *
+     * @throws IOException
+     *         for errors writing to the underlying stream
+     */
+    synchronized void startRow() throws IOException {
+        if (buf.length - count < rowLength) {
+            out.write(buf, 0, count);
+            count = 0;
+        }
+        rowStart = count;
+    }
+
+    /**
+     * Discards the bytes written since the last {@link #startRow()}.
+     */
+    synchronized void discardRow() {
+        count = rowStart;
+    }
+
+}
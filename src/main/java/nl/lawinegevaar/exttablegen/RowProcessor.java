@@ -53,6 +53,20 @@ interface RowProcessor {
      */
     ProcessingResult onException(Exception exception);
 
+    /**
+     * Receives the number of lines read when the end of the data file is reached.
+     * <p>
+     * This method is called before {@link #onComplete()}, and only if the file was read completely. The default
+     * implementation does nothing.
+     * </p>
+     *
+     * @param linesRead
+     *         number of (physical) lines read from the data file, including skipped lines and the header row
+     * @since 4
+     */
+    default void onEndOfFile(long linesRead) {
+    }
+
     /**
      * Receives completion of reading file, or end of reading file when {@code onException} returned {@code Stop}
      * or a fatal exception occurred.
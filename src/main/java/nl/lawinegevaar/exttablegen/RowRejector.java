@@ -0,0 +1,26 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+/**
+ * Receives rows which could not be written to the external table file (e.g. because a value could not be converted).
+ *
+ * @since 4
+ * @see ExternalTableWriter#ExternalTableWriter(ExternalTable, OutputResource, WriteConfig, RowRejector)
+ */
+@FunctionalInterface
+interface RowRejector {
+
+    /**
+     * Rejects {@code row}.
+     *
+     * @param row
+     *         rejected row
+     * @param reason
+     *         exception which caused the row to be rejected
+     * @return processing result, {@code Continue} to skip the row and continue processing, or a {@code Stop} to stop
+     * processing
+     */
+    ProcessingResult reject(Row row, Exception reason);
+
+}
@@ -0,0 +1,300 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Manifest of a generated external table file, used to verify the file is complete and uncorrupted.
+ * <p>
+ * The manifest is stored next to the external table file, in a file with the name of the table file suffixed with
+ * {@code .manifest}. It records the layout of the external table (row length, byte order and column definitions), the
+ * number of rows, and the CRC32C checksum of the file.
+ * </p>
+ *
+ * @param rowLength
+ *         length of a row in bytes
+ * @param rowCount
+ *         number of rows in the external table file
+ * @param byteOrder
+ *         byte order of the external table
+ * @param columns
+ *         column definitions (as in the {@code CREATE TABLE} statement) of the external table
+ * @param checksum
+ *         CRC32C checksum of the external table file
+ * @since 4
+ */
+record TableManifest(int rowLength, long rowCount, ByteOrderType byteOrder, List<String> columns, long checksum) {
+
+    private static final String MANIFEST_FILE_SUFFIX = ".manifest";
+    private static final String ROW_LENGTH = "rowLength";
+    private static final String ROW_COUNT = "rowCount";
+    private static final String LENGTH = "length";
+    private static final String BYTE_ORDER = "byteOrder";
+    private static final String COLUMN_COUNT = "columnCount";
+    private static final String COLUMN_PREFIX = "column.";
+    private static final String CHECKSUM_ALGORITHM = "checksumAlgorithm";
+    private static final String CRC32C_ALGORITHM = "CRC32C";
+    private static final String CHECKSUM = "checksum";
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+
+    TableManifest {
+        if (rowLength < 1) {
+            throw new IllegalArgumentException("rowLength must be at least 1, was: " + rowLength);
+        }
+        if (rowCount < 0) {
+            throw new IllegalArgumentException("rowCount cannot be negative, was: " + rowCount);
+        }
+        requireNonNull(byteOrder, "byteOrder");
+        columns = List.copyOf(columns);
+    }
+
+    /**
+     * Creates a manifest for a file of {@code externalTable}.
+     *
+     * @param externalTable
+     *         external table
+     * @param length
+     *         length of the external table file in bytes
+     * @param checksum
+     *         CRC32C checksum of the external table file
+     * @return manifest
+     * @throws IllegalArgumentException
+     *         if {@code length} is not a multiple of the row length of {@code externalTable}
+     */
+    static TableManifest of(ExternalTable externalTable, long length, long checksum) {
+        int rowLength = externalTable.rowLength();
+        if (length % rowLength != 0) {
+            throw new IllegalArgumentException("length (%d) is not a multiple of the row length (%d)"
+                    .formatted(length, rowLength));
+        }
+        return new TableManifest(rowLength, length / rowLength, externalTable.byteOrder().effectiveValue(),
+                columnDefinitions(externalTable), checksum);
+    }
+
+    /**
+     * Creates a manifest for {@code tableFile} of {@code externalTable}, calculating the checksum by reading the file.
+     *
+     * @param externalTable
+     *         external table
+     * @param tableFile
+     *         external table file
+     * @return manifest
+     * @throws IOException
+     *         if the file cannot be read, or its length is not a multiple of the row length of {@code externalTable}
+     * @see #checksum(Path)
+     */
+    static TableManifest of(ExternalTable externalTable, Path tableFile) throws IOException {
+        try {
+            return of(externalTable, Files.size(tableFile), checksum(tableFile));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid external table file '%s'".formatted(tableFile), e);
+        }
+    }
+
+    static List<String> columnDefinitions(ExternalTable externalTable) {
+        return externalTable.columns().stream()
+                .map(column -> {
+                    var sb = new StringBuilder();
+                    column.appendColumnDefinition(sb);
+                    return sb.toString();
+                })
+                .toList();
+    }
+
+    /**
+     * @return expected length of the external table file in bytes
+     */
+    long length() {
+        return rowLength * rowCount;
+    }
+
+    /**
+     * @return checksum formatted as 8 hexadecimal digits
+     */
+    String checksumHex() {
+        return HexFormat.of().toHexDigits((int) checksum);
+    }
+
+    /**
+     * Derives the path of the manifest file from the path of the external table file.
+     *
+     * @param tableFilePath
+     *         path of the external table file
+     * @return path of the manifest file
+     */
+    static Path manifestFilePath(Path tableFilePath) {
+        return tableFilePath.resolveSibling(tableFilePath.getFileName() + MANIFEST_FILE_SUFFIX);
+    }
+
+    /**
+     * Creates a new checksum instance of the algorithm used by the manifest.
+     *
+     * @return checksum instance
+     */
+    static Checksum newChecksum() {
+        return new CRC32C();
+    }
+
+    /**
+     * Calculates the checksum of {@code file} using large sequential reads.
+     *
+     * @param file
+     *         file
+     * @return CRC32C checksum of the file
+     * @throws IOException
+     *         if the file cannot be read
+     */
+    static long checksum(Path file) throws IOException {
+        Checksum checksum = newChecksum();
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // A direct buffer allows the CRC32C intrinsic to operate without copying to a heap array
+            ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                checksum.update(buffer);
+                buffer.clear();
+            }
+        }
+        return checksum.getValue();
+    }
+
+    /**
+     * Verifies {@code tableFile} against this manifest.
+     *
+     * @param tableFile
+     *         external table file
+     * @return list of differences between the file and this manifest, empty if the file matches
+     * @throws IOException
+     *         if the file cannot be read
+     */
+    List<String> verify(Path tableFile) throws IOException {
+        var differences = new ArrayList<String>();
+        long actualLength = Files.size(tableFile);
+        if (actualLength != length()) {
+            differences.add("length is %d bytes, expected %d bytes (%d rows of %d bytes)"
+                    .formatted(actualLength, length(), rowCount, rowLength));
+        }
+        long actualChecksum = checksum(tableFile);
+        if (actualChecksum != checksum) {
+            differences.add("checksum is %s, expected %s".formatted(
+                    HexFormat.of().toHexDigits((int) actualChecksum), checksumHex()));
+        }
+        return differences;
+    }
+
+    /**
+     * Compares the layout of {@code externalTable} with the layout recorded in this manifest.
+     *
+     * @param externalTable
+     *         external table
+     * @return list of differences between the layout of {@code externalTable} and this manifest, empty if the
+     * layouts match
+     */
+    List<String> compareLayout(ExternalTable externalTable) {
+        var differences = new ArrayList<String>();
+        int actualRowLength = externalTable.rowLength();
+        if (actualRowLength != rowLength) {
+            differences.add("row length of table definition is %d bytes, expected %d bytes"
+                    .formatted(actualRowLength, rowLength));
+        }
+        if (externalTable.byteOrder().effectiveValue() != byteOrder) {
+            differences.add("byte order of table definition is %s, expected %s"
+                    .formatted(externalTable.byteOrder().effectiveValue(), byteOrder));
+        }
+        List<String> actualColumns = columnDefinitions(externalTable);
+        if (!actualColumns.equals(columns)) {
+            differences.add("columns of table definition are %s, expected %s".formatted(actualColumns, columns));
+        }
+        return differences;
+    }
+
+    /**
+     * Reads the manifest from {@code manifestFile}.
+     *
+     * @param manifestFile
+     *         path of the manifest file
+     * @return manifest, or empty if {@code manifestFile} does not exist
+     * @throws IOException
+     *         if the file cannot be read, or does not contain a valid manifest
+     */
+    static Optional<TableManifest> read(Path manifestFile) throws IOException {
+        if (Files.notExists(manifestFile)) return Optional.empty();
+        var properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(manifestFile, UTF_8)) {
+            properties.load(reader);
+        }
+        try {
+            String algorithm = properties.getProperty(CHECKSUM_ALGORITHM);
+            if (!CRC32C_ALGORITHM.equals(algorithm)) {
+                throw new IllegalArgumentException("Unsupported checksum algorithm: " + algorithm);
+            }
+            int columnCount = Integer.parseInt(properties.getProperty(COLUMN_COUNT, ""));
+            var columns = new ArrayList<String>(columnCount);
+            for (int columnIdx = 1; columnIdx <= columnCount; columnIdx++) {
+                String columnKey = COLUMN_PREFIX + columnIdx;
+                columns.add(requireNonNull(properties.getProperty(columnKey), () -> "missing property " + columnKey));
+            }
+            return Optional.of(new TableManifest(
+                    Integer.parseInt(properties.getProperty(ROW_LENGTH, "")),
+                    Long.parseLong(properties.getProperty(ROW_COUNT, "")),
+                    ByteOrderType.valueOf(properties.getProperty(BYTE_ORDER, "")),
+                    columns,
+                    Integer.toUnsignedLong(HexFormat.fromHexDigits(properties.getProperty(CHECKSUM, "")))));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IOException("Invalid manifest file '%s'".formatted(manifestFile), e);
+        }
+    }
+
+    /**
+     * Writes this manifest to {@code manifestFile}, replacing an existing file.
+     * <p>
+     * The manifest is first written to a temporary file, which is then moved to {@code manifestFile}, so an
+     * interrupted write does not leave a partially written manifest file.
+     * </p>
+     *
+     * @param manifestFile
+     *         path of the manifest file
+     * @throws IOException
+     *         if the file cannot be written
+     */
+    void write(Path manifestFile) throws IOException {
+        var properties = new Properties();
+        properties.setProperty(ROW_LENGTH, String.valueOf(rowLength));
+        properties.setProperty(ROW_COUNT, String.valueOf(rowCount));
+        // Informational only, derived from rowLength and rowCount
+        properties.setProperty(LENGTH, String.valueOf(length()));
+        properties.setProperty(BYTE_ORDER, byteOrder.name());
+        properties.setProperty(COLUMN_COUNT, String.valueOf(columns.size()));
+        for (int columnIdx = 0; columnIdx < columns.size(); columnIdx++) {
+            properties.setProperty(COLUMN_PREFIX + (columnIdx + 1), columns.get(columnIdx));
+        }
+        properties.setProperty(CHECKSUM_ALGORITHM, CRC32C_ALGORITHM);
+        properties.setProperty(CHECKSUM, checksumHex());
+        Path tempFile = manifestFile.resolveSibling(manifestFile.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tempFile, UTF_8)) {
+            properties.store(writer, "ext-table-gen table file manifest");
+        }
+        Files.move(tempFile, manifestFile, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+}
@@ -0,0 +1,127 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Configuration of how the external table file is written.
+ * <p>
+ * These options only affect the performance and durability of writing the external table file, not its content.
+ * </p>
+ *
+ * @param gatheringWrites
+ *         {@code true} write a file through a file channel, collecting the encoded rows in {@code bufferCount} direct
+ *         buffers, which are written with a single gathering write when all are full, {@code false} write through a
+ *         buffered output stream with a buffer of {@code bufferSize} bytes
+ * @param mappedWrites
+ *         {@code true} write a file by mapping it into memory region by region, and encoding the rows directly into
+ *         the mapped regions (cannot be combined with {@code gatheringWrites})
+ * @param bufferSize
+ *         size of a write buffer in bytes
+ * @param bufferCount
+ *         number of write buffers for gathering writes
+ * @param forcePolicy
+ *         policy to force the external table file(s) to the storage device after writing
+ * @param maxConcurrency
+ *         maximum number of CSV files processed concurrently, {@code 0} for the number of processors
+ * @since 4
+ */
+record WriteConfig(boolean gatheringWrites, boolean mappedWrites, int bufferSize, int bufferCount,
+        ForcePolicy forcePolicy, int maxConcurrency) {
+
+    static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    static final int DEFAULT_BUFFER_COUNT = 4;
+    private static final WriteConfig DEFAULTS =
+            new WriteConfig(false, false, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_COUNT, ForcePolicy.NONE, 0);
+
+    WriteConfig {
+        if (gatheringWrites && mappedWrites) {
+            throw new IllegalArgumentException("gatheringWrites and mappedWrites cannot be combined");
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be at least 1, was: " + bufferSize);
+        }
+        if (bufferCount < 1) {
+            throw new IllegalArgumentException("bufferCount must be at least 1, was: " + bufferCount);
+        }
+        requireNonNull(forcePolicy, "forcePolicy");
+        if (maxConcurrency < 0) {
+            throw new IllegalArgumentException("maxConcurrency must be 0 or greater, was: " + maxConcurrency);
+        }
+    }
+
+    /**
+     * @return write configuration with default values
+     */
+    static WriteConfig defaults() {
+        return DEFAULTS;
+    }
+
+    WriteConfig withGatheringWrites(boolean gatheringWrites) {
+        return new WriteConfig(gatheringWrites, mappedWrites, bufferSize, bufferCount, forcePolicy, maxConcurrency);
+    }
+
+    WriteConfig withMappedWrites(boolean mappedWrites) {
+        return new WriteConfig(gatheringWrites, mappedWrites, bufferSize, bufferCount, forcePolicy, maxConcurrency);
+    }
+
+    WriteConfig withBuffers(int bufferSize, int bufferCount) {
+        return new WriteConfig(gatheringWrites, mappedWrites, bufferSize, bufferCount, forcePolicy, maxConcurrency);
+    }
+
+    WriteConfig withForcePolicy(ForcePolicy forcePolicy) {
+        return new WriteConfig(gatheringWrites, mappedWrites, bufferSize, bufferCount, forcePolicy, maxConcurrency);
+    }
+
+    WriteConfig withMaxConcurrency(int maxConcurrency) {
+        return new WriteConfig(gatheringWrites, mappedWrites, bufferSize, bufferCount, forcePolicy, maxConcurrency);
+    }
+
+    /**
+     * @return maximum number of CSV files processed concurrently, resolving {@code 0} to the number of processors
+     */
+    int effectiveMaxConcurrency() {
+        return maxConcurrency != 0 ? maxConcurrency : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Policy to force a written file to the storage device.
+     */
+    enum ForcePolicy {
+        /**
+         * Do not force, leave writing to the storage device to the operating system.
+         */
+        NONE,
+        /**
+         * Force the content of the file (see {@link FileChannel#force(boolean)} with {@code false}).
+         */
+        DATA,
+        /**
+         * Force the content and the metadata of the file (see {@link FileChannel#force(boolean)} with {@code true}).
+         */
+        ALL;
+
+        /**
+         * Forces {@code file} to the storage device according to this policy.
+         *
+         * @param file
+         *         file to force
+         * @throws IOException
+         *         if the file cannot be opened or forced
+         */
+        void force(Path file) throws IOException {
+            if (this == NONE) return;
+            try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.force(this == ALL);
+            }
+        }
+
+    }
+
+}
@@ -1,4 +1,4 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.convert;
 
@@ -11,6 +11,7 @@ import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.ResolverStyle;
 import java.time.temporal.TemporalAccessor;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
@@ -29,6 +30,11 @@ import static java.util.Objects.requireNonNull;
  */
 public final class ParseDatetime implements Converter<TemporalAccessor> {
 
+    /**
+     * Maximum number of formatters cached by {@link #createDateTimeFormatter(String, Locale)}.
+     */
+    static final int MAX_CACHED_FORMATTERS = 64;
+
     private static final ParseDatetime DEFAULT_DATE_INSTANCE = new ParseDatetime(DateTimeFormatter.ISO_LOCAL_DATE);
     private static final ParseDatetime DEFAULT_TIME_INSTANCE = new ParseDatetime(DateTimeFormatter.ISO_LOCAL_TIME);
     private static final ParseDatetime DEFAULT_TIMESTAMP_INSTANCE =
@@ -147,7 +153,13 @@ public final class ParseDatetime implements Converter<TemporalAccessor> {
     }
 
     /**
-     * Creates a date time formatter.
+     * Creates a date time formatter, or returns the formatter created earlier for the same pattern and locale.
+     * <p>
+     * Formatters are immutable and thread-safe, so they are shared by all instances (e.g. by the conversions of
+     * multiple jobs of the job server). The patterns and locales come from the configuration (e.g. of the clients of
+     * the job server), so only the {@link #MAX_CACHED_FORMATTERS} most recently used formatters are
+     * cached.
+     * </p>
      *
      * @param pattern
      *         date time formatter pattern, or the name of one of the standard formatters
@@ -158,20 +170,54 @@ public final class ParseDatetime implements Converter<TemporalAccessor> {
      *         if {@code pattern} is invalid
      */
     private static DateTimeFormatter createDateTimeFormatter(String pattern, @Nullable Locale locale) {
-        DateTimeFormatter formatter = FormatterHolder.getByName(pattern)
+        var key = new FormatterKey(pattern, locale);
+        Map<FormatterKey, DateTimeFormatter> cache = FormatterHolder.FORMATTER_CACHE;
+        DateTimeFormatter formatter;
+        synchronized (cache) {
+            formatter = cache.get(key);
+        }
+        if (formatter != null) return formatter;
+        // Created outside the lock; if another thread created the same formatter concurrently, either one will do
+        formatter = FormatterHolder.getByName(pattern)
                 .orElseGet(() -> DateTimeFormatter.ofPattern(pattern));
         if (locale != null) {
-            return formatter.localizedBy(locale);
+            formatter = formatter.localizedBy(locale);
+        }
+        synchronized (cache) {
+            cache.put(key, formatter);
         }
         return formatter;
     }
 
     /**
-     * Holds the map of standard formatters defined in DateTimeFormatter
+     * @return number of formatters in the cache (for testing)
+     */
+    static int cachedFormatterCount() {
+        synchronized (FormatterHolder.FORMATTER_CACHE) {
+            return FormatterHolder.FORMATTER_CACHE.size();
+        }
+    }
+
+    private record FormatterKey(String pattern, @Nullable Locale locale) {
+    }
+
+    /**
+     * Holds the map of standard formatters defined in DateTimeFormatter, and the cache of created formatters
      */
     private static final class FormatterHolder {
 
         private static final Map<String, DateTimeFormatter> STANDARD_FORMATTERS;
+        /**
+         * Cache of created formatters, in access order, evicting the least recently used formatter when full (guarded
+         * by synchronizing on the cache itself).
+         */
+        private static final Map<FormatterKey, DateTimeFormatter> FORMATTER_CACHE =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<FormatterKey, DateTimeFormatter> eldest) {
+                        return size() > MAX_CACHED_FORMATTERS;
+                    }
+                };
         static {
             Map<String, DateTimeFormatter> formatters = new HashMap<>();
             // Custom formatters
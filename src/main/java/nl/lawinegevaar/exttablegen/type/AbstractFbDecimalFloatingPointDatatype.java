@@ -2,6 +2,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.type;
 
+import nl.lawinegevaar.exttablegen.DecoderInput;
 import nl.lawinegevaar.exttablegen.EncoderOutputStream;
 import nl.lawinegevaar.exttablegen.convert.Converter;
 import org.firebirdsql.decimal.Decimal;
@@ -66,6 +67,12 @@ public abstract sealed class AbstractFbDecimalFloatingPointDatatype<T extends De
         backingType.writeValue(value, out);
     }
 
+    @Override
+    public final T readValue(DecoderInput in) {
+        in.align(8);
+        return backingType.parseBytes(in.readToNetworkOrder(backingType.byteLength()));
+    }
+
     @Override
     public void appendTypeDefinition(StringBuilder sb) {
         sb.append("decfloat(").append(precision()).append(')');
@@ -159,6 +166,20 @@ public abstract sealed class AbstractFbDecimalFloatingPointDatatype<T extends De
 
         abstract void writeEmpty(EncoderOutputStream out) throws IOException;
 
+        /**
+         * @return length in bytes of the encoded value
+         */
+        abstract int byteLength();
+
+        /**
+         * Parses the network order (big endian) encoded value.
+         *
+         * @param bytes
+         *         bytes in network order
+         * @return decoded value
+         */
+        abstract T parseBytes(byte[] bytes);
+
         @Override
         public int hashCode() {
             // In current implementation precision implies target type (and vice versa), so no need to consider both
@@ -195,6 +216,16 @@ public abstract sealed class AbstractFbDecimalFloatingPointDatatype<T extends De
             return Decimal64.valueOf(value, overflowHandling());
         }
 
+        @Override
+        int byteLength() {
+            return 8;
+        }
+
+        @Override
+        Decimal64 parseBytes(byte[] bytes) {
+            return Decimal64.parseBytes(bytes);
+        }
+
         void writeEmpty(EncoderOutputStream out) throws IOException {
             writeValue(ZERO, out);
         }
@@ -222,6 +253,16 @@ public abstract sealed class AbstractFbDecimalFloatingPointDatatype<T extends De
             return Decimal128.valueOf(value, overflowHandling());
         }
 
+        @Override
+        int byteLength() {
+            return 16;
+        }
+
+        @Override
+        Decimal128 parseBytes(byte[] bytes) {
+            return Decimal128.parseBytes(bytes);
+        }
+
         void writeEmpty(EncoderOutputStream out) throws IOException {
             writeValue(ZERO, out);
         }
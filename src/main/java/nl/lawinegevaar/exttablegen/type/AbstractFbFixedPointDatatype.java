@@ -1,7 +1,8 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.type;
 
+import nl.lawinegevaar.exttablegen.DecoderInput;
 import nl.lawinegevaar.exttablegen.EncoderOutputStream;
 import nl.lawinegevaar.exttablegen.convert.Converter;
 import org.jspecify.annotations.Nullable;
@@ -78,6 +79,11 @@ public abstract sealed class AbstractFbFixedPointDatatype extends AbstractFbData
         backingType.writeValue(value.setScale(scale, roundingMode).unscaledValue(), out);
     }
 
+    @Override
+    public final BigDecimal readValue(DecoderInput in) {
+        return new BigDecimal(backingType.readValue(in), scale);
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + '{' +
@@ -94,24 +100,44 @@ public abstract sealed class AbstractFbFixedPointDatatype extends AbstractFbData
             void writeValue(BigInteger unscaledValue, EncoderOutputStream out) throws IOException {
                 FbSmallint.writeShort(unscaledValue.shortValueExact(), out);
             }
+
+            @Override
+            BigInteger readValue(DecoderInput in) {
+                return BigInteger.valueOf(FbSmallint.readShort(in));
+            }
         },
         INTEGER {
             @Override
             void writeValue(BigInteger unscaledValue, EncoderOutputStream out) throws IOException {
                 FbInteger.writeInt(unscaledValue.intValueExact(), out);
             }
+
+            @Override
+            BigInteger readValue(DecoderInput in) {
+                return BigInteger.valueOf(FbInteger.readInt(in));
+            }
         },
         BIGINT {
             @Override
             void writeValue(BigInteger unscaledValue, EncoderOutputStream out) throws IOException {
                 FbBigint.writeLong(unscaledValue.longValueExact(), out);
             }
+
+            @Override
+            BigInteger readValue(DecoderInput in) {
+                return BigInteger.valueOf(FbBigint.readLong(in));
+            }
         },
         INT128 {
             @Override
             void writeValue(BigInteger unscaledValue, EncoderOutputStream out) throws IOException {
                 FbInt128.writeBigInteger(unscaledValue, out);
             }
+
+            @Override
+            BigInteger readValue(DecoderInput in) {
+                return FbInt128.readBigInteger(in);
+            }
         };
 
         /**
@@ -130,6 +156,15 @@ public abstract sealed class AbstractFbFixedPointDatatype extends AbstractFbData
          */
         abstract void writeValue(BigInteger unscaledValue, EncoderOutputStream out) throws IOException;
 
+        /**
+         * Reads an unscaled value of the backing type.
+         *
+         * @param in
+         *         decoder input
+         * @return unscaled value
+         */
+        abstract BigInteger readValue(DecoderInput in);
+
     }
 
 }
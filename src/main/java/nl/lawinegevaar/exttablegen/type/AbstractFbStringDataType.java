@@ -2,6 +2,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.type;
 
+import nl.lawinegevaar.exttablegen.DecoderInput;
 import nl.lawinegevaar.exttablegen.EncoderOutputStream;
 import nl.lawinegevaar.exttablegen.convert.Converter;
 import org.jspecify.annotations.Nullable;
@@ -22,6 +23,14 @@ public abstract sealed class AbstractFbStringDataType extends AbstractFbDatatype
 
     private static final Converter<String> DEFAULT_CONVERTER =
             Converter.of(String.class, Function.identity());
+    private static final byte[] EMPTY_VALUE = new byte[0];
+    // Padding is written from shared chunks, instead of allocating and filling an array per value
+    private static final int PADDING_CHUNK_SIZE = 1024;
+    private static final byte[] NUL_PADDING = new byte[PADDING_CHUNK_SIZE];
+    private static final byte[] SPACE_PADDING = new byte[PADDING_CHUNK_SIZE];
+    static {
+        Arrays.fill(SPACE_PADDING, (byte) 0x20);
+    }
 
     private final int length;
     private final FbEncoding encoding;
@@ -87,8 +96,8 @@ public abstract sealed class AbstractFbStringDataType extends AbstractFbDatatype
     final int getMaxLength(String value) {
         int valueLength = value.length();
         if (valueLength > length) {
-            int codePoints = value.codePointCount(0, valueLength);
-            if (codePoints > length) {
+            // length codepoints take at most 2 * length chars, so a longer value does not need to be counted
+            if (valueLength >= 2 * length || value.codePointCount(0, valueLength) > length) {
                 return value.offsetByCodePoints(0, length);
             }
         }
@@ -107,7 +116,28 @@ public abstract sealed class AbstractFbStringDataType extends AbstractFbDatatype
 
     @Override
     public final void writeEmpty(EncoderOutputStream out) throws IOException {
-        writeValueBytes(out, new byte[0]);
+        writeValueBytes(out, EMPTY_VALUE);
+    }
+
+    @Override
+    public final String readValue(DecoderInput in) {
+        return new String(readValueBytes(in), encoding.charset());
+    }
+
+    /**
+     * Reads the bytes of a value, excluding padding.
+     *
+     * @param in
+     *         decoder input
+     * @return value bytes
+     */
+    byte[] readValueBytes(DecoderInput in) {
+        byte[] bytes = in.readBytes(maxByteLength);
+        int length = bytes.length;
+        while (length > 0 && bytes[length - 1] == (byte) padChar()) {
+            length--;
+        }
+        return Arrays.copyOf(bytes, length);
     }
 
     /**
@@ -128,9 +158,20 @@ public abstract sealed class AbstractFbStringDataType extends AbstractFbDatatype
     final void writePaddingFor(int byteLength, OutputStream out) throws IOException {
         int padSize = maxByteLength - byteLength;
         if (padSize <= 0) return;
-        var bytes = new byte[padSize];
-        Arrays.fill(bytes, (byte) padChar());
-        out.write(bytes);
+        byte[] padding = paddingChunk();
+        while (padSize > 0) {
+            int chunkSize = Math.min(padSize, PADDING_CHUNK_SIZE);
+            out.write(padding, 0, chunkSize);
+            padSize -= chunkSize;
+        }
+    }
+
+    private byte[] paddingChunk() {
+        return switch (padChar()) {
+            case 0x00 -> NUL_PADDING;
+            case 0x20 -> SPACE_PADDING;
+            default -> throw new IllegalStateException("Unsupported padChar: 0x%02x".formatted(padChar()));
+        };
     }
 
     @Override
@@ -1,7 +1,8 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.type;
 
+import nl.lawinegevaar.exttablegen.DecoderInput;
 import nl.lawinegevaar.exttablegen.EncoderOutputStream;
 import nl.lawinegevaar.exttablegen.convert.LongConverter;
 import nl.lawinegevaar.exttablegen.convert.ParseBigint;
@@ -60,6 +61,16 @@ public final class FbBigint extends AbstractFbDatatype<Long, LongConverter> impl
         out.writeLong(value);
     }
 
+    @Override
+    public Long readValue(DecoderInput in) {
+        return readLong(in);
+    }
+
+    static long readLong(DecoderInput in) {
+        in.align(8);
+        return in.readLong();
+    }
+
     @Override
     public void writeEmpty(EncoderOutputStream out) throws IOException {
         writeLong(0, out);
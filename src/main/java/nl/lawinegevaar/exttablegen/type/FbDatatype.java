@@ -2,6 +2,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.type;
 
+import nl.lawinegevaar.exttablegen.DecoderInput;
 import nl.lawinegevaar.exttablegen.EncoderOutputStream;
 import nl.lawinegevaar.exttablegen.convert.Converter;
 import org.jspecify.annotations.Nullable;
@@ -69,6 +70,21 @@ public sealed interface FbDatatype<T>
         writeValue("", out);
     }
 
+    /**
+     * Reads a value of this datatype from {@code in}; the inverse of {@link #writeValue(String, EncoderOutputStream)}.
+     * <p>
+     * The converter of this datatype is not applied in reverse, the value is returned as its target type (or, for
+     * {@code DATE}, {@code TIME} and {@code TIMESTAMP}, as respectively {@link java.time.LocalDate},
+     * {@link java.time.LocalTime} and {@link java.time.LocalDateTime}). For {@code CHAR}, trailing padding is removed.
+     * </p>
+     *
+     * @param in
+     *         decoder input positioned at the value (or its alignment)
+     * @return value read
+     * @since 4
+     */
+    T readValue(DecoderInput in);
+
     /**
      * Creates a new datatype instance with the specified converter.
      * <p>
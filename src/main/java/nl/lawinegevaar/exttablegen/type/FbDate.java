@@ -1,7 +1,8 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.type;
 
+import nl.lawinegevaar.exttablegen.DecoderInput;
 import nl.lawinegevaar.exttablegen.EncoderOutputStream;
 import nl.lawinegevaar.exttablegen.convert.Converter;
 import nl.lawinegevaar.exttablegen.convert.ParseDatetime;
@@ -9,6 +10,7 @@ import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
 import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.time.temporal.JulianFields;
 import java.time.temporal.TemporalAccessor;
 
@@ -59,6 +61,16 @@ public final class FbDate extends AbstractFbDatatype<TemporalAccessor, Converter
         out.writeInt(modifiedJulianDate);
     }
 
+    @Override
+    public LocalDate readValue(DecoderInput in) {
+        in.align(4);
+        return toLocalDate(in.readInt());
+    }
+
+    static LocalDate toLocalDate(int modifiedJulianDate) {
+        return LocalDate.EPOCH.with(JulianFields.MODIFIED_JULIAN_DAY, modifiedJulianDate);
+    }
+
     @Override
     public void writeEmpty(EncoderOutputStream out) throws IOException {
         writeInt(0, out);
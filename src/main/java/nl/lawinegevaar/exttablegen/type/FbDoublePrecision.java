@@ -2,6 +2,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.type;
 
+import nl.lawinegevaar.exttablegen.DecoderInput;
 import nl.lawinegevaar.exttablegen.EncoderOutputStream;
 import nl.lawinegevaar.exttablegen.convert.Converter;
 import nl.lawinegevaar.exttablegen.convert.DoubleConverter;
@@ -80,6 +81,16 @@ public final class FbDoublePrecision extends AbstractFbDatatype<Double, DoubleCo
         out.writeDouble(value);
     }
 
+    @Override
+    public Double readValue(DecoderInput in) {
+        return readDouble(in);
+    }
+
+    static double readDouble(DecoderInput in) {
+        in.align(8);
+        return in.readDouble();
+    }
+
     @Override
     public FbDatatype<Double> withConverter(@Nullable Converter<Double> converter) {
         DoubleConverter wrappedConverter = DoubleConverter.wrap(converter);
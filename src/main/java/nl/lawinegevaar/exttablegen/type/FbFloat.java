@@ -2,6 +2,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.type;
 
+import nl.lawinegevaar.exttablegen.DecoderInput;
 import nl.lawinegevaar.exttablegen.EncoderOutputStream;
 import nl.lawinegevaar.exttablegen.convert.Converter;
 import nl.lawinegevaar.exttablegen.convert.FloatConverter;
@@ -80,6 +81,16 @@ public final class FbFloat extends AbstractFbDatatype<Float, FloatConverter>
         out.writeFloat(value);
     }
 
+    @Override
+    public Float readValue(DecoderInput in) {
+        return readFloat(in);
+    }
+
+    static float readFloat(DecoderInput in) {
+        in.align(4);
+        return in.readFloat();
+    }
+
     @Override
     public FbDatatype<Float> withConverter(@Nullable Converter<Float> converter) {
         FloatConverter wrappedConverter = FloatConverter.wrap(converter);
@@ -1,7 +1,8 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.type;
 
+import nl.lawinegevaar.exttablegen.DecoderInput;
 import nl.lawinegevaar.exttablegen.EncoderOutputStream;
 import nl.lawinegevaar.exttablegen.convert.Converter;
 import nl.lawinegevaar.exttablegen.convert.ParseInt128;
@@ -55,6 +56,16 @@ public final class FbInt128 extends AbstractFbDatatype<BigInteger, Converter<Big
         out.writeInt128(value);
     }
 
+    @Override
+    public BigInteger readValue(DecoderInput in) {
+        return readBigInteger(in);
+    }
+
+    static BigInteger readBigInteger(DecoderInput in) {
+        in.align(8);
+        return in.readInt128();
+    }
+
     @Override
     public void writeEmpty(EncoderOutputStream out) throws IOException {
         writeValueImpl(BigInteger.ZERO, out);
@@ -1,7 +1,8 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.type;
 
+import nl.lawinegevaar.exttablegen.DecoderInput;
 import nl.lawinegevaar.exttablegen.EncoderOutputStream;
 import nl.lawinegevaar.exttablegen.convert.IntConverter;
 import nl.lawinegevaar.exttablegen.convert.ParseInteger;
@@ -61,6 +62,16 @@ public final class FbInteger extends AbstractFbDatatype<Integer, IntConverter>
         out.writeInt(value);
     }
 
+    @Override
+    public Integer readValue(DecoderInput in) {
+        return readInt(in);
+    }
+
+    static int readInt(DecoderInput in) {
+        in.align(4);
+        return in.readInt();
+    }
+
     @Override
     public void writeEmpty(EncoderOutputStream out) throws IOException {
         writeInt(0, out);
@@ -1,7 +1,8 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.type;
 
+import nl.lawinegevaar.exttablegen.DecoderInput;
 import nl.lawinegevaar.exttablegen.EncoderOutputStream;
 import nl.lawinegevaar.exttablegen.convert.ParseSmallint;
 import nl.lawinegevaar.exttablegen.convert.ShortConverter;
@@ -61,6 +62,16 @@ public final class FbSmallint extends AbstractFbDatatype<Short, ShortConverter>
         out.writeShort(value);
     }
 
+    @Override
+    public Short readValue(DecoderInput in) {
+        return readShort(in);
+    }
+
+    static short readShort(DecoderInput in) {
+        in.align(2);
+        return in.readShort();
+    }
+
     @Override
     public void writeEmpty(EncoderOutputStream out) throws IOException {
         writeShort((short) 0, out);
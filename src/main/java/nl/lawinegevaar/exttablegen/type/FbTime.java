@@ -1,7 +1,8 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.type;
 
+import nl.lawinegevaar.exttablegen.DecoderInput;
 import nl.lawinegevaar.exttablegen.EncoderOutputStream;
 import nl.lawinegevaar.exttablegen.convert.Converter;
 import nl.lawinegevaar.exttablegen.convert.ParseDatetime;
@@ -10,6 +11,7 @@ import org.jspecify.annotations.Nullable;
 import java.io.IOException;
 import java.time.DateTimeException;
 import java.time.Duration;
+import java.time.LocalTime;
 import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
@@ -64,6 +66,16 @@ public final class FbTime extends AbstractFbDatatype<TemporalAccessor, Converter
         out.writeInt(fractions);
     }
 
+    @Override
+    public LocalTime readValue(DecoderInput in) {
+        in.align(4);
+        return toLocalTime(in.readInt());
+    }
+
+    static LocalTime toLocalTime(int fractions) {
+        return LocalTime.ofNanoOfDay(fractions * NANOS_PER_UNIT);
+    }
+
     @Override
     public void writeEmpty(EncoderOutputStream out) throws IOException {
         writeInt(0, out);
@@ -1,13 +1,16 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.type;
 
+import nl.lawinegevaar.exttablegen.DecoderInput;
 import nl.lawinegevaar.exttablegen.EncoderOutputStream;
 import nl.lawinegevaar.exttablegen.convert.Converter;
 import nl.lawinegevaar.exttablegen.convert.ParseDatetime;
 import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.TemporalAccessor;
 
 /**
@@ -53,6 +56,13 @@ public final class FbTimestamp extends AbstractFbDatatype<TemporalAccessor, Conv
         out.writeInt(time);
     }
 
+    @Override
+    public LocalDateTime readValue(DecoderInput in) {
+        in.align(8);
+        LocalDate date = FbDate.toLocalDate(in.readInt());
+        return LocalDateTime.of(date, FbTime.toLocalTime(in.readInt()));
+    }
+
     @Override
     public void writeEmpty(EncoderOutputStream out) throws IOException {
         writeTimeAndDate(0, 0, out);
@@ -2,11 +2,13 @@
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.type;
 
+import nl.lawinegevaar.exttablegen.DecoderInput;
 import nl.lawinegevaar.exttablegen.EncoderOutputStream;
 import nl.lawinegevaar.exttablegen.convert.Converter;
 import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * A datatype representing the Firebird datatype {@code VARCHAR} with a specific length and character set.
@@ -59,6 +61,13 @@ public final class FbVarchar extends AbstractFbStringDataType {
         super.writeValueBytes(out, bytes);
     }
 
+    @Override
+    byte[] readValueBytes(DecoderInput in) {
+        in.align(2);
+        int length = Math.min(Short.toUnsignedInt(in.readShort()), maxByteLength());
+        return Arrays.copyOf(in.readBytes(maxByteLength()), length);
+    }
+
     @Override
     int padChar() {
         return 0x00;
@@ -0,0 +1,72 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that converting a CSV file much larger than the maximum heap size streams the file within the memory budget.
+ * <p>
+ * The test tasks of this suite run with a small maximum heap size derived from the size of the generated CSV file (see
+ * {@code build.gradle}); the size of the CSV file is set with system property {@code streamingTest.csvSizeMiB}, and
+ * the memory budget of the conversion with system property {@code streamingTest.memoryBudget}.
+ * </p>
+ */
+class StreamingConversionTest {
+
+    private static final long MIB = 1024 * 1024;
+    private static final long CSV_SIZE = Long.getLong("streamingTest.csvSizeMiB", 512) * MIB;
+    private static final String MEMORY_BUDGET = System.getProperty("streamingTest.memoryBudget", "32m");
+    // ID (10) + NAME (15) + AMOUNT (10) + LF end column (1)
+    private static final int ROW_LENGTH = 36;
+
+    @TempDir
+    private static Path tempDir;
+    private static Path csvFile;
+    private static long rowCount;
+
+    @BeforeAll
+    static void generateCsvFile() throws IOException {
+        csvFile = tempDir.resolve("large.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csvFile, ISO_8859_1)) {
+            writer.write("ID,NAME,AMOUNT\n");
+            long size = 15;
+            while (size < CSV_SIZE) {
+                String row = "%010d,name-%010d,%010d\n".formatted(rowCount, rowCount, rowCount % 1_000_000);
+                writer.write(row);
+                size += row.length();
+                rowCount++;
+            }
+        }
+    }
+
+    @Test
+    void convertLargeFile_withinMemoryBudget() throws IOException {
+        long maxHeapSize = Runtime.getRuntime().maxMemory();
+        assertTrue(maxHeapSize < Files.size(csvFile) / 4,
+                () -> "expected CSV file of %d bytes to be much larger than the maximum heap size of %d bytes"
+                        .formatted(CSV_SIZE, maxHeapSize));
+        Path tableFile = tempDir.resolve("large.dat");
+
+        int exitCode = ExtTableGenMain.parseAndExecute(
+                "--csv-file", csvFile.toString(),
+                "--table-file", tableFile.toString(),
+                "--overwrite-table-file",
+                "--memory-budget", MEMORY_BUDGET);
+
+        assertEquals(0, exitCode, "expected zero exit-code for successful execution");
+        assertEquals(rowCount * ROW_LENGTH, Files.size(tableFile), "unexpected table file size");
+    }
+
+}
@@ -0,0 +1,251 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static nl.lawinegevaar.exttablegen.ColumnFixtures.col;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AppendOutputResourceTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void newOutputStream_fileDoesNotExist_createsFile() throws IOException {
+        Path tableFile = tempDir.resolve("table.dat");
+
+        try (var out = OutputResource.append(tableFile, 5).newOutputStream()) {
+            out.write("1 R1 ".getBytes(US_ASCII));
+        }
+
+        assertEquals("1 R1 ", Files.readString(tableFile, US_ASCII));
+    }
+
+    @Test
+    void newOutputStream_fileExists_appends() throws IOException {
+        Path tableFile = tempDir.resolve("table.dat");
+        Files.writeString(tableFile, "1 R1 2 R2 ", US_ASCII);
+
+        try (var out = OutputResource.append(tableFile, 5).newOutputStream()) {
+            out.write("3 R3 ".getBytes(US_ASCII));
+        }
+
+        assertEquals("1 R1 2 R2 3 R3 ", Files.readString(tableFile, US_ASCII));
+    }
+
+    @Test
+    void newOutputStream_lengthNotMultipleOfRowLength_throwsIOException() throws IOException {
+        Path tableFile = tempDir.resolve("table.dat");
+        Files.writeString(tableFile, "1 R1 2 R", US_ASCII);
+
+        var exception = assertThrows(IOException.class, () -> OutputResource.append(tableFile, 5).newOutputStream());
+
+        assertEquals("Cannot append to external table file '%s': its length (8) is not a multiple of the row length (5)"
+                .formatted(tableFile), exception.getMessage());
+        assertEquals("1 R1 2 R", Files.readString(tableFile, US_ASCII), "expected table file to be unchanged");
+    }
+
+    @Test
+    void existingRows() throws IOException {
+        Path tableFile = tempDir.resolve("table.dat");
+        assertEquals(0, AppendOutputResource.existingRows(tableFile, 5), "file does not exist");
+
+        Files.writeString(tableFile, "1 R1 2 R2 ", US_ASCII);
+        assertEquals(2, AppendOutputResource.existingRows(tableFile, 5), "file with two rows");
+    }
+
+    @Test
+    void appendOffset_writeAndRead() throws IOException {
+        Path offsetFile = AppendOffset.offsetFilePath(tempDir.resolve("table.dat"));
+        assertEquals(tempDir.resolve("table.dat.offset"), offsetFile);
+        assertEquals(Optional.empty(), AppendOffset.read(offsetFile), "offset file does not exist");
+
+        new AppendOffset(0, "part-1.csv", 10, 8).write(offsetFile);
+        assertEquals(Optional.of(new AppendOffset(0, "part-1.csv", 10, 8)), AppendOffset.read(offsetFile));
+
+        new AppendOffset(1, "part-2.csv", 12, 10).write(offsetFile);
+        assertEquals(Optional.of(new AppendOffset(1, "part-2.csv", 12, 10)), AppendOffset.read(offsetFile),
+                "after replace");
+    }
+
+    @Test
+    void appendOffset_invalidFile_throwsIOException() throws IOException {
+        Path offsetFile = tempDir.resolve("table.dat.offset");
+        Files.writeString(offsetFile, "part=0\nlinesRead=abc\ntableRows=1\n");
+
+        assertThrows(IOException.class, () -> AppendOffset.read(offsetFile));
+    }
+
+    @Test
+    void appendOffsetTracker_recordsLinesReadOfLastPart() {
+        var csvFileSet = new CsvFileSet(List.of(
+                new CsvFileSet.Part("part-2.csv", emptyCsvFile()),
+                new CsvFileSet.Part("part-3.csv", emptyCsvFile())));
+        var tracker = new AppendOffsetTracker(csvFileSet, 1);
+
+        tracker.onPartStart(0);
+        tracker.onHeader(Row.noHeader());
+        tracker.onRow(new Row(5, List.of("5")));
+        tracker.onEndOfFile(6);
+        tracker.onPartStart(1);
+        tracker.onHeader(new Row(1, List.of("ID")));
+        tracker.onRow(new Row(2, List.of("6")));
+        tracker.onEndOfFile(3);
+
+        assertEquals(6, tracker.firstPartLinesRead(), "firstPartLinesRead");
+        assertEquals(new AppendOffset(2, "part-3.csv", 3, 12), tracker.toAppendOffset(12));
+    }
+
+    @Test
+    void appendOffsetTracker_lastPartNotReadCompletely_throwsIllegalStateException() {
+        var tracker = new AppendOffsetTracker(CsvFileSet.of(emptyCsvFile()), 0);
+
+        tracker.onPartStart(0);
+        tracker.onRow(new Row(2, List.of("1")));
+
+        assertEquals(-1, tracker.firstPartLinesRead(), "firstPartLinesRead");
+        assertThrows(IllegalStateException.class, () -> tracker.toAppendOffset(1));
+    }
+
+    @Test
+    void appendNew_skipsLinesOfPreviousAppend() throws IOException {
+        Path csvFile = tempDir.resolve("input.csv");
+        Path tableFile = tempDir.resolve("table.dat");
+        Path offsetFile = AppendOffset.offsetFilePath(tableFile);
+        Path configFile = tempDir.resolve("config.xml");
+        Files.writeString(csvFile, """
+                ID,NAME
+                1,a
+                """, US_ASCII);
+        assertEquals(0, ExtTableGenMain.parseAndExecute(
+                "--csv-file", csvFile.toString(),
+                "--table-file", tableFile.toString(),
+                "--append-table-file=NEW",
+                "--config-out", configFile.toString()));
+        assertEquals(Optional.of(new AppendOffset(0, csvFile.toString(), 2, 1)), AppendOffset.read(offsetFile),
+                "offset after first append");
+
+        Files.writeString(csvFile, """
+                2,b
+                3,c
+                """, US_ASCII, StandardOpenOption.APPEND);
+        assertEquals(0, ExtTableGenMain.parseAndExecute(
+                "--config-in", configFile.toString(),
+                "--append-table-file=NEW"));
+        assertEquals("1a\n2b\n3c\n", Files.readString(tableFile, US_ASCII), "after second append");
+        assertEquals(Optional.of(new AppendOffset(0, csvFile.toString(), 4, 3)), AppendOffset.read(offsetFile),
+                "offset after second append");
+    }
+
+    @Test
+    void appendNew_rowsRejectedByPreviousAppendNotReadAgain() throws IOException {
+        Path csvFile = tempDir.resolve("input.csv");
+        Path tableFile = tempDir.resolve("table.dat");
+        Path offsetFile = AppendOffset.offsetFilePath(tableFile);
+        Path configFile = tempDir.resolve("config.xml");
+        Files.writeString(csvFile, """
+                ID,NAME
+                1,a
+                """, US_ASCII);
+        assertEquals(0, ExtTableGenMain.parseAndExecute(
+                "--csv-file", csvFile.toString(),
+                "--table-file", tableFile.toString(),
+                "--append-table-file=NEW",
+                "--config-out", configFile.toString()));
+
+        Files.writeString(csvFile, """
+                2,b,extra
+                3,c
+                """, US_ASCII, StandardOpenOption.APPEND);
+        Path rejectFile1 = tempDir.resolve("rejects-1.csv");
+        assertEquals(0, ExtTableGenMain.parseAndExecute(
+                "--config-in", configFile.toString(),
+                "--append-table-file=NEW",
+                "--reject-file", rejectFile1.toString(),
+                "--max-errors", "1"));
+        assertEquals("1a\n3c\n", Files.readString(tableFile, US_ASCII), "after second append");
+        assertTrue(Files.readString(rejectFile1, US_ASCII).contains("2,b,extra"), "expected rejected row");
+        assertEquals(Optional.of(new AppendOffset(0, csvFile.toString(), 4, 2)), AppendOffset.read(offsetFile),
+                "offset after second append");
+
+        Files.writeString(csvFile, "4,d\n", US_ASCII, StandardOpenOption.APPEND);
+        Path rejectFile2 = tempDir.resolve("rejects-2.csv");
+        // The row rejected by the previous append is not read again, so it does not count against --max-errors
+        assertEquals(0, ExtTableGenMain.parseAndExecute(
+                "--config-in", configFile.toString(),
+                "--append-table-file=NEW",
+                "--reject-file", rejectFile2.toString(),
+                "--max-errors", "0"));
+        assertEquals("1a\n3c\n4d\n", Files.readString(tableFile, US_ASCII), "after third append");
+        assertFalse(Files.readString(rejectFile2, US_ASCII).contains("2,b,extra"), "expected no rejected rows");
+    }
+
+    @Test
+    void appendNew_csvFileTruncated_fails() throws IOException {
+        Path csvFile = tempDir.resolve("input.csv");
+        Path tableFile = tempDir.resolve("table.dat");
+        Path configFile = tempDir.resolve("config.xml");
+        Files.writeString(csvFile, """
+                ID,NAME
+                1,a
+                2,b
+                """, US_ASCII);
+        assertEquals(0, ExtTableGenMain.parseAndExecute(
+                "--csv-file", csvFile.toString(),
+                "--table-file", tableFile.toString(),
+                "--append-table-file=NEW",
+                "--config-out", configFile.toString()));
+
+        Files.writeString(csvFile, """
+                ID,NAME
+                3,c
+                """, US_ASCII);
+
+        assertEquals(1, ExtTableGenMain.parseAndExecute(
+                "--config-in", configFile.toString(),
+                "--append-table-file=NEW"));
+        assertEquals("1a\n2b\n", Files.readString(tableFile, US_ASCII), "expected table file to be unchanged");
+    }
+
+    @Test
+    void externalTableWriter_appendsRows() throws IOException {
+        Path tableFile = tempDir.resolve("table.dat");
+        Files.writeString(tableFile, "1 R1 ", US_ASCII);
+        var externalTable = new ExternalTable("TEST", List.of(col("COL1", 2), col("COL2", 3)),
+                OutputResource.nullOutputResource(), ByteOrderType.AUTO);
+        TableFile appendTableFile = new TableFile(tableFile, false).withAppendMode(AppendMode.ALL);
+
+        try (var writer = new ExternalTableWriter(externalTable,
+                appendTableFile.toOutputResource(externalTable.rowLength()))) {
+            writer.onHeader(Row.noHeader());
+            writer.onRow(new Row(1, List.of("2", "R2")));
+        }
+
+        assertEquals("1 R1 2 R2 ", Files.readString(tableFile, US_ASCII));
+    }
+
+    @Test
+    void tableFile_appendWithMaxRows_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TableFile("table.dat", false, 10, TableFile.NO_LIMIT, AppendMode.NEW));
+    }
+
+    private static CsvFile emptyCsvFile() {
+        return new CsvFile(InputResource.of("", US_ASCII), new CsvFile.Config(US_ASCII, 0, false, CsvParserConfig.of()));
+    }
+
+}
@@ -0,0 +1,136 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.ICSVParser;
+import com.opencsv.RFC4180Parser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedCsvReaderTest {
+
+    private static final ICSVParser RFC_4180_PARSER = new RFC4180Parser();
+
+    /**
+     * Rationale: without limits or truncation, the CSV file is read without the extra scan of a bounded reader.
+     */
+    @Test
+    void defaultLimits_readerNotBounded() {
+        var reader = new StringReader("A,B\n1,2\n");
+
+        assertSame(reader, CsvLimits.getDefault().bound(reader, RFC_4180_PARSER, 1));
+    }
+
+    @Test
+    void withinLimits_passesAllCharacters() throws IOException {
+        String csv = "A,B\r\n1,\"two, \"\"quoted\"\"\"\r\n3,\"multi\nline\"\r\n";
+
+        assertEquals(csv, readAll(csv, new CsvLimits(20, 32, false), RFC_4180_PARSER, 1));
+    }
+
+    @Test
+    void fieldExceedingLimit_throwsCsvLimitExceededException() {
+        // Missing closing quote makes the rest of the file part of the second field
+        String csv = "A,B\n1,\"two\n3,four\n5,six\n";
+
+        var exception = assertThrows(CsvLimitExceededException.class,
+                () -> readAll(csv, new CsvLimits(10, 0, false), RFC_4180_PARSER, 1));
+        assertTrue(exception.getMessage().startsWith("Field 2 of the record starting at line 2"),
+                exception.getMessage());
+    }
+
+    @Test
+    void recordExceedingLimit_throwsCsvLimitExceededException() {
+        String csv = "A,B,C\n1,2,3\n111,222,333\n";
+
+        var exception = assertThrows(CsvLimitExceededException.class,
+                () -> readAll(csv, new CsvLimits(0, 8, false), RFC_4180_PARSER, 1));
+        assertTrue(exception.getMessage().startsWith("The record starting at line 3"), exception.getMessage());
+    }
+
+    @Test
+    void truncateStrings_dropsCharactersExceedingColumnLength() throws IOException {
+        String csv = "HEADER_1,HEADER_2,HEADER_3\n" + "a".repeat(10_000) + ",12345,\"b\"\"cdefgh\"\n";
+        var limits = new CsvLimits(100, 200, true, List.of(2, 0, 3));
+
+        assertEquals("HEADER_1,HEADER_2,HEADER_3\naaaa,12345,\"b\"\"cdefg\"\n",
+                readAll(csv, limits, RFC_4180_PARSER, 2));
+    }
+
+    @Test
+    void truncateStrings_customParser_dropsEscapedCharactersWithEscape() throws IOException {
+        ICSVParser parser = new CSVParserBuilder().withEscapeChar('\\').build();
+        String csv = "\"ab\\\"cd\\\"ef\",1\n";
+        var limits = new CsvLimits(0, 0, true, List.of(2, 0));
+
+        assertEquals("\"ab\\\"\",1\n", readAll(csv, limits, parser, 1));
+    }
+
+    /**
+     * Rationale: for the RFC 4180 parser, a quote in an unquoted field is a literal character, and does not start a
+     * quoted field which would make the rest of the file a single field.
+     */
+    @Test
+    void quoteInUnquotedField_rfc4180_isLiteral() throws IOException {
+        String csv = "A,B\n12\"x,abc\n" + "3,def\n".repeat(10);
+
+        assertEquals(csv, readAll(csv, new CsvLimits(10, 12, false), RFC_4180_PARSER, 1));
+    }
+
+    @Test
+    void truncateStrings_quoteInUnquotedField_rfc4180_truncatesCorrectColumn() throws IOException {
+        String csv = "A,B\n12\"x,abcdefghij\n3,klmnopqrst\n";
+        var limits = new CsvLimits(0, 0, true, List.of(0, 3));
+
+        assertEquals("A,B\n12\"x,abcdef\n3,klmnop\n", readAll(csv, limits, RFC_4180_PARSER, 2));
+    }
+
+    @Test
+    void doubledQuoteInQuotedField_rfc4180_staysInQuotes() throws IOException {
+        String csv = "\"a\"\"b,c\nd\",efghijklmn\n1,opqrstuvwx\n";
+        var limits = new CsvLimits(0, 0, true, List.of(0, 3));
+
+        assertEquals("\"a\"\"b,c\nd\",efghij\n1,opqrst\n", readAll(csv, limits, RFC_4180_PARSER, 1));
+    }
+
+    /**
+     * Rationale: the opencsv {@code CSVParser} toggles the quote state for a quote anywhere in a field, so a field
+     * with a pair of quotes in the middle ends at the next separator.
+     */
+    @Test
+    void quoteInUnquotedField_customParser_togglesQuoteState() throws IOException {
+        ICSVParser parser = new CSVParserBuilder().build();
+        String csv = "1,12\"3\"4,abc\n" + "2,x,def\n".repeat(10);
+
+        assertEquals(csv, readAll(csv, new CsvLimits(10, 16, false), parser, 1));
+    }
+
+    @Test
+    void truncateStrings_quoteInUnquotedField_customParser_truncatesCorrectColumn() throws IOException {
+        ICSVParser parser = new CSVParserBuilder().build();
+        String csv = "1,12\"3\"4,abcdefghij\n2,x,klmnopqrst\n";
+        var limits = new CsvLimits(0, 0, true, List.of(0, 0, 3));
+
+        assertEquals("1,12\"3\"4,abcdef\n2,x,klmnop\n", readAll(csv, limits, parser, 1));
+    }
+
+    private static String readAll(String csv, CsvLimits limits, ICSVParser parser, long truncateFromLine)
+            throws IOException {
+        var out = new StringWriter();
+        try (var reader = limits.bound(new StringReader(csv), parser, truncateFromLine)) {
+            reader.transferTo(out);
+        }
+        return out.toString();
+    }
+
+}
@@ -0,0 +1,129 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static nl.lawinegevaar.exttablegen.ColumnFixtures.col;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CheckpointTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void writeAndRead() throws IOException {
+        Path checkpointFile = Checkpoint.checkpointFilePath(tempDir.resolve("table.dat"));
+        assertEquals(tempDir.resolve("table.dat.checkpoint"), checkpointFile);
+        assertEquals(Optional.empty(), Checkpoint.read(checkpointFile), "checkpoint file does not exist");
+
+        var checkpoint = new Checkpoint(1, "part-2.csv", 101, 250, 7, 1750);
+        checkpoint.write(checkpointFile);
+
+        assertEquals(Optional.of(checkpoint), Checkpoint.read(checkpointFile));
+    }
+
+    @Test
+    void read_invalidFile_throwsIOException() throws IOException {
+        Path checkpointFile = tempDir.resolve("table.dat.checkpoint");
+        Files.writeString(checkpointFile, "part=0\nlinesRead=10\n");
+
+        assertThrows(IOException.class, () -> Checkpoint.read(checkpointFile));
+    }
+
+    @Test
+    void checkpointWriter_writesLatestCheckpoint() throws IOException {
+        Path checkpointFile = tempDir.resolve("table.dat.checkpoint");
+
+        try (var checkpointWriter = new CheckpointWriter(checkpointFile)) {
+            for (int idx = 1; idx <= 100; idx++) {
+                checkpointWriter.submit(new Checkpoint(0, "input.csv", idx, idx, 5, idx * 5L));
+            }
+        }
+
+        assertEquals(Optional.of(new Checkpoint(0, "input.csv", 100, 100, 5, 500)), Checkpoint.read(checkpointFile));
+    }
+
+    @Test
+    void checkpointWriter_deleteCheckpoint() throws IOException {
+        Path checkpointFile = tempDir.resolve("table.dat.checkpoint");
+        var checkpointWriter = new CheckpointWriter(checkpointFile);
+        checkpointWriter.submit(new Checkpoint(0, "input.csv", 1, 1, 5, 5));
+
+        checkpointWriter.deleteCheckpoint();
+
+        assertFalse(Files.exists(checkpointFile), "expected checkpoint file to be deleted");
+    }
+
+    @Test
+    void checkpointProcessor_checkpointsAtIntervalAfterFlush() throws IOException {
+        Path tableFile = tempDir.resolve("table.dat");
+        Path checkpointFile = Checkpoint.checkpointFilePath(tableFile);
+        var externalTable = new ExternalTable("TEST", List.of(col("COL1", 2), col("COL2", 3)),
+                OutputResource.of(tableFile), ByteOrderType.AUTO);
+        var csvFileSet = new CsvFileSet(List.of(new CsvFileSet.Part("input.csv",
+                new CsvFile(InputResource.of("", UTF_8), new CsvFile.Config(UTF_8, 0, false, CsvParserConfig.of())))));
+
+        try (var checkpointWriter = new CheckpointWriter(checkpointFile);
+             var tableWriter = new ExternalTableWriter(externalTable)) {
+            var processor = new CheckpointProcessor(tableWriter, csvFileSet,
+                    new Checkpoint(0, "input.csv", 0, 0, externalTable.rowLength(), 0), 2, checkpointWriter);
+            processor.onPartStart(0);
+            processor.onHeader(Row.noHeader());
+            for (int rowIdx = 1; rowIdx <= 5; rowIdx++) {
+                processor.onRow(new Row(rowIdx, List.of(String.valueOf(rowIdx), "R" + rowIdx)));
+            }
+            checkpointWriter.close();
+
+            Checkpoint checkpoint = Checkpoint.read(checkpointFile).orElseThrow();
+            assertEquals(new Checkpoint(0, "input.csv", 4, 4, 5, 20), checkpoint);
+            assertEquals("1 R1 2 R2 3 R3 4 R4 ", Files.readString(tableFile, US_ASCII).substring(0, 20),
+                    "expected rows up to checkpoint in table file");
+            assertEquals(5, processor.rowsWritten(), "rowsWritten");
+        }
+    }
+
+    @Test
+    void csvFileSet_resumeAt() {
+        var config = new CsvFile.Config(UTF_8, 0, true, CsvParserConfig.of());
+        var csvFileSet = new CsvFileSet(List.of(
+                new CsvFileSet.Part("part-1", new CsvFile(InputResource.of("", UTF_8), config)),
+                new CsvFileSet.Part("part-2", new CsvFile(InputResource.of("", UTF_8), config)),
+                new CsvFileSet.Part("part-3", new CsvFile(InputResource.of("", UTF_8), config))));
+
+        CsvFileSet resumed = csvFileSet.resumeAt(1, 42);
+
+        assertEquals(List.of("part-2", "part-3"), resumed.parts().stream().map(CsvFileSet.Part::name).toList());
+        CsvFile.Config resumedConfig = resumed.parts().get(0).csvFile().config();
+        assertEquals(42, resumedConfig.skipLines(), "skipLines of resumed part");
+        assertFalse(resumedConfig.headerRow(), "headerRow of resumed part");
+        assertEquals(config, resumed.parts().get(1).csvFile().config(), "config of subsequent part");
+    }
+
+    @Test
+    void csvFileSet_resumeAt_headerOfSubsequentPartNotComparedToMissingHeader() {
+        var csvFileSet = new CsvFileSet(List.of(
+                new CsvFileSet.Part("part-1", new CsvFile(InputResource.of("COL1,COL2\nA,B\nC,D\n", UTF_8),
+                        new CsvFile.Config(UTF_8, 0, true, CsvParserConfig.of()))),
+                new CsvFileSet.Part("part-2", new CsvFile(InputResource.of("COL1,COL2\nE,F\n", UTF_8),
+                        new CsvFile.Config(UTF_8, 0, true, CsvParserConfig.of())))));
+
+        ProcessingResult result = csvFileSet.resumeAt(0, 2).readFile(new StopOnExceptionProcessor(Exception.class));
+
+        assertInstanceOf(ProcessingResult.Done.class, result, "expected Done signal");
+    }
+
+}
@@ -0,0 +1,121 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import com.opencsv.exceptions.CsvValidationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static nl.lawinegevaar.exttablegen.ColumnFixtures.col;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class ConcurrentExternalTableWriterTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void write_producesSameTableFileAsSequentialWrite() throws IOException {
+        var parts = new ArrayList<CsvFileSet.Part>();
+        for (int partIdx = 1; partIdx <= 20; partIdx++) {
+            var sb = new StringBuilder("COL1,COL2\n");
+            for (int rowIdx = 1; rowIdx <= partIdx * 10; rowIdx++) {
+                sb.append(partIdx).append(',').append(rowIdx).append('\n');
+            }
+            parts.add(part("part-" + partIdx, sb.toString()));
+        }
+        var csvFileSet = new CsvFileSet(parts);
+        Path concurrentFile = tempDir.resolve("concurrent.dat");
+        Path sequentialFile = tempDir.resolve("sequential.dat");
+        ExternalTable externalTable = createExternalTable(concurrentFile);
+
+        ProcessingResult result = new ConcurrentExternalTableWriter(externalTable, 4).write(csvFileSet,
+                part -> new StopOnExceptionProcessor(CsvValidationException.class));
+
+        assertInstanceOf(ProcessingResult.Done.class, result, "expected Done signal");
+        try (var sequentialWriter = new ExternalTableWriter(externalTable, OutputResource.of(sequentialFile))) {
+            assertInstanceOf(ProcessingResult.Done.class, csvFileSet.readFile(sequentialWriter));
+        }
+        assertArrayEquals(Files.readAllBytes(sequentialFile), Files.readAllBytes(concurrentFile));
+        assertEquals(List.of(concurrentFile, sequentialFile), listTempDir(), "expected no remaining temporary files");
+    }
+
+    @Test
+    void write_headerMismatch_stopsWithCsvHeaderMismatchException() throws IOException {
+        var csvFileSet = new CsvFileSet(List.of(
+                part("part-1", "COL1,COL2\nA,B\n"),
+                part("part-2", "COL1,OTHER\nC,D\n")));
+        Path tableFile = tempDir.resolve("table.dat");
+
+        ProcessingResult result = new ConcurrentExternalTableWriter(createExternalTable(tableFile)).write(csvFileSet,
+                part -> new StopOnExceptionProcessor(CsvValidationException.class));
+
+        var stopWithException = assertInstanceOf(ProcessingResult.StopWithException.class, result);
+        assertInstanceOf(CsvHeaderMismatchException.class, stopWithException.exception());
+        assertEquals(0, Files.size(tableFile), "expected empty table file");
+        assertEquals(List.of(tableFile), listTempDir(), "expected no remaining temporary files");
+    }
+
+    @Test
+    void write_headerMismatch_isReportedBeforeEncodingParts() throws IOException {
+        var csvFileSet = new CsvFileSet(List.of(
+                part("part-1", "COL1,COL2\nA,B\n"),
+                part("part-2", "COL1,COL2\nC,D\n"),
+                part("part-3", "COL1,OTHER\nE,F\n")));
+        var encodedParts = new AtomicInteger();
+
+        ProcessingResult result = new ConcurrentExternalTableWriter(createExternalTable(tempDir.resolve("table.dat")))
+                .write(csvFileSet, part -> {
+                    encodedParts.incrementAndGet();
+                    return new StopOnExceptionProcessor(CsvValidationException.class);
+                });
+
+        var stopWithException = assertInstanceOf(ProcessingResult.StopWithException.class, result);
+        assertInstanceOf(CsvHeaderMismatchException.class, stopWithException.exception());
+        assertEquals(0, encodedParts.get(), "expected no part to be encoded");
+    }
+
+    @Test
+    void write_tableFileExists_stopsWithTableFileAlreadyExistsException() throws IOException {
+        var csvFileSet = new CsvFileSet(List.of(
+                part("part-1", "COL1,COL2\nA,B\n"),
+                part("part-2", "COL1,COL2\nC,D\n")));
+        Path tableFile = tempDir.resolve("table.dat");
+        Files.writeString(tableFile, "ORIGINAL CONTENT");
+
+        ProcessingResult result = new ConcurrentExternalTableWriter(createExternalTable(tableFile)).write(csvFileSet,
+                part -> new StopOnExceptionProcessor(CsvValidationException.class));
+
+        var stopWithException = assertInstanceOf(ProcessingResult.StopWithException.class, result);
+        assertInstanceOf(TableFileAlreadyExistsException.class, stopWithException.exception());
+        assertEquals("ORIGINAL CONTENT", Files.readString(tableFile), "expected table file to be unchanged");
+    }
+
+    private static ExternalTable createExternalTable(Path tableFile) {
+        return new ExternalTable("TEST", List.of(col("COL1", 2), col("COL2", 3)), OutputResource.of(tableFile),
+                ByteOrderType.AUTO);
+    }
+
+    private static CsvFileSet.Part part(String name, String content) {
+        return new CsvFileSet.Part(name, new CsvFile(InputResource.of(content, UTF_8),
+                new CsvFile.Config(UTF_8, 0, true, CsvParserConfig.of())));
+    }
+
+    private List<Path> listTempDir() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.sorted().toList();
+        }
+    }
+
+}
@@ -19,10 +19,18 @@ import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -45,7 +53,9 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ConfigMapperTest {
 
@@ -353,6 +363,90 @@ class ConfigMapperTest {
         assertEquals(originalConfig, fromXml);
     }
 
+    @Test
+    void testHappyRoundtrip_compiled() throws Exception {
+        EtgConfig originalConfig = testEtgConfig();
+
+        EtgConfig fromCompiled = roundTripCompiledConfig(originalConfig);
+
+        assertEquals(originalConfig, fromCompiled);
+    }
+
+    @ParameterizedTest
+    @MethodSource("testRoundTripWithColumn")
+    void testRoundTripWithColumn_compiled(Column column) throws Exception {
+        EtgConfig originalConfig = testEtgConfig()
+                .withTableConfig(cfg -> cfg.withColumns(List.of(COLUMN_1, column, COLUMN_2)));
+
+        EtgConfig fromCompiled = roundTripCompiledConfig(originalConfig);
+
+        assertEquals(originalConfig, fromCompiled);
+    }
+
+    @Test
+    void isCompiled_distinguishesCompiledFromXml() throws Exception {
+        var baos = new ByteArrayOutputStream();
+        configMapper.writeCompiled(testEtgConfig(), baos);
+        var compiledIn = new ByteArrayInputStream(baos.toByteArray());
+        baos.reset();
+        configMapper.write(testEtgConfig(), baos);
+        var xmlIn = new ByteArrayInputStream(baos.toByteArray());
+
+        assertTrue(ConfigMapper.isCompiled(compiledIn), "expected compiled configuration");
+        assertFalse(ConfigMapper.isCompiled(xmlIn), "expected XML configuration");
+        // Detection must not consume bytes
+        assertEquals(testEtgConfig(), configMapper.readCompiled(compiledIn));
+        assertEquals(testEtgConfig(), configMapper.read(xmlIn));
+    }
+
+    @Test
+    void readCompiled_xml_throwsInvalidConfigurationException() throws Exception {
+        var baos = new ByteArrayOutputStream();
+        configMapper.write(testEtgConfig(), baos);
+
+        assertThrows(InvalidConfigurationException.class,
+                () -> configMapper.readCompiled(new ByteArrayInputStream(baos.toByteArray())));
+    }
+
+    @Test
+    void compiled_maximumColumns_roundTrips() throws Exception {
+        var columns = new ArrayList<Column>(ConfigMapper.MAX_COMPILED_COLUMNS);
+        for (int idx = 0; idx < ConfigMapper.MAX_COMPILED_COLUMNS; idx++) {
+            // distinct values, so they are not shared in the serialized form
+            columns.add(timestamp("COLUMN_" + idx, Converter.parseDatetime("'" + idx + "' dd-MM-yyyy", "nl-NL")));
+        }
+        EtgConfig originalConfig = testEtgConfig().withTableConfig(cfg -> cfg.withColumns(columns));
+
+        EtgConfig fromCompiled = roundTripCompiledConfig(originalConfig);
+
+        assertEquals(originalConfig, fromCompiled);
+    }
+
+    @Test
+    void writeCompiled_tooManyColumns_throwsInvalidConfigurationException() {
+        List<Column> columns = IntStream.rangeClosed(0, ConfigMapper.MAX_COMPILED_COLUMNS)
+                .mapToObj(idx -> col("COLUMN_" + idx, 10))
+                .toList();
+        EtgConfig config = testEtgConfig().withTableConfig(cfg -> cfg.withColumns(columns));
+
+        assertThrows(InvalidConfigurationException.class,
+                () -> configMapper.writeCompiled(config, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void readCompiled_otherClass_throwsInvalidClassException() throws Exception {
+        var baos = new ByteArrayOutputStream();
+        var dataOut = new DataOutputStream(baos);
+        dataOut.write(new byte[] { 'E', 'T', 'G', 'C' });
+        dataOut.writeUTF(ConfigMapper.CURRENT_SCHEMA_VERSION);
+        try (var objectOut = new ObjectOutputStream(dataOut)) {
+            objectOut.writeObject(new HashMap<>(Map.of("key", "value")));
+        }
+
+        assertThrows(InvalidClassException.class,
+                () -> configMapper.readCompiled(new ByteArrayInputStream(baos.toByteArray())));
+    }
+
     private EtgConfig roundTripConfig(EtgConfig originalConfig) throws JAXBException {
         // 3KiB rounded up from testdata/happypath-config.xml size
         var baos = new ByteArrayOutputStream(3 * 1024);
@@ -360,4 +454,10 @@ class ConfigMapperTest {
         return configMapper.read(new ByteArrayInputStream(baos.toByteArray()));
     }
 
-}
\ No newline at end of file
+    private EtgConfig roundTripCompiledConfig(EtgConfig originalConfig) throws IOException {
+        var baos = new ByteArrayOutputStream();
+        configMapper.writeCompiled(originalConfig, baos);
+        return configMapper.readCompiled(new ByteArrayInputStream(baos.toByteArray()));
+    }
+
+}
@@ -0,0 +1,149 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import nl.lawinegevaar.exttablegen.type.FbEncoding;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static nl.lawinegevaar.exttablegen.ColumnFixtures.col;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvFileSetTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void readFile_multipleParts_singleHeaderAllRowsSingleCompletion() {
+        var csvFileSet = new CsvFileSet(List.of(
+                part("part-1", "COL1,COL2\nA,B\nC,D\n"),
+                part("part-2", "COL1,COL2\nE,F\n"),
+                part("part-3", "COL1,COL2\n")));
+        var processor = new RecordingProcessor();
+
+        ProcessingResult result = csvFileSet.readFile(processor);
+
+        assertInstanceOf(ProcessingResult.Done.class, result, "expected Done signal");
+        assertEquals(List.of(new Row(1, List.of("COL1", "COL2"))), processor.headers, "headers");
+        assertEquals(List.of(List.of("A", "B"), List.of("C", "D"), List.of("E", "F")), processor.rowData(), "rows");
+        assertEquals(1, processor.completionCount, "completionCount");
+    }
+
+    @Test
+    void readFile_headerMismatch_stopsWithCsvHeaderMismatchException() {
+        var csvFileSet = new CsvFileSet(List.of(
+                part("part-1", "COL1,COL2\nA,B\n"),
+                part("part-2", "COL1,OTHER\nC,D\n"),
+                part("part-3", "COL1,COL2\nE,F\n")));
+        var processor = new RecordingProcessor();
+
+        ProcessingResult result = csvFileSet.readFile(processor);
+
+        var stopWithException = assertInstanceOf(ProcessingResult.StopWithException.class, result);
+        var exception = assertInstanceOf(CsvHeaderMismatchException.class, stopWithException.exception());
+        assertEquals("Header of CSV file 'part-2' does not match the header of the first CSV file; "
+                     + "expected: [COL1, COL2], was: [COL1, OTHER]", exception.getMessage());
+        assertEquals(List.of(List.of("A", "B")), processor.rowData(), "rows");
+        assertEquals(1, processor.completionCount, "completionCount");
+    }
+
+    @Test
+    void deriveFrom_derivesColumnSizesFromAllParts() {
+        var csvFileSet = new CsvFileSet(List.of(
+                part("part-1", "COL1,COL2\nA,BC\n"),
+                part("part-2", "COL1,COL2\nDEF,G\n")));
+
+        ExternalTable externalTable = ExternalTable.deriveFrom(csvFileSet, new ExternalTable.Config(
+                null, tempDir.resolve("derived.dat"), FbEncoding.ISO8859_1, EndColumn.Type.NONE, ByteOrderType.AUTO));
+
+        assertEquals(List.of(col("COL1", 3), col("COL2", 2)), externalTable.columns());
+    }
+
+    @Test
+    void resolvePaths_noPattern_returnsPathAsIs() {
+        Path path = tempDir.resolve("does-not-exist.csv");
+
+        assertEquals(List.of(path), csvFileConfig(path).resolvePaths());
+    }
+
+    @Test
+    void resolvePaths_pattern_returnsMatchingFilesSortedByName() throws IOException {
+        Files.writeString(tempDir.resolve("part-0010.csv"), "");
+        Files.writeString(tempDir.resolve("part-0002.csv"), "");
+        Files.writeString(tempDir.resolve("part-0001.csv"), "");
+        Files.writeString(tempDir.resolve("other.csv"), "");
+        Files.createDirectory(tempDir.resolve("part-0003.csv"));
+
+        assertEquals(
+                List.of(tempDir.resolve("part-0001.csv"), tempDir.resolve("part-0002.csv"),
+                        tempDir.resolve("part-0010.csv")),
+                csvFileConfig(tempDir.resolve("part-[0-9][0-9][0-9][0-9].csv")).resolvePaths());
+    }
+
+    @Test
+    void resolvePaths_listPattern_returnsListedFiles() throws IOException {
+        Files.writeString(tempDir.resolve("b.csv"), "");
+        Files.writeString(tempDir.resolve("a.csv"), "");
+        Files.writeString(tempDir.resolve("c.csv"), "");
+
+        assertEquals(List.of(tempDir.resolve("a.csv"), tempDir.resolve("b.csv")),
+                csvFileConfig(tempDir.resolve("{b,a}.csv")).resolvePaths());
+    }
+
+    @Test
+    void resolvePaths_patternWithoutMatches_throwsMissingInputResourceException() {
+        CsvFileConfig csvFileConfig = csvFileConfig(tempDir.resolve("part-[0-9].csv"));
+
+        assertThrows(MissingInputResourceException.class, csvFileConfig::resolvePaths);
+    }
+
+    private static CsvFileSet.Part part(String name, String content) {
+        return new CsvFileSet.Part(name, new CsvFile(InputResource.of(content, UTF_8),
+                new CsvFile.Config(UTF_8, 0, true, CsvParserConfig.of())));
+    }
+
+    private static CsvFileConfig csvFileConfig(Path path) {
+        return new CsvFileConfig(path, UTF_8, true, CsvParserConfig.of());
+    }
+
+    private static final class RecordingProcessor extends AbstractRowProcessor {
+
+        final List<Row> headers = new ArrayList<>();
+        final List<Row> rows = new ArrayList<>();
+        int completionCount;
+
+        @Override
+        public ProcessingResult onHeader(Row header) {
+            headers.add(header);
+            return ProcessingResult.continueProcessing();
+        }
+
+        @Override
+        public ProcessingResult onRow(Row row) {
+            rows.add(row);
+            return ProcessingResult.continueProcessing();
+        }
+
+        @Override
+        public ProcessingResult.Stop onComplete() {
+            completionCount++;
+            return super.onComplete();
+        }
+
+        List<List<String>> rowData() {
+            return rows.stream().map(Row::data).toList();
+        }
+
+    }
+
+}
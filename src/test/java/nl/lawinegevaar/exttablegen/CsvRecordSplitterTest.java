@@ -0,0 +1,227 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static nl.lawinegevaar.exttablegen.ResourceHelper.copyResource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvRecordSplitterTest {
+
+    private static final String QUOTED_MULTI_LINE_CSV = "A,B\r\n1,\"two, \"\"quoted\"\"\"\r\n3,\"multi\nline\"\r\n";
+    // Start position of each record of QUOTED_MULTI_LINE_CSV, mapped to its first line
+    private static final Map<Long, Long> QUOTED_MULTI_LINE_RECORD_STARTS = Map.of(0L, 1L, 5L, 2L, 26L, 3L);
+
+    @TempDir
+    private Path tempDir;
+
+    /**
+     * Rationale: with more chunks than bytes, chunk boundaries fall at every position, including inside quoted fields,
+     * between doubled quotes, and between CR and LF.
+     */
+    @Test
+    void split_everyChunkCount_rangesStartAtRecord() {
+        byte[] csv = QUOTED_MULTI_LINE_CSV.getBytes(UTF_8);
+        var splitter = new CsvRecordSplitter('"');
+
+        for (int chunkCount = 1; chunkCount <= csv.length + 1; chunkCount++) {
+            List<CsvRecordSplitter.Range> ranges = splitter.split(ByteBuffer.wrap(csv), chunkCount);
+
+            assertContiguous(ranges, csv.length);
+            for (CsvRecordSplitter.Range range : ranges) {
+                assertEquals(QUOTED_MULTI_LINE_RECORD_STARTS.get(range.start()), (Long) range.firstLine(),
+                        "range %s of chunkCount %d does not start at a record".formatted(range, chunkCount));
+            }
+        }
+    }
+
+    @Test
+    void split_chunkCountGreaterThanRecords_oneRangePerRecord() {
+        byte[] csv = QUOTED_MULTI_LINE_CSV.getBytes(UTF_8);
+
+        List<CsvRecordSplitter.Range> ranges = new CsvRecordSplitter('"').split(ByteBuffer.wrap(csv), csv.length);
+
+        assertEquals(List.of(
+                        new CsvRecordSplitter.Range(0, 5, 1),
+                        new CsvRecordSplitter.Range(5, 26, 2),
+                        new CsvRecordSplitter.Range(26, csv.length, 3)),
+                ranges);
+    }
+
+    @Test
+    void split_quotedFieldSpanningChunks_noRangeStartsInsideField() {
+        String csv = "1,\"" + "line\n".repeat(20) + "\"\n2,last\n";
+        byte[] bytes = csv.getBytes(UTF_8);
+
+        List<CsvRecordSplitter.Range> ranges = new CsvRecordSplitter('"').split(ByteBuffer.wrap(bytes), 10);
+
+        assertEquals(List.of(
+                        new CsvRecordSplitter.Range(0, csv.indexOf("2,last"), 1),
+                        new CsvRecordSplitter.Range(csv.indexOf("2,last"), bytes.length, 22)),
+                ranges);
+    }
+
+    @Test
+    void split_empty_singleEmptyRange() {
+        assertEquals(List.of(new CsvRecordSplitter.Range(0, 0, 1)),
+                new CsvRecordSplitter('"').split(ByteBuffer.allocate(0), 4));
+    }
+
+    @Test
+    void split_chunkCountZero_throwsIllegalArgumentException() {
+        var splitter = new CsvRecordSplitter('"');
+        var data = ByteBuffer.wrap(QUOTED_MULTI_LINE_CSV.getBytes(UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> splitter.split(data, 0));
+    }
+
+    /**
+     * Rationale: reading the ranges of the split separately produces the same rows as reading the entire file.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 3, 7, 16, 100 })
+    void split_readRangesSeparately_sameRowsAsEntireFile(int chunkCount) throws IOException {
+        String csv = "A,B,C\n"
+                     + "1,\"multi\r\nline, with \"\"quotes\"\"\",x\n"
+                     + "2,plain,\"\"\"\"\n"
+                     + "3,\"\n\n\",\"a\nb\"\n"
+                     + "4,\"quoted\",\"last\"\n";
+        byte[] bytes = csv.getBytes(UTF_8);
+
+        List<CsvRecordSplitter.Range> ranges = new CsvRecordSplitter('"').split(ByteBuffer.wrap(bytes), chunkCount);
+
+        assertContiguous(ranges, bytes.length);
+        assertEquals(readRows(bytes, 0, bytes.length, 1), readRanges(bytes, ranges));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 4, 10 })
+    void split_path_customersFixture(int chunkCount) throws IOException {
+        Path csvFile = tempDir.resolve("customers-10.csv");
+        copyResource("/testdata/customers-10.csv", csvFile);
+        byte[] bytes = Files.readAllBytes(csvFile);
+
+        List<CsvRecordSplitter.Range> ranges = new CsvRecordSplitter('"').split(csvFile, chunkCount);
+
+        assertContiguous(ranges, bytes.length);
+        assertTrue(ranges.size() <= chunkCount, "expected at most chunkCount ranges");
+        assertEquals(readRows(bytes, 0, bytes.length, 1), readRanges(bytes, ranges));
+    }
+
+    @Test
+    void of_rfc4180_usesConfiguredQuoteChar() {
+        String csv = "1,'a\nb'\n2,c\n";
+        var config = new CsvFile.Config(UTF_8, 0, false, CsvParserConfig.rfc4180(CharValue.of('\''), null));
+
+        CsvRecordSplitter splitter = CsvRecordSplitter.of(config).orElseThrow();
+
+        assertEquals(List.of(new CsvRecordSplitter.Range(0, 8, 1), new CsvRecordSplitter.Range(8, 12, 3)),
+                splitter.split(ByteBuffer.wrap(csv.getBytes(UTF_8)), 12));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "UTF-8", "US-ASCII", "ISO-8859-1", "windows-1252" })
+    void of_asciiCompatibleCharset_supported(String charsetName) {
+        var config = new CsvFile.Config(Charset.forName(charsetName), 0, true, CsvParserConfig.of());
+
+        assertTrue(CsvRecordSplitter.of(config).isPresent(), "expected splitter for " + charsetName);
+    }
+
+    /**
+     * Rationale: in these character sets, the bytes of a quote or line feed can occur as part of another character
+     * (UTF-16), or a byte of a multibyte character can be an ASCII byte (Shift_JIS, GB18030, Big5).
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "UTF-16", "UTF-16LE", "UTF-32", "Shift_JIS", "GB18030", "Big5" })
+    void of_asciiIncompatibleCharset_notSupported(String charsetName) {
+        var config = new CsvFile.Config(Charset.forName(charsetName), 0, true, CsvParserConfig.of());
+
+        assertTrue(CsvRecordSplitter.of(config).isEmpty(), "expected no splitter for " + charsetName);
+    }
+
+    @Test
+    void of_rfc4180DefaultConfig_supported() {
+        var config = new CsvFile.Config(UTF_8, 0, true, CsvParserConfig.rfc4180(null, null));
+
+        assertTrue(CsvRecordSplitter.of(config).isPresent(), "expected splitter for RFC 4180");
+    }
+
+    @Test
+    void of_nonAsciiQuoteChar_notSupported() {
+        var config = new CsvFile.Config(UTF_8, 0, true, CsvParserConfig.rfc4180(CharValue.of('\u00AB'), null));
+
+        assertTrue(CsvRecordSplitter.of(config).isEmpty(), "expected no splitter for a non-ASCII quote");
+    }
+
+    @Test
+    void of_nonAsciiQuoteChar_singleByteCharset_notSupported() {
+        var config = new CsvFile.Config(ISO_8859_1, 0, true, CsvParserConfig.rfc4180(CharValue.of('\u00AB'), null));
+
+        assertTrue(CsvRecordSplitter.of(config).isEmpty(),
+                "expected no splitter for a non-ASCII quote, even if it is a single byte in the character set");
+    }
+
+    @Test
+    void of_customType_notSupported() {
+        var config = new CsvFile.Config(UTF_8, 0, true,
+                CsvParserConfig.custom(null, null, null, null, null, null));
+
+        assertTrue(CsvRecordSplitter.of(config).isEmpty(), "expected no splitter for CUSTOM");
+    }
+
+    private static void assertContiguous(List<CsvRecordSplitter.Range> ranges, long size) {
+        long expectedStart = 0;
+        for (CsvRecordSplitter.Range range : ranges) {
+            assertEquals(expectedStart, range.start(), () -> "ranges not contiguous: " + ranges);
+            assertTrue(range.length() > 0 || size == 0, () -> "unexpected empty range: " + ranges);
+            expectedStart = range.end();
+        }
+        assertEquals(size, expectedStart, () -> "ranges do not cover all data: " + ranges);
+    }
+
+    private static List<Row> readRanges(byte[] bytes, List<CsvRecordSplitter.Range> ranges) {
+        var rows = new ArrayList<Row>();
+        for (CsvRecordSplitter.Range range : ranges) {
+            rows.addAll(readRows(bytes, (int) range.start(), (int) range.end(), range.firstLine()));
+        }
+        return rows;
+    }
+
+    /**
+     * Reads the rows of a range, with their line number in the entire file.
+     */
+    private static List<Row> readRows(byte[] bytes, int start, int end, long firstLine) {
+        var csvFile = new CsvFile(InputResource.of(Arrays.copyOfRange(bytes, start, end)),
+                new CsvFile.Config(UTF_8, 0, false, CsvParserConfig.of()));
+        var rows = new ArrayList<Row>();
+        ProcessingResult result = csvFile.readFile(new AbstractRowProcessor() {
+            @Override
+            public ProcessingResult onRow(Row row) {
+                rows.add(new Row(firstLine - 1 + row.line(), row.data()));
+                return ProcessingResult.continueProcessing();
+            }
+        });
+        assertInstanceOf(ProcessingResult.Done.class, result, "expected Done");
+        return rows;
+    }
+
+}
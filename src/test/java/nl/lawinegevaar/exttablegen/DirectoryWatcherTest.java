@@ -0,0 +1,89 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DirectoryWatcherTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void watch_convertsExistingAndNewFiles() throws Exception {
+        Path watchDir = Files.createDirectory(tempDir.resolve("watch"));
+        Files.writeString(watchDir.resolve("existing.csv"), "A,B\n1,2\n");
+        Files.writeString(watchDir.resolve("ignored.txt"), "not a CSV file");
+        Set<Path> converted = ConcurrentHashMap.newKeySet();
+        var done = new CountDownLatch(3);
+        WatchConfig watchConfig = WatchConfig.of(watchDir).withSettleTime(Duration.ofMillis(100)).withWorkers(2);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> watchFuture;
+            try (var watcher = DirectoryWatcher.open(watchConfig, csvFile -> {
+                try {
+                    if (csvFile.getFileName().toString().startsWith("bad")) {
+                        throw new InvalidTableException("bad file");
+                    }
+                    converted.add(csvFile.getFileName());
+                } finally {
+                    done.countDown();
+                }
+            })) {
+                watchFuture = executor.submit(() -> {
+                    watcher.watch();
+                    return null;
+                });
+                Files.writeString(watchDir.resolve("new.csv"), "A,B\n3,4\n");
+                Files.writeString(watchDir.resolve("bad.csv"), "A,B\n5,6\n");
+
+                assertTrue(done.await(10, TimeUnit.SECONDS), "expected three files to be processed");
+            }
+            watchFuture.get();
+        }
+
+        assertEquals(Set.of(Path.of("existing.csv"), Path.of("new.csv")), converted);
+        Path processed = watchConfig.processedDirectory();
+        Path failed = watchConfig.failedDirectory();
+        assertTrue(Files.exists(processed.resolve("existing.csv")), "expected existing.csv in processed");
+        assertTrue(Files.exists(processed.resolve("new.csv")), "expected new.csv in processed");
+        assertTrue(Files.exists(failed.resolve("bad.csv")), "expected bad.csv in failed");
+        assertTrue(Files.exists(watchDir.resolve("ignored.txt")), "expected ignored.txt not to be moved");
+        for (String name : List.of("existing.csv", "new.csv", "bad.csv")) {
+            assertFalse(Files.exists(watchDir.resolve(name)), "expected " + name + " to be moved");
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource(useHeadersInDisplayName = true, textBlock = """
+            TEMPLATE,         CSV_FILE,               EXPECTED
+            out/table.dat,    in/drop-1.csv,          out/drop-1.dat
+            out/table.dat,    in/drop-1.CSV.gz,       out/drop-1.dat
+            out/table.dat,    in/drop-1.zip,          out/drop-1.dat
+            out/table.dat,    in/drop.2026-10-18.csv, out/drop.2026-10-18.dat
+            out/table,        in/drop-1.csv,          out/drop-1
+            rejects/bad.csv,  in/drop-1.csv,          rejects/drop-1.csv
+            """)
+    void derivePath(String template, String csvFile, String expected) {
+        assertEquals(Path.of(expected), DirectoryWatcher.derivePath(Path.of(template), Path.of(csvFile)));
+    }
+
+}
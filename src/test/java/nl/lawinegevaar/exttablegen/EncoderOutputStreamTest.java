@@ -1,20 +1,30 @@
-// SPDX-FileCopyrightText: Copyright 2023 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.HexFormat;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class EncoderOutputStreamTest {
 
+    @TempDir
+    private Path tempDir;
+
     @ParameterizedTest
     @CsvSource(useHeadersInDisplayName = true, textBlock =
             """
@@ -258,4 +268,41 @@ class EncoderOutputStreamTest {
         assertEquals(expectedResult, HexFormat.of().formatHex(baos.toByteArray()));
     }
 
-}
\ No newline at end of file
+    /**
+     * Rationale: values are encoded directly into the direct buffers of a {@link DirectBufferSink}, including when a
+     * value does not fit in the remainder of a buffer.
+     */
+    @ParameterizedTest
+    @EnumSource(ByteOrderType.class)
+    void testDirectBufferSink_sameOutputAsOutputStream(ByteOrderType byteOrderType) throws Exception {
+        var baos = new ByteArrayOutputStream();
+        try (var encoder = EncoderOutputStream.of(byteOrderType).withColumnCount(3).writeTo(baos)) {
+            writeMixedValues(encoder);
+        }
+        Path file = tempDir.resolve("direct.dat");
+        // Buffers of 12 bytes don't fit all values at the end of the buffer
+        try (var encoder = EncoderOutputStream.of(byteOrderType).withColumnCount(3).writeTo(
+                new GatheringChannelOutputStream(
+                        FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), 12, 2))) {
+            writeMixedValues(encoder);
+        }
+
+        assertEquals(HexFormat.of().formatHex(baos.toByteArray()), HexFormat.of().formatHex(Files.readAllBytes(file)));
+    }
+
+    private static void writeMixedValues(EncoderOutputStream encoder) throws IOException {
+        for (int row = 0; row < 10; row++) {
+            encoder.startRow();
+            encoder.write('a' + row);
+            encoder.align(2);
+            encoder.writeShort((short) (0x0102 * row));
+            encoder.align(4);
+            encoder.writeInt(0x01020304 * row);
+            encoder.writeFloat(1.5f * row);
+            encoder.align(8);
+            encoder.writeLong(0x0102030405060708L * row);
+            encoder.writeDouble(2.5 * row);
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ErrorBudgetTest {
+
+    @Test
+    void parse_count() {
+        assertEquals(new ErrorBudget.Count(100), ErrorBudget.parse("100"));
+    }
+
+    @Test
+    void parse_percentage() {
+        assertEquals(new ErrorBudget.Percentage(0.5), ErrorBudget.parse(" 0.5% "));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "abc", "%", "-1", "101%", "-0.5%", "1.5" })
+    void parse_invalid_throwsIllegalArgumentException(String value) {
+        assertThrows(IllegalArgumentException.class, () -> ErrorBudget.parse(value));
+    }
+
+    @Test
+    void none_allowsNoErrors() {
+        ErrorBudget none = ErrorBudget.none();
+        assertFalse(none.allowsErrors(), "allowsErrors");
+        assertFalse(none.isExceededWhileReading(0, 1), "0 errors");
+        assertTrue(none.isExceededWhileReading(1, 1), "1 error");
+    }
+
+    @Test
+    void count_isExceeded() {
+        var count = new ErrorBudget.Count(2);
+        assertTrue(count.allowsErrors(), "allowsErrors");
+        assertFalse(count.isExceededWhileReading(2, 2), "2 errors while reading");
+        assertTrue(count.isExceededWhileReading(3, 1000), "3 errors while reading");
+        assertFalse(count.isExceeded(2, 2), "2 errors of 2 rows");
+        assertTrue(count.isExceeded(3, 1000), "3 errors of 1000 rows");
+    }
+
+    @Test
+    void percentage_isExceeded() {
+        var percentage = new ErrorBudget.Percentage(1);
+        assertTrue(percentage.allowsErrors(), "allowsErrors");
+        assertFalse(percentage.isExceeded(0, 0), "0 errors of 0 rows");
+        assertFalse(percentage.isExceeded(10, 1000), "10 errors of 1000 rows");
+        assertTrue(percentage.isExceeded(11, 1000), "11 errors of 1000 rows");
+    }
+
+    @Test
+    void percentage_isExceededWhileReading_afterMinimumRows() {
+        var percentage = new ErrorBudget.Percentage(1);
+        long minRows = ErrorBudget.Percentage.MIN_ROWS_WHILE_READING;
+        assertFalse(percentage.isExceededWhileReading(10, 10), "10 errors of 10 rows");
+        assertFalse(percentage.isExceededWhileReading(minRows / 2, minRows - 1),
+                "%d errors of %d rows".formatted(minRows / 2, minRows - 1));
+        assertFalse(percentage.isExceededWhileReading(minRows / 100, minRows),
+                "%d errors of %d rows".formatted(minRows / 100, minRows));
+        assertTrue(percentage.isExceededWhileReading(minRows / 100 + 1, minRows),
+                "%d errors of %d rows".formatted(minRows / 100 + 1, minRows));
+    }
+
+    @Test
+    void zeroPercentage_isExceededWhileReading() {
+        var percentage = new ErrorBudget.Percentage(0);
+        assertFalse(percentage.allowsErrors(), "allowsErrors");
+        assertTrue(percentage.isExceededWhileReading(1, 1), "1 error while reading");
+    }
+
+}
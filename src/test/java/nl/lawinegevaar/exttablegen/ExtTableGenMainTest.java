@@ -480,6 +480,25 @@ class ExtTableGenMainTest {
         assertFalse(Files.exists(tableFilePath), "Expected external table file to not exist");
     }
 
+    @ParameterizedTest
+    @CsvSource(useHeadersInDisplayName = true, textBlock =
+            """
+            firstOption,                  secondOption
+            --verify,                     --dump-table=dump.csv
+            --compile-config=config.etgc, --verify
+            --serve=etg.sock,             --jobs=jobs.txt
+            --watch=watched,              --compile-config=config.etgc
+            """)
+    void modeOptions_areMutuallyExclusive(String firstOption, String secondOption) {
+        assertEquals(CommandLine.ExitCode.USAGE,
+                ExtTableGenMain.parseAndExecute(
+                        "--csv-file", csvFilePath.toString(),
+                        "--table-file", tableFilePath.toString(),
+                        firstOption, secondOption));
+
+        assertFalse(Files.exists(tableFilePath), "Expected no external table file");
+    }
+
     @Test
     void mergeConfig_noOptionsSpecified() {
         var main = new ExtTableGenMain();
@@ -0,0 +1,118 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import nl.lawinegevaar.exttablegen.type.FbBigint;
+import nl.lawinegevaar.exttablegen.type.FbDate;
+import nl.lawinegevaar.exttablegen.type.FbDoublePrecision;
+import nl.lawinegevaar.exttablegen.type.FbInt128;
+import nl.lawinegevaar.exttablegen.type.FbInteger;
+import nl.lawinegevaar.exttablegen.type.FbNumeric;
+import nl.lawinegevaar.exttablegen.type.FbSmallint;
+import nl.lawinegevaar.exttablegen.type.FbTime;
+import nl.lawinegevaar.exttablegen.type.FbTimestamp;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static nl.lawinegevaar.exttablegen.ColumnFixtures.col;
+import static nl.lawinegevaar.exttablegen.ColumnFixtures.varchar;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExternalTableReaderTest {
+
+    private static final List<Column> ALL_TYPES_COLUMNS = List.of(
+            col("CHAR_COL", 5),
+            new Column("SMALLINT_COL", new FbSmallint()),
+            varchar("VARCHAR_COL", 6),
+            new Column("INTEGER_COL", new FbInteger()),
+            new Column("BIGINT_COL", new FbBigint()),
+            new Column("INT128_COL", new FbInt128()),
+            new Column("NUMERIC_COL", new FbNumeric(9, 2, null)),
+            new Column("DATE_COL", new FbDate()),
+            new Column("TIME_COL", new FbTime()),
+            new Column("TIMESTAMP_COL", new FbTimestamp()),
+            new Column("DOUBLE_COL", new FbDoublePrecision()),
+            EndColumn.require(EndColumn.Type.LF));
+
+    @TempDir
+    private Path tempDir;
+
+    @ParameterizedTest
+    @EnumSource(value = ByteOrderType.class, names = { "BIG_ENDIAN", "LITTLE_ENDIAN" })
+    void rows_roundTripsAllTypes(ByteOrderType byteOrder) throws IOException {
+        Path tableFile = tempDir.resolve("table.dat");
+        var externalTable = new ExternalTable("TEST", ALL_TYPES_COLUMNS, OutputResource.of(tableFile), byteOrder);
+        try (var writer = new ExternalTableWriter(externalTable)) {
+            writer.onHeader(Row.noHeader());
+            writer.onRow(new Row(1, List.of("AB", "-3", "abc", "-5", "9223372036854775807",
+                    "-170141183460469231731687303715884105728", "12.3", "2023-05-21", "13:45:12.5",
+                    "2023-05-21T13:45:12.5", "1.5")));
+            writer.onRow(new Row(2, List.of()));
+        }
+
+        try (var reader = new ExternalTableReader(externalTable, tableFile);
+             Stream<Row> rows = reader.rows()) {
+            assertEquals(2, reader.rowCount(), "rowCount");
+            assertEquals(List.of(
+                            new Row(1, List.of("AB", "-3", "abc", "-5", "9223372036854775807",
+                                    "-170141183460469231731687303715884105728", "12.30", "2023-05-21",
+                                    "13:45:12.500", "2023-05-21T13:45:12.500", "1.5")),
+                            new Row(2, List.of("", "0", "", "0", "0", "0", "0.00", "1858-11-17", "00:00",
+                                    "1858-11-17T00:00", "0.0"))),
+                    rows.toList());
+        }
+    }
+
+    @Test
+    void rows_emptyFile() throws IOException {
+        Path tableFile = tempDir.resolve("table.dat");
+        Files.createFile(tableFile);
+        var externalTable = new ExternalTable("TEST", List.of(col("COL1", 2)), null, ByteOrderType.AUTO);
+
+        try (var reader = new ExternalTableReader(externalTable, tableFile);
+             Stream<Row> rows = reader.rows()) {
+            assertEquals(List.of(), rows.toList());
+        }
+    }
+
+    @Test
+    void lengthNotMultipleOfRowLength_throwsIOException() throws IOException {
+        Path tableFile = tempDir.resolve("table.dat");
+        Files.writeString(tableFile, "1 R1 2 R", US_ASCII);
+        var externalTable = new ExternalTable("TEST", List.of(col("COL1", 2), col("COL2", 3)), null,
+                ByteOrderType.AUTO);
+
+        var exception = assertThrows(IOException.class, () -> new ExternalTableReader(externalTable, tableFile));
+
+        assertEquals("Cannot read external table file '%s': its length (8) is not a multiple of the row length (5)"
+                .formatted(tableFile), exception.getMessage());
+    }
+
+    @Test
+    void extTableGen_dumpExternalTable() throws IOException {
+        Path tableFile = tempDir.resolve("table.dat");
+        Files.writeString(tableFile, "1 R1 \n2 R,2\n", US_ASCII);
+        var externalTable = new ExternalTable("TEST",
+                List.of(col("COL1", 2), col("COL2", 3), EndColumn.require(EndColumn.Type.LF)), null,
+                ByteOrderType.AUTO);
+        var etgConfig = new EtgConfig(TableConfig.of(externalTable).withTableFile(new TableFile(tableFile, false)),
+                new TableDerivationConfig(null, null, TableDerivationMode.NEVER), (CsvFileConfig) null);
+        Path csvFile = tempDir.resolve("dump.csv");
+
+        ExtTableGen.of(etgConfig).dumpExternalTable(OutputResource.of(csvFile));
+
+        assertEquals("COL1,COL2\n1,R1\n2,\"R,2\"\n", Files.readString(csvFile, UTF_8));
+    }
+
+}
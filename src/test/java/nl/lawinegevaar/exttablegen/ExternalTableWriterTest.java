@@ -1,4 +1,4 @@
-// SPDX-FileCopyrightText: 2023 Mark Rotteveel
+// SPDX-FileCopyrightText: 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen;
 
@@ -12,9 +12,11 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import static nl.lawinegevaar.exttablegen.ColumnFixtures.col;
+import static nl.lawinegevaar.exttablegen.ColumnFixtures.integer;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -57,6 +59,123 @@ class ExternalTableWriterTest {
         }
     }
 
+    @Test
+    void writeTable_gatheringWrites() throws Exception {
+        // Small buffers, so rows are split over buffers, and multiple gathering writes are needed
+        var writeConfig = WriteConfig.defaults().withGatheringWrites(true).withBuffers(5, 2);
+        try (ExternalTableWriter writer = createExternalTableWriter(externalFilePath, false, writeConfig)) {
+            assertInstanceOf(ProcessingResult.Continue.class, writer.onHeader(Row.noHeader()));
+
+            assertInstanceOf(ProcessingResult.Continue.class, writer.onRow(new Row(1, List.of("A", "ABCDE"))));
+            assertInstanceOf(ProcessingResult.Continue.class, writer.onRow(new Row(2, List.of("", ""))));
+            writer.flush();
+            assertEquals(16, Files.size(externalFilePath), "expected flushed rows to be written");
+            assertInstanceOf(ProcessingResult.Continue.class, writer.onRow(new Row(3, List.of("AB", "ABCDEF"))));
+
+            assertInstanceOf(ProcessingResult.Stop.class, writer.onComplete());
+
+            String fileContent = Files.readString(externalFilePath, StandardCharsets.US_ASCII);
+
+            assertEquals("""
+                            AABCDE\r
+                                  \r
+                            AABCDE\r
+                            """,
+                    fileContent);
+        }
+    }
+
+    @Test
+    void writeTable_mappedWrites() throws Exception {
+        var writeConfig = WriteConfig.defaults().withMappedWrites(true);
+        try (ExternalTableWriter writer = createExternalTableWriter(externalFilePath, false, writeConfig)) {
+            assertInstanceOf(ProcessingResult.Continue.class, writer.onHeader(Row.noHeader()));
+
+            assertInstanceOf(ProcessingResult.Continue.class, writer.onRow(new Row(1, List.of("A", "ABCDE"))));
+            assertInstanceOf(ProcessingResult.Continue.class, writer.onRow(new Row(2, List.of("", ""))));
+            assertInstanceOf(ProcessingResult.Continue.class, writer.onRow(new Row(3, List.of("AB", "ABCDEF"))));
+
+            assertInstanceOf(ProcessingResult.Stop.class, writer.onComplete());
+
+            // Mapping extends the file, which is truncated to the written rows on completion
+            String fileContent = Files.readString(externalFilePath, StandardCharsets.US_ASCII);
+
+            assertEquals("""
+                            AABCDE\r
+                                  \r
+                            AABCDE\r
+                            """,
+                    fileContent);
+        }
+    }
+
+    @Test
+    void writeTable_withRowRejector_skipsRejectedRow() throws Exception {
+        var rejected = new ArrayList<Row>();
+        var outputResource = OutputResource.of(externalFilePath, false);
+        var externalTable = new ExternalTable(
+                "TEST_WRITE",
+                List.of(col("COLUMN_1", 2, FbEncoding.ASCII),
+                        integer("COLUMN_2", null),
+                        EndColumn.require(EndColumn.Type.LF)),
+                outputResource, ByteOrderType.BIG_ENDIAN);
+        RowRejector rowRejector = (row, reason) -> {
+            assertInstanceOf(NumberFormatException.class, reason);
+            rejected.add(row);
+            return ProcessingResult.continueProcessing();
+        };
+        try (var writer = new ExternalTableWriter(externalTable, WriteConfig.defaults(), rowRejector)) {
+            assertInstanceOf(ProcessingResult.Continue.class, writer.onHeader(Row.noHeader()));
+
+            assertInstanceOf(ProcessingResult.Continue.class, writer.onRow(new Row(1, List.of("AB", "1"))));
+            // COLUMN_1 is encoded before COLUMN_2 fails, it must not end up in the file
+            assertInstanceOf(ProcessingResult.Continue.class, writer.onRow(new Row(2, List.of("CD", "X"))));
+            assertInstanceOf(ProcessingResult.Continue.class, writer.onRow(new Row(3, List.of("EF", "3"))));
+
+            assertInstanceOf(ProcessingResult.Stop.class, writer.onComplete());
+            assertEquals(2, writer.rowsWritten(), "rowsWritten");
+        }
+
+        assertEquals(List.of(new Row(2, List.of("CD", "X"))), rejected, "rejected");
+        assertEquals(2 * externalTable.rowLength(), Files.size(externalFilePath), "file size");
+        byte[] content = Files.readAllBytes(externalFilePath);
+        assertEquals("AB", new String(content, 0, 2, StandardCharsets.US_ASCII));
+        assertEquals("EF", new String(content, externalTable.rowLength(), 2, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void writeTable_withRowRejector_bufferSmallerThanRows_skipsRejectedRows() throws Exception {
+        var outputResource = OutputResource.of(externalFilePath, false);
+        var externalTable = new ExternalTable(
+                "TEST_WRITE",
+                List.of(col("COLUMN_1", 2, FbEncoding.ASCII),
+                        integer("COLUMN_2", null),
+                        EndColumn.require(EndColumn.Type.LF)),
+                outputResource, ByteOrderType.BIG_ENDIAN);
+        RowRejector rowRejector = (row, reason) -> ProcessingResult.continueProcessing();
+        // the buffer is increased to fit one row, so each row is written separately
+        var writeConfig = WriteConfig.defaults().withBuffers(1, 1);
+        try (var writer = new ExternalTableWriter(externalTable, writeConfig, rowRejector)) {
+            writer.onHeader(Row.noHeader());
+            for (int rowIdx = 1; rowIdx <= 10; rowIdx++) {
+                // every third row is rejected
+                String value = rowIdx % 3 == 0 ? "X" : String.valueOf(rowIdx);
+                assertInstanceOf(ProcessingResult.Continue.class,
+                        writer.onRow(new Row(rowIdx, List.of("R" + (rowIdx % 10), value))));
+            }
+            writer.onComplete();
+            assertEquals(7, writer.rowsWritten(), "rowsWritten");
+        }
+
+        byte[] content = Files.readAllBytes(externalFilePath);
+        assertEquals(7 * externalTable.rowLength(), content.length, "file size");
+        var firstColumnValues = new ArrayList<String>();
+        for (int offset = 0; offset < content.length; offset += externalTable.rowLength()) {
+            firstColumnValues.add(new String(content, offset, 2, StandardCharsets.US_ASCII));
+        }
+        assertEquals(List.of("R1", "R2", "R4", "R5", "R7", "R8", "R0"), firstColumnValues);
+    }
+
     @Test
     void multipleCallsToOnHeader_throwsIllegalStateException() throws Exception {
         try (ExternalTableWriter writer = createExternalTableWriter(externalFilePath, true)) {
@@ -103,6 +222,11 @@ class ExternalTableWriterTest {
     }
 
     private static ExternalTableWriter createExternalTableWriter(Path externalFilePath, boolean allowOverWrite) {
+        return createExternalTableWriter(externalFilePath, allowOverWrite, WriteConfig.defaults());
+    }
+
+    private static ExternalTableWriter createExternalTableWriter(Path externalFilePath, boolean allowOverWrite,
+            WriteConfig writeConfig) {
         var outputResource = OutputResource.of(externalFilePath, allowOverWrite);
         var externalTable = new ExternalTable(
                 "TEST_WRITE",
@@ -110,7 +234,7 @@ class ExternalTableWriterTest {
                         col("COLUMN_2", 5, FbEncoding.forName("WIN1252")),
                         EndColumn.require(EndColumn.Type.CRLF)),
                 outputResource, ByteOrderType.AUTO);
-        return new ExternalTableWriter(externalTable);
+        return new ExternalTableWriter(externalTable, writeConfig);
     }
 
 }
\ No newline at end of file
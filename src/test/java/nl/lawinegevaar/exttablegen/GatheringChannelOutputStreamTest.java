@@ -0,0 +1,82 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GatheringChannelOutputStreamTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void write_buffersUntilAllBuffersFull() throws IOException {
+        Path file = tempDir.resolve("out.dat");
+        try (var out = new GatheringChannelOutputStream(
+                FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), 4, 3)) {
+            out.write("ABCDEFGHIJK".getBytes(US_ASCII));
+            assertEquals(0, Files.size(file), "expected data to be buffered");
+
+            out.write('L');
+            out.write('M');
+            assertEquals(12, Files.size(file), "expected full buffers to be written");
+
+            out.flush();
+            assertEquals("ABCDEFGHIJKLM", Files.readString(file, US_ASCII));
+
+            out.write("NOPQRSTUVWXYZ".getBytes(US_ASCII), 0, 13);
+        }
+        assertEquals("ABCDEFGHIJKLMNOPQRSTUVWXYZ", Files.readString(file, US_ASCII));
+    }
+
+    @Test
+    void reserve_skipsRemainderOfBufferTooSmallForValue() throws IOException {
+        Path file = tempDir.resolve("out.dat");
+        try (var out = new GatheringChannelOutputStream(
+                FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), 4, 2)) {
+            out.write("AB".getBytes(US_ASCII));
+            out.reserve(4).put("CDEF".getBytes(US_ASCII));
+            assertEquals(0, Files.size(file), "expected data to be buffered");
+
+            out.reserve(2).put("GH".getBytes(US_ASCII));
+            assertEquals(6, Files.size(file), "expected full buffers to be written");
+
+            out.write('I');
+        }
+        assertEquals("ABCDEFGHI", Files.readString(file, US_ASCII));
+    }
+
+    @Test
+    void reserve_moreThanBufferSize_throwsIllegalArgumentException() throws IOException {
+        try (var out = new GatheringChannelOutputStream(FileChannel.open(tempDir.resolve("out.dat"),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), 4, 2)) {
+            assertEquals(4, out.maxReserveSize());
+            assertThrows(IllegalArgumentException.class, () -> out.reserve(5));
+        }
+    }
+
+    @Test
+    void close_closesChannel() throws IOException {
+        FileChannel channel = FileChannel.open(tempDir.resolve("out.dat"), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        var out = new GatheringChannelOutputStream(channel, 4, 1);
+
+        out.close();
+
+        assertFalse(channel.isOpen(), "expected channel to be closed");
+        assertThrows(IOException.class, () -> out.write('A'));
+    }
+
+}
@@ -0,0 +1,186 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InputCompressionTest {
+
+    private static final String CSV_DATA = """
+            "Column1","Column2"
+            "A","B"
+            "C","D"
+            """;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void gzip_decompressesData() throws IOException {
+        InputResource inputResource = InputResource.gzip(InputResource.of(gzip(CSV_DATA)));
+
+        assertEquals(CSV_DATA, readAll(inputResource));
+    }
+
+    @Test
+    void gzip_multiMember_decompressesAllMembers() throws IOException {
+        var out = new ByteArrayOutputStream();
+        out.write(gzip("\"Column1\",\"Column2\"\n"));
+        out.write(gzip("\"A\",\"B\"\n"));
+        out.write(gzip("\"C\",\"D\"\n"));
+
+        InputResource inputResource = InputResource.gzip(InputResource.of(out.toByteArray()));
+
+        assertEquals(CSV_DATA, readAll(inputResource));
+    }
+
+    @Test
+    void zip_decompressesFirstFileEntry() throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var zipOut = new ZipOutputStream(out)) {
+            zipOut.putNextEntry(new ZipEntry("directory/"));
+            zipOut.closeEntry();
+            zipOut.putNextEntry(new ZipEntry("directory/data.csv"));
+            zipOut.write(CSV_DATA.getBytes(UTF_8));
+            zipOut.closeEntry();
+            zipOut.putNextEntry(new ZipEntry("other.csv"));
+            zipOut.write("\"X\"\n".getBytes(UTF_8));
+            zipOut.closeEntry();
+        }
+
+        InputResource inputResource = InputResource.zip(InputResource.of(out.toByteArray()));
+
+        assertEquals(CSV_DATA, readAll(inputResource));
+    }
+
+    @Test
+    void zip_noFileEntry_throwsZipException() throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var zipOut = new ZipOutputStream(out)) {
+            zipOut.putNextEntry(new ZipEntry("directory/"));
+            zipOut.closeEntry();
+        }
+
+        InputResource inputResource = InputResource.zip(InputResource.of(out.toByteArray()));
+
+        assertThrows(ZipException.class, inputResource::newInputStream);
+    }
+
+    @ParameterizedTest
+    @CsvSource(useHeadersInDisplayName = true, textBlock = """
+            fileName,        expectedCompression
+            data.csv,        NONE
+            data.csv.gz,     GZIP
+            data.CSV.GZ,     GZIP
+            data.csv.gzip,   GZIP
+            data.zip,        ZIP
+            data.csv.bz2,    NONE
+            """)
+    void fromFileName(String fileName, InputCompression expectedCompression) {
+        assertEquals(expectedCompression, InputCompression.fromFileName(Path.of(fileName)));
+    }
+
+    @Test
+    void detect_nonExistentFile_usesFileExtension() {
+        assertEquals(InputCompression.GZIP, InputCompression.detect(tempDir.resolve("does-not-exist.csv.gz")));
+    }
+
+    @Test
+    void detect_gzipData_withoutGzipExtension() throws IOException {
+        Path file = tempDir.resolve("data.csv");
+        Files.write(file, gzip(CSV_DATA));
+
+        assertEquals(InputCompression.GZIP, InputCompression.detect(file));
+    }
+
+    @Test
+    void detect_plainData_withGzipExtension() throws IOException {
+        Path file = tempDir.resolve("data.csv.gz");
+        Files.writeString(file, CSV_DATA);
+
+        assertEquals(InputCompression.NONE, InputCompression.detect(file));
+    }
+
+    @Test
+    void detect_zipData() throws IOException {
+        Path file = tempDir.resolve("data.bin");
+        try (var zipOut = new ZipOutputStream(Files.newOutputStream(file))) {
+            zipOut.putNextEntry(new ZipEntry("data.csv"));
+            zipOut.write(CSV_DATA.getBytes(UTF_8));
+            zipOut.closeEntry();
+        }
+
+        assertEquals(InputCompression.ZIP, InputCompression.detect(file));
+    }
+
+    @Test
+    void none_decompress_returnsSameInstance() {
+        InputResource inputResource = InputResource.of(CSV_DATA, UTF_8);
+
+        assertSame(inputResource, InputCompression.NONE.decompress(inputResource));
+    }
+
+    @Test
+    void csvFileConfig_gzipFile_readsDecompressedRows() throws IOException {
+        Path file = tempDir.resolve("data.csv.gz");
+        Files.write(file, gzip(CSV_DATA));
+        var csvFile = new CsvFileConfig(file, UTF_8, true, CsvParserConfig.of()).toCsvFile();
+
+        var rows = new ArrayList<Row>();
+        ProcessingResult result = csvFile.readFile(new AbstractRowProcessor() {
+            @Override
+            public ProcessingResult onRow(Row row) {
+                rows.add(row);
+                return ProcessingResult.continueProcessing();
+            }
+        });
+
+        assertInstanceOf(ProcessingResult.Done.class, result, "expected Done signal");
+        assertEquals(List.of(new Row(2, List.of("A", "B")), new Row(3, List.of("C", "D"))), rows);
+    }
+
+    private static byte[] gzip(String value) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(value.getBytes(UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static String readAll(InputResource inputResource) throws IOException {
+        String fromStream;
+        try (InputStream in = inputResource.newInputStream()) {
+            fromStream = new String(in.readAllBytes(), UTF_8);
+        }
+        var fromReader = new StringWriter();
+        try (Reader reader = inputResource.newReader(UTF_8)) {
+            reader.transferTo(fromReader);
+        }
+        assertEquals(fromStream, fromReader.toString(), "newInputStream and newReader should produce same data");
+        return fromStream;
+    }
+
+}
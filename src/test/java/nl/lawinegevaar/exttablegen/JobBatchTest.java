@@ -0,0 +1,113 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static nl.lawinegevaar.exttablegen.ResourceHelper.copyResource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobBatchTest {
+
+    private static final Path BASE_DIRECTORY = Path.of("manifests").toAbsolutePath();
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void parseLine_configFileWithArguments() {
+        assertEquals(
+                List.of("--config-in=" + BASE_DIRECTORY.resolve("persons.xml"), "--table-file=persons 1.dat",
+                        "--overwrite-table-file"),
+                JobBatch.parseLine("persons.xml  --table-file=\"persons 1.dat\" --overwrite-table-file",
+                        BASE_DIRECTORY));
+    }
+
+    @Test
+    void parseLine_onlyArguments() {
+        assertEquals(List.of("--csv-file=persons.csv", "--table-file=persons.dat"),
+                JobBatch.parseLine("--csv-file=persons.csv --table-file=persons.dat", BASE_DIRECTORY));
+    }
+
+    @Test
+    void parseLine_unterminatedQuote_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> JobBatch.parseLine("--table-file=\"persons.dat", BASE_DIRECTORY));
+    }
+
+    @Test
+    void readManifest_skipsEmptyLinesAndComments() throws Exception {
+        Path manifestFile = tempDir.resolve("jobs.txt");
+        Files.writeString(manifestFile, """
+                # nightly jobs
+                persons.xml
+
+                --csv-file=orders.csv --table-file=orders.dat
+                """);
+
+        List<JobBatch.Job> jobs = JobBatch.readManifest(manifestFile).jobs();
+
+        assertEquals(List.of(
+                        new JobBatch.Job(2, List.of("--config-in=" + tempDir.toAbsolutePath().resolve("persons.xml"))),
+                        new JobBatch.Job(4, List.of("--csv-file=orders.csv", "--table-file=orders.dat"))),
+                jobs);
+    }
+
+    @Test
+    void withMemoryBudget_addsBudgetToJobsWithoutBudget() throws Exception {
+        Path manifestFile = tempDir.resolve("jobs.txt");
+        Files.writeString(manifestFile, """
+                --csv-file=persons.csv
+                --csv-file=orders.csv --memory-budget=64m
+                """);
+
+        List<JobBatch.Job> jobs = JobBatch.readManifest(manifestFile)
+                .withMemoryBudget(MemoryBudget.parse("16m"))
+                .jobs();
+
+        assertEquals(List.of(
+                        new JobBatch.Job(1, List.of("--csv-file=persons.csv", "--memory-budget=16777216")),
+                        new JobBatch.Job(2, List.of("--csv-file=orders.csv", "--memory-budget=64m"))),
+                jobs);
+    }
+
+    @Test
+    void run_reportsResultOfEachJob() throws Exception {
+        Path csvFile = tempDir.resolve("customers.csv");
+        copyResource("/testdata/customers-10.csv", csvFile);
+        Path manifestFile = tempDir.resolve("jobs.txt");
+        Files.writeString(manifestFile, """
+                --csv-file="%1$s" --table-file="%2$s"
+                --csv-file="%3$s" --table-file="%4$s"
+                --csv-file="%1$s" --table-file="%5$s"
+                """.formatted(csvFile, tempDir.resolve("output-1.dat"), tempDir.resolve("does-not-exist.csv"),
+                tempDir.resolve("output-2.dat"), tempDir.resolve("output-3.dat")));
+
+        JobBatch.BatchResult batchResult = JobBatch.readManifest(manifestFile).run(new ConfigMapper(), 2);
+
+        List<JobBatch.JobResult> jobResults = batchResult.jobResults();
+        assertEquals(3, jobResults.size());
+        assertTrue(jobResults.get(0).succeeded(), "expected job on line 1 to succeed");
+        assertFalse(jobResults.get(1).succeeded(), "expected job on line 2 to fail");
+        assertTrue(jobResults.get(2).succeeded(), "expected job on line 3 to succeed");
+        assertEquals(1, batchResult.failedCount());
+        assertTrue(Files.size(tempDir.resolve("output-1.dat")) > 0, "expected table file of job 1");
+        assertTrue(Files.size(tempDir.resolve("output-3.dat")) > 0, "expected table file of job 3");
+
+        var report = new StringWriter();
+        batchResult.printReport(new PrintWriter(report));
+        assertTrue(report.toString().contains("Completed 3 job(s)"), "expected totals in report");
+        assertTrue(report.toString().contains("2 succeeded, 1 failed"), "expected totals in report");
+    }
+
+}
@@ -0,0 +1,188 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static nl.lawinegevaar.exttablegen.ResourceHelper.copyResource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobServerTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final ExecutorService serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private JobServer jobServer;
+    private Future<?> serverFuture;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        jobServer = JobServer.open(tempDir.resolve("etg.sock"), new ConfigMapper());
+        serverFuture = serverExecutor.submit(() -> {
+            jobServer.serve();
+            return null;
+        });
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        jobServer.close();
+        serverExecutor.close();
+        serverFuture.get();
+        assertFalse(Files.exists(jobServer.socketPath()), "expected socket to be removed");
+    }
+
+    @Test
+    void concurrentJobs_convertCsvFiles() throws Exception {
+        int jobCount = 4;
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var replies = new ArrayList<Future<List<String>>>();
+            for (int idx = 0; idx < jobCount; idx++) {
+                Path csvFile = tempDir.resolve("input-" + idx + ".csv");
+                Path tableFile = tempDir.resolve("output-" + idx + ".dat");
+                copyResource("/testdata/customers-10.csv", csvFile);
+                replies.add(executor.submit(() -> submitJob(
+                        "--csv-file=" + csvFile, "--table-file=" + tableFile)));
+            }
+            for (int idx = 0; idx < jobCount; idx++) {
+                assertEquals(JobServer.EXIT_CODE_PREFIX + 0, lastLine(replies.get(idx)), "exit code of job " + idx);
+                assertTrue(Files.size(tempDir.resolve("output-" + idx + ".dat")) > 0, "expected table file " + idx);
+            }
+        }
+    }
+
+    @Test
+    void failingJob_reportsExitCode() throws Exception {
+        Path csvFile = tempDir.resolve("does-not-exist.csv");
+        Path tableFile = tempDir.resolve("output.dat");
+
+        List<String> reply = submitJob("--csv-file=" + csvFile, "--table-file=" + tableFile);
+
+        assertNotEquals(JobServer.EXIT_CODE_PREFIX + 0, reply.getLast());
+        assertTrue(reply.getLast().startsWith(JobServer.EXIT_CODE_PREFIX), "expected exit code as last line");
+        assertTrue(reply.size() > 1, "expected error message before exit code");
+    }
+
+    @Test
+    void jobWithServe_isRejected() throws Exception {
+        List<String> reply = submitJob("--serve=" + tempDir.resolve("nested.sock"));
+
+        assertNotEquals(JobServer.EXIT_CODE_PREFIX + 0, reply.getLast());
+        assertFalse(Files.exists(tempDir.resolve("nested.sock")), "expected no nested server");
+    }
+
+    @Test
+    void jobWithRelativePath_isRejected() throws Exception {
+        Path csvFile = tempDir.resolve("input.csv");
+        copyResource("/testdata/customers-10.csv", csvFile);
+
+        List<String> reply = submitJob("--csv-file=" + csvFile, "--table-file=output.dat");
+
+        assertEquals(JobServer.EXIT_CODE_PREFIX + JobServer.REJECTED_EXIT_CODE, reply.getLast());
+        assertTrue(reply.contains("--table-file must be an absolute path in a job of the job server, was: output.dat"),
+                "expected relative path message, was: " + reply);
+        assertFalse(Files.exists(Path.of("output.dat")), "expected no table file in working directory of server");
+    }
+
+    @Test
+    void jobWithRelativePathInConfigFile_isRejected() throws Exception {
+        Path configFile = tempDir.resolve("config.xml");
+        copyResource("/testdata/happypath-config.xml", configFile);
+
+        List<String> reply = submitJob("--config-in=" + configFile);
+
+        assertEquals(JobServer.EXIT_CODE_PREFIX + JobServer.REJECTED_EXIT_CODE, reply.getLast());
+        assertTrue(reply.contains("CSV file must be an absolute path in a job of the job server, was: input.csv"),
+                "expected relative path message, was: " + reply);
+    }
+
+    @Test
+    void socket_onlyAccessibleToOwner() throws Exception {
+        assertEquals("rw-------",
+                PosixFilePermissions.toString(Files.getPosixFilePermissions(jobServer.socketPath())));
+    }
+
+    @Test
+    void jobWithTooLongArgument_isRejected() throws Exception {
+        List<String> reply = submitJob("--csv-file=" + "x".repeat(JobServer.MAX_ARGUMENT_LENGTH));
+
+        assertEquals(List.of(
+                        "Job rejected: argument 1 is longer than %d characters".formatted(JobServer.MAX_ARGUMENT_LENGTH),
+                        JobServer.EXIT_CODE_PREFIX + JobServer.REJECTED_EXIT_CODE),
+                reply);
+    }
+
+    @Test
+    void jobWithTooManyArguments_isRejected() throws Exception {
+        var args = new String[JobServer.MAX_ARGUMENT_COUNT + 1];
+        Arrays.fill(args, "--quiet");
+
+        List<String> reply = submitJob(args);
+
+        assertEquals(List.of(
+                        "Job rejected: more than %d arguments".formatted(JobServer.MAX_ARGUMENT_COUNT),
+                        JobServer.EXIT_CODE_PREFIX + JobServer.REJECTED_EXIT_CODE),
+                reply);
+    }
+
+    @Test
+    void jobWithMaximumArgumentLength_isAccepted() throws Exception {
+        Path csvFile = tempDir.resolve("does-not-exist.csv");
+        String longArgument = "--table-file=" + tempDir.resolve("x".repeat(
+                JobServer.MAX_ARGUMENT_LENGTH - "--table-file=".length() - tempDir.toString().length() - 1));
+
+        List<String> reply = submitJob("--csv-file=" + csvFile, longArgument);
+
+        assertTrue(reply.getLast().startsWith(JobServer.EXIT_CODE_PREFIX), "expected exit code as last line");
+        assertFalse(reply.getFirst().startsWith("Job rejected"), "expected job to run");
+    }
+
+    private List<String> submitJob(String... args) throws IOException {
+        try (var channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(jobServer.socketPath()));
+            var request = new StringBuilder();
+            for (String arg : args) {
+                request.append(arg).append('\n');
+            }
+            request.append('\n');
+            ByteBuffer buffer = UTF_8.encode(request.toString());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            var reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), UTF_8));
+            return reader.lines().toList();
+        }
+    }
+
+    private static String lastLine(Future<List<String>> reply) throws ExecutionException, InterruptedException {
+        return reply.get().getLast();
+    }
+
+}
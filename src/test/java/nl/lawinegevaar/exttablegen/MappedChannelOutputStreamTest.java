@@ -0,0 +1,80 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedChannelOutputStreamTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void write_mapsNextRegionWhenFull() throws IOException {
+        Path file = tempDir.resolve("out.dat");
+        try (var out = new MappedChannelOutputStream(FileChannel.open(file, CREATE_NEW, READ, WRITE), 4, false)) {
+            out.write("ABCDEFGHIJK".getBytes(US_ASCII));
+            assertEquals(12, Files.size(file), "expected file extended by mapped regions");
+
+            out.write('L');
+            out.write('M');
+            assertEquals(13, out.size());
+        }
+        assertEquals("ABCDEFGHIJKLM", Files.readString(file, US_ASCII));
+    }
+
+    @Test
+    void reserve_continuesInNextRegionWithoutGap() throws IOException {
+        Path file = tempDir.resolve("out.dat");
+        try (var out = new MappedChannelOutputStream(FileChannel.open(file, CREATE_NEW, READ, WRITE), 4, true)) {
+            out.write("AB".getBytes(US_ASCII));
+            out.reserve(4).put("CDEF".getBytes(US_ASCII));
+            out.reserve(2).put("GH".getBytes(US_ASCII));
+            out.write('I');
+        }
+        assertEquals("ABCDEFGHI", Files.readString(file, US_ASCII));
+    }
+
+    @Test
+    void reserve_moreThanRegionSize_throwsIllegalArgumentException() throws IOException {
+        try (var out = new MappedChannelOutputStream(
+                FileChannel.open(tempDir.resolve("out.dat"), CREATE_NEW, READ, WRITE), 4, false)) {
+            assertEquals(4, out.maxReserveSize());
+            assertThrows(IllegalArgumentException.class, () -> out.reserve(5));
+        }
+    }
+
+    @Test
+    void close_withoutData_leavesEmptyFile() throws IOException {
+        Path file = tempDir.resolve("out.dat");
+        new MappedChannelOutputStream(FileChannel.open(file, CREATE_NEW, READ, WRITE), 4, false).close();
+
+        assertEquals(0, Files.size(file));
+    }
+
+    @Test
+    void close_closesChannel() throws IOException {
+        FileChannel channel = FileChannel.open(tempDir.resolve("out.dat"), CREATE_NEW, READ, WRITE);
+        var out = new MappedChannelOutputStream(channel, 4, false);
+
+        out.close();
+
+        assertFalse(channel.isOpen(), "expected channel to be closed");
+        assertThrows(IOException.class, () -> out.write('A'));
+    }
+
+}
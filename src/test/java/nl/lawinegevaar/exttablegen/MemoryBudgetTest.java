@@ -0,0 +1,93 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MemoryBudgetTest {
+
+    private static final long MIB = 1024 * 1024;
+
+    @ParameterizedTest
+    @CsvSource(useHeadersInDisplayName = true, textBlock = """
+            VALUE,        BYTES
+            67108864,     67108864
+            65536k,       67108864
+            64m,          67108864
+            64M,          67108864
+            64MiB,        67108864
+            64 MB,        67108864
+            1g,           1073741824
+            4194304b,     4194304
+            """)
+    void parse(String value, long expectedBytes) {
+        assertEquals(expectedBytes, MemoryBudget.parse(value).bytes());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "m", "64t", "-64m", "64.5m", "1m", "99999999999999999g" })
+    void parse_invalidOrTooSmall_throwsIllegalArgumentException(String value) {
+        assertThrows(IllegalArgumentException.class, () -> MemoryBudget.parse(value));
+    }
+
+    @Test
+    void smallBudget_limitsBuffersAndRecords() {
+        var budget = new MemoryBudget(4 * MIB);
+
+        assertEquals(1, budget.maxConcurrency());
+        assertEquals(128 * 1024, budget.writeBufferSize());
+        int maxRecordLength = budget.maxRecordLength();
+        assertEquals((4 * MIB - MemoryBudget.READ_BUFFER_RESERVE) / 4 / MemoryBudget.BYTES_PER_RECORD_CHAR,
+                maxRecordLength);
+        assertEquals(maxRecordLength, budget.maxFieldLength());
+    }
+
+    @Test
+    void largeBudget_usesDefaults() {
+        var budget = new MemoryBudget(64L * 1024 * MIB);
+
+        assertEquals(Runtime.getRuntime().availableProcessors(), budget.maxConcurrency());
+        assertEquals(WriteConfig.DEFAULT_BUFFER_SIZE, budget.writeBufferSize());
+        assertEquals(MemoryBudget.MAX_RECORD_LENGTH, budget.maxRecordLength());
+        assertEquals(MemoryBudget.MAX_FIELD_LENGTH, budget.maxFieldLength());
+    }
+
+    @Test
+    void applyTo_writeConfig_keepsOtherSettings() {
+        var budget = new MemoryBudget(4 * MIB);
+        WriteConfig writeConfig = WriteConfig.defaults()
+                .withGatheringWrites(true)
+                .withForcePolicy(WriteConfig.ForcePolicy.DATA);
+
+        assertEquals(writeConfig.withBuffers(budget.writeBufferSize(), budget.writeBufferCount())
+                .withMaxConcurrency(1), budget.applyTo(writeConfig));
+    }
+
+    @Test
+    void divide_doesNotGoBelowMinimum() {
+        var budget = new MemoryBudget(64 * MIB);
+
+        assertEquals(16 * MIB, budget.divide(4).bytes());
+        assertEquals(MemoryBudget.MIN_BYTES, budget.divide(100).bytes());
+    }
+
+    @Test
+    void budgetOfAllConcurrentFiles_coversWriteBuffersAndRecords() {
+        var budget = new MemoryBudget(512 * MIB);
+        long perFile = (long) budget.writeBufferSize() * budget.writeBufferCount()
+                + MemoryBudget.READ_BUFFER_RESERVE
+                + (long) budget.maxRecordLength() * MemoryBudget.BYTES_PER_RECORD_CHAR;
+
+        assertTrue(perFile * budget.maxConcurrency() <= budget.bytes(),
+                () -> "expected buffers of %d concurrent files within budget, was: %d bytes per file"
+                        .formatted(budget.maxConcurrency(), perFile));
+    }
+
+}
@@ -0,0 +1,117 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import com.opencsv.exceptions.CsvValidationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RejectSinkTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void rejectedRows_writtenToRejectFile() throws Exception {
+        Path rejectFile = tempDir.resolve("rejects.csv");
+        try (var rejectSink = RejectSink.open(new RejectConfig(rejectFile, new ErrorBudget.Count(10)), false)) {
+            RejectSink.Source source = rejectSink.source("input.csv");
+            source.onRow(new Row(2, List.of("1", "A")));
+            source.onRow(new Row(3, List.of("X", "B")));
+            assertInstanceOf(ProcessingResult.Continue.class,
+                    source.reject(new Row(3, List.of("X", "B")), new NumberFormatException("For input string: \"X\"")));
+            var validationException = new CsvValidationException("Invalid column count");
+            validationException.setLine(new String[] { "3", "C", "EXTRA" });
+            validationException.setLineNumber(4);
+            assertInstanceOf(ProcessingResult.Continue.class, source.onException(validationException));
+
+            assertEquals(2, rejectSink.errors(), "errors");
+            assertEquals(3, rejectSink.rowsRead(), "rowsRead");
+            rejectSink.complete();
+        }
+
+        assertEquals("""
+                source,line,reason
+                input.csv,3,"NumberFormatException: For input string: ""X""\",X,B
+                input.csv,4,Invalid column count,3,C,EXTRA
+                """, Files.readString(rejectFile, UTF_8).replace("\r\n", "\n"));
+    }
+
+    @Test
+    void append_doesNotRepeatHeader() throws Exception {
+        Path rejectFile = tempDir.resolve("rejects.csv");
+        var rejectConfig = new RejectConfig(rejectFile, new ErrorBudget.Count(10));
+        try (var rejectSink = RejectSink.open(rejectConfig, false)) {
+            rejectSink.reject("input.csv", 1, List.of("A"), new IllegalArgumentException("first"));
+        }
+        try (var rejectSink = RejectSink.open(rejectConfig, true)) {
+            rejectSink.reject("input.csv", 2, List.of("B"), new IllegalArgumentException("second"));
+        }
+
+        assertEquals("""
+                source,line,reason
+                input.csv,1,IllegalArgumentException: first,A
+                input.csv,2,IllegalArgumentException: second,B
+                """, Files.readString(rejectFile, UTF_8).replace("\r\n", "\n"));
+    }
+
+    @Test
+    void countBudgetExceeded_stopsWithErrorBudgetExceededException() throws Exception {
+        try (var rejectSink = RejectSink.open(new RejectConfig(null, new ErrorBudget.Count(1)), false)) {
+            var reason = new IllegalArgumentException("bad");
+            assertInstanceOf(ProcessingResult.Continue.class, rejectSink.reject("input.csv", 1, List.of(), reason));
+            var stop = assertInstanceOf(ProcessingResult.StopWithException.class,
+                    rejectSink.reject("input.csv", 2, List.of(), reason));
+            assertInstanceOf(ErrorBudgetExceededException.class, stop.exception());
+        }
+    }
+
+    @Test
+    void percentageBudgetExceeded_throwsOnComplete() throws Exception {
+        try (var rejectSink = RejectSink.open(new RejectConfig(null, new ErrorBudget.Percentage(10)), false)) {
+            RejectSink.Source source = rejectSink.source("input.csv");
+            for (int line = 1; line <= 5; line++) {
+                Row row = new Row(line, List.of("value"));
+                source.onRow(row);
+                if (line % 2 == 0) {
+                    assertInstanceOf(ProcessingResult.Continue.class,
+                            source.reject(row, new IllegalArgumentException("bad")));
+                }
+            }
+            assertEquals(5, rejectSink.rowsRead(), "rowsRead");
+
+            assertThrows(ErrorBudgetExceededException.class, rejectSink::complete);
+        }
+    }
+
+    @Test
+    void percentageBudgetExceeded_stopsAfterMinimumRows() throws Exception {
+        try (var rejectSink = RejectSink.open(new RejectConfig(null, new ErrorBudget.Percentage(10)), false)) {
+            RejectSink.Source source = rejectSink.source("input.csv");
+            ProcessingResult result = ProcessingResult.continueProcessing();
+            int line = 0;
+            while (result instanceof ProcessingResult.Continue) {
+                Row row = new Row(++line, List.of("value"));
+                source.onRow(row);
+                // 20% of the rows are rejected
+                if (line % 5 == 0) {
+                    result = source.reject(row, new IllegalArgumentException("bad"));
+                }
+            }
+
+            var stop = assertInstanceOf(ProcessingResult.StopWithException.class, result);
+            assertInstanceOf(ErrorBudgetExceededException.class, stop.exception());
+            assertEquals(ErrorBudget.Percentage.MIN_ROWS_WHILE_READING, rejectSink.rowsRead(), "rowsRead");
+        }
+    }
+
+}
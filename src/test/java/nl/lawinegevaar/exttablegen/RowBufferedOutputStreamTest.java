@@ -0,0 +1,62 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RowBufferedOutputStreamTest {
+
+    @Test
+    void discardRow_removesRowFromBuffer() throws IOException {
+        var target = new ByteArrayOutputStream();
+        try (var out = new RowBufferedOutputStream(target, 16, 3)) {
+            out.startRow();
+            out.write("ABC".getBytes(US_ASCII));
+            out.startRow();
+            out.write('D');
+            out.write('E');
+            out.discardRow();
+            out.startRow();
+            out.write("FGH".getBytes(US_ASCII));
+        }
+        assertEquals("ABCFGH", target.toString(US_ASCII));
+    }
+
+    @Test
+    void startRow_writesBufferIfNoRoomForRow() throws IOException {
+        var target = new ByteArrayOutputStream();
+        try (var out = new RowBufferedOutputStream(target, 8, 3)) {
+            out.startRow();
+            out.write("ABC".getBytes(US_ASCII));
+            out.startRow();
+            out.write("DEF".getBytes(US_ASCII));
+            assertEquals(0, target.size(), "expected rows to be buffered");
+
+            out.startRow();
+            assertEquals("ABCDEF", target.toString(US_ASCII), "expected buffer to be written for next row");
+            out.write("GH".getBytes(US_ASCII));
+            out.discardRow();
+        }
+        assertEquals("ABCDEF", target.toString(US_ASCII));
+    }
+
+    @Test
+    void bufferSmallerThanRow_rowIsStillBuffered() throws IOException {
+        var target = new ByteArrayOutputStream();
+        try (var out = new RowBufferedOutputStream(target, 1, 4)) {
+            out.startRow();
+            out.write("ABCD".getBytes(US_ASCII));
+            out.startRow();
+            out.write("EFG".getBytes(US_ASCII));
+            out.discardRow();
+        }
+        assertEquals("ABCD", target.toString(US_ASCII));
+    }
+
+}
@@ -0,0 +1,170 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static nl.lawinegevaar.exttablegen.ColumnFixtures.col;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SplitOutputResourceTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @ParameterizedTest
+    @CsvSource(useHeadersInDisplayName = true, textBlock = """
+            basePath,       sequence, expectedPath
+            table.dat,      1,        table-0001.dat
+            table.dat,      12,       table-0012.dat
+            table,          2,        table-0002
+            table.part.dat, 3,        table.part-0003.dat
+            .table,         4,        .table-0004
+            """)
+    void splitFilePath(String basePath, int sequence, String expectedPath) {
+        assertEquals(tempDir.resolve(expectedPath),
+                SplitOutputResource.splitFilePath(tempDir.resolve(basePath), sequence));
+    }
+
+    @Test
+    void newOutputStream_splitsAtMaxBytesPerFile() throws IOException {
+        var outputResource = new SplitOutputResource(tempDir.resolve("table.dat"), false, 4);
+
+        try (var out = outputResource.newOutputStream()) {
+            out.write("ABCDEF".getBytes(US_ASCII));
+            out.write('G');
+            out.write('H');
+            out.write("IJ".getBytes(US_ASCII));
+        }
+
+        List<Path> expectedFiles = List.of(tempDir.resolve("table-0001.dat"), tempDir.resolve("table-0002.dat"),
+                tempDir.resolve("table-0003.dat"));
+        assertEquals(expectedFiles, outputResource.files());
+        assertEquals("ABCD", Files.readString(expectedFiles.get(0), US_ASCII));
+        assertEquals("EFGH", Files.readString(expectedFiles.get(1), US_ASCII));
+        assertEquals("IJ", Files.readString(expectedFiles.get(2), US_ASCII));
+    }
+
+    @Test
+    void newOutputStream_noData_createsEmptyFirstFile() throws IOException {
+        var outputResource = new SplitOutputResource(tempDir.resolve("table.dat"), false, 4);
+
+        outputResource.newOutputStream().close();
+
+        assertEquals(List.of(tempDir.resolve("table-0001.dat")), outputResource.files());
+        assertEquals(0, Files.size(tempDir.resolve("table-0001.dat")));
+    }
+
+    @Test
+    void newOutputStream_fileExists_disallowOverwrite_throwsFileAlreadyExistsException() throws IOException {
+        Files.writeString(tempDir.resolve("table-0002.dat"), "ORIGINAL CONTENT");
+        var outputResource = new SplitOutputResource(tempDir.resolve("table.dat"), false, 4);
+
+        try (var out = outputResource.newOutputStream()) {
+            out.write("ABCD".getBytes(US_ASCII));
+            assertThrows(FileAlreadyExistsException.class, () -> out.write('E'));
+        }
+        assertEquals("ORIGINAL CONTENT", Files.readString(tempDir.resolve("table-0002.dat")));
+    }
+
+    @Test
+    void newOutputStream_allowOverwrite_fewerFiles_deletesStaleFiles() throws IOException {
+        var outputResource = new SplitOutputResource(tempDir.resolve("table.dat"), true, 4);
+        try (var out = outputResource.newOutputStream()) {
+            out.write("ABCDEFGHIJ".getBytes(US_ASCII));
+        }
+        assertEquals(3, outputResource.files().size(), "number of files of first run");
+        Path staleManifest = TableManifest.manifestFilePath(tempDir.resolve("table-0003.dat"));
+        Files.writeString(staleManifest, "STALE");
+
+        try (var out = outputResource.newOutputStream()) {
+            out.write("KLMNOP".getBytes(US_ASCII));
+        }
+
+        List<Path> expectedFiles = List.of(tempDir.resolve("table-0001.dat"), tempDir.resolve("table-0002.dat"));
+        assertEquals(expectedFiles, outputResource.files());
+        assertEquals("KLMN", Files.readString(expectedFiles.get(0), US_ASCII));
+        assertEquals("OP", Files.readString(expectedFiles.get(1), US_ASCII));
+        assertFalse(Files.exists(tempDir.resolve("table-0003.dat")), "expected stale split file to be deleted");
+        assertFalse(Files.exists(staleManifest), "expected manifest of stale split file to be deleted");
+    }
+
+    @Test
+    void externalTableWriter_splitsOnRowBoundaries() throws IOException {
+        var columns = List.of(col("COL1", 2), col("COL2", 3));
+        var baseTable = new ExternalTable("TEST", columns, OutputResource.nullOutputResource(), ByteOrderType.AUTO);
+        int rowLength = baseTable.rowLength();
+        TableFile tableFile = new TableFile(tempDir.resolve("table.dat"), false).withMaxRows(2);
+        var outputResource = assertInstanceOf(SplitOutputResource.class, tableFile.toOutputResource(rowLength));
+
+        try (var writer = new ExternalTableWriter(baseTable.withOutputResource(outputResource))) {
+            writer.onHeader(Row.noHeader());
+            for (int rowIdx = 1; rowIdx <= 5; rowIdx++) {
+                writer.onRow(new Row(rowIdx, List.of(String.valueOf(rowIdx), "R" + rowIdx)));
+            }
+        }
+
+        List<Path> files = outputResource.files();
+        assertEquals(3, files.size(), "number of files");
+        assertEquals("1 R1 2 R2 ", Files.readString(files.get(0), US_ASCII));
+        assertEquals("3 R3 4 R4 ", Files.readString(files.get(1), US_ASCII));
+        assertEquals("5 R5 ", Files.readString(files.get(2), US_ASCII));
+    }
+
+    @Test
+    void externalTable_rowLength() {
+        var externalTable = new ExternalTable("TEST", List.of(col("COL1", 2), col("COL2", 3)),
+                OutputResource.nullOutputResource(), ByteOrderType.AUTO);
+
+        assertEquals(5, externalTable.rowLength());
+    }
+
+    @ParameterizedTest
+    @CsvSource(useHeadersInDisplayName = true, textBlock = """
+            maxRows, maxBytes, rowLength, expectedSplitBytes
+            2,       0,        5,         10
+            0,       12,       5,         10
+            0,       3,        5,         5
+            3,       12,       5,         10
+            1,       100,      5,         5
+            """)
+    void tableFile_splitBytes(long maxRows, long maxBytes, int rowLength, long expectedSplitBytes) {
+        var tableFile = new TableFile("table.dat", false, maxRows, maxBytes);
+
+        assertEquals(expectedSplitBytes, tableFile.splitBytes(rowLength));
+    }
+
+    @Test
+    void tableFile_negativeMaxRows_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new TableFile("table.dat", false, -1, 0));
+    }
+
+    @ParameterizedTest
+    @CsvSource(useHeadersInDisplayName = true, textBlock = """
+            name,        sequence, expectedName
+            PERSONS,     1,        PERSONS_0001
+            '"Persons"', 23,       '"Persons_0023"'
+            """)
+    void extTableGen_splitTableName(String name, int sequence, String expectedName) {
+        assertEquals(expectedName, ExtTableGen.splitTableName(name, sequence));
+    }
+
+    @Test
+    void extTableGen_splitDdlPath() {
+        assertEquals(tempDir.resolve("table.sql"), ExtTableGen.splitDdlPath(tempDir.resolve("table.dat")));
+    }
+
+}
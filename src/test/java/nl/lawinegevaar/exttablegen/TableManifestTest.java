@@ -0,0 +1,131 @@
+// SPDX-FileCopyrightText: Copyright 2026 Mark Rotteveel
+// SPDX-License-Identifier: Apache-2.0
+package nl.lawinegevaar.exttablegen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static nl.lawinegevaar.exttablegen.ColumnFixtures.col;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TableManifestTest {
+
+    private static final ExternalTable EXTERNAL_TABLE = new ExternalTable("TEST",
+            List.of(col("COL1", 2), col("COL2", 3)), null, ByteOrderType.BIG_ENDIAN);
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void writeAndRead() throws IOException {
+        Path manifestFile = TableManifest.manifestFilePath(tempDir.resolve("table.dat"));
+        assertEquals(tempDir.resolve("table.dat.manifest"), manifestFile);
+        assertEquals(Optional.empty(), TableManifest.read(manifestFile), "manifest file does not exist");
+
+        var manifest = new TableManifest(5, 2, ByteOrderType.BIG_ENDIAN,
+                List.of("\"COL1\" char(2) character set ISO8859_1", "\"COL2\" char(3) character set ISO8859_1"),
+                0xF1E2D3C4L);
+        manifest.write(manifestFile);
+
+        assertEquals(Optional.of(manifest), TableManifest.read(manifestFile));
+    }
+
+    @Test
+    void read_invalidFile_throwsIOException() throws IOException {
+        Path manifestFile = tempDir.resolve("table.dat.manifest");
+        Files.writeString(manifestFile, "rowLength=5\nrowCount=2\n");
+
+        assertThrows(IOException.class, () -> TableManifest.read(manifestFile));
+    }
+
+    @Test
+    void of_tableFile() throws IOException {
+        Path tableFile = tempDir.resolve("table.dat");
+        byte[] content = "1 R1 2 R2 ".getBytes(US_ASCII);
+        Files.write(tableFile, content);
+        var crc32c = new CRC32C();
+        crc32c.update(content);
+
+        TableManifest manifest = TableManifest.of(EXTERNAL_TABLE, tableFile);
+
+        assertEquals(new TableManifest(5, 2, ByteOrderType.BIG_ENDIAN,
+                        List.of("\"COL1\" char(2) character set ISO8859_1", "\"COL2\" char(3) character set ISO8859_1"),
+                        crc32c.getValue()),
+                manifest);
+        assertEquals(List.of(), manifest.verify(tableFile), "expected no differences");
+        assertEquals(List.of(), manifest.compareLayout(EXTERNAL_TABLE), "expected no layout differences");
+    }
+
+    @Test
+    void verify_truncatedOrCorruptedFile_reportsDifferences() throws IOException {
+        Path tableFile = tempDir.resolve("table.dat");
+        Files.writeString(tableFile, "1 R1 2 R2 ", US_ASCII);
+        TableManifest manifest = TableManifest.of(EXTERNAL_TABLE, tableFile);
+
+        Files.writeString(tableFile, "1 R1 2 R3 ", US_ASCII);
+        List<String> corrupted = manifest.verify(tableFile);
+        assertEquals(1, corrupted.size(), "expected checksum difference");
+        assertTrue(corrupted.get(0).startsWith("checksum is "), corrupted.get(0));
+
+        Files.writeString(tableFile, "1 R1 ", US_ASCII);
+        List<String> truncated = manifest.verify(tableFile);
+        assertEquals(2, truncated.size(), "expected length and checksum difference");
+        assertEquals("length is 5 bytes, expected 10 bytes (2 rows of 5 bytes)", truncated.get(0));
+    }
+
+    @Test
+    void compareLayout_differentTableDefinition_reportsDifferences() throws IOException {
+        Path tableFile = tempDir.resolve("table.dat");
+        Files.writeString(tableFile, "1 R1 2 R2 ", US_ASCII);
+        TableManifest manifest = TableManifest.of(EXTERNAL_TABLE, tableFile);
+
+        List<String> differences = manifest.compareLayout(new ExternalTable("TEST",
+                List.of(col("COL1", 2), col("COL2", 4)), null, ByteOrderType.LITTLE_ENDIAN));
+
+        assertEquals(3, differences.size(), "expected row length, byte order and columns difference");
+    }
+
+    @Test
+    void extTableGen_writeExternalTable_writesManifestVerifiedByVerifyExternalTable() throws IOException {
+        Path csvFile = tempDir.resolve("input.csv");
+        Files.writeString(csvFile, "COL1,COL2\n1,R1\n2,R2\n", UTF_8);
+        Path tableFile = tempDir.resolve("table.dat");
+        var etgConfig = new EtgConfig(
+                TableConfig.of(EXTERNAL_TABLE).withTableFile(new TableFile(tableFile, false)),
+                new TableDerivationConfig(null, EndColumn.Type.NONE, TableDerivationMode.NEVER),
+                new CsvFileConfig(csvFile, UTF_8, true, CsvParserConfig.of()));
+
+        ExtTableGen.of(etgConfig).writeExternalTable(WriteTableOptions.defaults());
+
+        TableManifest manifest = TableManifest.read(TableManifest.manifestFilePath(tableFile)).orElseThrow();
+        assertEquals(TableManifest.of(EXTERNAL_TABLE, tableFile), manifest,
+                "expected streaming checksum to match checksum of file");
+        ExtTableGen.verifyExternalTable(etgConfig);
+
+        Files.writeString(tableFile, "1 R1 2 R3 ", US_ASCII);
+        assertThrows(TableVerificationException.class, () -> ExtTableGen.verifyExternalTable(etgConfig));
+    }
+
+    @Test
+    void extTableGen_verifyExternalTable_noManifest_throwsTableVerificationException() throws IOException {
+        Path tableFile = tempDir.resolve("table.dat");
+        Files.writeString(tableFile, "1 R1 2 R2 ", US_ASCII);
+        var etgConfig = new EtgConfig(
+                TableConfig.of(EXTERNAL_TABLE).withTableFile(new TableFile(tableFile, false)),
+                new TableDerivationConfig(null, null, TableDerivationMode.NEVER), (CsvFileConfig) null);
+
+        assertThrows(TableVerificationException.class, () -> ExtTableGen.verifyExternalTable(etgConfig));
+    }
+
+}
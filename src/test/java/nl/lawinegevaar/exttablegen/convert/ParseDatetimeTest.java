@@ -1,4 +1,4 @@
-// SPDX-FileCopyrightText: Copyright 2023-2024 Mark Rotteveel
+// SPDX-FileCopyrightText: Copyright 2023-2026 Mark Rotteveel
 // SPDX-License-Identifier: Apache-2.0
 package nl.lawinegevaar.exttablegen.convert;
 
@@ -18,6 +18,7 @@ import static com.spotify.hamcrest.optional.OptionalMatchers.optionalWithValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ParseDatetimeTest {
 
@@ -26,6 +27,20 @@ class ParseDatetimeTest {
         assertThrows(IllegalArgumentException.class, () -> new ParseDatetime("INVALID", null));
     }
 
+    @Test
+    void formatterCache_isBounded() {
+        for (int idx = 0; idx < 2 * ParseDatetime.MAX_CACHED_FORMATTERS; idx++) {
+            // a distinct pattern per iteration, by quoting the index as literal text
+            var parseDatetime = new ParseDatetime("yyyy-MM-dd'" + idx + "'", null);
+
+            assertEquals(LocalDate.of(2026, 10, 19), LocalDate.from(parseDatetime.convert("2026-10-19" + idx)));
+        }
+
+        int count = ParseDatetime.cachedFormatterCount();
+        assertTrue(count <= ParseDatetime.MAX_CACHED_FORMATTERS, "expected at most %d cached formatters, was %d"
+                .formatted(ParseDatetime.MAX_CACHED_FORMATTERS, count));
+    }
+
     @Test
     void testDefaultDateInstance() {
         String input = "2021-12-13";
@@ -13,6 +13,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -32,6 +33,7 @@ class FbVarcharTest {
             5,      UTF8,         5,           15
             5,      UTF8,         2,           18
             5,      UTF8,         0,           20
+            300,    UTF8,         2,           1198
             """)
     void testWriteValue(int length, String encodingName, int valueLength, int expectedPadding) throws Exception {
         var fbEncoding = FbEncoding.forName(encodingName);
@@ -56,6 +58,30 @@ class FbVarcharTest {
         }
     }
 
+    @ParameterizedTest
+    @CsvSource(useHeadersInDisplayName = true, textBlock = """
+            length, value,                                      expectedValue
+            3,      abc,                                        abc
+            3,      abcdefgh,                                   abc
+            3,      a\uD83D\uDE00b,                              a\uD83D\uDE00b
+            3,      a\uD83D\uDE00b\uD83D\uDE00,                  a\uD83D\uDE00b
+            3,      \uD83D\uDE00\uD83D\uDE00\uD83D\uDE00\uD83D\uDE00, \uD83D\uDE00\uD83D\uDE00\uD83D\uDE00
+            2,      ab\uD83D\uDE00,                              ab
+            """)
+    void testWriteValue_truncatesToLengthInCodePoints(int length, String value, String expectedValue)
+            throws Exception {
+        var instance = new FbVarchar(length, FbEncoding.UTF8);
+        final byte[] expectedBytes = expectedValue.getBytes(StandardCharsets.UTF_8);
+
+        byte[] writtenBytes = writeAndGetBytes(value, instance);
+
+        var buf = ByteBuffer.wrap(writtenBytes).order(ByteOrder.nativeOrder());
+        assertEquals(expectedBytes.length, buf.getShort(), "Unexpected actual value length");
+        byte[] valueBytes = new byte[expectedBytes.length];
+        buf.get(valueBytes);
+        assertArrayEquals(expectedBytes, valueBytes, "Expected value and actual value do not match");
+    }
+
     private byte[] writeAndGetBytes(String value, FbVarchar varchar) throws IOException {
         var baos = new ByteArrayOutputStream(varchar.maxByteLength() + 2);
         varchar.writeValue(value, EncoderOutputStream.of(ByteOrderType.AUTO).withColumnCount(1).writeTo(baos));